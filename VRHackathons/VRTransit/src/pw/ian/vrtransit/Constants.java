@@ -2,6 +2,36 @@ package pw.ian.vrtransit;
 
 public class Constants {
 	public static final int MAX_OBJECTS = 1000;
+
+	public static final int MAX_UPDATES_PER_FRAME = 200;
+
+	public static final long STALE_VEHICLE_MILLIS = 5 * 60 * 1000;
+
+	public static final float MOTION_SECONDS = 1.0f;
+
+	public static final String RECORDED_FEED_ASSET = "feed.vrtl";
+
+	public static final float REPLAY_SPEED = 1f;
+
+	public static final boolean RECORD_FEED = false;
+	
+	public static final double MIN_LAT = 37.702100;
+
+	public static final double MAX_LAT = 37.814604;
+
+	public static final double MIN_LON = -122.553643;
+
+	public static final double MAX_LON = -122.35528;
+
+	public static final float MAP_EXTENT = 5f;
+
+	public static final boolean MERCATOR = false;
+
+	public static final int MAX_TILE_LEVEL = 4;
+
+	public static final int TILE_BUDGET = 24;
+
+	public static final int TILE_LOADS_PER_FRAME = 1;
 	
 	public static final float ZOOM_FACTOR = 0.9f;
 	
@@ -0,0 +1,90 @@
+package pw.ian.vrtransit;
+
+/**
+ * Projects latitude/longitude onto the map plane.
+ * 
+ * The affine part of the transform is computed once from the map bounds, so
+ * projecting a coordinate is a multiply and an add. Latitude runs along the
+ * X axis and longitude along the Y axis, matching the orientation of the
+ * map. With Web-Mercator enabled the latitude is projected before the
+ * affine transform, so positions line up with Mercator map tiles.
+ */
+public class GeoProjection {
+	private final boolean mercator;
+
+	private final double scaleX;
+
+	private final double offsetX;
+
+	private final double scaleY;
+
+	private final double offsetY;
+
+	/**
+	 * @param minLat
+	 *            latitude at one edge of the map
+	 * @param maxLat
+	 *            latitude at the opposite edge
+	 * @param minLon
+	 *            longitude at one edge of the map
+	 * @param maxLon
+	 *            longitude at the opposite edge
+	 * @param extent
+	 *            half the size of the map in scene units
+	 * @param margin
+	 *            fraction of the extent the bounds are mapped to
+	 * @param mercator
+	 *            true to use the Web-Mercator projection
+	 */
+	public GeoProjection(double minLat, double maxLat, double minLon,
+			double maxLon, float extent, float margin, boolean mercator) {
+		this.mercator = mercator;
+
+		double lat0 = projectLat(Math.min(minLat, maxLat));
+		double lat1 = projectLat(Math.max(minLat, maxLat));
+		scaleX = 2 * extent * margin / (lat1 - lat0);
+		offsetX = -extent * margin - lat0 * scaleX;
+
+		double lon0 = Math.min(minLon, maxLon);
+		double lon1 = Math.max(minLon, maxLon);
+		scaleY = 2 * extent * margin / (lon1 - lon0);
+		offsetY = -extent * margin - lon0 * scaleY;
+	}
+
+	public float toX(double lat) {
+		return (float) (projectLat(lat) * scaleX + offsetX);
+	}
+
+	public float toY(double lon) {
+		return (float) (lon * scaleY + offsetY);
+	}
+
+	public double toLat(float x) {
+		double lat = (x - offsetX) / scaleX;
+		if (mercator) {
+			lat = Math.toDegrees(2 * Math.atan(Math.exp(Math.toRadians(lat)))
+					- Math.PI / 2);
+		}
+		return lat;
+	}
+
+	public double toLon(float y) {
+		return (y - offsetY) / scaleY;
+	}
+
+	public boolean isMercator() {
+		return mercator;
+	}
+
+	/**
+	 * Applies the Mercator projection to a latitude, keeping the result in
+	 * degrees so the affine scale stays comparable to longitude.
+	 */
+	private double projectLat(double lat) {
+		if (!mercator) {
+			return lat;
+		}
+		double phi = Math.toRadians(lat);
+		return Math.toDegrees(Math.log(Math.tan(Math.PI / 4 + phi / 2)));
+	}
+}
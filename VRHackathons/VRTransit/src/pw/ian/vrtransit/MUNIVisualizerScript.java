@@ -1,12 +1,12 @@
 package pw.ian.vrtransit;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Queue;
 
 import org.gearvrf.GVRAndroidResource;
 import org.gearvrf.GVRBitmapTexture;
@@ -17,12 +17,17 @@ import org.gearvrf.GVRScene;
 import org.gearvrf.GVRSceneObject;
 import org.gearvrf.GVRScript;
 import org.gearvrf.GVRTexture;
+import org.gearvrf.GVRTransform;
 import org.gearvrf.animation.GVRAnimation;
 import org.gearvrf.animation.GVRRelativeMotionAnimation;
 import org.gearvrf.scene_objects.GVRTextViewSceneObject;
 
 import pw.ian.vrtransit.data.BusUpdate;
+import pw.ian.vrtransit.data.FirebaseTransitFeed;
+import pw.ian.vrtransit.data.RecordedTransitFeed;
+import pw.ian.vrtransit.data.RecordingTransitFeed;
 import pw.ian.vrtransit.data.TransitDataAccessor;
+import pw.ian.vrtransit.data.TransitFeed;
 import android.graphics.Color;
 import android.util.Log;
 
@@ -46,7 +51,22 @@ public class MUNIVisualizerScript extends GVRScript {
 
 	private GVRSceneObject map;
 
-	private Map<String, GVRSceneObject> vehicles = new HashMap<>();
+	private MapTiles mapTiles;
+
+	private GeoProjection projection = new GeoProjection(Constants.MIN_LAT,
+			Constants.MAX_LAT, Constants.MIN_LON, Constants.MAX_LON,
+			Constants.MAP_EXTENT, 0.8f, Constants.MERCATOR);
+
+	private VehicleIndex vehicles = new VehicleIndex(Constants.MAX_OBJECTS);
+
+	private List<BusUpdate> updates = new ArrayList<>();
+
+	private VehicleMotion motion = new VehicleMotion(Constants.MAX_OBJECTS,
+			Constants.MOTION_SECONDS);
+
+	private int[] moved = new int[Constants.MAX_OBJECTS];
+
+	private long lastStepTime = 0;
 
 	public MUNIVisualizerScript(MainActivity core) {
 		this.core = core;
@@ -84,42 +104,42 @@ public class MUNIVisualizerScript extends GVRScript {
 		root = new GVRSceneObject(ctx);
 		scene.addSceneObject(root);
 
-		map = new GVRSceneObject(ctx, 10f, 10f, mapTex);
+		map = new GVRSceneObject(ctx, 2 * Constants.MAP_EXTENT,
+				2 * Constants.MAP_EXTENT, mapTex);
 		map.getTransform().setPosition(0f, 0f, -5f);
 		root.addChildObject(map);
 
+		mapTiles = new MapTiles(ctx, core.getAssets(), root,
+				2 * Constants.MAP_EXTENT, -5f, Constants.MAX_TILE_LEVEL,
+				Constants.TILE_BUDGET, Constants.TILE_LOADS_PER_FRAME);
+
 		initBusObjectPool(Constants.MAX_OBJECTS);
 		initVehicles();
 	}
 
 	@Override
 	public void onStep() {
-		List<BusUpdate> bs = tda.nextUpdates();
-		for (BusUpdate bu : bs) {
+		updates.clear();
+		tda.nextUpdates(updates, Constants.MAX_UPDATES_PER_FRAME);
+		long now = System.currentTimeMillis();
+		for (BusUpdate bu : updates) {
 			if (bu.getRoute().equals("25"))
 				continue;
-			if (vehicles.containsKey(bu.getId())) {
+			int slot = vehicles.get(bu.getId());
+			if (slot >= 0) {
 
 				if (bu.remove) {
-					GVRSceneObject bus = vehicles.remove(bu.getId());
+					vehicles.release(slot);
+					resetBus(slot);
 				} else {
-					GVRSceneObject bus = vehicles.get(bu.getId());
-					smoothSetBusPos(bus, bu.getLat(), bu.getLon());
+					vehicles.touch(slot, now);
+					smoothSetBusPos(slot, bu.getLat(), bu.getLon());
 				}
 
-			} else {
-				GVRSceneObject bus = setBusPos(nextBus(), bu.getLat(),
-						bu.getLon());
-				if (vehicles.containsValue(bus)) {
-					String key = null;
-					for (Entry<String, GVRSceneObject> e : vehicles.entrySet()) {
-						if (e.getValue().equals(bus)) {
-							key = e.getKey();
-							break;
-						}
-					}
-					vehicles.remove(key);
-				}
+			} else if (!bu.remove) {
+				// evicts the least recently updated vehicle if the pool is full
+				slot = vehicles.acquire(bu.getId(), now);
+				GVRSceneObject bus = setBusPos(slot, bu.getLat(), bu.getLon());
 				if (bu.getType().equals("train")) {
 					bus.getTransform().setScale(0.15f, 0.05f, 0.05f);
 					bus.getRenderData().getMaterial().setMainTexture(trainTex);
@@ -127,16 +147,44 @@ public class MUNIVisualizerScript extends GVRScript {
 					bus.getTransform().setScale(0.05f, 0.05f, 0.05f);
 					bus.getRenderData().getMaterial().setMainTexture(busTex);
 				}
-				vehicles.put(bu.getId(), bus);
 			}
 		}
+
+		int slot;
+		while ((slot = vehicles.releaseStale(now - Constants.STALE_VEHICLE_MILLIS)) >= 0) {
+			resetBus(slot);
+		}
+
+		stepMotion();
+
+		GVRTransform cam = mCtx.getMainScene().getMainCameraRig()
+				.getTransform();
+		mapTiles.update(cam.getPositionX(), cam.getPositionY(),
+				cam.getPositionZ());
 	}
 
-	private Queue<GVRSceneObject> busPool = new LinkedList<>();
+	/**
+	 * Moves all vehicles which are interpolating towards a new position.
+	 */
+	private void stepMotion() {
+		long time = System.nanoTime();
+		float dt = lastStepTime == 0 ? 0f : (time - lastStepTime) / 1e9f;
+		lastStepTime = time;
+
+		int count = motion.step(dt, moved);
+		for (int i = 0; i < count; i++) {
+			int slot = moved[i];
+			busPool[slot].getTransform().setPosition(motion.getX(slot),
+					motion.getY(slot), -5f);
+		}
+	}
+
+	private GVRSceneObject[] busPool;
 
 	private void initBusObjectPool(int amt) {
+		busPool = new GVRSceneObject[amt];
 		for (int i = 0; i < amt; i++) {
-			busPool.add(resetPos(constructBus(mCtx)));
+			busPool[i] = resetPos(constructBus(mCtx));
 		}
 	}
 
@@ -145,10 +193,9 @@ public class MUNIVisualizerScript extends GVRScript {
 		return bus;
 	}
 
-	private GVRSceneObject nextBus() {
-		GVRSceneObject bus = busPool.poll();
-		busPool.add(bus);
-		return bus;
+	private void resetBus(int slot) {
+		motion.stop(slot);
+		resetPos(busPool[slot]);
 	}
 
 	private GVRSceneObject constructBus(GVRContext ctx) {
@@ -157,60 +204,28 @@ public class MUNIVisualizerScript extends GVRScript {
 		return bus;
 	}
 
-	public GVRSceneObject smoothSetBusPos(GVRSceneObject bus, double lat,
-			double lon) {
+	public GVRSceneObject smoothSetBusPos(int slot, double lat, double lon) {
 
 		// 37.809607, -122.387515
 		// 37.734027, -122.514716
 
-		float dx = scaleCoordX((float) lat, 5f)
-				- bus.getTransform().getPositionX();
-		float dy = scaleCoordY((float) lon, 5f)
-				- bus.getTransform().getPositionY();
-
-		GVRAnimation anim = new GVRRelativeMotionAnimation(bus, 1.0f, dx, dy,
-				0f);
-		anim.start(mCtx.getAnimationEngine());
-		return bus;
+		motion.moveTo(slot, projection.toX(lat), projection.toY(lon));
+		return busPool[slot];
 	}
 
-	public GVRSceneObject setBusPos(GVRSceneObject bus, double lat, double lon) {
+	public GVRSceneObject setBusPos(int slot, double lat, double lon) {
 
 		// 37.809607, -122.387515
 		// 37.734027, -122.514716
 
-		lat = scaleCoordX((float) lat, 5f);
-		lon = scaleCoordY((float) lon, 5f);
-		bus.getTransform().setPosition((float) lat, (float) lon, -5f);
+		float x = projection.toX(lat);
+		float y = projection.toY(lon);
+		motion.place(slot, x, y);
+		GVRSceneObject bus = busPool[slot];
+		bus.getTransform().setPosition(x, y, -5f);
 		return bus;
 	}
 
-	/**
-	 * Scales a coordinate
-	 * 
-	 * @param min
-	 * @param max
-	 * @param val
-	 * @param extent
-	 * @return
-	 */
-	private float scaleCoord(float min, float max, float val, float extent) {
-		float fmin = Math.min(min, max);
-		float fmax = Math.max(min, max);
-
-		float diff = fmax - fmin;
-		float scale = (val - fmin) / diff;
-		return ((extent * 2 * scale) - extent) * 0.8f;
-	}
-
-	private float scaleCoordX(float val, float extent) {
-		return scaleCoord(37.702100f, 37.814604f, val, extent);
-	}
-
-	private float scaleCoordY(float val, float extent) {
-		return scaleCoord(-122.553643f, -122.35528f, val, extent);
-	}
-
 	boolean zoom = true;
 
 	float xc;
@@ -266,20 +281,71 @@ public class MUNIVisualizerScript extends GVRScript {
 
 	String type = "bus";
 
+	/**
+	 * Switches between buses and trains. Called from the UI thread, so the
+	 * switch is posted to the GL thread where the vehicles are stepped.
+	 */
 	public void handleLongPress() {
-		if (type.equals("bus")) {
-			type = "train";
-		} else {
-			type = "bus";
+		if (mCtx == null) {
+			return;
 		}
-		initVehicles();
+		mCtx.runOnGlThread(new Runnable() {
+			@Override
+			public void run() {
+				if (type.equals("bus")) {
+					type = "train";
+				} else {
+					type = "bus";
+				}
+				initVehicles();
+			}
+		});
 	}
 
 	public void initVehicles() {
-		for (Entry<String, GVRSceneObject> e : vehicles.entrySet()) {
-			resetPos(e.getValue());
+		for (int i = 0; i < busPool.length; i++) {
+			if (vehicles.getId(i) != null) {
+				resetBus(i);
+			}
 		}
 		vehicles.clear();
-		tda = new TransitDataAccessor(type);
+		if (tda != null) {
+			tda.close();
+		}
+		tda = new TransitDataAccessor(openFeed(), type);
+	}
+
+	/**
+	 * Replays the recorded feed if one is packaged in the assets, otherwise
+	 * connects to the live feed, recording it if {@link Constants#RECORD_FEED}
+	 * is set.
+	 */
+	private TransitFeed openFeed() {
+		try {
+			InputStream in = core.getAssets().open(Constants.RECORDED_FEED_ASSET);
+			Log.i("VRTransit", "Replaying " + Constants.RECORDED_FEED_ASSET
+					+ " at " + Constants.REPLAY_SPEED + "x");
+			return new RecordedTransitFeed(in, Constants.REPLAY_SPEED);
+		} catch (IOException e) {
+			TransitFeed live = new FirebaseTransitFeed();
+			return Constants.RECORD_FEED ? record(live) : live;
+		}
+	}
+
+	/**
+	 * Records a feed to a new file in the app's external files directory.
+	 */
+	private TransitFeed record(TransitFeed feed) {
+		File file = new File(core.getExternalFilesDir(null), "feed-"
+				+ System.currentTimeMillis() + ".vrtl");
+		try {
+			TransitFeed recording = new RecordingTransitFeed(feed,
+					new FileOutputStream(file));
+			Log.i("VRTransit", "Recording live feed to " + file);
+			return recording;
+		} catch (IOException e) {
+			Log.e("VRTransit", "Cannot record live feed to " + file, e);
+			return feed;
+		}
 	}
 }
@@ -0,0 +1,282 @@
+package pw.ian.vrtransit;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.gearvrf.GVRAndroidResource;
+import org.gearvrf.GVRContext;
+import org.gearvrf.GVRSceneObject;
+import org.gearvrf.GVRTexture;
+
+import android.content.res.AssetManager;
+import android.util.Log;
+
+/**
+ * Quadtree of map tiles drawn over the base map.
+ * 
+ * Level 0 covers the whole map, every level below splits its parent into
+ * four. Tile images are read from the assets as
+ * <code>tiles/&lt;level&gt;_&lt;x&gt;_&lt;y&gt;.jpg</code> with tile 0_0 in
+ * the top left corner; tiles without an image are skipped and the coarser
+ * level or the base map shows through. Tiles are loaded only when the camera
+ * is close enough to need their level and they are in view, a few per
+ * frame, and the least recently used ones are dropped once more than the
+ * texture budget are loaded.
+ */
+public class MapTiles {
+	private static final String TILE_DIR = "tiles";
+
+	private static final float LEVEL_OFFSET = 0.001f;
+
+	private final GVRContext ctx;
+
+	private final GVRSceneObject parent;
+
+	private final float size;
+
+	private final float z;
+
+	private final int maxLevel;
+
+	private final int budget;
+
+	private final int loadsPerFrame;
+
+	private final Set<String> available = new HashSet<>();
+
+	private final Tile root;
+
+	private final LinkedHashMap<Tile, Tile> loaded = new LinkedHashMap<>(16,
+			0.75f, true);
+
+	private final List<Tile> wanted = new ArrayList<>();
+
+	private int frame = 0;
+
+	/**
+	 * @param ctx
+	 *            context to load textures with
+	 * @param assets
+	 *            assets holding the tile images
+	 * @param parent
+	 *            scene object the tiles are added to
+	 * @param size
+	 *            width and height of the map in scene units
+	 * @param z
+	 *            Z position of the map
+	 * @param maxLevel
+	 *            deepest level of the tree
+	 * @param budget
+	 *            maximum number of tile textures kept loaded
+	 * @param loadsPerFrame
+	 *            maximum number of tiles loaded in one frame
+	 */
+	public MapTiles(GVRContext ctx, AssetManager assets,
+			GVRSceneObject parent, float size, float z, int maxLevel,
+			int budget, int loadsPerFrame) {
+		this.ctx = ctx;
+		this.parent = parent;
+		this.size = size;
+		this.z = z;
+		this.maxLevel = maxLevel;
+		this.budget = budget;
+		this.loadsPerFrame = loadsPerFrame;
+		this.root = new Tile(0, 0, 0);
+
+		try {
+			String[] files = assets.list(TILE_DIR);
+			if (files != null) {
+				available.addAll(Arrays.asList(files));
+			}
+		} catch (IOException e) {
+			Log.w("VRTransit", "No map tiles: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Shows the tiles needed for the current camera position.
+	 * 
+	 * @param camX
+	 *            X position of the camera
+	 * @param camY
+	 *            Y position of the camera
+	 * @param camZ
+	 *            Z position of the camera
+	 */
+	public void update(float camX, float camY, float camZ) {
+		float dist = camZ - z;
+		if (available.isEmpty() || dist <= 0) {
+			return;
+		}
+		frame++;
+
+		// about a 90 degree field of view
+		float half = dist;
+		int level = (int) Math.floor(Math.log(size / (2 * half)) / Math.log(2));
+		level = Math.max(0, Math.min(maxLevel, level));
+
+		wanted.clear();
+		collect(root, level, camX - half, camY - half, camX + half, camY
+				+ half);
+
+		int loads = 0;
+		for (Tile tile : wanted) {
+			tile.frame = frame;
+			if (loaded.get(tile) == null) {
+				if (loads >= loadsPerFrame || !tile.load()) {
+					continue;
+				}
+				loads++;
+				loaded.put(tile, tile);
+			}
+			tile.attach();
+		}
+
+		Iterator<Tile> it = loaded.keySet().iterator();
+		int excess = loaded.size() - budget;
+		while (it.hasNext()) {
+			Tile tile = it.next();
+			if (tile.frame == frame) {
+				continue;
+			}
+			if (excess > 0) {
+				tile.unload();
+				it.remove();
+				excess--;
+			} else {
+				tile.detach();
+			}
+		}
+	}
+
+	/**
+	 * Drops all tile textures.
+	 */
+	public void clear() {
+		for (Tile tile : loaded.keySet()) {
+			tile.unload();
+		}
+		loaded.clear();
+	}
+
+	public int getLoadedCount() {
+		return loaded.size();
+	}
+
+	/**
+	 * Collects the tiles in view down to a level, coarse tiles first.
+	 */
+	private void collect(Tile tile, int level, float minX, float minY,
+			float maxX, float maxY) {
+		if (tile.maxX < minX || tile.minX > maxX || tile.maxY < minY
+				|| tile.minY > maxY) {
+			return;
+		}
+		if (available.contains(tile.asset)) {
+			wanted.add(tile);
+		}
+		if (tile.level < level) {
+			for (Tile child : tile.getChildren()) {
+				collect(child, level, minX, minY, maxX, maxY);
+			}
+		}
+	}
+
+	private class Tile {
+		final int level;
+
+		final int x;
+
+		final int y;
+
+		final String asset;
+
+		final float minX;
+
+		final float minY;
+
+		final float maxX;
+
+		final float maxY;
+
+		Tile[] children;
+
+		GVRSceneObject object;
+
+		GVRTexture texture;
+
+		boolean attached = false;
+
+		int frame = 0;
+
+		Tile(int level, int x, int y) {
+			this.level = level;
+			this.x = x;
+			this.y = y;
+			this.asset = level + "_" + x + "_" + y + ".jpg";
+
+			float tileSize = size / (1 << level);
+			minX = -size / 2 + x * tileSize;
+			maxX = minX + tileSize;
+			maxY = size / 2 - y * tileSize;
+			minY = maxY - tileSize;
+		}
+
+		Tile[] getChildren() {
+			if (children == null) {
+				children = new Tile[] { new Tile(level + 1, x * 2, y * 2),
+						new Tile(level + 1, x * 2 + 1, y * 2),
+						new Tile(level + 1, x * 2, y * 2 + 1),
+						new Tile(level + 1, x * 2 + 1, y * 2 + 1) };
+			}
+			return children;
+		}
+
+		boolean load() {
+			try {
+				texture = ctx.loadTexture(new GVRAndroidResource(ctx, TILE_DIR
+						+ "/" + asset));
+			} catch (IOException e) {
+				Log.w("VRTransit", "Could not load tile " + asset);
+				available.remove(asset);
+				return false;
+			}
+			float tileSize = maxX - minX;
+			object = new GVRSceneObject(ctx, tileSize, tileSize, texture);
+			object.getTransform().setPosition((minX + maxX) / 2,
+					(minY + maxY) / 2, z + LEVEL_OFFSET * (level + 1));
+			return true;
+		}
+
+		void attach() {
+			if (!attached && object != null) {
+				parent.addChildObject(object);
+				attached = true;
+			}
+		}
+
+		void detach() {
+			if (attached) {
+				parent.removeChildObject(object);
+				attached = false;
+			}
+		}
+
+		void unload() {
+			detach();
+			// free the texture now, not when the object is collected, so the
+			// budget bounds the textures actually held
+			if (texture != null) {
+				texture.releaseNative();
+				texture = null;
+			}
+			object = null;
+		}
+	}
+}
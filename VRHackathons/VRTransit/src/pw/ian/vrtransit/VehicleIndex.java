@@ -0,0 +1,174 @@
+package pw.ian.vrtransit;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps vehicle ids to slots of a fixed size object pool and back.
+ * 
+ * Unused slots are kept on a free list. Used slots are kept in a doubly
+ * linked list ordered by the time of their last update, so the least
+ * recently updated vehicle can be found and evicted when the pool is full
+ * or when it has not reported for too long. Every operation is O(1).
+ */
+public class VehicleIndex {
+	private static final int NONE = -1;
+
+	private final Map<String, Integer> idToSlot;
+
+	private final String[] slotToId;
+
+	private final long[] lastUpdate;
+
+	private final int[] prev;
+
+	private final int[] next;
+
+	private final int[] free;
+
+	private int freeCount;
+
+	private int head = NONE;
+
+	private int tail = NONE;
+
+	public VehicleIndex(int capacity) {
+		idToSlot = new HashMap<>(capacity * 2);
+		slotToId = new String[capacity];
+		lastUpdate = new long[capacity];
+		prev = new int[capacity];
+		next = new int[capacity];
+		free = new int[capacity];
+		clear();
+	}
+
+	public int capacity() {
+		return slotToId.length;
+	}
+
+	public int size() {
+		return idToSlot.size();
+	}
+
+	/**
+	 * @param id
+	 * @return the slot of the vehicle or -1 if it has none
+	 */
+	public int get(String id) {
+		Integer slot = idToSlot.get(id);
+		return slot == null ? NONE : slot;
+	}
+
+	/**
+	 * @param slot
+	 * @return the vehicle in the slot or null if the slot is free
+	 */
+	public String getId(int slot) {
+		return slotToId[slot];
+	}
+
+	/**
+	 * Marks a vehicle as updated, making it the last to be evicted.
+	 * 
+	 * @param slot
+	 * @param time
+	 */
+	public void touch(int slot, long time) {
+		lastUpdate[slot] = time;
+		unlink(slot);
+		append(slot);
+	}
+
+	/**
+	 * Assigns a slot to a vehicle which does not have one. Takes a free slot
+	 * if there is one, otherwise evicts the least recently updated vehicle.
+	 * 
+	 * @param id
+	 * @param time
+	 * @return the slot
+	 */
+	public int acquire(String id, long time) {
+		int slot;
+		if (freeCount > 0) {
+			slot = free[--freeCount];
+		} else {
+			slot = head;
+			idToSlot.remove(slotToId[slot]);
+			unlink(slot);
+		}
+		slotToId[slot] = id;
+		lastUpdate[slot] = time;
+		idToSlot.put(id, slot);
+		append(slot);
+		return slot;
+	}
+
+	/**
+	 * Returns a slot to the free list.
+	 * 
+	 * @param slot
+	 */
+	public void release(int slot) {
+		if (slotToId[slot] == null) {
+			return;
+		}
+		idToSlot.remove(slotToId[slot]);
+		slotToId[slot] = null;
+		unlink(slot);
+		free[freeCount++] = slot;
+	}
+
+	/**
+	 * Releases the least recently updated vehicle if it was last updated
+	 * before the cutoff.
+	 * 
+	 * @param cutoff
+	 * @return the released slot or -1 if no vehicle is that old
+	 */
+	public int releaseStale(long cutoff) {
+		int slot = head;
+		if (slot == NONE || lastUpdate[slot] >= cutoff) {
+			return NONE;
+		}
+		release(slot);
+		return slot;
+	}
+
+	public void clear() {
+		idToSlot.clear();
+		Arrays.fill(slotToId, null);
+		head = tail = NONE;
+		freeCount = 0;
+		for (int i = free.length - 1; i >= 0; i--) {
+			free[freeCount++] = i;
+		}
+	}
+
+	private void append(int slot) {
+		prev[slot] = tail;
+		next[slot] = NONE;
+		if (tail != NONE) {
+			next[tail] = slot;
+		} else {
+			head = slot;
+		}
+		tail = slot;
+	}
+
+	private void unlink(int slot) {
+		int p = prev[slot];
+		int n = next[slot];
+		if (p != NONE) {
+			next[p] = n;
+		} else {
+			head = n;
+		}
+		if (n != NONE) {
+			prev[n] = p;
+		} else {
+			tail = p;
+		}
+		prev[slot] = next[slot] = NONE;
+	}
+}
@@ -0,0 +1,136 @@
+package pw.ian.vrtransit;
+
+/**
+ * Interpolates the positions of all vehicles on the map.
+ * 
+ * Start, target and current positions of every pool slot are kept in
+ * primitive arrays and all moving vehicles are advanced in one pass per
+ * frame, instead of starting an animation object for every update. Only
+ * vehicles which are moving are visited. A new target received while a
+ * vehicle is moving starts a new interpolation from where the vehicle is
+ * now, so it never jumps.
+ */
+public class VehicleMotion {
+	private final float duration;
+
+	private final float[] fromX;
+
+	private final float[] fromY;
+
+	private final float[] toX;
+
+	private final float[] toY;
+
+	private final float[] x;
+
+	private final float[] y;
+
+	private final float[] elapsed;
+
+	private final int[] moving;
+
+	private final int[] movingIndex;
+
+	private int movingCount = 0;
+
+	/**
+	 * @param capacity
+	 *            number of slots
+	 * @param duration
+	 *            seconds to reach a new target
+	 */
+	public VehicleMotion(int capacity, float duration) {
+		this.duration = duration;
+		fromX = new float[capacity];
+		fromY = new float[capacity];
+		toX = new float[capacity];
+		toY = new float[capacity];
+		x = new float[capacity];
+		y = new float[capacity];
+		elapsed = new float[capacity];
+		moving = new int[capacity];
+		movingIndex = new int[capacity];
+		for (int i = 0; i < capacity; i++) {
+			movingIndex[i] = -1;
+		}
+	}
+
+	/**
+	 * Puts a vehicle at a position without interpolating.
+	 */
+	public void place(int slot, float px, float py) {
+		stop(slot);
+		x[slot] = toX[slot] = px;
+		y[slot] = toY[slot] = py;
+	}
+
+	/**
+	 * Starts moving a vehicle from its current position to a target.
+	 */
+	public void moveTo(int slot, float px, float py) {
+		fromX[slot] = x[slot];
+		fromY[slot] = y[slot];
+		toX[slot] = px;
+		toY[slot] = py;
+		elapsed[slot] = 0;
+		if (movingIndex[slot] < 0) {
+			movingIndex[slot] = movingCount;
+			moving[movingCount++] = slot;
+		}
+	}
+
+	/**
+	 * Stops a vehicle where it is.
+	 */
+	public void stop(int slot) {
+		int i = movingIndex[slot];
+		if (i < 0) {
+			return;
+		}
+		int last = moving[--movingCount];
+		moving[i] = last;
+		movingIndex[last] = i;
+		movingIndex[slot] = -1;
+	}
+
+	/**
+	 * Advances all moving vehicles.
+	 * 
+	 * @param dt
+	 *            seconds since the last step
+	 * @param updated
+	 *            receives the slots whose position changed
+	 * @return the number of slots written to updated
+	 */
+	public int step(float dt, int[] updated) {
+		int count = 0;
+		int i = 0;
+		while (i < movingCount) {
+			int slot = moving[i];
+			float t = (elapsed[slot] += dt) / duration;
+			updated[count++] = slot;
+			if (t >= 1f) {
+				x[slot] = toX[slot];
+				y[slot] = toY[slot];
+				stop(slot); // last moving slot takes index i
+			} else {
+				x[slot] = fromX[slot] + (toX[slot] - fromX[slot]) * t;
+				y[slot] = fromY[slot] + (toY[slot] - fromY[slot]) * t;
+				i++;
+			}
+		}
+		return count;
+	}
+
+	public float getX(int slot) {
+		return x[slot];
+	}
+
+	public float getY(int slot) {
+		return y[slot];
+	}
+
+	public int getMovingCount() {
+		return movingCount;
+	}
+}
@@ -0,0 +1,71 @@
+package pw.ian.vrtransit.data;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Holds the pending {@link BusUpdate}s keyed by vehicle id.
+ * 
+ * Only the latest update for a vehicle is kept, so a vehicle that reports
+ * several times between frames is only moved once. A removal replaces any
+ * pending position and vice versa. Vehicles are drained in the order they
+ * first became pending, at most a fixed number per call, so the render
+ * thread does bounded work per frame and the rest waits for the next one.
+ * 
+ * Producers never block: offering an update is a map put plus, for a vehicle
+ * that had nothing pending, a lock-free queue insert.
+ */
+public class CoalescingUpdateQueue {
+	private final ConcurrentHashMap<String, BusUpdate> latest = new ConcurrentHashMap<>();
+
+	private final ConcurrentLinkedQueue<String> pendingIds = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Adds an update, replacing any pending update for the same vehicle.
+	 * 
+	 * @param update
+	 */
+	public void offer(BusUpdate update) {
+		if (latest.put(update.getId(), update) == null) {
+			pendingIds.offer(update.getId());
+		}
+	}
+
+	/**
+	 * Moves pending updates into the given list.
+	 * 
+	 * @param out
+	 *            receives the updates
+	 * @param max
+	 *            maximum number of updates to drain
+	 * @return the number of updates drained
+	 */
+	public int drainTo(List<BusUpdate> out, int max) {
+		int n = 0;
+		while (n < max) {
+			String id = pendingIds.poll();
+			if (id == null) {
+				break;
+			}
+			BusUpdate update = latest.remove(id);
+			if (update != null) {
+				out.add(update);
+				n++;
+			}
+		}
+		return n;
+	}
+
+	/**
+	 * @return the number of vehicles with a pending update
+	 */
+	public int size() {
+		return latest.size();
+	}
+
+	public void clear() {
+		pendingIds.clear();
+		latest.clear();
+	}
+}
@@ -0,0 +1,84 @@
+package pw.ian.vrtransit.data;
+
+import pw.ian.vrtransit.Constants;
+
+import com.firebase.client.ChildEventListener;
+import com.firebase.client.DataSnapshot;
+import com.firebase.client.Firebase;
+import com.firebase.client.FirebaseError;
+import com.firebase.client.Query;
+
+/**
+ * Live vehicle positions from the public transit Firebase.
+ */
+public class FirebaseTransitFeed implements TransitFeed {
+	public static final String SF_MUNI_URL = "https://publicdata-transit.firebaseio.com/sf-muni/vehicles";
+
+	private final String url;
+
+	private Query ref;
+
+	private ChildEventListener childListener;
+
+	public FirebaseTransitFeed() {
+		this(SF_MUNI_URL);
+	}
+
+	public FirebaseTransitFeed(String url) {
+		this.url = url;
+	}
+
+	@Override
+	public void start(final Listener listener) {
+		ref = new Firebase(url).limitToLast(Constants.MAX_OBJECTS);
+		childListener = new ChildEventListener() {
+
+			@Override
+			public void onCancelled(FirebaseError arg0) {
+				// TODO Auto-generated method stub
+
+			}
+
+			@Override
+			public void onChildAdded(DataSnapshot ds, String key) {
+				listener.onUpdate(toUpdate(ds));
+			}
+
+			@Override
+			public void onChildChanged(DataSnapshot ds, String prevKey) {
+				listener.onUpdate(toUpdate(ds));
+			}
+
+			@Override
+			public void onChildMoved(DataSnapshot arg0, String arg1) {
+				// TODO Auto-generated method stub
+
+			}
+
+			@Override
+			public void onChildRemoved(DataSnapshot ds) {
+				BusUpdate bu = toUpdate(ds);
+				bu.remove = true;
+				listener.onUpdate(bu);
+			}
+		};
+		ref.addChildEventListener(childListener);
+	}
+
+	@Override
+	public void stop() {
+		if (ref != null) {
+			ref.removeEventListener(childListener);
+			ref = null;
+		}
+	}
+
+	private static BusUpdate toUpdate(DataSnapshot ds) {
+		String id = ds.child("id").getValue(String.class);
+		String route = ds.child("routeTag").getValue(String.class);
+		double lat = ds.child("lat").getValue(Double.class);
+		double lon = ds.child("lon").getValue(Double.class);
+		String type = ds.child("vtype").getValue(String.class);
+		return new BusUpdate(id, route, lat, lon, type);
+	}
+}
@@ -0,0 +1,82 @@
+package pw.ian.vrtransit.data;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import android.util.Log;
+
+/**
+ * Replays a {@link TransitLog} on a background thread, keeping the recorded
+ * spacing between updates divided by a speed factor.
+ */
+public class RecordedTransitFeed implements TransitFeed {
+	public static final float MIN_SPEED = 1f;
+
+	public static final float MAX_SPEED = 100f;
+
+	private final InputStream in;
+
+	private final float speed;
+
+	private volatile boolean running = false;
+
+	private Thread thread;
+
+	/**
+	 * @param in
+	 *            stream containing the log, closed when the replay ends
+	 * @param speed
+	 *            replay speed from 1x to 100x
+	 */
+	public RecordedTransitFeed(InputStream in, float speed) {
+		this.in = in;
+		this.speed = Math.max(MIN_SPEED, Math.min(MAX_SPEED, speed));
+	}
+
+	@Override
+	public void start(final Listener listener) {
+		running = true;
+		thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				replay(listener);
+			}
+		}, "RecordedTransitFeed");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	@Override
+	public void stop() {
+		running = false;
+		if (thread != null) {
+			thread.interrupt();
+			thread = null;
+		}
+	}
+
+	private void replay(Listener listener) {
+		long start = System.nanoTime();
+		try {
+			TransitLog.Reader reader = new TransitLog.Reader(in);
+			BusUpdate bu;
+			while (running && (bu = reader.read()) != null) {
+				long due = start + (long) (reader.getTime() * 1000000L / speed);
+				long wait = due - System.nanoTime();
+				if (wait > 0) {
+					Thread.sleep(wait / 1000000L, (int) (wait % 1000000L));
+				}
+				listener.onUpdate(bu);
+			}
+		} catch (InterruptedException e) {
+			// stopped
+		} catch (IOException e) {
+			Log.e("VRTransit", "Cannot replay transit log", e);
+		} finally {
+			try {
+				in.close();
+			} catch (IOException e) {
+			}
+		}
+	}
+}
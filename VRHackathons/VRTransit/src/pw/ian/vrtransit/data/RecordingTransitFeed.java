@@ -0,0 +1,55 @@
+package pw.ian.vrtransit.data;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import android.util.Log;
+
+/**
+ * Passes the updates of another feed through while recording them to a
+ * {@link TransitLog}, which {@link RecordedTransitFeed} can replay later.
+ * Every update of the feed is recorded, whatever the vehicle type.
+ */
+public class RecordingTransitFeed implements TransitFeed {
+	private final TransitFeed feed;
+
+	private final TransitLog.Writer writer;
+
+	/**
+	 * @param feed
+	 *            feed to record
+	 * @param out
+	 *            stream receiving the log, closed when the feed stops
+	 * @throws IOException
+	 */
+	public RecordingTransitFeed(TransitFeed feed, OutputStream out)
+			throws IOException {
+		this.feed = feed;
+		this.writer = new TransitLog.Writer(out);
+	}
+
+	@Override
+	public void start(final Listener listener) {
+		feed.start(new Listener() {
+			@Override
+			public void onUpdate(BusUpdate update) {
+				writer.onUpdate(update);
+				listener.onUpdate(update);
+			}
+		});
+	}
+
+	@Override
+	public void stop() {
+		feed.stop();
+		try {
+			writer.close();
+		} catch (IOException e) {
+			Log.e("VRTransit", "Cannot close transit log", e);
+		}
+		if (writer.hasFailed()) {
+			Log.e("VRTransit", "Transit log recording stopped early",
+					writer.getError());
+		}
+	}
+}
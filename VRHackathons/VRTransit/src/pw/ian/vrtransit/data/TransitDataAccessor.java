@@ -1,88 +1,57 @@
 package pw.ian.vrtransit.data;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
-
-import pw.ian.vrtransit.Constants;
-
-import com.firebase.client.ChildEventListener;
-import com.firebase.client.DataSnapshot;
-import com.firebase.client.Firebase;
-import com.firebase.client.FirebaseError;
-import com.firebase.client.Query;
 
+/**
+ * Collects the updates of one vehicle type from a {@link TransitFeed} for the
+ * render thread.
+ */
 public class TransitDataAccessor {
-	private Query ref = new Firebase(
-			"https://publicdata-transit.firebaseio.com/sf-muni/vehicles")
-			.limitToLast(Constants.MAX_OBJECTS);
+	private final TransitFeed feed;
 
-	private ArrayBlockingQueue<BusUpdate> pendingUpdates = new ArrayBlockingQueue<>(
-			10000);
+	private CoalescingUpdateQueue pendingUpdates = new CoalescingUpdateQueue();
 
 	private String type;
 
 	public TransitDataAccessor(String type) {
-		this.type = type;
-
-		ref.addChildEventListener(new ChildEventListener() {
-
-			@Override
-			public void onCancelled(FirebaseError arg0) {
-				// TODO Auto-generated method stub
-
-			}
-
-			@Override
-			public void onChildAdded(DataSnapshot ds, String key) {
-				String id = ds.child("id").getValue(String.class);
-				String route = ds.child("routeTag").getValue(String.class);
-				double lat = ds.child("lat").getValue(Double.class);
-				double lon = ds.child("lon").getValue(Double.class);
-				String type = ds.child("vtype").getValue(String.class);
-				if (!type.equals(TransitDataAccessor.this.type))
-					return;
-				pendingUpdates.add(new BusUpdate(id, route, lat, lon, type));
-			}
-
-			@Override
-			public void onChildChanged(DataSnapshot ds, String prevKey) {
-				String id = ds.child("id").getValue(String.class);
-				String route = ds.child("routeTag").getValue(String.class);
-				double lat = ds.child("lat").getValue(Double.class);
-				double lon = ds.child("lon").getValue(Double.class);
-				String type = ds.child("vtype").getValue(String.class);
-				if (!type.equals(TransitDataAccessor.this.type))
-					return;
-				pendingUpdates.add(new BusUpdate(id, route, lat, lon, type));
-			}
+		this(new FirebaseTransitFeed(), type);
+	}
 
-			@Override
-			public void onChildMoved(DataSnapshot arg0, String arg1) {
-				// TODO Auto-generated method stub
+	public TransitDataAccessor(TransitFeed feed, String type) {
+		this.feed = feed;
+		this.type = type;
 
-			}
+		feed.start(new TransitFeed.Listener() {
 
 			@Override
-			public void onChildRemoved(DataSnapshot ds) {
-				String id = ds.child("id").getValue(String.class);
-				String route = ds.child("routeTag").getValue(String.class);
-				double lat = ds.child("lat").getValue(Double.class);
-				double lon = ds.child("lon").getValue(Double.class);
-				String type = ds.child("vtype").getValue(String.class);
-				if (!type.equals(TransitDataAccessor.this.type))
+			public void onUpdate(BusUpdate update) {
+				if (!TransitDataAccessor.this.type.equals(update.getType()))
 					return;
-				BusUpdate bu = new BusUpdate(id, route, lat, lon, type);
-				bu.remove = true;
-				pendingUpdates.add(bu);
+				pendingUpdates.offer(update);
 			}
 		});
 
 	}
 
-	public List<BusUpdate> nextUpdates() {
-		List<BusUpdate> ret = new ArrayList<>();
-		pendingUpdates.drainTo(ret);
-		return ret;
+	/**
+	 * Stops the feed and discards pending updates.
+	 */
+	public void close() {
+		feed.stop();
+		pendingUpdates.clear();
+	}
+
+	/**
+	 * Drains the latest update of at most max vehicles. Vehicles left over
+	 * are returned by the next call.
+	 * 
+	 * @param out
+	 *            receives the updates
+	 * @param max
+	 *            maximum number of updates
+	 * @return the number of updates added
+	 */
+	public int nextUpdates(List<BusUpdate> out, int max) {
+		return pendingUpdates.drainTo(out, max);
 	}
 }
@@ -0,0 +1,26 @@
+package pw.ian.vrtransit.data;
+
+/**
+ * A source of vehicle position updates.
+ */
+public interface TransitFeed {
+
+	/**
+	 * Receives updates from a feed. May be called from any thread.
+	 */
+	public interface Listener {
+		void onUpdate(BusUpdate update);
+	}
+
+	/**
+	 * Starts delivering updates to the listener.
+	 * 
+	 * @param listener
+	 */
+	void start(Listener listener);
+
+	/**
+	 * Stops delivering updates. The feed cannot be restarted.
+	 */
+	void stop();
+}
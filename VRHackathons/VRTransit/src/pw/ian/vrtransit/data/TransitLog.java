@@ -0,0 +1,238 @@
+package pw.ian.vrtransit.data;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary log of vehicle updates, used to record a feed and replay it
+ * with {@link RecordedTransitFeed}.
+ * 
+ * The log starts with a magic number and a version. Each record holds:
+ * <ul>
+ * <li>milliseconds since the previous record, as a varint</li>
+ * <li>a flags byte, bit 0 set for a removal</li>
+ * <li>id, route and type as string references</li>
+ * <li>latitude and longitude in microdegrees as two ints</li>
+ * </ul>
+ * A string reference is a varint: 0 stands for null, 1 is followed by a new
+ * string in modified UTF-8 which gets the next index, n refers to the string
+ * with index n - 2.
+ * Vehicle ids, routes and types repeat constantly, so most records take
+ * about 15 bytes.
+ */
+public class TransitLog {
+	public static final int MAGIC = 0x5652544c; // "VRTL"
+
+	public static final int VERSION = 1;
+
+	private static final int FLAG_REMOVE = 1;
+
+	private static final double MICRODEGREES = 1e6;
+
+	/**
+	 * Writes updates to a log. Also usable as a feed listener to record a
+	 * live feed.
+	 */
+	public static class Writer implements TransitFeed.Listener, Closeable {
+		private final DataOutputStream out;
+
+		private final Map<String, Integer> strings = new HashMap<>();
+
+		private long lastTime = -1;
+
+		private IOException error = null;
+
+		private boolean closed = false;
+
+		public Writer(OutputStream out) throws IOException {
+			this.out = new DataOutputStream(new BufferedOutputStream(out));
+			this.out.writeInt(MAGIC);
+			this.out.writeInt(VERSION);
+		}
+
+		/**
+		 * Records an update received now. Called on the feed thread, so a
+		 * write error stops recording instead of throwing; see
+		 * {@link #getError()}. Updates arriving after close are ignored.
+		 */
+		@Override
+		public synchronized void onUpdate(BusUpdate update) {
+			if (error != null || closed) {
+				return;
+			}
+			try {
+				write(System.currentTimeMillis(), update);
+			} catch (IOException e) {
+				error = e;
+			}
+		}
+
+		/**
+		 * @return whether recording stopped after a write error
+		 */
+		public synchronized boolean hasFailed() {
+			return error != null;
+		}
+
+		/**
+		 * @return the write error which stopped recording, or null
+		 */
+		public synchronized IOException getError() {
+			return error;
+		}
+
+		/**
+		 * Writes an update.
+		 * 
+		 * @param time
+		 *            time of the update in milliseconds, never less than the
+		 *            previous one
+		 * @param update
+		 * @throws IOException
+		 */
+		public synchronized void write(long time, BusUpdate update)
+				throws IOException {
+			if (lastTime < 0) {
+				lastTime = time;
+			}
+			writeVarInt(Math.max(0, time - lastTime));
+			lastTime = Math.max(lastTime, time);
+			out.writeByte(update.remove ? FLAG_REMOVE : 0);
+			writeString(update.getId());
+			writeString(update.getRoute());
+			writeString(update.getType());
+			out.writeInt((int) Math.round(update.getLat() * MICRODEGREES));
+			out.writeInt((int) Math.round(update.getLon() * MICRODEGREES));
+		}
+
+		@Override
+		public synchronized void close() throws IOException {
+			closed = true;
+			out.close();
+		}
+
+		private void writeString(String s) throws IOException {
+			if (s == null) {
+				writeVarInt(0);
+				return;
+			}
+			Integer index = strings.get(s);
+			if (index != null) {
+				writeVarInt(index + 2);
+			} else {
+				writeVarInt(1);
+				out.writeUTF(s);
+				strings.put(s, strings.size());
+			}
+		}
+
+		private void writeVarInt(long value) throws IOException {
+			while ((value & ~0x7FL) != 0) {
+				out.writeByte((int) ((value & 0x7F) | 0x80));
+				value >>>= 7;
+			}
+			out.writeByte((int) value);
+		}
+	}
+
+	/**
+	 * Reads updates from a log.
+	 */
+	public static class Reader implements Closeable {
+		private final DataInputStream in;
+
+		private final List<String> strings = new ArrayList<>();
+
+		private long time = 0;
+
+		public Reader(InputStream in) throws IOException {
+			this.in = new DataInputStream(new BufferedInputStream(in));
+			if (this.in.readInt() != MAGIC) {
+				throw new IOException("Not a transit log");
+			}
+			int version = this.in.readInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported transit log version "
+						+ version);
+			}
+		}
+
+		/**
+		 * @return the time of the last update read, in milliseconds since the
+		 *         first one
+		 */
+		public long getTime() {
+			return time;
+		}
+
+		/**
+		 * Reads the next update.
+		 * 
+		 * @return the update or null at the end of the log
+		 * @throws IOException
+		 */
+		public BusUpdate read() throws IOException {
+			int first = in.read();
+			if (first < 0) {
+				return null;
+			}
+			try {
+				time += readVarInt(first);
+				boolean remove = (in.readByte() & FLAG_REMOVE) != 0;
+				String id = readString();
+				String route = readString();
+				String type = readString();
+				double lat = in.readInt() / MICRODEGREES;
+				double lon = in.readInt() / MICRODEGREES;
+				BusUpdate bu = new BusUpdate(id, route, lat, lon, type);
+				bu.remove = remove;
+				return bu;
+			} catch (EOFException e) {
+				throw new IOException("Truncated transit log", e);
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			in.close();
+		}
+
+		private String readString() throws IOException {
+			long ref = readVarInt(in.readUnsignedByte());
+			if (ref == 0) {
+				return null;
+			}
+			if (ref == 1) {
+				String s = in.readUTF();
+				strings.add(s);
+				return s;
+			}
+			if (ref - 2 >= strings.size()) {
+				throw new IOException("Bad string reference " + ref);
+			}
+			return strings.get((int) (ref - 2));
+		}
+
+		private long readVarInt(int b) throws IOException {
+			long value = 0;
+			int shift = 0;
+			while ((b & 0x80) != 0) {
+				value |= (long) (b & 0x7F) << shift;
+				shift += 7;
+				b = in.readUnsignedByte();
+			}
+			return value | ((long) b << shift);
+		}
+	}
+}
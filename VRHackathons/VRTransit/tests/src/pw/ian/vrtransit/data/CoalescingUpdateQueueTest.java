@@ -0,0 +1,172 @@
+package pw.ian.vrtransit.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+public class CoalescingUpdateQueueTest {
+	private static final int PRODUCERS = 4;
+
+	private static final int VEHICLES = 400;
+
+	private static final int UPDATES_PER_VEHICLE = 200;
+
+	private static final int MAX_PER_FRAME = 50;
+
+	@Test
+	public void keepsLatestUpdatePerVehicle() {
+		CoalescingUpdateQueue queue = new CoalescingUpdateQueue();
+		queue.offer(update("a", 1));
+		queue.offer(update("b", 1));
+		queue.offer(update("a", 2));
+
+		List<BusUpdate> out = new ArrayList<>();
+		assertEquals(2, queue.size());
+		assertEquals(2, queue.drainTo(out, 10));
+		assertEquals("a", out.get(0).getId());
+		assertEquals(2, out.get(0).getLat(), 0);
+		assertEquals("b", out.get(1).getId());
+		assertEquals(0, queue.size());
+	}
+
+	@Test
+	public void removeReplacesPosition() {
+		CoalescingUpdateQueue queue = new CoalescingUpdateQueue();
+		BusUpdate remove = update("a", 2);
+		remove.remove = true;
+		queue.offer(update("a", 1));
+		queue.offer(remove);
+
+		List<BusUpdate> out = new ArrayList<>();
+		assertEquals(1, queue.drainTo(out, 10));
+		assertTrue(out.get(0).remove);
+	}
+
+	@Test
+	public void drainIsBoundedPerCall() {
+		CoalescingUpdateQueue queue = new CoalescingUpdateQueue();
+		for (int i = 0; i < 120; i++) {
+			queue.offer(update("v" + i, i));
+		}
+
+		List<BusUpdate> out = new ArrayList<>();
+		assertEquals(MAX_PER_FRAME, queue.drainTo(out, MAX_PER_FRAME));
+		assertEquals(MAX_PER_FRAME, queue.drainTo(out, MAX_PER_FRAME));
+		assertEquals(20, queue.drainTo(out, MAX_PER_FRAME));
+		assertEquals(0, queue.drainTo(out, MAX_PER_FRAME));
+		for (int i = 0; i < 120; i++) {
+			assertEquals("v" + i, out.get(i).getId());
+		}
+	}
+
+	/**
+	 * Several producer threads flood the queue before the render thread gets
+	 * to it. Only the last update of each vehicle may be left.
+	 */
+	@Test
+	public void burstFromManyThreads() throws InterruptedException {
+		CoalescingUpdateQueue queue = new CoalescingUpdateQueue();
+		join(startProducers(queue, new CountDownLatch(0)));
+
+		assertEquals(VEHICLES, queue.size());
+		List<BusUpdate> out = new ArrayList<>();
+		assertEquals(VEHICLES, queue.drainTo(out, Integer.MAX_VALUE));
+		Set<String> ids = new HashSet<>();
+		for (BusUpdate update : out) {
+			assertTrue("vehicle drained twice", ids.add(update.getId()));
+			assertEquals(UPDATES_PER_VEHICLE - 1, update.getLat(), 0);
+		}
+		assertEquals(0, queue.size());
+	}
+
+	/**
+	 * The render thread drains frame by frame while the producers are still
+	 * running. Sequence numbers seen for a vehicle must only increase, every
+	 * frame must stay within its budget and once the burst is over the last
+	 * update of every vehicle must have been delivered.
+	 */
+	@Test
+	public void drainDuringBurst() throws InterruptedException {
+		CoalescingUpdateQueue queue = new CoalescingUpdateQueue();
+		CountDownLatch start = new CountDownLatch(1);
+		Thread[] producers = startProducers(queue, start);
+		Map<String, Double> lastSeen = new HashMap<>();
+		List<BusUpdate> frame = new ArrayList<>();
+		boolean producing = true;
+		long drained = 0;
+
+		start.countDown();
+		while (producing || queue.size() > 0) {
+			producing = false;
+			for (Thread producer : producers) {
+				producing |= producer.isAlive();
+			}
+			frame.clear();
+			int n = queue.drainTo(frame, MAX_PER_FRAME);
+			assertEquals(n, frame.size());
+			assertTrue(n <= MAX_PER_FRAME);
+			for (BusUpdate update : frame) {
+				Double previous = lastSeen.put(update.getId(), update.getLat());
+				assertFalse("update went back in time",
+						previous != null && previous >= update.getLat());
+			}
+			drained += n;
+		}
+		join(producers);
+
+		assertEquals(VEHICLES, lastSeen.size());
+		for (int v = 0; v < VEHICLES; v++) {
+			assertEquals(UPDATES_PER_VEHICLE - 1, lastSeen.get("v" + v), 0);
+		}
+		assertTrue(drained <= (long) VEHICLES * UPDATES_PER_VEHICLE);
+	}
+
+	/*
+	 * Each vehicle is fed by one producer with increasing sequence numbers,
+	 * stored in the latitude.
+	 */
+	private static Thread[] startProducers(final CoalescingUpdateQueue queue,
+			final CountDownLatch start) {
+		Thread[] producers = new Thread[PRODUCERS];
+		for (int p = 0; p < PRODUCERS; p++) {
+			final int producer = p;
+			producers[p] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					for (int seq = 0; seq < UPDATES_PER_VEHICLE; seq++) {
+						for (int v = producer; v < VEHICLES; v += PRODUCERS) {
+							queue.offer(update("v" + v, seq));
+						}
+					}
+				}
+			});
+			producers[p].start();
+		}
+		return producers;
+	}
+
+	private static void join(Thread[] threads) throws InterruptedException {
+		for (Thread thread : threads) {
+			thread.join();
+		}
+	}
+
+	private static BusUpdate update(String id, double seq) {
+		return new BusUpdate(id, "route", seq, 0, "bus");
+	}
+}
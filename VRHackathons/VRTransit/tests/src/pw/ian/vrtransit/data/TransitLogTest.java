@@ -0,0 +1,243 @@
+package pw.ian.vrtransit.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class TransitLogTest {
+	@Test
+	public void roundTrip() throws IOException {
+		List<BusUpdate> updates = new ArrayList<>();
+		updates.add(update("1001", "N", 37.774929, -122.419416, "train"));
+		updates.add(update("2002", "38", 37.7801, -122.4481, "bus"));
+		updates.add(update("1001", "N", 37.775001, -122.418, "train"));
+		BusUpdate remove = update("2002", "38", 0, 0, "bus");
+		remove.remove = true;
+		updates.add(remove);
+		long[] times = { 5000, 5000, 5250, 400000 };
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (TransitLog.Writer writer = new TransitLog.Writer(bytes)) {
+			for (int i = 0; i < updates.size(); i++) {
+				writer.write(times[i], updates.get(i));
+			}
+		}
+
+		TransitLog.Reader reader = reader(bytes.toByteArray());
+		for (int i = 0; i < updates.size(); i++) {
+			BusUpdate expected = updates.get(i);
+			BusUpdate actual = reader.read();
+			assertEquals(times[i] - times[0], reader.getTime());
+			assertSameUpdate(expected, actual);
+		}
+		assertNull(reader.read());
+		assertNull(reader.read());
+	}
+
+	@Test
+	public void nullStrings() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (TransitLog.Writer writer = new TransitLog.Writer(bytes)) {
+			writer.write(0, update(null, null, 1, 2, null));
+			writer.write(0, update("a", null, 1, 2, "bus"));
+			writer.write(0, update(null, "a", 1, 2, null));
+		}
+
+		TransitLog.Reader reader = reader(bytes.toByteArray());
+		BusUpdate update = reader.read();
+		assertNull(update.getId());
+		assertNull(update.getRoute());
+		assertNull(update.getType());
+		update = reader.read();
+		assertEquals("a", update.getId());
+		assertNull(update.getRoute());
+		assertEquals("bus", update.getType());
+		update = reader.read();
+		assertNull(update.getId());
+		assertEquals("a", update.getRoute());
+		assertNull(update.getType());
+		assertNull(reader.read());
+	}
+
+	/*
+	 * Enough distinct strings for references to need more than one varint
+	 * byte, each repeated so they are read back through their reference.
+	 */
+	@Test
+	public void stringReferences() throws IOException {
+		int count = 1000;
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (TransitLog.Writer writer = new TransitLog.Writer(bytes)) {
+			for (int pass = 0; pass < 2; pass++) {
+				for (int i = 0; i < count; i++) {
+					writer.write(i, update("v" + i, "r" + (i % 7), i, -i, "bus"));
+				}
+			}
+		}
+		// time, flags, three references of at most two bytes, two ints
+		int maxRecord = 1 + 1 + 3 * 2 + 2 * 4;
+		assertTrue("repeated strings must be written as references",
+				bytes.size() - size(count, 1) <= count * maxRecord);
+
+		TransitLog.Reader reader = reader(bytes.toByteArray());
+		for (int pass = 0; pass < 2; pass++) {
+			for (int i = 0; i < count; i++) {
+				BusUpdate update = reader.read();
+				assertEquals("v" + i, update.getId());
+				assertEquals("r" + (i % 7), update.getRoute());
+				assertEquals("bus", update.getType());
+				assertEquals(i, update.getLat(), 1e-6);
+				assertEquals(-i, update.getLon(), 1e-6);
+			}
+		}
+		assertNull(reader.read());
+	}
+
+	@Test
+	public void timeNeverGoesBack() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (TransitLog.Writer writer = new TransitLog.Writer(bytes)) {
+			writer.write(1000, update("a", "r", 0, 0, "bus"));
+			writer.write(900, update("a", "r", 0, 0, "bus"));
+			writer.write(1100, update("a", "r", 0, 0, "bus"));
+		}
+
+		TransitLog.Reader reader = reader(bytes.toByteArray());
+		reader.read();
+		reader.read();
+		assertEquals(0, reader.getTime());
+		reader.read();
+		assertEquals(100, reader.getTime());
+	}
+
+	@Test
+	public void rejectsOtherFiles() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(0x12345678);
+		out.writeInt(TransitLog.VERSION);
+		assertReadFails(bytes.toByteArray());
+
+		for (int version : new int[] { 0, TransitLog.VERSION + 1 }) {
+			bytes.reset();
+			out.writeInt(TransitLog.MAGIC);
+			out.writeInt(version);
+			assertReadFails(bytes.toByteArray());
+		}
+	}
+
+	@Test
+	public void truncatedLog() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (TransitLog.Writer writer = new TransitLog.Writer(bytes)) {
+			writer.write(0, update("a", "r", 1, 2, "bus"));
+		}
+		byte[] log = bytes.toByteArray();
+		assertReadFails(Arrays.copyOf(log, log.length - 3));
+	}
+
+	@Test
+	public void badStringReference() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(TransitLog.MAGIC);
+		out.writeInt(TransitLog.VERSION);
+		out.writeByte(0); // time
+		out.writeByte(0); // flags
+		out.writeByte(2); // id: string 0, never defined
+		assertReadFails(bytes.toByteArray());
+	}
+
+	@Test
+	public void writeErrorStopsRecording() throws IOException {
+		final IOException full = new IOException("disk full");
+		OutputStream failing = new OutputStream() {
+			@Override
+			public void write(int b) throws IOException {
+				throw full;
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				throw full;
+			}
+		};
+		TransitLog.Writer writer = new TransitLog.Writer(failing);
+		assertFalse(writer.hasFailed());
+		// the writer is buffered, so the error shows once the buffer fills
+		for (int i = 0; i < 10000; i++) {
+			writer.onUpdate(update("v" + i, "r", 0, 0, "bus"));
+		}
+		assertTrue(writer.hasFailed());
+		assertSame(full, writer.getError());
+	}
+
+	@Test
+	public void updatesAfterCloseAreIgnored() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		TransitLog.Writer writer = new TransitLog.Writer(bytes);
+		writer.onUpdate(update("a", "r", 0, 0, "bus"));
+		writer.close();
+		writer.onUpdate(update("b", "r", 0, 0, "bus"));
+		assertFalse(writer.hasFailed());
+
+		TransitLog.Reader reader = reader(bytes.toByteArray());
+		assertEquals("a", reader.read().getId());
+		assertNull(reader.read());
+	}
+
+	private static int size(int count, int passes) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (TransitLog.Writer writer = new TransitLog.Writer(bytes)) {
+			for (int pass = 0; pass < passes; pass++) {
+				for (int i = 0; i < count; i++) {
+					writer.write(i, update("v" + i, "r" + (i % 7), i, -i, "bus"));
+				}
+			}
+		}
+		return bytes.size();
+	}
+
+	private static TransitLog.Reader reader(byte[] log) throws IOException {
+		return new TransitLog.Reader(new ByteArrayInputStream(log));
+	}
+
+	private static void assertReadFails(byte[] log) {
+		try {
+			TransitLog.Reader reader = reader(log);
+			while (reader.read() != null) {
+			}
+			fail("expected an IOException");
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
+	private static void assertSameUpdate(BusUpdate expected, BusUpdate actual) {
+		assertEquals(expected.getId(), actual.getId());
+		assertEquals(expected.getRoute(), actual.getRoute());
+		assertEquals(expected.getType(), actual.getType());
+		assertEquals(expected.getLat(), actual.getLat(), 1e-6);
+		assertEquals(expected.getLon(), actual.getLon(), 1e-6);
+		assertEquals(expected.remove, actual.remove);
+	}
+
+	private static BusUpdate update(String id, String route, double lat,
+			double lon, String type) {
+		return new BusUpdate(id, route, lat, lon, type);
+	}
+}
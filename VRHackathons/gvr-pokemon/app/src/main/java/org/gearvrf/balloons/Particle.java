@@ -11,6 +11,7 @@ class Particle extends GVRBehavior
 {
     static private long TYPE_PARTICLE = newComponentType(org.gearvrf.balloons.Particle.class);
     public float            Distance;
+    int                     Index;
     private Vector3f        mStartPos = new Vector3f(0, 0, 0);
     private Vector3f        mCurPos = new Vector3f(0, 0, 0);
     
@@ -35,6 +36,11 @@ class Particle extends GVRBehavior
         }
     }
 
+    public Vector3f getStartPosition()
+    {
+        return mStartPos;
+    }
+
     public Vector3f getPosition()
     {
         Matrix4f localmtx = getOwnerObject().getTransform().getLocalModelMatrix4f();
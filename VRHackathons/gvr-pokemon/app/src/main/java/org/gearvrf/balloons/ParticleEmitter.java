@@ -23,8 +23,6 @@ import org.gearvrf.GVRSceneObject;
 import org.joml.Vector2f;
 import org.joml.Vector3f;
 
-import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.Random;
 
 
@@ -94,10 +92,16 @@ public class ParticleEmitter extends GVRBehavior
      */
     public  float     MaxDistance = 10.0f;
     
-    private ArrayList<Particle> mFreeParticles;
-    private ArrayList<Particle> mActiveParticles;
+    /*
+     * Particles are indexed by id, the pool tracks
+     * which of them are active.
+     */
+    private final Particle[] mParticles;
+    private final ParticlePool mPool;
+    private boolean     mPoolCreated = false;
     private GVRScene    mScene;
     private Random      mRandom = new Random();
+    private Vector3f    mNextPosition = new Vector3f();
     private float       mLastEmitTime;
     private int         mNumParticles = 0;
     private MakeParticle mMakeParticle;
@@ -106,8 +110,8 @@ public class ParticleEmitter extends GVRBehavior
     public ParticleEmitter(GVRContext ctx, GVRScene scene, MakeParticle newParticle)
     {
         super(ctx);
-        mFreeParticles = new ArrayList<Particle>();
-        mActiveParticles = new ArrayList<Particle>();
+        mParticles = new Particle[TotalPokemons];
+        mPool = new ParticlePool(TotalPokemons);
         mMakeParticle = newParticle;
         mScene = scene;
         mType = TYPE_PARTICLE_EMITTER;
@@ -123,13 +127,14 @@ public class ParticleEmitter extends GVRBehavior
 
     public void stop(Particle particle)
     {
-        synchronized (mActiveParticles)
+        synchronized (mPool)
         {
+            if (!mPool.deactivate(particle.Index))
+            {
+                return; // already stopped
+            }
             GVRSceneObject owner = particle.getOwnerObject();
             owner.setEnable(false);
-            mActiveParticles.remove(particle);
-            mFreeParticles.add(particle);
-
         }
     }
 
@@ -156,9 +161,9 @@ public class ParticleEmitter extends GVRBehavior
 
     private Vector3f getNextPosition()
     {
-        Vector3f v;
+        Vector3f v = mNextPosition;
         do {
-            v = new Vector3f(EmitterArea.MaxVal.x, EmitterArea.MaxVal.y, 0);
+            v.set(EmitterArea.MaxVal.x, EmitterArea.MaxVal.y, 0);
             if (EmitterArea.isRange()) {
                 v.sub(EmitterArea.MinVal.x, EmitterArea.MinVal.y, 0);
                 v.mul(mRandom.nextFloat(), mRandom.nextFloat(), 0);
@@ -176,10 +181,9 @@ public class ParticleEmitter extends GVRBehavior
     }
 
     private boolean outOfRange(Vector3f curPos, float range){
-        for (Iterator<Particle> iter = mActiveParticles.iterator(); iter.hasNext(); )
+        for (int i = 0; i < mPool.getActiveCount(); ++i)
         {
-            Particle particle = iter.next();
-            Vector3f activePos = particle.getPosition();
+            Vector3f activePos = mParticles[mPool.getActive(i)].getStartPosition();
             float curDis = curPos.distance(activePos);
 
             //Log.e("error ", "distance " + curDis);
@@ -191,49 +195,50 @@ public class ParticleEmitter extends GVRBehavior
         return true;
     }
 
-    protected void emit()
+    private void createPool()
     {
-        Particle particle = null;
-        GVRSceneObject sceneObj = null;
-
-
         String TAG = "xun";
-        if (mFreeParticles.size() == 0) {
-            Log.e(TAG, "initialize mFreeParticles");
-            for(int i=0; i<TotalPokemons; i++){
-                sceneObj = mMakeParticle.create(getGVRContext(), i);
-                sceneObj.setEnable(false);
-                sceneObj.setName(sceneObj.getName() + Integer.valueOf(i).toString());
-                particle = new Particle(getGVRContext());
-                sceneObj.attachComponent(particle);
-                getOwnerObject().addChildObject(sceneObj);
-                sceneObj.getRenderData().bindShader(mScene);
-
-                mFreeParticles.add(particle);
-            }
+        Log.e(TAG, "initialize particle pool");
+        for (int i = 0; i < TotalPokemons; i++)
+        {
+            GVRSceneObject sceneObj = mMakeParticle.create(getGVRContext(), i);
+            sceneObj.setEnable(false);
+            sceneObj.setName(sceneObj.getName() + Integer.valueOf(i).toString());
+            Particle particle = new Particle(getGVRContext());
+            particle.Index = i;
+            sceneObj.attachComponent(particle);
+            getOwnerObject().addChildObject(sceneObj);
+            sceneObj.getRenderData().bindShader(mScene);
+            mParticles[i] = particle;
         }
+        mPoolCreated = true;
+    }
+
+    protected void emit()
+    {
+        synchronized (mPool)
+        {
+            if (!mPoolCreated)
+            {
+                createPool();
+            }
+            if (mNumParticles >= TotalParticles)
+            {
+                return; // cannot create any more
+            }
+            if ((mPool.getActiveCount() >= MaxActiveParticles) || (mPool.getActiveCount() >= TotalPokemons))
+            {
+                return; // cannot emit any more
+            }
 
+            Vector3f pos = getNextPosition();
+            Particle particle = mParticles[mPool.activateRandom(mRandom)];
 
-        //Log.e(TAG, "before emit actually starts... mFreeParticles.size(): " + mFreeParticles + ", mNumParticles: " + mNumParticles);
-        if (mNumParticles >= TotalParticles) {
-            //Log.e(TAG, "cannot create any more");
-            return; // cannot create any more
-        }
-        if (mActiveParticles.size() >= MaxActiveParticles) {
-            //Log.e(TAG, "cannot emit any more");
-            return; // cannot emit any more
-        }
+            ++mNumParticles;
 
-        int fetch_index = mRandom.nextInt(mFreeParticles.size());
-        particle = mFreeParticles.get(fetch_index);
-        mFreeParticles.remove(fetch_index);
-        
-        ++mNumParticles;
-
-        particle.setPosition(getNextPosition());
-        mActiveParticles.add(particle);
-        //Log.e(TAG, "particle added to mActiveParticles");
-        GVRSceneObject owner = particle.getOwnerObject();
-        owner.setEnable(true);
+            particle.setPosition(pos);
+            GVRSceneObject owner = particle.getOwnerObject();
+            owner.setEnable(true);
+        }
     }
  }
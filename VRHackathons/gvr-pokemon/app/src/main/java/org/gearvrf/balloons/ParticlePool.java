@@ -0,0 +1,104 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gearvrf.balloons;
+
+import java.util.Random;
+
+/**
+ * Pool of particle ids for {@link ParticleEmitter}.
+ * <p>
+ * All ids live in one array. The first getActiveCount()
+ * entries are active, the rest are free. Each id knows its
+ * position in the array so it can be moved between the two
+ * halves by swapping, which makes activate and deactivate O(1)
+ * and never allocates.
+ * <p>
+ * This class has no GearVRf dependencies and can be
+ * exercised on a plain JVM.
+ */
+class ParticlePool
+{
+    private final int[] mIds;
+    private final int[] mPositions;
+    private int         mNumActive = 0;
+
+    public ParticlePool(int size)
+    {
+        mIds = new int[size];
+        mPositions = new int[size];
+        for (int i = 0; i < size; ++i)
+        {
+            mIds[i] = i;
+            mPositions[i] = i;
+        }
+    }
+
+    public int getSize() { return mIds.length; }
+
+    public int getActiveCount() { return mNumActive; }
+
+    /**
+     * @param i index of an active particle, 0 <= i < getActiveCount()
+     * @return id of the particle
+     */
+    public int getActive(int i) { return mIds[i]; }
+
+    public boolean isActive(int id)
+    {
+        return mPositions[id] < mNumActive;
+    }
+
+    /**
+     * Activate a free particle picked at random.
+     * @param random source of the choice
+     * @return particle id or -1 if all particles are active
+     */
+    public int activateRandom(Random random)
+    {
+        int numFree = mIds.length - mNumActive;
+        if (numFree == 0)
+        {
+            return -1;
+        }
+        swap(mNumActive + random.nextInt(numFree), mNumActive);
+        return mIds[mNumActive++];
+    }
+
+    /**
+     * Return an active particle to the free half.
+     * @param id particle id
+     * @return true if deactivated, false if it was not active
+     */
+    public boolean deactivate(int id)
+    {
+        if (!isActive(id))
+        {
+            return false;   // already stopped
+        }
+        swap(mPositions[id], --mNumActive);
+        return true;
+    }
+
+    private void swap(int i, int j)
+    {
+        int a = mIds[i];
+        int b = mIds[j];
+
+        mIds[i] = b;
+        mPositions[b] = i;
+        mIds[j] = a;
+        mPositions[a] = j;
+    }
+}
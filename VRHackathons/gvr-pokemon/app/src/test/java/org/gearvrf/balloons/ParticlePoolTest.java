@@ -0,0 +1,108 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gearvrf.balloons;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class ParticlePoolTest
+{
+    private static final int NUM_PARTICLES = 25;
+    private static final int MAX_ACTIVE = 8;
+    private static final int NUM_FRAMES = 20000;
+
+    @Test
+    public void activateAndDeactivate()
+    {
+        ParticlePool pool = new ParticlePool(3);
+        Random random = new Random(1);
+        boolean[] seen = new boolean[3];
+
+        for (int i = 0; i < 3; ++i)
+        {
+            int id = pool.activateRandom(random);
+            assertFalse(seen[id]);
+            seen[id] = true;
+            assertTrue(pool.isActive(id));
+        }
+        assertEquals(-1, pool.activateRandom(random));
+        assertEquals(3, pool.getActiveCount());
+
+        int id = pool.getActive(1);
+        assertTrue(pool.deactivate(id));
+        assertFalse(pool.deactivate(id));
+        assertFalse(pool.isActive(id));
+        assertEquals(2, pool.getActiveCount());
+        for (int i = 0; i < pool.getActiveCount(); ++i)
+        {
+            assertTrue(pool.getActive(i) != id);
+        }
+        assertEquals(id, pool.activateRandom(random));
+    }
+
+    /*
+     * Run the emit / stop cycle of ParticleEmitter and check
+     * that it does not allocate once it is warmed up.
+     */
+    @Test
+    public void steadyStateEmissionDoesNotAllocate()
+    {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        ParticlePool pool = new ParticlePool(NUM_PARTICLES);
+        Random random = new Random(42);
+        long thread = Thread.currentThread().getId();
+
+        run(pool, random, NUM_FRAMES);
+        long overhead = threads.getThreadAllocatedBytes(thread);
+        overhead = threads.getThreadAllocatedBytes(thread) - overhead;
+        long before = threads.getThreadAllocatedBytes(thread);
+        int emitted = run(pool, random, NUM_FRAMES);
+        long allocated = threads.getThreadAllocatedBytes(thread) - before - overhead;
+
+        assertTrue(emitted > NUM_FRAMES / 4);
+        assertEquals(0, allocated);
+    }
+
+    private static int run(ParticlePool pool, Random random, int numFrames)
+    {
+        int numEmitted = 0;
+
+        for (int frame = 0; frame < numFrames; ++frame)
+        {
+            if (pool.getActiveCount() < MAX_ACTIVE)
+            {
+                pool.activateRandom(random);
+                ++numEmitted;
+            }
+            if (random.nextInt(3) == 0)
+            {
+                pool.deactivate(pool.getActive(random.nextInt(pool.getActiveCount())));
+            }
+        }
+        return numEmitted;
+    }
+}
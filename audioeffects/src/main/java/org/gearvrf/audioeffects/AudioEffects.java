@@ -0,0 +1,428 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.audioeffects;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.content.res.Resources;
+import android.media.AudioAttributes;
+import android.media.MediaMetadataRetriever;
+import android.media.SoundPool;
+import android.os.SystemClock;
+import android.util.Log;
+import android.util.SparseArray;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Plays short sound effects with a fixed number of voices.
+ * <p>
+ * Clips are loaded once and decoded in the background. A clip triggered
+ * before it is ready starts as soon as it is, unless that is more than
+ * {@link #MAX_DEFER_MS} later, when it would be out of sync with what
+ * caused it.
+ * <p>
+ * When every voice is busy, a new sound takes over the voice of the
+ * lowest priority sound, the oldest one among equals, provided that
+ * priority is not higher than its own. Otherwise the new sound is dropped.
+ * Paused sounds give up their voice before any playing one.
+ * <p>
+ * Sounds triggered with {@link #trigger(SoundClip, float)} are collected
+ * and started together by {@link #flush()}, typically once per frame.
+ * Several triggers of the same clip in one batch play as a single sound.
+ * <p>
+ * All methods are thread safe.
+ */
+public class AudioEffects {
+    private static final String TAG = "AudioEffects";
+    public static final int DEFAULT_VOICES = 8;
+    /**
+     * Longest delay in milliseconds a sound may start late
+     * because its clip was still loading.
+     */
+    public static final long MAX_DEFER_MS = 150;
+    // SoundPool may finish a little later than the clip duration says
+    private static final long END_MARGIN_MS = 50;
+
+    private static AudioEffects sShared;
+
+    private final SoundPool mPool;
+    private final SparseArray<SoundClip> mClips = new SparseArray<SoundClip>();
+    private final int[] mVoiceHandles;
+    private final int[] mVoiceStreams;
+    private final int[] mVoicePriorities;
+    private final long[] mVoiceStarts;
+    private final long[] mVoiceEnds;
+    private final boolean[] mVoicePaused;
+    private int mNextHandle = 1;
+    private final List<Deferred> mDeferred = new ArrayList<Deferred>();
+    private SoundClip[] mBatchClips = new SoundClip[8];
+    private float[] mBatchVolumes = new float[8];
+    private int mBatchSize = 0;
+
+    private static class Deferred {
+        final SoundClip clip;
+        final float left, right;
+        final boolean loop;
+        final int voice;
+        final int handle;
+
+        Deferred(SoundClip clip, float left, float right, boolean loop, int voice, int handle) {
+            this.clip = clip;
+            this.left = left;
+            this.right = right;
+            this.loop = loop;
+            this.voice = voice;
+            this.handle = handle;
+        }
+    }
+
+    /**
+     * Get the engine shared by the whole application,
+     * created with {@link #DEFAULT_VOICES} voices.
+     */
+    public static synchronized AudioEffects getShared() {
+        if (sShared == null) {
+            sShared = new AudioEffects(DEFAULT_VOICES);
+        }
+        return sShared;
+    }
+
+    /**
+     * @param maxVoices number of sounds which can play at the same time
+     */
+    public AudioEffects(int maxVoices) {
+        AudioAttributes attributes = new AudioAttributes.Builder()
+                .setUsage(AudioAttributes.USAGE_GAME)
+                .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
+                .build();
+
+        mPool = new SoundPool.Builder()
+                .setMaxStreams(maxVoices)
+                .setAudioAttributes(attributes)
+                .build();
+        mPool.setOnLoadCompleteListener(new SoundPool.OnLoadCompleteListener() {
+            @Override
+            public void onLoadComplete(SoundPool soundPool, int sampleId, int status) {
+                onClipLoaded(sampleId, status == 0);
+            }
+        });
+        mVoiceHandles = new int[maxVoices];
+        mVoiceStreams = new int[maxVoices];
+        mVoicePriorities = new int[maxVoices];
+        mVoiceStarts = new long[maxVoices];
+        mVoiceEnds = new long[maxVoices];
+        mVoicePaused = new boolean[maxVoices];
+    }
+
+    public int getMaxVoices() {
+        return mVoiceHandles.length;
+    }
+
+    /**
+     * Load a clip from a raw resource.
+     * @param context   context of the resources
+     * @param resId     raw resource id
+     * @param priority  voice stealing priority, higher wins
+     */
+    public SoundClip load(Context context, int resId, int priority) {
+        AssetFileDescriptor descriptor = null;
+
+        try {
+            descriptor = context.getResources().openRawResourceFd(resId);
+        } catch (Resources.NotFoundException ex) {
+            // compressed resource, the duration cannot be read
+        }
+        if (descriptor == null) {
+            synchronized (this) {
+                return addClip(new SoundClip(mPool.load(context, resId, 1), 0, priority));
+            }
+        }
+        return load(descriptor, priority);
+    }
+
+    /**
+     * Load a clip from an asset file.
+     * @param context   context of the assets
+     * @param path      path of the file in the assets
+     * @param priority  voice stealing priority, higher wins
+     */
+    public SoundClip load(Context context, String path, int priority) throws IOException {
+        return load(context.getAssets().openFd(path), priority);
+    }
+
+    private SoundClip load(AssetFileDescriptor descriptor, int priority) {
+        try {
+            long duration = readDuration(descriptor);
+            synchronized (this) {
+                return addClip(new SoundClip(mPool.load(descriptor, 1), duration, priority));
+            }
+        } finally {
+            try {
+                descriptor.close();
+            } catch (IOException ex) {
+                Log.w(TAG, "Cannot close sound file", ex);
+            }
+        }
+    }
+
+    /**
+     * @return the clip with the given id or null
+     */
+    public synchronized SoundClip getClip(int id) {
+        return mClips.get(id);
+    }
+
+    /**
+     * Play a clip once at the same volume on both channels.
+     * @return handle of the sound or 0 if it was dropped
+     */
+    public int play(SoundClip clip, float volume) {
+        return play(clip, volume, volume, false);
+    }
+
+    /**
+     * Play a clip now, or as soon as it is ready.
+     * @param clip  clip to play
+     * @param left  left volume, 0 to 1
+     * @param right right volume, 0 to 1
+     * @param loop  true to repeat until stopped
+     * @return handle of the sound or 0 if it was dropped
+     */
+    public synchronized int play(SoundClip clip, float left, float right, boolean loop) {
+        if (clip.hasFailed()) {
+            return 0;
+        }
+        long now = SystemClock.uptimeMillis();
+        int voice = allocateVoice(clip.getPriority(), now);
+
+        if (voice < 0) {
+            return 0;
+        }
+        int handle = mNextHandle++;
+        if (mNextHandle <= 0) {
+            mNextHandle = 1;
+        }
+        mVoiceHandles[voice] = handle;
+        mVoicePriorities[voice] = clip.getPriority();
+        mVoiceStarts[voice] = now;
+        if (clip.isReady()) {
+            start(voice, clip, left, right, loop, now);
+        } else {
+            mVoiceStreams[voice] = 0;
+            mVoiceEnds[voice] = now + MAX_DEFER_MS;     // until it starts
+            mDeferred.add(new Deferred(clip, left, right, loop, voice, handle));
+        }
+        return handle;
+    }
+
+    /**
+     * Queue a clip to be played by the next {@link #flush()}.
+     * If the clip is already queued the louder volume is kept.
+     */
+    public synchronized void trigger(SoundClip clip, float volume) {
+        for (int i = 0; i < mBatchSize; ++i) {
+            if (mBatchClips[i] == clip) {
+                mBatchVolumes[i] = Math.max(mBatchVolumes[i], volume);
+                return;
+            }
+        }
+        if (mBatchSize == mBatchClips.length) {
+            mBatchClips = Arrays.copyOf(mBatchClips, mBatchSize * 2);
+            mBatchVolumes = Arrays.copyOf(mBatchVolumes, mBatchSize * 2);
+        }
+        mBatchClips[mBatchSize] = clip;
+        mBatchVolumes[mBatchSize] = volume;
+        ++mBatchSize;
+    }
+
+    /**
+     * Start every sound queued by {@link #trigger(SoundClip, float)},
+     * highest priority first.
+     */
+    public synchronized void flush() {
+        int n = mBatchSize;
+
+        for (int i = 1; i < n; ++i) {
+            SoundClip clip = mBatchClips[i];
+            float volume = mBatchVolumes[i];
+            int j = i;
+            while ((j > 0) && (mBatchClips[j - 1].getPriority() < clip.getPriority())) {
+                mBatchClips[j] = mBatchClips[j - 1];
+                mBatchVolumes[j] = mBatchVolumes[j - 1];
+                --j;
+            }
+            mBatchClips[j] = clip;
+            mBatchVolumes[j] = volume;
+        }
+        for (int i = 0; i < n; ++i) {
+            play(mBatchClips[i], mBatchVolumes[i], mBatchVolumes[i], false);
+            mBatchClips[i] = null;
+        }
+        mBatchSize = 0;
+    }
+
+    public synchronized void stop(int handle) {
+        int voice = findVoice(handle);
+        if (voice >= 0) {
+            if (mVoiceStreams[voice] != 0) {
+                mPool.stop(mVoiceStreams[voice]);
+            }
+            freeVoice(voice);
+        }
+    }
+
+    public synchronized void pause(int handle) {
+        int voice = findVoice(handle);
+        if ((voice >= 0) && (mVoiceStreams[voice] != 0)) {
+            mPool.pause(mVoiceStreams[voice]);
+            mVoicePaused[voice] = true;
+        }
+    }
+
+    public synchronized void resume(int handle) {
+        int voice = findVoice(handle);
+        if ((voice >= 0) && (mVoiceStreams[voice] != 0)) {
+            mPool.resume(mVoiceStreams[voice]);
+            mVoicePaused[voice] = false;
+        }
+    }
+
+    public void autoPause() {
+        mPool.autoPause();
+    }
+
+    public void autoResume() {
+        mPool.autoResume();
+    }
+
+    public synchronized void release() {
+        mPool.release();
+        Arrays.fill(mVoiceHandles, 0);
+        Arrays.fill(mVoicePaused, false);
+        mDeferred.clear();
+        mBatchSize = 0;
+    }
+
+    private SoundClip addClip(SoundClip clip) {
+        mClips.put(clip.mSampleId, clip);
+        return clip;
+    }
+
+    private synchronized void onClipLoaded(int sampleId, boolean success) {
+        SoundClip clip = mClips.get(sampleId);
+        if (clip == null) {
+            return;
+        }
+        clip.setLoaded(success);
+        if (!success) {
+            Log.e(TAG, "Cannot decode sound " + sampleId);
+        }
+        long now = SystemClock.uptimeMillis();
+        for (int i = mDeferred.size() - 1; i >= 0; --i) {
+            Deferred d = mDeferred.get(i);
+            if (d.clip != clip) {
+                continue;
+            }
+            mDeferred.remove(i);
+            if (mVoiceHandles[d.voice] != d.handle) {
+                continue;       // stopped or stolen meanwhile
+            }
+            if (success && (now - mVoiceStarts[d.voice] <= MAX_DEFER_MS)) {
+                start(d.voice, clip, d.left, d.right, d.loop, now);
+            } else {
+                freeVoice(d.voice);
+            }
+        }
+    }
+
+    private void start(int voice, SoundClip clip, float left, float right, boolean loop, long now) {
+        int stream = mPool.play(clip.mSampleId, left, right, clip.getPriority(), loop ? -1 : 0, 1);
+
+        if (stream == 0) {
+            freeVoice(voice);
+            return;
+        }
+        mVoiceStreams[voice] = stream;
+        mVoiceEnds[voice] = loop ? Long.MAX_VALUE : now + clip.mDurationMs + END_MARGIN_MS;
+    }
+
+    /**
+     * Find a free voice or steal the least important one.
+     * @return voice index or -1 if every voice is more important
+     */
+    private int allocateVoice(int priority, long now) {
+        int victim = -1;
+
+        for (int v = 0; v < mVoiceHandles.length; ++v) {
+            if ((mVoiceHandles[v] == 0) || (mVoiceEnds[v] <= now)) {
+                return v;
+            }
+            if ((victim < 0) ||
+                (stealPriority(v) < stealPriority(victim)) ||
+                ((stealPriority(v) == stealPriority(victim)) && (mVoiceStarts[v] < mVoiceStarts[victim]))) {
+                victim = v;
+            }
+        }
+        if ((victim < 0) || (stealPriority(victim) > priority)) {
+            return -1;
+        }
+        if (mVoiceStreams[victim] != 0) {
+            mPool.stop(mVoiceStreams[victim]);
+        }
+        freeVoice(victim);
+        return victim;
+    }
+
+    private int stealPriority(int voice) {
+        return mVoicePaused[voice] ? Integer.MIN_VALUE : mVoicePriorities[voice];
+    }
+
+    private int findVoice(int handle) {
+        if (handle == 0) {
+            return -1;
+        }
+        for (int v = 0; v < mVoiceHandles.length; ++v) {
+            if (mVoiceHandles[v] == handle) {
+                return v;
+            }
+        }
+        return -1;
+    }
+
+    private void freeVoice(int voice) {
+        mVoiceHandles[voice] = 0;
+        mVoiceStreams[voice] = 0;
+        mVoicePaused[voice] = false;
+    }
+
+    private static long readDuration(AssetFileDescriptor descriptor) {
+        MediaMetadataRetriever retriever = new MediaMetadataRetriever();
+        try {
+            retriever.setDataSource(descriptor.getFileDescriptor(),
+                    descriptor.getStartOffset(), descriptor.getLength());
+            String duration = retriever.extractMetadata(MediaMetadataRetriever.METADATA_KEY_DURATION);
+            return (duration != null) ? Long.parseLong(duration) : 0;
+        } catch (RuntimeException ex) {
+            return 0;
+        } finally {
+            retriever.release();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.audioeffects;
+
+/**
+ * A sound loaded into {@link AudioEffects}.
+ * <p>
+ * Clips are decoded in the background when they are loaded. Until
+ * {@link #isReady()} returns true, triggering the clip is deferred
+ * rather than lost, as long as it becomes ready soon enough.
+ */
+public final class SoundClip {
+    /**
+     * Duration assumed for clips whose length could not be read.
+     */
+    static final long DEFAULT_DURATION_MS = 1000;
+
+    final int mSampleId;
+    final long mDurationMs;
+    private final int mPriority;
+    private volatile boolean mReady = false;
+    private volatile boolean mFailed = false;
+
+    SoundClip(int sampleId, long durationMs, int priority) {
+        mSampleId = sampleId;
+        mDurationMs = (durationMs > 0) ? durationMs : DEFAULT_DURATION_MS;
+        mPriority = priority;
+    }
+
+    /**
+     * @return identifier of the clip, unique within its {@link AudioEffects}
+     */
+    public int getId() {
+        return mSampleId;
+    }
+
+    /**
+     * Voices of a higher priority clip can take over voices
+     * of lower priority clips when all voices are in use.
+     */
+    public int getPriority() {
+        return mPriority;
+    }
+
+    /**
+     * @return true once the clip is decoded and plays without delay
+     */
+    public boolean isReady() {
+        return mReady;
+    }
+
+    /**
+     * @return true if the clip could not be decoded, it will never play
+     */
+    public boolean hasFailed() {
+        return mFailed;
+    }
+
+    public long getDurationMs() {
+        return mDurationMs;
+    }
+
+    void setLoaded(boolean success) {
+        mFailed = !success;
+        mReady = success;
+    }
+}
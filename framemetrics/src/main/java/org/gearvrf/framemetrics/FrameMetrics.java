@@ -0,0 +1,233 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.framemetrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Frame timing for a demo.
+ * <p>
+ * Call {@link #beginFrame()} and {@link #endFrame()} around the
+ * work done in onStep, or just {@link #tick()} once per frame to
+ * only measure the frame interval. Frame intervals and step
+ * durations are kept in {@link FrameHistogram}s and every frame
+ * longer than the budget of the target frame rate is counted.
+ * Individual subsystems can be timed with {@link #getTimer(String)}.
+ * <p>
+ * {@link #snapshot()} returns the current figures, which can be
+ * exported with {@link FrameMetricsSnapshot#toJson()}. A
+ * {@link Reporter} can be set to receive a snapshot periodically.
+ */
+public class FrameMetrics {
+    /**
+     * Source of time, replaceable for testing.
+     */
+    public interface Clock {
+        long nanoTime();
+    }
+
+    /**
+     * Receives periodic snapshots.
+     */
+    public interface Reporter {
+        void onReport(FrameMetricsSnapshot snapshot);
+    }
+
+    public static final Clock SYSTEM_CLOCK = new Clock() {
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+    };
+
+    /**
+     * Report interval of the FPSCounter the default metrics replace.
+     */
+    public static final long DEFAULT_REPORT_INTERVAL = 10000;
+
+    private static final long NANOS_PER_MILLI = 1000000L;
+    private static FrameMetrics sDefault = null;
+
+    private final Clock mClock;
+    private final FrameHistogram mFrameTimes = new FrameHistogram();
+    private final FrameHistogram mStepTimes = new FrameHistogram();
+    private final AtomicLong mFramesOverBudget = new AtomicLong();
+    private final AtomicLong mStepsOverBudget = new AtomicLong();
+    private final AtomicLong mLastTick = new AtomicLong();
+    private final Map<String, FrameTimer> mTimers = new ConcurrentHashMap<String, FrameTimer>();
+    private volatile float mTargetFrameRate;
+    private volatile long mBudgetNanos;
+    private volatile long mStartTime;
+    private volatile long mStepStart;
+    private volatile Reporter mReporter = null;
+    private volatile long mReportInterval = 0;
+    private volatile long mLastReport;
+
+    public FrameMetrics(float targetFrameRate) {
+        this(targetFrameRate, SYSTEM_CLOCK);
+    }
+
+    public FrameMetrics(float targetFrameRate, Clock clock) {
+        mClock = clock;
+        setTargetFrameRate(targetFrameRate);
+        mStartTime = mLastReport = clock.nanoTime();
+    }
+
+    /**
+     * Get the metrics shared by the whole process.
+     * It targets 60 frames per second. This library does not
+     * depend on Android, so it has no reporter until the app
+     * sets one, typically logging every
+     * {@link #DEFAULT_REPORT_INTERVAL} milliseconds.
+     */
+    public static synchronized FrameMetrics getDefault() {
+        if (sDefault == null) {
+            sDefault = new FrameMetrics(60);
+        }
+        return sDefault;
+    }
+
+    /**
+     * Set the frame rate frames are measured against,
+     * typically 60, 72 or 90 depending on the headset.
+     */
+    public void setTargetFrameRate(float framesPerSecond) {
+        mTargetFrameRate = framesPerSecond;
+        mBudgetNanos = (long) (1000000000.0 / framesPerSecond);
+    }
+
+    public float getTargetFrameRate() {
+        return mTargetFrameRate;
+    }
+
+    /**
+     * @return time available for one frame in nanoseconds
+     */
+    public long getBudgetNanos() {
+        return mBudgetNanos;
+    }
+
+    /**
+     * Deliver snapshots to a reporter at a fixed interval.
+     * Reports are made from {@link #tick()} on the thread calling it.
+     * @param reporter          reporter, null to stop reporting
+     * @param intervalMillis    milliseconds between reports
+     */
+    public void setReporter(Reporter reporter, long intervalMillis) {
+        mReportInterval = intervalMillis * NANOS_PER_MILLI;
+        mReporter = reporter;
+    }
+
+    /**
+     * Mark the start of a frame. Records the interval since
+     * the previous frame and starts timing the step.
+     */
+    public void beginFrame() {
+        tick();
+        mStepStart = mClock.nanoTime();
+    }
+
+    /**
+     * Mark the end of the work done for a frame.
+     */
+    public void endFrame() {
+        long duration = mClock.nanoTime() - mStepStart;
+
+        mStepTimes.record(duration);
+        if (duration > mBudgetNanos) {
+            mStepsOverBudget.incrementAndGet();
+        }
+    }
+
+    /**
+     * Count one frame, recording the interval since the previous one.
+     */
+    public void tick() {
+        long now = mClock.nanoTime();
+        long last = mLastTick.getAndSet(now);
+
+        if (last != 0) {
+            long interval = now - last;
+            mFrameTimes.record(interval);
+            if (interval > mBudgetNanos) {
+                mFramesOverBudget.incrementAndGet();
+            }
+        }
+        Reporter reporter = mReporter;
+        if ((reporter != null) && (now - mLastReport >= mReportInterval)) {
+            mLastReport = now;
+            reporter.onReport(snapshot());
+        }
+    }
+
+    /**
+     * Get the timer for a subsystem, creating it if necessary.
+     * Keep the returned timer rather than looking it up every frame.
+     */
+    public FrameTimer getTimer(String name) {
+        FrameTimer timer = mTimers.get(name);
+
+        if (timer == null) {
+            synchronized (mTimers) {
+                timer = mTimers.get(name);
+                if (timer == null) {
+                    timer = new FrameTimer(name, mClock);
+                    mTimers.put(name, timer);
+                }
+            }
+        }
+        return timer;
+    }
+
+    public FrameHistogram getFrameTimes() {
+        return mFrameTimes;
+    }
+
+    public FrameHistogram getStepTimes() {
+        return mStepTimes;
+    }
+
+    public long getFramesOverBudget() {
+        return mFramesOverBudget.get();
+    }
+
+    public long getStepsOverBudget() {
+        return mStepsOverBudget.get();
+    }
+
+    /**
+     * Capture the current figures.
+     */
+    public FrameMetricsSnapshot snapshot() {
+        return new FrameMetricsSnapshot(this, mClock.nanoTime() - mStartTime, mTimers.values());
+    }
+
+    /**
+     * Discard all samples and restart timing.
+     */
+    public void reset() {
+        mFrameTimes.reset();
+        mStepTimes.reset();
+        mFramesOverBudget.set(0);
+        mStepsOverBudget.set(0);
+        mLastTick.set(0);
+        for (FrameTimer timer : mTimers.values()) {
+            timer.getHistogram().reset();
+        }
+        mStartTime = mLastReport = mClock.nanoTime();
+    }
+}
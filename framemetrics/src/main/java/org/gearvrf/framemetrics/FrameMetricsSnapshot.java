@@ -0,0 +1,142 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.framemetrics;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable copy of the figures in a {@link FrameMetrics}.
+ * All durations are in microseconds.
+ */
+public class FrameMetricsSnapshot {
+    /**
+     * Summary of one {@link FrameHistogram}.
+     */
+    public static class Stats {
+        public final long count;
+        public final long mean;
+        public final long p50;
+        public final long p95;
+        public final long p99;
+        public final long max;
+
+        Stats(FrameHistogram histogram) {
+            count = histogram.getCount();
+            mean = histogram.getMeanMicros();
+            p50 = histogram.getPercentileMicros(0.50);
+            p95 = histogram.getPercentileMicros(0.95);
+            p99 = histogram.getPercentileMicros(0.99);
+            max = histogram.getMaxMicros();
+        }
+
+        void appendJson(StringBuilder sb) {
+            sb.append("{\"count\":").append(count)
+              .append(",\"mean\":").append(mean)
+              .append(",\"p50\":").append(p50)
+              .append(",\"p95\":").append(p95)
+              .append(",\"p99\":").append(p99)
+              .append(",\"max\":").append(max)
+              .append('}');
+        }
+    }
+
+    public final float targetFrameRate;
+    public final long budget;
+    public final long elapsed;
+    public final Stats frames;
+    public final long framesOverBudget;
+    public final Stats steps;
+    public final long stepsOverBudget;
+    public final Map<String, Stats> timers;
+
+    FrameMetricsSnapshot(FrameMetrics metrics, long elapsedNanos, Collection<FrameTimer> timers) {
+        Map<String, Stats> timerStats = new TreeMap<String, Stats>();
+
+        targetFrameRate = metrics.getTargetFrameRate();
+        budget = metrics.getBudgetNanos() / 1000;
+        elapsed = elapsedNanos / 1000;
+        frames = new Stats(metrics.getFrameTimes());
+        framesOverBudget = metrics.getFramesOverBudget();
+        steps = new Stats(metrics.getStepTimes());
+        stepsOverBudget = metrics.getStepsOverBudget();
+        for (FrameTimer timer : timers) {
+            timerStats.put(timer.getName(), new Stats(timer.getHistogram()));
+        }
+        this.timers = Collections.unmodifiableMap(timerStats);
+    }
+
+    /**
+     * @return average frames per second since the metrics were reset
+     */
+    public float getFramesPerSecond() {
+        return (elapsed > 0) ? frames.count * 1000000.0f / elapsed : 0;
+    }
+
+    /**
+     * Export the snapshot as a single line of JSON.
+     */
+    public String toJson() {
+        StringBuilder sb = new StringBuilder(256);
+
+        sb.append("{\"targetFrameRate\":").append(String.format(Locale.US, "%.1f", targetFrameRate))
+          .append(",\"fps\":").append(String.format(Locale.US, "%.2f", getFramesPerSecond()))
+          .append(",\"budget\":").append(budget)
+          .append(",\"elapsed\":").append(elapsed)
+          .append(",\"frames\":");
+        frames.appendJson(sb);
+        sb.append(",\"framesOverBudget\":").append(framesOverBudget)
+          .append(",\"steps\":");
+        steps.appendJson(sb);
+        sb.append(",\"stepsOverBudget\":").append(stepsOverBudget)
+          .append(",\"timers\":{");
+        boolean first = true;
+        for (Map.Entry<String, Stats> entry : timers.entrySet()) {
+            if (!first) {
+                sb.append(',');
+            }
+            first = false;
+            appendString(sb, entry.getKey());
+            sb.append(':');
+            entry.getValue().appendJson(sb);
+        }
+        sb.append("}}");
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return toJson();
+    }
+
+    private static void appendString(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); ++i) {
+            char c = s.charAt(i);
+            if ((c == '"') || (c == '\\')) {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format(Locale.US, "\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+}
@@ -0,0 +1,68 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.framemetrics;
+
+/**
+ * Times one subsystem, for example physics or picking,
+ * across frames.
+ * <pre>
+ *     long start = timer.start();
+ *     doPhysics();
+ *     timer.stop(start);
+ * </pre>
+ * Timers are thread safe and never allocate.
+ */
+public class FrameTimer {
+    private final String mName;
+    private final FrameMetrics.Clock mClock;
+    private final FrameHistogram mHistogram = new FrameHistogram();
+
+    FrameTimer(String name, FrameMetrics.Clock clock) {
+        mName = name;
+        mClock = clock;
+    }
+
+    public String getName() {
+        return mName;
+    }
+
+    /**
+     * @return start time to pass to {@link #stop(long)}
+     */
+    public long start() {
+        return mClock.nanoTime();
+    }
+
+    /**
+     * Record the time since {@link #start()}.
+     * @param startTime value returned by start()
+     */
+    public void stop(long startTime) {
+        mHistogram.record(mClock.nanoTime() - startTime);
+    }
+
+    /**
+     * Record a duration measured elsewhere.
+     * @param nanos duration in nanoseconds
+     */
+    public void record(long nanos) {
+        mHistogram.record(nanos);
+    }
+
+    public FrameHistogram getHistogram() {
+        return mHistogram;
+    }
+}
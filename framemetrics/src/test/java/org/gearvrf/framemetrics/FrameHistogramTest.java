@@ -0,0 +1,101 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.framemetrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class FrameHistogramTest {
+    @Test
+    public void empty() {
+        FrameHistogram histogram = new FrameHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMeanMicros());
+        assertEquals(0, histogram.getMaxMicros());
+        assertEquals(0, histogram.getPercentileMicros(0.5));
+    }
+
+    @Test
+    public void bucketsCoverEveryValue() {
+        for (long micros = 0; micros < 100000; micros += 7) {
+            int index = FrameHistogram.bucketIndex(micros);
+            assertTrue(micros <= FrameHistogram.bucketUpperBound(index));
+            if (index > 0) {
+                assertTrue(micros > FrameHistogram.bucketUpperBound(index - 1));
+            }
+        }
+    }
+
+    @Test
+    public void percentilesWithinBucketError() {
+        FrameHistogram histogram = new FrameHistogram();
+
+        for (int i = 1; i <= 1000; ++i) {
+            histogram.record(i * 100000L);      // 100us .. 100ms
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(100000, histogram.getMaxMicros());
+        assertEquals(50050, histogram.getMeanMicros());
+        assertWithin(50000, histogram.getPercentileMicros(0.50));
+        assertWithin(95000, histogram.getPercentileMicros(0.95));
+        assertWithin(99000, histogram.getPercentileMicros(0.99));
+        assertEquals(100000, histogram.getPercentileMicros(1.0));
+    }
+
+    @Test
+    public void reset() {
+        FrameHistogram histogram = new FrameHistogram();
+
+        histogram.record(16000000L);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMaxMicros());
+        assertEquals(0, histogram.getPercentileMicros(0.99));
+    }
+
+    @Test
+    public void concurrentRecording() throws InterruptedException {
+        final FrameHistogram histogram = new FrameHistogram();
+        final int numThreads = 4;
+        final int perThread = 100000;
+        Thread[] threads = new Thread[numThreads];
+
+        for (int t = 0; t < numThreads; ++t) {
+            final int offset = t;
+            threads[t] = new Thread(new Runnable() {
+                public void run() {
+                    for (int i = 0; i < perThread; ++i) {
+                        histogram.record((i % 1000 + offset) * 1000L);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(numThreads * perThread, histogram.getCount());
+        assertEquals(999 + numThreads - 1, histogram.getMaxMicros());
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue("expected about " + expected + " but was " + actual,
+                Math.abs(actual - expected) <= expected * 0.07);
+    }
+}
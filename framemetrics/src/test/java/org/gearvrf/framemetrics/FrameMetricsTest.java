@@ -0,0 +1,185 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.framemetrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class FrameMetricsTest {
+    private static final long MILLIS = 1000000L;
+
+    /**
+     * Clock which only moves when told to.
+     */
+    private static class FakeClock implements FrameMetrics.Clock {
+        long now = 1;
+
+        public long nanoTime() {
+            return now;
+        }
+
+        void advance(long nanos) {
+            now += nanos;
+        }
+    }
+
+    @Test
+    public void budgetFollowsTargetRate() {
+        FrameMetrics metrics = new FrameMetrics(90, new FakeClock());
+
+        assertEquals(11111111, metrics.getBudgetNanos());
+        metrics.setTargetFrameRate(72);
+        assertEquals(72.0f, metrics.getTargetFrameRate(), 0);
+        assertEquals(13888888, metrics.getBudgetNanos());
+    }
+
+    @Test
+    public void beginAndEndFrameRecordStepsAndIntervals() {
+        FakeClock clock = new FakeClock();
+        FrameMetrics metrics = new FrameMetrics(60, clock);
+
+        for (int i = 0; i < 10; ++i) {
+            metrics.beginFrame();
+            clock.advance((i == 9) ? 20 * MILLIS : 4 * MILLIS);  // step
+            metrics.endFrame();
+            clock.advance(12 * MILLIS);                          // rest of the frame
+        }
+        // the first frame has no previous one to measure from
+        assertEquals(9, metrics.getFrameTimes().getCount());
+        assertEquals(10, metrics.getStepTimes().getCount());
+        assertEquals(20000, metrics.getStepTimes().getMaxMicros());
+        assertEquals(1, metrics.getStepsOverBudget());
+        assertEquals(0, metrics.getFramesOverBudget());
+        assertEquals(16000, metrics.getFrameTimes().getMaxMicros());
+    }
+
+    @Test
+    public void onlyOneSamplePerFrame() {
+        FakeClock clock = new FakeClock();
+        FrameMetrics metrics = new FrameMetrics(60, clock);
+
+        for (int i = 0; i < 61; ++i) {
+            if (i > 0) {
+                clock.advance(1000 * MILLIS / 60);
+            }
+            metrics.beginFrame();
+            metrics.endFrame();
+        }
+        FrameMetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(60, snapshot.frames.count);
+        assertEquals(16666, snapshot.frames.p50, 16666 * 0.07);
+        assertEquals(60.0f, snapshot.getFramesPerSecond(), 0.01f);
+    }
+
+    @Test
+    public void framesOverBudget() {
+        FakeClock clock = new FakeClock();
+        FrameMetrics metrics = new FrameMetrics(60, clock);
+
+        metrics.tick();
+        clock.advance(10 * MILLIS);
+        metrics.tick();
+        clock.advance(30 * MILLIS);
+        metrics.tick();
+        clock.advance(17 * MILLIS);
+        metrics.tick();
+        assertEquals(3, metrics.getFrameTimes().getCount());
+        assertEquals(2, metrics.getFramesOverBudget());
+    }
+
+    @Test
+    public void timers() {
+        FakeClock clock = new FakeClock();
+        FrameMetrics metrics = new FrameMetrics(60, clock);
+        FrameTimer physics = metrics.getTimer("physics");
+
+        assertSame(physics, metrics.getTimer("physics"));
+        long start = physics.start();
+        clock.advance(3 * MILLIS);
+        physics.stop(start);
+        physics.record(5 * MILLIS);
+
+        FrameMetricsSnapshot.Stats stats = metrics.snapshot().timers.get("physics");
+        assertNotNull(stats);
+        assertEquals(2, stats.count);
+        assertEquals(4000, stats.mean);
+        assertEquals(5000, stats.max);
+    }
+
+    @Test
+    public void reporterCalledAtInterval() {
+        FakeClock clock = new FakeClock();
+        FrameMetrics metrics = new FrameMetrics(60, clock);
+        final List<FrameMetricsSnapshot> reports = new ArrayList<FrameMetricsSnapshot>();
+
+        metrics.setReporter(new FrameMetrics.Reporter() {
+            public void onReport(FrameMetricsSnapshot snapshot) {
+                reports.add(snapshot);
+            }
+        }, 1000);
+        for (int i = 0; i < 250; ++i) {
+            metrics.tick();
+            clock.advance(10 * MILLIS);
+        }
+        assertEquals(2, reports.size());
+    }
+
+    @Test
+    public void reset() {
+        FakeClock clock = new FakeClock();
+        FrameMetrics metrics = new FrameMetrics(60, clock);
+
+        metrics.beginFrame();
+        clock.advance(40 * MILLIS);
+        metrics.endFrame();
+        metrics.tick();
+        metrics.getTimer("audio").record(MILLIS);
+        metrics.reset();
+
+        FrameMetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(0, snapshot.frames.count);
+        assertEquals(0, snapshot.steps.count);
+        assertEquals(0, snapshot.stepsOverBudget);
+        assertEquals(0, snapshot.framesOverBudget);
+        assertEquals(0, snapshot.timers.get("audio").count);
+        assertEquals(0, snapshot.elapsed);
+    }
+
+    @Test
+    public void json() {
+        FakeClock clock = new FakeClock();
+        FrameMetrics metrics = new FrameMetrics(72, clock);
+
+        metrics.tick();
+        clock.advance(10 * MILLIS);
+        metrics.tick();
+        metrics.getTimer("a\"b").record(2 * MILLIS);
+
+        assertEquals("{\"targetFrameRate\":72.0,\"fps\":100.00,\"budget\":13888,\"elapsed\":10000,"
+                + "\"frames\":{\"count\":1,\"mean\":10000,\"p50\":10000,\"p95\":10000,\"p99\":10000,\"max\":10000},"
+                + "\"framesOverBudget\":0,"
+                + "\"steps\":{\"count\":0,\"mean\":0,\"p50\":0,\"p95\":0,\"p99\":0,\"max\":0},"
+                + "\"stepsOverBudget\":0,"
+                + "\"timers\":{\"a\\\"b\":{\"count\":1,\"mean\":2000,\"p50\":2000,\"p95\":2000,\"p99\":2000,\"max\":2000}}}",
+                metrics.snapshot().toJson());
+    }
+}
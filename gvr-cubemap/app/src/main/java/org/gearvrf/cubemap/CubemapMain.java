@@ -32,6 +32,8 @@ import org.gearvrf.GVRTexture;
 import org.gearvrf.scene_objects.GVRCubeSceneObject;
 import org.gearvrf.scene_objects.GVRCylinderSceneObject;
 import org.gearvrf.scene_objects.GVRSphereSceneObject;
+import org.gearvrf.framemetrics.FrameMetrics;
+import org.gearvrf.framemetrics.FrameMetricsSnapshot;
 
 import java.io.File;
 import java.util.ArrayList;
@@ -73,6 +75,12 @@ public final class CubemapMain extends GVRMain {
     }
     @Override
     public void onInit(GVRContext gvrContext) {
+        FrameMetrics.getDefault().setReporter(new FrameMetrics.Reporter() {
+            public void onReport(FrameMetricsSnapshot snapshot) {
+                Log.v("FrameMetrics", snapshot.toJson());
+            }
+        }, FrameMetrics.DEFAULT_REPORT_INTERVAL);
+
         mGVRContext = gvrContext;
 
         GVRScene scene = mGVRContext.getMainScene();
@@ -325,7 +333,7 @@ public final class CubemapMain extends GVRMain {
 
     @Override
     public void onStep() {
-        FPSCounter.tick();
+        FrameMetrics.getDefault().tick();
     }
 
     public void onTouch() {
@@ -16,18 +16,22 @@
 package org.gearvrf.immersivepedia;
 
 import android.media.MediaPlayer;
+import android.util.Log;
 import android.view.MotionEvent;
 
 import org.gearvrf.GVRContext;
 import org.gearvrf.GVRMain;
 import org.gearvrf.GVRScene;
+import org.gearvrf.immersivepedia.dinosaur.DinosaurFactory;
 import org.gearvrf.immersivepedia.focus.FocusableController;
 import org.gearvrf.immersivepedia.focus.PickHandler;
 import org.gearvrf.immersivepedia.input.TouchPadInput;
+import org.gearvrf.immersivepedia.loadComponent.LoadComponentListener;
 import org.gearvrf.immersivepedia.scene.DinosaurScene;
 import org.gearvrf.immersivepedia.scene.MenuScene;
 import org.gearvrf.immersivepedia.util.AudioClip;
-import org.gearvrf.immersivepedia.util.FPSCounter;
+import org.gearvrf.framemetrics.FrameMetrics;
+import org.gearvrf.framemetrics.FrameMetricsSnapshot;
 import org.gearvrf.io.GVRCursorController;
 import org.gearvrf.io.GVRInputManager;
 import org.gearvrf.io.GVRTouchPadGestureListener;
@@ -41,11 +45,32 @@ public class Main extends GVRMain {
     private static MediaPlayer mediaPlayer;
     private GVRCursorController mController;
     private PickHandler pickHandler;
+    private DinosaurFactory dinosaurFactory;
 
     @Override
     public void onInit(final GVRContext gvrContext) throws Throwable {
+        FrameMetrics.getDefault().setReporter(new FrameMetrics.Reporter() {
+            public void onReport(FrameMetricsSnapshot snapshot) {
+                Log.v("FrameMetrics", snapshot.toJson());
+            }
+        }, FrameMetrics.DEFAULT_REPORT_INTERVAL);
+
         mGvrContext = gvrContext;
 
+        // start loading the dinosaurs while the rest of the app initializes
+        dinosaurFactory = DinosaurFactory.getInstance(gvrContext);
+        dinosaurFactory.addLoadListener(new LoadComponentListener() {
+            @Override
+            public void onFinishLoadComponent() {
+                Log.d("Immersivepedia", "Dinosaur meshes loaded");
+            }
+
+            @Override
+            public void onLoadProgress(int loaded, int total) {
+                Log.v("Immersivepedia", "Loaded dinosaur mesh " + loaded + "/" + total);
+            }
+        });
+
         AudioClip.getInstance(gvrContext.getContext());
         mediaPlayer = MediaPlayer.create(gvrContext.getContext(),
                 R.raw.sfx_ambient_1_1);
@@ -53,8 +78,8 @@ public class Main extends GVRMain {
         mediaPlayer.setVolume(1.0f, 1.0f);
         mediaPlayer.start();
 
-        dinosaurScene = new DinosaurScene(gvrContext);
         menuScene = new MenuScene(gvrContext);
+        dinosaurScene = new DinosaurScene(gvrContext);
         pickHandler = new PickHandler();
         closeSplashScreen();
 
@@ -86,12 +111,20 @@ public class Main extends GVRMain {
 
     @Override
     public void onStep() {
+        FrameMetrics metrics = FrameMetrics.getDefault();
+        metrics.beginFrame();
         TouchPadInput.process();
-        FPSCounter.tick();
+
+        if (!dinosaurFactory.isLoaded()) {
+            // keep loading the dinosaur the user is turning towards first
+            float[] lookAt = mGvrContext.getMainScene().getMainCameraRig().getLookAt();
+            dinosaurFactory.prioritize(lookAt[0], lookAt[2]);
+        }
 
         if (mGvrContext.getMainScene().equals(dinosaurScene)) {
             dinosaurScene.onStep();
         }
+        metrics.endFrame();
     }
 
     @Override
@@ -18,10 +18,10 @@ package org.gearvrf.immersivepedia.dinosaur;
 import org.gearvrf.GVRAndroidResource;
 import org.gearvrf.GVRContext;
 import org.gearvrf.GVRImportSettings;
-import org.gearvrf.GVRMesh;
 import org.gearvrf.GVRTexture;
 import org.gearvrf.immersivepedia.R;
 import org.gearvrf.immersivepedia.focus.FocusableSceneObject;
+import org.gearvrf.immersivepedia.loadComponent.LoadComponentListener;
 
 import java.util.EnumSet;
 
@@ -41,6 +41,19 @@ public class DinosaurFactory {
     public static float APATOSAURUS_ANGLE_AROUND_CAMERA = (2 * NEGATIVE_DEGRES_90) + adjustAngleArroundCamera;
     public static float TREX_ANGLE_AROUND_CAMERA = (1 * NEGATIVE_DEGRES_90) + adjustAngleArroundCamera;
 
+    private static final int PRELOAD_THREADS = 3;
+
+    public static final int STYRACOSAURUS = 0;
+    public static final int ANKYLOSAURUS = 1;
+    public static final int APATOSAURUS = 2;
+    public static final int TREX = 3;
+    public static final int NUM_DINOSAURS = 4;
+
+    private static final float[] ANGLES_AROUND_CAMERA = {
+            STYRACOSAURUS_ANGLE_AROUND_CAMERA, ANKYLOSAURUS_ANGLE_AROUND_CAMERA,
+            APATOSAURUS_ANGLE_AROUND_CAMERA, TREX_ANGLE_AROUND_CAMERA
+    };
+
     private static DinosaurFactory instance;
     private GVRContext gvrContext;
 
@@ -49,18 +62,42 @@ public class DinosaurFactory {
     EnumSet<GVRImportSettings> settings = GVRImportSettings
             .getRecommendedSettingsWith(additionalSettings);
 
+    private MeshPreloader preloader;
+    private MeshPreloader.Task[][] meshes = new MeshPreloader.Task[NUM_DINOSAURS][];
+    private GVRTexture[] textures = new GVRTexture[NUM_DINOSAURS];
+    private GVRTexture baseTexture;
+    private GVRTexture groundTexture;
+
     private Dinosaur styracosaurus;
     private Dinosaur ankylosaurus;
     private Dinosaur apatosaurus;
     private Dinosaur tRex;
 
+    /**
+     * Starts loading the assets of all dinosaurs in the background. The
+     * meshes are loaded in parallel, the dinosaur nearest to where the user
+     * is looking first, and each dinosaur is built when it is first asked for.
+     */
     private DinosaurFactory(GVRContext gvrContext) {
         this.gvrContext = gvrContext;
-        styracosaurus = createStyrocosaurus();
-        ankylosaurus = createAnkylosaurus();
-        apatosaurus = createApatosaurus();
-        tRex = createTRex();
+        preloader = new MeshPreloader(gvrContext, settings, meshes.length);
 
+        preload(STYRACOSAURUS, R.raw.styracosaurus_mesh, R.raw.styracosaurus_tex_diffuse,
+                R.raw.styracosaurus_base_mesh, R.raw.styracosaurus_ground_mesh);
+        preload(ANKYLOSAURUS, R.raw.ankylosaurus_mesh, R.raw.ankyosaurus_tex_diffuse,
+                R.raw.ankylosaurus_base_mesh, R.raw.ankylosaurus_ground_mesh);
+        preload(APATOSAURUS, R.raw.apatosaurus_mesh, R.raw.apatosaurus_tex_diffuse,
+                R.raw.apatosaurus_base_mesh, R.raw.apatosaurus_ground_mesh);
+        preload(TREX, R.raw.trex_mesh, R.raw.trex_tex_diffuse,
+                R.raw.trex_base_mesh, R.raw.trex_ground_mesh);
+
+        // textures are decoded in the background by the asset loader
+        baseTexture = loadTexture(R.drawable.base_tex_diffuse);
+        groundTexture = loadTexture(R.raw.ground_tex_diffuse);
+
+        float[] lookAt = gvrContext.getMainScene().getMainCameraRig().getLookAt();
+        prioritize(lookAt[0], lookAt[2]);
+        preloader.start(PRELOAD_THREADS);
     }
 
     public static synchronized DinosaurFactory getInstance(GVRContext gvrContext) {
@@ -70,77 +107,111 @@ public class DinosaurFactory {
         return instance;
     }
 
-    private Dinosaur createDinosauros(int dinoMeshId, int dinoTextureId, int baseMeshId, int groundMeshId) {
-
-        FocusableSceneObject dino = createDinosaur(dinoMeshId, dinoTextureId);
-
-        FocusableSceneObject base = createDinosaurBase(baseMeshId);
-        FocusableSceneObject ground = createDinosaurGround(groundMeshId);
-
-        return new Dinosaur(gvrContext, dino, base, ground);
+    /**
+     * Loads the dinosaurs closest to a gaze direction first. Can be called
+     * every frame while loading, it never waits for a mesh.
+     *
+     * @param lookX X component of the direction the user looks at
+     * @param lookZ Z component of the direction the user looks at
+     */
+    public void prioritize(float lookX, float lookZ) {
+        for (int i = 0; i < ANGLES_AROUND_CAMERA.length; i++) {
+            double angle = Math.toRadians(ANGLES_AROUND_CAMERA[i]);
+            float x = (float) -Math.sin(angle);
+            float z = (float) -Math.cos(angle);
+            preloader.setPriority(i, -(x * lookX + z * lookZ));
+        }
     }
 
-    private FocusableSceneObject createDinosaur(int dinoMeshId, int dinoTextureId) {
-        GVRMesh baseMesh = gvrContext.getAssetLoader().loadMesh(new GVRAndroidResource(gvrContext, dinoMeshId), settings);
-        GVRTexture baseTexture = gvrContext.getAssetLoader().loadTexture(new GVRAndroidResource(gvrContext, dinoTextureId));
-        final FocusableSceneObject dino = new FocusableSceneObject(gvrContext, baseMesh, baseTexture);
-
-        return dino;
+    /**
+     * Picks the dinosaur to build next.
+     *
+     * @param built dinosaurs already built, indexed by {@link #STYRACOSAURUS} and the like
+     * @return the dinosaur closest to the gaze which is not built yet, -1 if all are
+     */
+    public int nextDinosaur(boolean[] built) {
+        return preloader.bestGroup(built);
     }
 
-    private FocusableSceneObject createDinosaurBase(int baseMeshId) {
-        GVRMesh baseMesh = gvrContext.getAssetLoader().loadMesh(new GVRAndroidResource(gvrContext, baseMeshId), settings);
-        GVRTexture baseTexture = gvrContext.getAssetLoader().loadTexture(new GVRAndroidResource(gvrContext, R.drawable.base_tex_diffuse));
-        FocusableSceneObject dinosaurBase = new FocusableSceneObject(gvrContext, baseMesh, baseTexture);
-        return dinosaurBase;
+    /**
+     * Waits until the meshes of a dinosaur are loaded, so getting it
+     * afterwards does not block. The calling thread helps loading them.
+     *
+     * @param dinosaur {@link #STYRACOSAURUS} and the like
+     */
+    public void waitForMeshes(int dinosaur) {
+        for (MeshPreloader.Task task : meshes[dinosaur]) {
+            preloader.get(task);
+        }
     }
 
-    private FocusableSceneObject createDinosaurGround(int groundMesh) {
-
-        GVRMesh mesh = gvrContext.getAssetLoader().loadMesh(new GVRAndroidResource(gvrContext, groundMesh), settings);
-        GVRTexture groundTexture = gvrContext.getAssetLoader().loadTexture(new GVRAndroidResource(gvrContext, R.raw.ground_tex_diffuse));
-        final FocusableSceneObject dinosaurGround = new FocusableSceneObject(gvrContext, mesh, groundTexture);
-
-        return dinosaurGround;
+    /**
+     * @return whether all dinosaur meshes are loaded
+     */
+    public boolean isLoaded() {
+        return preloader.isDone();
     }
 
-    private Dinosaur createStyrocosaurus() {
-        return createDinosauros(
-                R.raw.styracosaurus_mesh, R.raw.styracosaurus_tex_diffuse,
-                R.raw.styracosaurus_base_mesh, R.raw.styracosaurus_ground_mesh);
+    /**
+     * Reports the progress of loading the dinosaur meshes.
+     * {@link LoadComponentListener#onFinishLoadComponent()} is called once
+     * all of them are loaded.
+     */
+    public void addLoadListener(LoadComponentListener listener) {
+        preloader.addListener(listener);
     }
 
-    private Dinosaur createAnkylosaurus() {
-        return createDinosauros(
-                R.raw.ankylosaurus_mesh, R.raw.ankyosaurus_tex_diffuse,
-                R.raw.ankylosaurus_base_mesh, R.raw.ankylosaurus_ground_mesh);
+    private void preload(int dinosaur, int dinoMeshId, int dinoTextureId, int baseMeshId, int groundMeshId) {
+        meshes[dinosaur] = new MeshPreloader.Task[] {
+                preloader.add(dinosaur, dinoMeshId),
+                preloader.add(dinosaur, baseMeshId),
+                preloader.add(dinosaur, groundMeshId)
+        };
+        textures[dinosaur] = loadTexture(dinoTextureId);
     }
 
-    private Dinosaur createApatosaurus() {
-        return createDinosauros(
-                R.raw.apatosaurus_mesh, R.raw.apatosaurus_tex_diffuse,
-                R.raw.apatosaurus_base_mesh, R.raw.apatosaurus_ground_mesh);
+    private GVRTexture loadTexture(int textureId) {
+        return gvrContext.getAssetLoader().loadTexture(new GVRAndroidResource(gvrContext, textureId));
     }
 
-    private Dinosaur createTRex() {
-        return createDinosauros(
-                R.raw.trex_mesh, R.raw.trex_tex_diffuse,
-                R.raw.trex_base_mesh, R.raw.trex_ground_mesh);
+    private Dinosaur createDinosauros(int dinosaur) {
+        MeshPreloader.Task[] tasks = meshes[dinosaur];
+
+        FocusableSceneObject dino = new FocusableSceneObject(gvrContext, preloader.get(tasks[0]),
+                textures[dinosaur]);
+        FocusableSceneObject base = new FocusableSceneObject(gvrContext, preloader.get(tasks[1]),
+                baseTexture);
+        FocusableSceneObject ground = new FocusableSceneObject(gvrContext, preloader.get(tasks[2]),
+                groundTexture);
+
+        return new Dinosaur(gvrContext, dino, base, ground);
     }
 
-    public Dinosaur getStyracosaurus() {
+    public synchronized Dinosaur getStyracosaurus() {
+        if (styracosaurus == null) {
+            styracosaurus = createDinosauros(STYRACOSAURUS);
+        }
         return styracosaurus;
     }
 
-    public Dinosaur getAnkylosaurus() {
+    public synchronized Dinosaur getAnkylosaurus() {
+        if (ankylosaurus == null) {
+            ankylosaurus = createDinosauros(ANKYLOSAURUS);
+        }
         return ankylosaurus;
     }
 
-    public Dinosaur getApatosaurus() {
+    public synchronized Dinosaur getApatosaurus() {
+        if (apatosaurus == null) {
+            apatosaurus = createDinosauros(APATOSAURUS);
+        }
         return apatosaurus;
     }
 
-    public Dinosaur getTRex() {
+    public synchronized Dinosaur getTRex() {
+        if (tRex == null) {
+            tRex = createDinosauros(TREX);
+        }
         return tRex;
     }
 
@@ -0,0 +1,190 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.immersivepedia.dinosaur;
+
+import org.gearvrf.GVRAndroidResource;
+import org.gearvrf.GVRContext;
+import org.gearvrf.GVRImportSettings;
+import org.gearvrf.GVRMesh;
+import org.gearvrf.immersivepedia.loadComponent.LoadComponentListener;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Loads meshes in the background on a small number of worker threads.
+ *
+ * Meshes belong to groups, one per dinosaur. Workers always take a mesh of
+ * the group with the best priority next, so the priorities can be changed
+ * while loading. A thread waiting for the meshes of a group loads the
+ * pending meshes of that group itself rather than sitting idle.
+ */
+class MeshPreloader {
+
+    static class Task {
+        final int group;
+        final int resourceId;
+        GVRMesh mesh;
+        RuntimeException error;
+        boolean done = false;
+
+        Task(int group, int resourceId) {
+            this.group = group;
+            this.resourceId = resourceId;
+        }
+    }
+
+    private final GVRContext gvrContext;
+    private final EnumSet<GVRImportSettings> settings;
+    private final float[] priorities;
+    private final List<Task> pending = new ArrayList<Task>();
+    private final List<LoadComponentListener> listeners = new CopyOnWriteArrayList<LoadComponentListener>();
+    private int total = 0;
+    private int loaded = 0;
+
+    MeshPreloader(GVRContext gvrContext, EnumSet<GVRImportSettings> settings, int numGroups) {
+        this.gvrContext = gvrContext;
+        this.settings = settings;
+        this.priorities = new float[numGroups];
+    }
+
+    synchronized Task add(int group, int resourceId) {
+        Task task = new Task(group, resourceId);
+        pending.add(task);
+        total++;
+        return task;
+    }
+
+    /**
+     * Lower values are loaded first.
+     */
+    synchronized void setPriority(int group, float priority) {
+        priorities[group] = priority;
+    }
+
+    /**
+     * @param skip groups to leave out
+     * @return the group with the best priority which is not skipped, -1 if all are
+     */
+    synchronized int bestGroup(boolean[] skip) {
+        int best = -1;
+        for (int g = 0; g < priorities.length; g++) {
+            if (!skip[g] && (best < 0 || priorities[g] < priorities[best])) {
+                best = g;
+            }
+        }
+        return best;
+    }
+
+    synchronized boolean isDone() {
+        return loaded == total;
+    }
+
+    void addListener(LoadComponentListener listener) {
+        listeners.add(listener);
+    }
+
+    void start(int numThreads) {
+        for (int i = 0; i < numThreads; i++) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Task task;
+                    while ((task = take(-1)) != null) {
+                        load(task);
+                    }
+                }
+            }, "MeshPreloader-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Waits until a mesh is loaded.
+     */
+    GVRMesh get(Task task) {
+        while (true) {
+            Task next = null;
+            synchronized (this) {
+                while (!task.done && (next = take(task.group)) == null) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrupted loading mesh", e);
+                    }
+                }
+                if (task.done) {
+                    if (task.error != null) {
+                        throw task.error;
+                    }
+                    return task.mesh;
+                }
+            }
+            load(next);
+        }
+    }
+
+    /**
+     * Removes the next mesh to load from the pending list.
+     *
+     * @param group group to take a mesh of, -1 for the group with the best priority
+     * @return task or null if there is nothing to load
+     */
+    private synchronized Task take(int group) {
+        int best = -1;
+        for (int i = 0; i < pending.size(); i++) {
+            int g = pending.get(i).group;
+            if (group >= 0 ? g == group
+                    : best < 0 || priorities[g] < priorities[pending.get(best).group]) {
+                best = i;
+                if (group >= 0) {
+                    break;
+                }
+            }
+        }
+        return (best >= 0) ? pending.remove(best) : null;
+    }
+
+    private void load(Task task) {
+        GVRMesh mesh = null;
+        RuntimeException error = null;
+        try {
+            mesh = gvrContext.getAssetLoader().loadMesh(new GVRAndroidResource(gvrContext, task.resourceId),
+                    settings);
+        } catch (RuntimeException e) {
+            error = e;
+        }
+
+        int count;
+        synchronized (this) {
+            task.mesh = mesh;
+            task.error = error;
+            task.done = true;
+            count = ++loaded;
+            notifyAll();
+        }
+        for (LoadComponentListener listener : listeners) {
+            listener.onLoadProgress(count, total);
+            if (count == total) {
+                listener.onFinishLoadComponent();
+            }
+        }
+    }
+}
@@ -38,6 +38,12 @@ public class Gallery extends FocusableSceneObject implements PhotoEventListener,
 
     private static final int COLS = 3;
 
+    // rows of photo views kept around the current page, enough for the rows
+    // scrolling out and in during a two row scroll
+    private static final int WINDOW_ROWS = 6;
+    private static final int PREFETCH_ROWS = 2;
+    private static final long TEXTURE_BUDGET = 128L * 1024 * 1024;
+
     private static final int GALLERY_CLOSED = 0x01;
     private static final int GALLERY_OPENED = 0x02;
 
@@ -92,6 +98,7 @@ public class Gallery extends FocusableSceneObject implements PhotoEventListener,
     private GVRContext gvrContext;
     private GVRCollider galleryCollider;
     private int[] photoIds;
+    private PhotoTextureCache textures;
 
     private GVRSceneObject leftArrow;
     private GVRSceneObject rightArrow;
@@ -183,6 +190,7 @@ public class Gallery extends FocusableSceneObject implements PhotoEventListener,
     public Gallery(GVRContext gvrContext) {
         super(gvrContext, GALLERY_WIDTH, GALLERY_HEIGHT, gvrContext.getAssetLoader().loadTexture(new GVRAndroidResource(gvrContext, R.drawable.empty_clickable)));
         this.gvrContext = gvrContext;
+        this.textures = new PhotoTextureCache(gvrContext, TEXTURE_BUDGET);
         this.getRenderData().setRenderingOrder(RenderingOrderApplication.GALLERY);
         this.setName("gallery");
         galleryCollider = new GVRMeshCollider(getGVRContext(), true);
@@ -227,6 +235,10 @@ public class Gallery extends FocusableSceneObject implements PhotoEventListener,
                     cell = 0;
 
                 item.y = r * PHOTO_VIEW_DISTANCE_BETWEEN_PHOTOS;
+                item.originalX = item.x;
+                item.originalY = item.y;
+                item.originalZ = item.z;
+                item.index = gridItems.size();
                 gridItems.add(item);
             }
         }
@@ -257,18 +269,28 @@ public class Gallery extends FocusableSceneObject implements PhotoEventListener,
         this.addChildObject(this.highlightRightPhotoView);
     }
 
+    /**
+     * Creates the photo views for the rows around the current page. The views
+     * are recycled for other rows as the gallery scrolls, so their number
+     * does not depend on the number of photos.
+     */
     private void createInitialPhotos() {
-        int index = 0;
+        int numViews = Math.min(WINDOW_ROWS, this.getNumberOfPages()) * Gallery.COLS;
+        int first = this.firstWindowRow(this.currentPage, numViews) * Gallery.COLS;
 
         PhotoGridItem centered = new PhotoGridItem();
         PhotoGridItem left = new PhotoGridItem();
         PhotoGridItem right = new PhotoGridItem();
 
-        for (PhotoGridItem item : this.gridItems) {
-
-            PhotoView photo = PhotoView.createPhotoView(this.gvrContext, this.photoIds[index]);
+        for (int i = 0; i < numViews; i++) {
+            this.photos.add(null);
+        }
+        for (int index = first; index < first + numViews; index++) {
+            int photoId = this.photoIds[index];
+            PhotoView photo = new PhotoView(this.gvrContext, photoId, this.textures.acquire(photoId));
+            PhotoGridItem item = this.gridItems.get(index);
             this.addChildObject(photo);
-            this.photos.add(photo);
+            this.photos.set(index % numViews, photo);
             photo.getTransform().setPosition(item.x, item.y, item.z);
             photo.getRenderData().setCullFace(GVRCullFaceEnum.None);
             photo.gridItem = item;
@@ -290,12 +312,67 @@ public class Gallery extends FocusableSceneObject implements PhotoEventListener,
             photo.rightGridItem.z = this.highlightRightPhotoView.getTransform().getPositionZ();
 
             photo.PhotoItemListener = this;
-            item.index = index;
             photo.applyOpacityConstrants();
+        }
+    }
 
-            photo.gridItem.page++;
-            index++;
+    private int firstWindowRow(int page, int numViews) {
+        int first = page - WINDOW_ROWS / 2;
+        return Math.max(0, Math.min(first, this.getNumberOfPages() - numViews / Gallery.COLS));
+    }
+
+    /**
+     * Binds the photo views to the rows around a page and prefetches the
+     * textures of the rows after them in the scroll direction.
+     *
+     * @param page      page to center the views on
+     * @param gridPage  page the grid item positions currently reflect
+     * @param direction 1 when scrolling down, -1 when scrolling up, 0 if not scrolling
+     */
+    private void updateWindow(int page, int gridPage, int direction) {
+        int numViews = this.photos.size();
+        int firstRow = this.firstWindowRow(page, numViews);
+        int first = firstRow * Gallery.COLS;
+
+        for (int index = first; index < first + numViews; index++) {
+            PhotoView view = this.photos.get(index % numViews);
+            if (view.gridItem.index != index) {
+                this.bindPhoto(view, index, gridPage);
+            }
         }
+
+        if (direction != 0) {
+            int row = (direction > 0) ? firstRow + numViews / Gallery.COLS : firstRow - 1;
+            for (int i = 0; i < PREFETCH_ROWS && row >= 0 && row < this.getNumberOfPages(); i++) {
+                for (int c = 0; c < Gallery.COLS; c++) {
+                    this.textures.prefetch(this.photoIds[row * Gallery.COLS + c]);
+                }
+                row += direction;
+            }
+        }
+    }
+
+    private void bindPhoto(PhotoView photo, int index, int gridPage) {
+        PhotoGridItem item = this.gridItems.get(index);
+        int photoId = this.photoIds[index];
+
+        int oldPhotoId = photo.getPhotoId();
+        photo.setPhoto(photoId, this.textures.acquire(photoId));
+        this.textures.release(oldPhotoId);
+
+        item.x = item.originalX;
+        item.y = item.originalY - PHOTO_VIEW_DISTANCE_BETWEEN_PHOTOS * gridPage;
+        item.z = item.originalZ;
+        photo.gridItem = item;
+        photo.currentState = PhotoView.PHOTO_VIEW_CLOSED;
+        photo.getTransform().setScale(1.0f, 1.0f, 1.0f);
+        photo.getTransform().setPosition(item.x, item.y, item.z);
+        photo.applyOpacityConstrants();
+    }
+
+    private PhotoView getBoundPhoto(int index) {
+        PhotoView view = this.photos.get(index % this.photos.size());
+        return (view.gridItem.index == index) ? view : null;
     }
 
     private void lockAllPhotoViewExcept(PhotoView view) {
@@ -373,7 +450,9 @@ public class Gallery extends FocusableSceneObject implements PhotoEventListener,
         if (currentPage <= 1 || currentState == Gallery.GALLERY_CLOSED)
             return;
 
+        int oldPage = currentPage;
         currentPage = currentPage - 2;
+        updateWindow(currentPage, oldPage, -1);
         updateScrollbar(true, this.currentPage);
 
         for (PhotoView view : this.photos) {
@@ -386,7 +465,9 @@ public class Gallery extends FocusableSceneObject implements PhotoEventListener,
         if (currentPage >= (this.getNumberOfPages() - 1) || currentState == Gallery.GALLERY_CLOSED)
             return;
 
+        int oldPage = currentPage;
         currentPage = currentPage + 2;
+        updateWindow(currentPage, oldPage, 1);
         updateScrollbar(true, this.currentPage);
 
         for (PhotoView view : this.photos) {
@@ -427,44 +508,49 @@ public class Gallery extends FocusableSceneObject implements PhotoEventListener,
         int index = view.gridItem.index - 1;
         boolean wrapAround = false;
         if (index < 0) {
-            index = this.photos.size() - 1;
+            index = this.gridItems.size() - 1;
             wrapAround = true;
         }
 
-        PhotoView nextPhoto = photos.get(index);
-        if (nextPhoto.getRenderData().getMaterial().getOpacity() < 0.9f) {
+        PhotoView nextPhoto = getBoundPhoto(index);
+        if (nextPhoto == null || nextPhoto.getRenderData().getMaterial().getOpacity() < 0.9f) {
             currentPage--;
             if (wrapAround)
                 currentPage = this.getNumberOfPages() - 1;
         }
 
         syncGrid();
-        nextPhoto.openActionWithAnimation(PhotoView.PHOTO_VIEW_ANIMATION_LEFT_TO_RIGHT);
+        nextPhoto = getBoundPhoto(index);
+        if (nextPhoto != null)
+            nextPhoto.openActionWithAnimation(PhotoView.PHOTO_VIEW_ANIMATION_LEFT_TO_RIGHT);
     }
 
     @Override
     public void itemSwipedToLeft(PhotoView view) {
         int index = view.gridItem.index + 1;
         boolean wrapAround = false;
-        if (index > (this.photos.size() - 1)) {
+        if (index > (this.gridItems.size() - 1)) {
             index = 0;
             wrapAround = true;
         }
 
-        PhotoView nextPhoto = photos.get(index);
-        if (nextPhoto.getRenderData().getMaterial().getOpacity() < 0.9f) {
+        PhotoView nextPhoto = getBoundPhoto(index);
+        if (nextPhoto == null || nextPhoto.getRenderData().getMaterial().getOpacity() < 0.9f) {
             currentPage++;
             if (wrapAround)
                 currentPage = 1;
         }
 
         syncGrid();
-        nextPhoto.openActionWithAnimation(PhotoView.PHOTO_VIEW_ANIMATION_RIGHT_TO_LEFT);
+        nextPhoto = getBoundPhoto(index);
+        if (nextPhoto != null)
+            nextPhoto.openActionWithAnimation(PhotoView.PHOTO_VIEW_ANIMATION_RIGHT_TO_LEFT);
     }
 
     public void syncGrid() {
 
         resetAllGridPositon();
+        updateWindow(currentPage, 0, 0);
         for (PhotoView view : this.photos) {
 
             view.applyScrollPage(currentPage);
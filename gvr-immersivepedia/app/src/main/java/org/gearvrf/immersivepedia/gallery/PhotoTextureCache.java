@@ -0,0 +1,137 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.immersivepedia.gallery;
+
+import android.content.res.Resources;
+import android.graphics.BitmapFactory;
+import android.util.SparseLongArray;
+
+import org.gearvrf.GVRAndroidResource;
+import org.gearvrf.GVRContext;
+import org.gearvrf.GVRTexture;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Textures of the gallery photos, kept within a byte budget.
+ *
+ * Textures are requested from the asset loader, which decodes them in the
+ * background, so asking for a photo never blocks. Photos bound to a
+ * {@link PhotoView} are referenced and never evicted; the others are
+ * released least recently used first once the estimated size of all
+ * textures exceeds the budget. The size of a photo is read from its header
+ * the first time it is loaded and remembered after that.
+ */
+public class PhotoTextureCache {
+
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private final GVRContext gvrContext;
+    private final Resources resources;
+    private final long budget;
+    private long bytes = 0;
+
+    private final LinkedHashMap<Integer, Entry> entries = new LinkedHashMap<Integer, Entry>(16, 0.75f,
+            true);
+    private final SparseLongArray sizes = new SparseLongArray();
+
+    private static class Entry {
+        GVRTexture texture;
+        long bytes;
+        int refs;
+    }
+
+    public PhotoTextureCache(GVRContext gvrContext, long budget) {
+        this.gvrContext = gvrContext;
+        this.resources = gvrContext.getContext().getResources();
+        this.budget = budget;
+    }
+
+    /**
+     * Gets the texture of a photo and keeps it loaded until released.
+     */
+    public GVRTexture acquire(int resourceId) {
+        Entry entry = load(resourceId);
+        entry.refs++;
+        return entry.texture;
+    }
+
+    public void release(int resourceId) {
+        Entry entry = entries.get(resourceId);
+        if (entry != null && entry.refs > 0) {
+            entry.refs--;
+            trim();
+        }
+    }
+
+    /**
+     * Starts loading the texture of a photo which will be needed soon.
+     */
+    public void prefetch(int resourceId) {
+        load(resourceId);
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    private Entry load(int resourceId) {
+        Entry entry = entries.get(resourceId);
+        if (entry == null) {
+            entry = new Entry();
+            entry.texture = gvrContext.getAssetLoader().loadTexture(
+                    new GVRAndroidResource(gvrContext, resourceId));
+            entry.bytes = estimateBytes(resourceId);
+            entries.put(resourceId, entry);
+            bytes += entry.bytes;
+            trim();
+        }
+        return entry;
+    }
+
+    private void trim() {
+        Iterator<Entry> it = entries.values().iterator();
+        while (bytes > budget && it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.refs == 0) {
+                entry.texture.releaseNative();
+                bytes -= entry.bytes;
+                it.remove();
+            }
+        }
+    }
+
+    private long estimateBytes(int resourceId) {
+        long size = sizes.get(resourceId);
+        if (size == 0) {
+            size = decodeBytes(resourceId);
+            sizes.put(resourceId, size);
+        }
+        return size;
+    }
+
+    private long decodeBytes(int resourceId) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeResource(resources, resourceId, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            return (long) (PhotoView.WIDTH / PhotoView.SIZE_FACTOR)
+                    * (long) (PhotoView.HEIGHT / PhotoView.SIZE_FACTOR) * BYTES_PER_PIXEL;
+        }
+        return (long) options.outWidth * options.outHeight * BYTES_PER_PIXEL;
+    }
+}
@@ -115,8 +115,12 @@ public class PhotoView extends FocusableSceneObject implements FocusListener {
     }
 
     public PhotoView(GVRContext gvrContext, int photo) {
-        this(gvrContext, WIDTH, HEIGHT, gvrContext.getAssetLoader().loadTexture(new GVRAndroidResource(gvrContext,
+        this(gvrContext, photo, gvrContext.getAssetLoader().loadTexture(new GVRAndroidResource(gvrContext,
                 photo)));
+    }
+
+    public PhotoView(GVRContext gvrContext, int photo, GVRTexture texture) {
+        this(gvrContext, WIDTH, HEIGHT, texture);
         this.gvrContext = gvrContext;
         this.photoId = photo;
 
@@ -131,6 +135,18 @@ public class PhotoView extends FocusableSceneObject implements FocusListener {
         setName("photoview");
     }
 
+    protected int getPhotoId() {
+        return photoId;
+    }
+
+    /**
+     * Shows another photo in this view, used when the gallery recycles it.
+     */
+    protected void setPhoto(int photo, GVRTexture texture) {
+        this.photoId = photo;
+        this.getRenderData().getMaterial().setMainTexture(texture);
+    }
+
     private void hover() {
         AudioClip.getInstance(getGVRContext().getContext()).playSound(AudioClip.getUIMenuHoverSoundID(), 1.0f, 1.0f);
         this.getRenderData().getMaterial().setColor(Color.WHITE);
@@ -19,4 +19,12 @@ public interface LoadComponentListener {
 
     void onFinishLoadComponent();
 
+    /**
+     * Called as assets finish loading.
+     *
+     * @param loaded number of assets loaded so far
+     * @param total  number of assets to load
+     */
+    void onLoadProgress(int loaded, int total);
+
 }
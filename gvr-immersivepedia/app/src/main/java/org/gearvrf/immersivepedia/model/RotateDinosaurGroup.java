@@ -146,7 +146,8 @@ public class RotateDinosaurGroup extends GVRSceneObject implements
     private void stopAnimation() {
         gvrContext.getAnimationEngine().stop(animation);
         AudioClip.getInstance(getGVRContext().getContext())
-                .pauseSound(streamID);
+                .stopSound(streamID);
+        streamID = 0;
         animation = null;
         isPlayed = false;
     }
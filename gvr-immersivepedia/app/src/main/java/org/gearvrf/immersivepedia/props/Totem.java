@@ -99,6 +99,10 @@ public class Totem extends FocusableSceneObject implements FocusListener {
                 Totem.this.onFinishLoadComponent();
 
             }
+
+            @Override
+            public void onLoadProgress(int loaded, int total) {
+            }
         });
         this.addChildObject(loadComponent);
 
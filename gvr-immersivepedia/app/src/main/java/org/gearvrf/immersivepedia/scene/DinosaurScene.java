@@ -15,6 +15,8 @@
 
 package org.gearvrf.immersivepedia.scene;
 
+import android.util.Log;
+
 import org.gearvrf.GVRAndroidResource;
 import org.gearvrf.GVRAssetLoader;
 import org.gearvrf.GVRComponent;
@@ -33,7 +35,6 @@ import org.gearvrf.immersivepedia.model.GalleryDinosaurGroup;
 import org.gearvrf.immersivepedia.model.RotateDinosaurGroup;
 import org.gearvrf.immersivepedia.model.TextDinosaurGroup;
 import org.gearvrf.immersivepedia.model.VideoDinosaurGroup;
-import org.gearvrf.immersivepedia.util.FPSCounter;
 
 import java.io.IOException;
 
@@ -48,21 +49,85 @@ public class DinosaurScene extends GVRScene {
 
     private RotateDinosaurGroup rotateDinosaur;
 
-    public DinosaurScene(GVRContext gvrContext) throws IOException {
+    private boolean shown = false;
+
+    /**
+     * Creates the scene with only its surroundings. The dinosaur groups are
+     * added one by one as their meshes finish loading, the one closest to
+     * where the user looks first.
+     */
+    public DinosaurScene(GVRContext gvrContext) {
         super(gvrContext);
         this.gvrContext = gvrContext;
-        DinosaurFactory.getInstance(gvrContext);
         getMainCameraRig().getTransform().setPositionY(CAMERA_Y);
 
-        createVideoDinosauGroup(); // TRex
-        createTextDinosaurGroup(); // Ankylosaurus
-        createRotateDinosaurGroup(); // Styracosaurus
-        createGalleryDinosaurGroup(); // Apatosaurus
-
         addSceneObject(createSkybox()); //
 
         hide();
         addSceneObject(createBlueSkybox()); //
+
+        buildDinosaurGroups();
+    }
+
+    /*
+     * Waits for the meshes of each dinosaur on a background thread and
+     * creates its group on the GL thread once they are loaded.
+     */
+    private void buildDinosaurGroups() {
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                DinosaurFactory factory = DinosaurFactory.getInstance(gvrContext);
+                boolean[] picked = new boolean[DinosaurFactory.NUM_DINOSAURS];
+                int dinosaur;
+
+                while ((dinosaur = factory.nextDinosaur(picked)) >= 0) {
+                    picked[dinosaur] = true;
+                    try {
+                        factory.waitForMeshes(dinosaur);
+                    } catch (RuntimeException e) {
+                        Log.e("Immersivepedia", "Cannot load dinosaur " + dinosaur, e);
+                        continue;
+                    }
+                    final int ready = dinosaur;
+                    gvrContext.runOnGlThread(new Runnable() {
+                        @Override
+                        public void run() {
+                            createDinosaurGroup(ready);
+                        }
+                    });
+                }
+            }
+        }, "DinosaurScene");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void createDinosaurGroup(int dinosaur) {
+        int firstNew = getRoot().getChildrenCount();
+        try {
+            switch (dinosaur) {
+                case DinosaurFactory.TREX:
+                    createVideoDinosauGroup();
+                    break;
+                case DinosaurFactory.ANKYLOSAURUS:
+                    createTextDinosaurGroup();
+                    break;
+                case DinosaurFactory.STYRACOSAURUS:
+                    createRotateDinosaurGroup();
+                    break;
+                case DinosaurFactory.APATOSAURUS:
+                    createGalleryDinosaurGroup();
+                    break;
+            }
+        } catch (IOException e) {
+            Log.e("Immersivepedia", "Cannot create dinosaur " + dinosaur, e);
+        }
+        // groups add their totems straight to the scene, so look at everything added
+        for (int i = firstNew; i < getRoot().getChildrenCount(); i++) {
+            GVRSceneObject added = getRoot().getChildByIndex(i);
+            added.forAllComponents(shown ? showAnimator : hideAll, GVRRenderData.getComponentType());
+        }
     }
 
     private void createRotateDinosaurGroup() throws IOException {
@@ -100,7 +165,6 @@ public class DinosaurScene extends GVRScene {
     }
 
     public void onStep() {
-        FPSCounter.tick();
         if (this.videoDinosaur != null) {
             this.videoDinosaur.onStep();
         }
@@ -137,6 +201,7 @@ public class DinosaurScene extends GVRScene {
     };
 
     public void show() {
+        shown = true;
         GazeController.get().enableGaze();
         getRoot().forAllComponents(showAnimator, GVRRenderData.getComponentType());
     }
@@ -184,19 +249,19 @@ public class DinosaurScene extends GVRScene {
     }
 
     public void closeObjectsInScene() {
-        if (galleryDinosaur.isOpen()) {
+        if (null != galleryDinosaur && galleryDinosaur.isOpen()) {
             galleryDinosaur.closeThis();
         }
-        if (textDinosaur.isOpen()) {
+        if (null != textDinosaur && textDinosaur.isOpen()) {
             textDinosaur.closeAction();
         }
-        if (videoDinosaur.isOpen()) {
+        if (null != videoDinosaur && videoDinosaur.isOpen()) {
             videoDinosaur.closeAction();
         }
     }
 
     public void onPause() {
-        if (rotateDinosaur.isPlayed) {
+        if (null != rotateDinosaur && rotateDinosaur.isPlayed) {
             rotateDinosaur.pauseAnimation();
         }
         if (null != videoDinosaur) {
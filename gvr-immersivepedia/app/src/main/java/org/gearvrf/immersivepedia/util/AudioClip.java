@@ -16,20 +16,28 @@
 package org.gearvrf.immersivepedia.util;
 
 import android.content.Context;
-import android.media.AudioManager;
-import android.media.SoundPool;
-import android.media.SoundPool.OnLoadCompleteListener;
 
+import org.gearvrf.audioeffects.AudioEffects;
+import org.gearvrf.audioeffects.SoundClip;
 import org.gearvrf.immersivepedia.R;
 
+/**
+ * User interface sounds of the application, played by the shared
+ * {@link AudioEffects} engine. Sounds are identified by the ids the
+ * static getters return, playing returns a handle to pause or stop
+ * the sound with.
+ */
 public class AudioClip {
 
+    // voice stealing priorities, higher wins
+    private static final int PRIORITY_HOVER = 0;
+    private static final int PRIORITY_TEXT = 1;
+    private static final int PRIORITY_ACTION = 2;
+    private static final int PRIORITY_LOOP = 3;
+
     private static AudioClip instance;
-    private boolean loaded = false;
-    private int priority;
 
-    private Context context;
-    private SoundPool soundPool;
+    private AudioEffects audioEffects;
     private static int uiImageCloseSoundID;
     private static int uiImageOpenSoundID;
     private static int uiLoadingSoundID;
@@ -43,71 +51,51 @@ public class AudioClip {
 
     public static synchronized AudioClip getInstance(Context androidContext) {
         if (instance == null) {
-            instance = new AudioClip(10, AudioManager.STREAM_MUSIC, 0, androidContext);
+            instance = new AudioClip(AudioEffects.getShared(), androidContext);
         }
         return instance;
     }
 
-    private AudioClip(int maxStreams, int streamType, int srcQuality, Context context) {
-
-        this.context = context;
-
-        soundPool = new SoundPool(maxStreams, streamType, srcQuality);
-        soundPool.setOnLoadCompleteListener(new OnLoadCompleteListener() {
-            @Override
-            public void onLoadComplete(SoundPool soundPool, int sampleId, int status) {
-                loaded = true;
-            }
-        });
-
-        loadinSounds();
-
+    private AudioClip(AudioEffects audioEffects, Context context) {
+        this.audioEffects = audioEffects;
+        loadinSounds(context);
     }
 
     public int playSound(int soundID, float leftVolume, float rightVolume) {
-        int streamID = 0;
-        if (loaded) {
-            streamID = soundPool.play(soundID, leftVolume, rightVolume, 1, 0, 1f);
-            priority = priority++;
-        }
-
-        return streamID;
+        SoundClip clip = audioEffects.getClip(soundID);
+        return (clip != null) ? audioEffects.play(clip, leftVolume, rightVolume, false) : 0;
     }
 
     public int playLoop(int soundID, float leftVolume, float rightVolume) {
-        int streamID = 0;
-        if (loaded) {
-            streamID = soundPool.play(soundID, leftVolume, rightVolume, 1, -1, 1f);
-            priority = priority++;
-        }
-        return streamID;
+        SoundClip clip = audioEffects.getClip(soundID);
+        return (clip != null) ? audioEffects.play(clip, leftVolume, rightVolume, true) : 0;
     }
 
     public void pauseSound(int streamID) {
         // If the stream is not playing (e.g. is stopped or was previously paused), calling this function will have no effect.
-        soundPool.pause(streamID);
+        audioEffects.pause(streamID);
     }
 
     public void stopSound(int streamID) {
         // If the stream is not playing, it will have no effect.
-        soundPool.stop(streamID);
+        audioEffects.stop(streamID);
     }
 
     public void autoPause() {
-        soundPool.autoPause();
-    }
-
-    private void loadinSounds() {
-        uiImageCloseSoundID = soundPool.load(context, R.raw.sfx_ui_image_close_4_1, 1);
-        uiImageOpenSoundID = soundPool.load(context, R.raw.sfx_ui_image_open_4_1, 1);
-        uiLoadingSoundID = soundPool.load(context, R.raw.sfx_ui_loading_1, 1);
-        uiMenuHoverSoundID = soundPool.load(context, R.raw.sfx_ui_menu_hover_2_2, 1);
-        uiMenuSelectSoundID = soundPool.load(context, R.raw.sfx_ui_menu_select_1_1, 1);
-        uiMenuSelectWrongSoundID = soundPool.load(context, R.raw.sfx_ui_menu_select_wrong_1_1, 1);
-        uiRotateSoundID = soundPool.load(context, R.raw.sfx_ui_rotate_1_1, 1);
-        uiTextAppearSoundID = soundPool.load(context, R.raw.sfx_text_appear_4_1, 1);
-        uiTextDisappearSoundID = soundPool.load(context, R.raw.sfx_text_disappear_4_1, 1);
-        uiLoopRotateSoundID = soundPool.load(context, R.raw.loop_rotate, 1);
+        audioEffects.autoPause();
+    }
+
+    private void loadinSounds(Context context) {
+        uiImageCloseSoundID = audioEffects.load(context, R.raw.sfx_ui_image_close_4_1, PRIORITY_ACTION).getId();
+        uiImageOpenSoundID = audioEffects.load(context, R.raw.sfx_ui_image_open_4_1, PRIORITY_ACTION).getId();
+        uiLoadingSoundID = audioEffects.load(context, R.raw.sfx_ui_loading_1, PRIORITY_LOOP).getId();
+        uiMenuHoverSoundID = audioEffects.load(context, R.raw.sfx_ui_menu_hover_2_2, PRIORITY_HOVER).getId();
+        uiMenuSelectSoundID = audioEffects.load(context, R.raw.sfx_ui_menu_select_1_1, PRIORITY_ACTION).getId();
+        uiMenuSelectWrongSoundID = audioEffects.load(context, R.raw.sfx_ui_menu_select_wrong_1_1, PRIORITY_ACTION).getId();
+        uiRotateSoundID = audioEffects.load(context, R.raw.sfx_ui_rotate_1_1, PRIORITY_ACTION).getId();
+        uiTextAppearSoundID = audioEffects.load(context, R.raw.sfx_text_appear_4_1, PRIORITY_TEXT).getId();
+        uiTextDisappearSoundID = audioEffects.load(context, R.raw.sfx_text_disappear_4_1, PRIORITY_TEXT).getId();
+        uiLoopRotateSoundID = audioEffects.load(context, R.raw.loop_rotate, PRIORITY_LOOP).getId();
     }
 
     public static int getUIImageCloseSoundID() {
@@ -0,0 +1,180 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.keyboard.keyboard.model;
+
+/**
+ * Rectangles of a plane of constant z compiled into a uniform grid, so the
+ * rectangle under a point is found with one cell lookup.
+ * <p>
+ * A rectangle already picked stays picked until the point leaves it grown
+ * by a margin.
+ */
+public class HitGrid {
+
+    public static final int NONE = -1;
+
+    private static final int[] EMPTY = new int[0];
+
+    // minX, minY, maxX, maxY of each rectangle
+    private final float[] rects;
+    private final int count;
+    private final float planeZ;
+    private final float margin;
+    private final float minX;
+    private final float minY;
+    private final float cellSize;
+    private final int columns;
+    private final int rows;
+    private final int[][] cells;
+
+    /**
+     * @param rects minX, minY, maxX and maxY of each rectangle
+     * @param planeZ z of the plane the rectangles lie in
+     * @param margin how far a point may leave the rectangle picked before
+     *               and still pick it
+     */
+    public HitGrid(float[] rects, float planeZ, float margin) {
+
+        this.rects = rects;
+        this.count = rects.length / 4;
+        this.planeZ = planeZ;
+        this.margin = margin;
+
+        if (count == 0) {
+            minX = minY = 0;
+            cellSize = 1;
+            columns = rows = 0;
+            cells = new int[0][];
+            return;
+        }
+
+        float left = Float.MAX_VALUE;
+        float bottom = Float.MAX_VALUE;
+        float right = -Float.MAX_VALUE;
+        float top = -Float.MAX_VALUE;
+        float smallest = Float.MAX_VALUE;
+
+        for (int i = 0; i < count; i++) {
+            left = Math.min(left, rects[i * 4]);
+            bottom = Math.min(bottom, rects[i * 4 + 1]);
+            right = Math.max(right, rects[i * 4 + 2]);
+            top = Math.max(top, rects[i * 4 + 3]);
+            smallest = Math.min(smallest, Math.min(rects[i * 4 + 2] - rects[i * 4],
+                    rects[i * 4 + 3] - rects[i * 4 + 1]) / 2);
+        }
+
+        // cells of half the smallest rectangle overlap at most four of them
+        minX = left;
+        minY = bottom;
+        cellSize = smallest > 0 ? smallest : 1;
+        columns = Math.max(1, (int) Math.ceil((right - left) / cellSize));
+        rows = Math.max(1, (int) Math.ceil((top - bottom) / cellSize));
+        cells = new int[columns * rows][];
+
+        for (int i = 0; i < count; i++) {
+
+            int column0 = getColumn(rects[i * 4]);
+            int row0 = getRow(rects[i * 4 + 1]);
+            int column1 = getColumn(rects[i * 4 + 2]);
+            int row1 = getRow(rects[i * 4 + 3]);
+
+            for (int row = row0; row <= row1; row++) {
+                for (int column = column0; column <= column1; column++) {
+                    cells[row * columns + column] = append(cells[row * columns + column], i);
+                }
+            }
+        }
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] == null) {
+                cells[i] = EMPTY;
+            }
+        }
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Find the rectangle a ray points at.
+     *
+     * @param current rectangle picked until now, kept while the ray stays
+     *                near it, or NONE
+     * @return index of the rectangle or NONE
+     */
+    public int pick(float originX, float originY, float originZ,
+            float directionX, float directionY, float directionZ, int current) {
+
+        if (directionZ == 0) {
+            return NONE;
+        }
+        float t = (planeZ - originZ) / directionZ;
+        if (t <= 0) {
+            return NONE;
+        }
+        return pick(originX + directionX * t, originY + directionY * t, current);
+    }
+
+    /**
+     * Find the rectangle at a point of the plane.
+     */
+    public int pick(float x, float y, int current) {
+
+        if (current != NONE && contains(current, x, y, margin)) {
+            return current;
+        }
+        if (x < minX || y < minY) {
+            return NONE;
+        }
+        int column = (int) ((x - minX) / cellSize);
+        int row = (int) ((y - minY) / cellSize);
+        if (column >= columns || row >= rows) {
+            return NONE;
+        }
+        for (int rect : cells[row * columns + column]) {
+            if (contains(rect, x, y, 0)) {
+                return rect;
+            }
+        }
+        return NONE;
+    }
+
+    private boolean contains(int rect, float x, float y, float margin) {
+        return x >= rects[rect * 4] - margin && y >= rects[rect * 4 + 1] - margin
+                && x <= rects[rect * 4 + 2] + margin && y <= rects[rect * 4 + 3] + margin;
+    }
+
+    private int getColumn(float x) {
+        return Math.min(columns - 1, Math.max(0, (int) ((x - minX) / cellSize)));
+    }
+
+    private int getRow(float y) {
+        return Math.min(rows - 1, Math.max(0, (int) ((y - minY) / cellSize)));
+    }
+
+    private static int[] append(int[] array, int value) {
+
+        if (array == null) {
+            return new int[] {
+                value
+            };
+        }
+        int[] result = new int[array.length + 1];
+        System.arraycopy(array, 0, result, 0, array.length);
+        result[array.length] = value;
+        return result;
+    }
+}
@@ -25,6 +25,7 @@ public class KeyboardBase extends GVRSceneObject {
 
     public float softLineWidth = 0;
     private List<GVRSceneObject> objects = null;
+    private KeyboardHitGrid hitGrid = null;
     private List<KeyboardLine> mListKeyboardLine = new ArrayList<>();
 
     public KeyboardBase(GVRContext gvrContext) {
@@ -42,6 +43,7 @@ public class KeyboardBase extends GVRSceneObject {
 
     public void setListKeyboardLine(List<KeyboardLine> listKeyboardLine) {
         this.mListKeyboardLine = listKeyboardLine;
+        this.hitGrid = null;
     }
 
     public List<GVRSceneObject> getObjects() {
@@ -57,4 +59,27 @@ public class KeyboardBase extends GVRSceneObject {
 
         return objects;
     }
+
+    /**
+     * Give back the textures of every key.
+     */
+    public void releaseTextures() {
+
+        for (KeyboardLine line : mListKeyboardLine) {
+            for (GVRSceneObject item : line.getChildren()) {
+                if (item instanceof KeyboardItemBase) {
+                    ((KeyboardItemBase) item).releaseTextures();
+                }
+            }
+        }
+    }
+
+    public KeyboardHitGrid getHitGrid() {
+
+        if (hitGrid == null) {
+            hitGrid = new KeyboardHitGrid(mListKeyboardLine);
+        }
+
+        return hitGrid;
+    }
 }
@@ -0,0 +1,115 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.keyboard.keyboard.model;
+
+import org.gearvrf.GVRSceneObject;
+import org.gearvrf.keyboard.util.Util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Layout of a {@link KeyboardBase} compiled into a {@link HitGrid} in the
+ * space of the lines' parent, so the key under a point of the keyboard
+ * plane is found with one cell lookup instead of a collider per key.
+ * <p>
+ * Every key owns the slot it was laid out in, its width plus spacing and
+ * the height of a line, so the keys tile the keyboard without gaps. A key
+ * already looked at keeps the gaze until the point leaves its slot grown
+ * by a margin, which stops the hover flickering on key borders.
+ */
+public class KeyboardHitGrid {
+
+    public static final int NO_KEY = HitGrid.NONE;
+
+    private static final float HYSTERESIS_MARGIN = Util.convertPixelToVRFloatValue(20);
+
+    private final KeyboardItemBase[] keys;
+    private final HitGrid grid;
+
+    public KeyboardHitGrid(List<KeyboardLine> lines) {
+
+        List<KeyboardItemBase> items = new ArrayList<KeyboardItemBase>();
+        for (KeyboardLine line : lines) {
+            for (GVRSceneObject child : line.getChildren()) {
+                if (child instanceof KeyboardItemBase) {
+                    items.add((KeyboardItemBase) child);
+                }
+            }
+        }
+        keys = items.toArray(new KeyboardItemBase[items.size()]);
+
+        float[] rects = new float[keys.length * 4];
+        float z = 0;
+        int index = 0;
+
+        for (KeyboardLine line : lines) {
+
+            float lineX = line.getTransform().getPositionX();
+            float lineY = line.getTransform().getPositionY();
+            float halfHeight = line.getLineHeight() / 2;
+            z = line.getTransform().getPositionZ();
+
+            for (GVRSceneObject child : line.getChildren()) {
+
+                if (!(child instanceof KeyboardItemBase)) {
+                    continue;
+                }
+                KeyboardItemBase key = (KeyboardItemBase) child;
+                float halfWidth = Util.convertPixelToVRFloatValue(key.getWidth()) / 2;
+                float x = lineX + key.getTransform().getPositionX();
+                float y = lineY + key.getTransform().getPositionY();
+
+                rects[index * 4] = x - halfWidth;
+                rects[index * 4 + 1] = y - halfHeight;
+                rects[index * 4 + 2] = x + halfWidth;
+                rects[index * 4 + 3] = y + halfHeight;
+                index++;
+            }
+        }
+        grid = new HitGrid(rects, z, HYSTERESIS_MARGIN);
+    }
+
+    public int getKeyCount() {
+        return keys.length;
+    }
+
+    public KeyboardItemBase getKey(int index) {
+        return index == NO_KEY ? null : keys[index];
+    }
+
+    /**
+     * Find the key a ray points at. Origin and direction are in the space
+     * of the lines' parent.
+     *
+     * @param current key looked at until now, kept while the ray stays
+     *                near it, or NO_KEY
+     * @return index of the key or NO_KEY
+     */
+    public int pick(float originX, float originY, float originZ,
+            float directionX, float directionY, float directionZ, int current) {
+
+        return grid.pick(originX, originY, originZ, directionX, directionY, directionZ, current);
+    }
+
+    /**
+     * Find the key at a point of the keyboard plane.
+     */
+    public int pick(float x, float y, int current) {
+
+        return grid.pick(x, y, current);
+    }
+}
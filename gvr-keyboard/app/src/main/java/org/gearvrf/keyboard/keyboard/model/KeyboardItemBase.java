@@ -16,10 +16,7 @@
 package org.gearvrf.keyboard.keyboard.model;
 
 import android.graphics.Color;
-import android.graphics.Paint;
 
-import org.gearvrf.GVRAndroidResource;
-import org.gearvrf.GVRBitmapImage;
 import org.gearvrf.GVRContext;
 import org.gearvrf.GVRMaterial;
 import org.gearvrf.GVRMesh;
@@ -29,8 +26,9 @@ import org.gearvrf.GVRShaderId;
 import org.gearvrf.GVRTexture;
 import org.gearvrf.keyboard.model.KeyboardCharItem;
 import org.gearvrf.keyboard.shader.TransparentButtonShaderThreeStates;
-import org.gearvrf.keyboard.util.GVRTextBitmapFactory;
+import org.gearvrf.keyboard.util.GlyphAtlas;
 import org.gearvrf.keyboard.util.RenderingOrder;
+import org.gearvrf.keyboard.util.ResourceRegistry;
 import org.gearvrf.keyboard.util.SceneObjectNames;
 import org.gearvrf.keyboard.util.Util;
 
@@ -39,6 +37,12 @@ public abstract class KeyboardItemBase extends GVRSceneObject {
     protected KeyboardItemStyle styleItem;
     protected KeyboardCharItem keyboardCharItem;
 
+    // resource ids of the textures acquired for the key, 0 when none
+    private int textureId;
+    private int textureHoverId;
+    private int iconId;
+    private int iconHoverId;
+
     public KeyboardItemBase(GVRContext gvrContext, KeyboardItemStyle styleItem) {
         super(gvrContext);
         setName(SceneObjectNames.KEYBOARD_ITEM);
@@ -79,54 +83,133 @@ public abstract class KeyboardItemBase extends GVRSceneObject {
 
     public void configureTextures() {
 
+        ResourceRegistry registry = ResourceRegistry.getInstance(getGVRContext());
+        int oldTexture = textureId;
+        int oldTextureHover = textureHoverId;
+
+        textureId = styleItem.getTexture();
+        textureHoverId = styleItem.getTextureHover();
+
         getRenderData().getMaterial().setTexture(
                 TransparentButtonShaderThreeStates.TEXTURE_KEY,
-                getGVRContext().getAssetLoader().loadTexture(
-                        new GVRAndroidResource(getGVRContext(), styleItem.getTexture())));
+                registry.acquireTexture(textureId));
 
         getRenderData().getMaterial().setTexture(
                 TransparentButtonShaderThreeStates.TEXTURE_HOVER_KEY,
-                getGVRContext().getAssetLoader().loadTexture(
-                        new GVRAndroidResource(getGVRContext(), styleItem.getTextureHover())));
+                registry.acquireTexture(textureHoverId));
+
+        release(registry, oldTexture);
+        release(registry, oldTextureHover);
 
         getRenderData().getMaterial().setFloat(TransparentButtonShaderThreeStates.TEXTURE_SWITCH,
                 0.0f);
     }
 
-    protected void setTextureFromResource(String shaderKey, int resource) {
+    /**
+     * Point the key at the atlas cells of its labels.
+     * A null label shows the icon of the style instead.
+     *
+     * @param lower label shown in lowercase mode
+     * @param upper label shown in uppercase and numeric mode
+     * @param special label shown in special characters mode
+     */
+    protected void setLabels(String lower, String upper, String special) {
+
+        GVRMaterial material = getRenderData().getMaterial();
+        GVRTexture icon = null;
+        GVRTexture iconHover = null;
+        GVRTexture atlasTexture = null;
+        ResourceRegistry registry = ResourceRegistry.getInstance(getGVRContext());
+        int oldIcon = iconId;
+        int oldIconHover = iconHoverId;
+
+        iconId = 0;
+        iconHoverId = 0;
+
+        if (lower == null || upper == null || special == null) {
+
+            iconId = styleItem.getTextureImage();
+            iconHoverId = styleItem.getTextureImageHover();
+            icon = registry.acquireTexture(iconId);
+            iconHover = registry.acquireTexture(iconHoverId);
+        }
+        release(registry, oldIcon);
+        release(registry, oldIconHover);
+
+        if (lower != null || upper != null || special != null) {
+
+            GlyphAtlas.Glyph[] glyphs = GlyphAtlas.get(getGVRContext(),
+                    styleItem.getCharacterBackgroundWidth(),
+                    styleItem.getCharacterBackgroundHeight(),
+                    styleItem.getFontSize()).getGlyphs(lower, upper, special);
+
+            setGlyphRect(TransparentButtonShaderThreeStates.LOWER_RECT, glyphs[0]);
+            setGlyphRect(TransparentButtonShaderThreeStates.UPPER_RECT, glyphs[1]);
+            setGlyphRect(TransparentButtonShaderThreeStates.SPECIAL_RECT, glyphs[2]);
+
+            for (GlyphAtlas.Glyph glyph : glyphs) {
+                if (glyph != null) {
+                    atlasTexture = glyph.getTexture();
+                }
+            }
+        }
+
+        // every sampler needs a texture, unused ones get one already bound
+        material.setTexture(TransparentButtonShaderThreeStates.TEXTURE_GLYPH_ATLAS_KEY,
+                atlasTexture != null ? atlasTexture : icon);
+        material.setTexture(TransparentButtonShaderThreeStates.TEXTURE_ICON_KEY,
+                icon != null ? icon : atlasTexture);
+        material.setTexture(TransparentButtonShaderThreeStates.TEXTURE_ICON_HOVER_KEY,
+                iconHover != null ? iconHover : atlasTexture);
+
+        material.setVec3(TransparentButtonShaderThreeStates.ICON_MASK,
+                lower == null ? 1 : 0, upper == null ? 1 : 0, special == null ? 1 : 0);
+
+        setColor(TransparentButtonShaderThreeStates.TEXT_COLOR, styleItem.getColorText());
+        setColor(TransparentButtonShaderThreeStates.HOVER_TEXT_COLOR,
+                styleItem.getHoverTextColor());
+        setColor(TransparentButtonShaderThreeStates.HOVER_BACKGROUND_COLOR,
+                styleItem.getColorBackgroundTextHover());
+    }
 
-        getRenderData().getMaterial().setTexture(shaderKey,
-                getGVRContext().getAssetLoader().loadTexture(new GVRAndroidResource(getGVRContext(), resource)));
+    /**
+     * Give back the textures acquired for the key, once it is no longer shown.
+     */
+    public void releaseTextures() {
+
+        ResourceRegistry registry = ResourceRegistry.getInstance(getGVRContext());
+
+        release(registry, textureId);
+        release(registry, textureHoverId);
+        release(registry, iconId);
+        release(registry, iconHoverId);
+        textureId = textureHoverId = iconId = iconHoverId = 0;
     }
 
-    public void setNomalTexture(String character, String ShaderKey) {
+    private static void release(ResourceRegistry registry, int resourceId) {
+
+        if (resourceId != 0) {
+            registry.release(resourceId);
+        }
+    }
 
-        GVRBitmapImage bitmapNormal = new GVRBitmapImage(getGVRContext(),
-                GVRTextBitmapFactory.create(
-                        styleItem.getCharacterBackgroundWidth(),
-                        styleItem.getCharacterBackgroundHeight(), character, styleItem
-                                .getFontSize(), Paint.Align.CENTER,
-                        styleItem.getColorText(), Color.argb(0, 0, 0, 0), getGVRContext()
-                                .getContext().getApplicationContext()));
+    private void setGlyphRect(String shaderKey, GlyphAtlas.Glyph glyph) {
 
-        GVRTexture texture = new GVRTexture(getGVRContext());
-        texture.setImage(bitmapNormal);
-        getRenderData().getMaterial().setTexture(ShaderKey, texture);
+        if (glyph != null) {
+            float[] rect = glyph.getRect();
+            getRenderData().getMaterial().setVec4(shaderKey, rect[0], rect[1], rect[2], rect[3]);
+        }
     }
 
-    public void setHoverTexture(String character, String ShaderKey) {
+    private void setColor(String shaderKey, int color) {
 
-        GVRBitmapImage bitmapHover = new GVRBitmapImage(getGVRContext(),
-                GVRTextBitmapFactory.create(
-                        styleItem.getCharacterBackgroundWidth(),
-                        styleItem.getCharacterBackgroundHeight(), character,
-                        styleItem.getFontSize(), Paint.Align.CENTER,
-                        styleItem.getHoverTextColor(), styleItem.getColorBackgroundTextHover(),
-                        getGVRContext().getContext().getApplicationContext()));
+        float alpha = Color.alpha(color) / 255.0f;
 
-        GVRTexture texture = new GVRTexture(getGVRContext());
-        texture.setImage(bitmapHover);
-        getRenderData().getMaterial().setTexture(ShaderKey, texture);
+        getRenderData().getMaterial().setVec4(shaderKey,
+                Color.red(color) / 255.0f * alpha,
+                Color.green(color) / 255.0f * alpha,
+                Color.blue(color) / 255.0f * alpha,
+                alpha);
     }
 
     public KeyboardCharItem getKeyboardCharItem() {
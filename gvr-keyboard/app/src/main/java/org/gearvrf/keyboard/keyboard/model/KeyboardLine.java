@@ -17,7 +17,6 @@ package org.gearvrf.keyboard.keyboard.model;
 
 import org.gearvrf.GVRContext;
 import org.gearvrf.GVRSceneObject;
-import org.gearvrf.GVRSphereCollider;
 import org.gearvrf.keyboard.util.Constants;
 import org.gearvrf.keyboard.util.SceneObjectNames;
 import org.gearvrf.keyboard.util.Util;
@@ -49,12 +48,6 @@ public class KeyboardLine extends GVRSceneObject {
         afterAddItem(item.getWidth());
 
         addChildObject(item);
-
-        attachDefaultEyePointee(item);
-    }
-
-    private void attachDefaultEyePointee(GVRSceneObject sceneObject) {
-        sceneObject.attachComponent(new GVRSphereCollider(getGVRContext()));
     }
 
     public void alingCenter(int numbersLine) {
@@ -75,4 +68,8 @@ public class KeyboardLine extends GVRSceneObject {
     public float getWidth() {
         return softLineWidth;
     }
+
+    public float getLineHeight() {
+        return Util.convertPixelToVRFloatValue(LINE_MARGINT_TOP);
+    }
 }
@@ -43,38 +43,19 @@ public class KeyboardSoftItem extends KeyboardItemBase {
 
             case RESOURCE:
                 
-                setTextureFromResource(TransparentButtonShaderThreeStates.TEXTURE_TEXT_KEY, styleItem.getTextureImage());
-                setTextureFromResource(TransparentButtonShaderThreeStates.TEXTURE_TEXT_HOVER_KEY, styleItem.getTextureImageHover());
-                
-                setTextureFromResource(TransparentButtonShaderThreeStates.TEXTURE_TEXT_UPPER_KEY, styleItem.getTextureImage());
-                setTextureFromResource(TransparentButtonShaderThreeStates.TEXTURE_TEXT_HOVER_UPPER_KEY, styleItem.getTextureImageHover());
-                
-                setTextureFromResource(TransparentButtonShaderThreeStates.TEXTURE_TEXT_SPECIAL_KEY, styleItem.getTextureImage());
-                setTextureFromResource(TransparentButtonShaderThreeStates.TEXTURE_TEXT_HOVER_SPECIAL_KEY, styleItem.getTextureImageHover());
+                setLabels(null, null, null);
                 
                 break;
             case Mix:
                 
-                setTextureFromResource(TransparentButtonShaderThreeStates.TEXTURE_TEXT_KEY, styleItem.getTextureImage());
-                setTextureFromResource(TransparentButtonShaderThreeStates.TEXTURE_TEXT_HOVER_KEY, styleItem.getTextureImageHover());
-                
-                setTextureFromResource(TransparentButtonShaderThreeStates.TEXTURE_TEXT_UPPER_KEY, styleItem.getTextureImage());
-                setTextureFromResource(TransparentButtonShaderThreeStates.TEXTURE_TEXT_HOVER_UPPER_KEY, styleItem.getTextureImageHover());
-                
-                setNomalTexture(keyboardCharItem.getSpecialCharacter(), TransparentButtonShaderThreeStates.TEXTURE_TEXT_SPECIAL_KEY);
-                setHoverTexture(keyboardCharItem.getSpecialCharacter(), TransparentButtonShaderThreeStates.TEXTURE_TEXT_HOVER_SPECIAL_KEY);
+                setLabels(null, null, keyboardCharItem.getSpecialCharacter());
                 
                 break;
             default:
                 
-                setNomalTexture(keyboardCharItem.getCharacter(), TransparentButtonShaderThreeStates.TEXTURE_TEXT_KEY);
-                setHoverTexture(keyboardCharItem.getCharacter(), TransparentButtonShaderThreeStates.TEXTURE_TEXT_HOVER_KEY);
-                
-                setNomalTexture(keyboardCharItem.getCharacter().toUpperCase(), TransparentButtonShaderThreeStates.TEXTURE_TEXT_UPPER_KEY);
-                setHoverTexture(keyboardCharItem.getCharacter().toUpperCase(), TransparentButtonShaderThreeStates.TEXTURE_TEXT_HOVER_UPPER_KEY);
-              
-                setNomalTexture(keyboardCharItem.getSpecialCharacter(), TransparentButtonShaderThreeStates.TEXTURE_TEXT_SPECIAL_KEY);
-                setHoverTexture(keyboardCharItem.getSpecialCharacter(), TransparentButtonShaderThreeStates.TEXTURE_TEXT_HOVER_SPECIAL_KEY);
+                setLabels(keyboardCharItem.getCharacter(),
+                        keyboardCharItem.getCharacter().toUpperCase(),
+                        keyboardCharItem.getSpecialCharacter());
                 
                 break;
         }
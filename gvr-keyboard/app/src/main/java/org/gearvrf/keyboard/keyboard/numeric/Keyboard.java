@@ -19,18 +19,20 @@ import android.content.res.Resources;
 import android.view.MotionEvent;
 
 import org.gearvrf.GVRContext;
-import org.gearvrf.GVRPicker;
 import org.gearvrf.GVRSceneObject;
+import org.gearvrf.GVRTransform;
 import org.gearvrf.animation.GVROpacityAnimation;
 import org.gearvrf.keyboard.R;
 import org.gearvrf.keyboard.keyboard.model.KeyboardBase;
 import org.gearvrf.keyboard.keyboard.model.KeyboardEventListener;
+import org.gearvrf.keyboard.keyboard.model.KeyboardHitGrid;
 import org.gearvrf.keyboard.keyboard.model.KeyboardItemBase;
 import org.gearvrf.keyboard.keyboard.model.KeyboardLine;
 import org.gearvrf.keyboard.model.AudioClip;
-import org.gearvrf.keyboard.model.Dashboard;
 import org.gearvrf.keyboard.model.KeyboardCharItem;
 import org.gearvrf.keyboard.util.SceneObjectNames;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
 
 /**
  * @author Douglas and SIDIA VR TEAM
@@ -55,6 +57,12 @@ public class Keyboard extends GVRSceneObject {
     private static final float ANIMATION_TOTAL_TIME = 2.6f;
 
     private GVRSceneObject currentSelection;
+    private int currentKey = KeyboardHitGrid.NO_KEY;
+    private final Matrix4f headMatrix = new Matrix4f();
+    private final Matrix4f worldToLocal = new Matrix4f();
+    private final Matrix4f localMatrix = new Matrix4f();
+    private final Vector3f gazeOrigin = new Vector3f();
+    private final Vector3f gazeDirection = new Vector3f();
     private boolean isEnabled = false;
     private KeyboardBase keyboard;
     private KeyboardAlphabetic keyboardAlphabetic;
@@ -109,6 +117,8 @@ public class Keyboard extends GVRSceneObject {
 
     private void configureKeyboardRemoveParentation() {
 
+        clearSelection();
+
         if (keyboard.getListKeyboardLine() != null) {
 
             for (KeyboardLine item : keyboard.getListKeyboardLine()) {
@@ -173,6 +183,14 @@ public class Keyboard extends GVRSceneObject {
         return isEnabled;
     }
 
+    /**
+     * Give back the textures of both layouts when the keyboard goes away.
+     */
+    public void releaseTextures() {
+        keyboardAlphabetic.releaseTextures();
+        numericKeyboard.releaseTextures();
+    }
+
     public void showKeyboard(KeyboardType keyboardType) {
 
         if (KeyboardType.ALPHA == keyboardType) {
@@ -227,47 +245,71 @@ public class Keyboard extends GVRSceneObject {
         tapKeyboard();
     }
 
-    public void update(GVRSceneObject sceneObject) {
-        changeTexture(sceneObject);
-    }
-
-    boolean test = true;
-
-    private void changeTexture(GVRSceneObject sceneObject) {
-
-        if (currentSelection != null) {
-            setNormalMaterial(currentSelection);
-        }
+    /**
+     * Hover the key looked at. The gaze is intersected with the keyboard
+     * plane and looked up in the layout, so keys need no colliders.
+     */
+    public void onStep() {
 
-        currentSelection = null;
-
-        if (sceneObject.hashCode() == Dashboard.currentDashboardHashCode) {
+        if (keyboard == null) {
             return;
         }
 
-        if (sceneObject instanceof KeyboardItemBase) {
+        GVRSceneObject head = getGVRContext().getMainScene().getMainCameraRig()
+                .getHeadTransform().getOwnerObject();
+        getModelMatrix(head, headMatrix).getTranslation(gazeOrigin);
+        headMatrix.transformDirection(gazeDirection.set(0, 0, -1));
 
-            setHoverMaterial(sceneObject);
+        getModelMatrix(this, worldToLocal).invert();
+        worldToLocal.transformPosition(gazeOrigin);
+        worldToLocal.transformDirection(gazeDirection);
 
-            if (sceneObject.equals(currentSelection)) {
-                setHoverMaterial(sceneObject);
-            } else {
+        KeyboardHitGrid grid = keyboard.getHitGrid();
+        int key = grid.pick(gazeOrigin.x, gazeOrigin.y, gazeOrigin.z,
+                gazeDirection.x, gazeDirection.y, gazeDirection.z, currentKey);
 
-                if (currentSelection != null) {
-                    setNormalMaterial(currentSelection);
-                }
+        if (key != currentKey) {
 
-                currentSelection = sceneObject;
+            if (currentSelection != null) {
+                setNormalMaterial(currentSelection);
             }
 
-        } else {
+            currentKey = key;
+            currentSelection = grid.getKey(key);
 
             if (currentSelection != null) {
-                setNormalMaterial(currentSelection);
+                setHoverMaterial(currentSelection);
             }
+        }
+    }
 
-            currentSelection = null;
+    /**
+     * Compose the world matrix of an object from the local transforms of it
+     * and its ancestors into a matrix kept by the caller, which unlike
+     * getModelMatrix4f allocates nothing.
+     */
+    private Matrix4f getModelMatrix(GVRSceneObject object, Matrix4f dest) {
+
+        dest.identity();
+        for (GVRSceneObject o = object; o != null; o = o.getParent()) {
+            GVRTransform t = o.getTransform();
+            localMatrix.translationRotateScale(
+                    t.getPositionX(), t.getPositionY(), t.getPositionZ(),
+                    t.getRotationX(), t.getRotationY(), t.getRotationZ(), t.getRotationW(),
+                    t.getScaleX(), t.getScaleY(), t.getScaleZ());
+            localMatrix.mul(dest, dest);
         }
+        return dest;
+    }
+
+    private void clearSelection() {
+
+        if (currentSelection != null) {
+            setNormalMaterial(currentSelection);
+        }
+
+        currentKey = KeyboardHitGrid.NO_KEY;
+        currentSelection = null;
     }
 
     public void shiftKeys() {
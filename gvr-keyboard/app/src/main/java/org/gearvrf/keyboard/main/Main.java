@@ -47,12 +47,16 @@ import org.gearvrf.keyboard.model.Dashboard;
 import org.gearvrf.keyboard.model.KeyboardCharItem;
 import org.gearvrf.keyboard.model.SphereFlag;
 import org.gearvrf.keyboard.model.SphereStaticList;
+import org.gearvrf.keyboard.prediction.LexiconLoader;
+import org.gearvrf.keyboard.prediction.SuggestionBar;
+import org.gearvrf.keyboard.prediction.WordPredictor;
 import org.gearvrf.keyboard.shader.GVRShaderAnimation;
 import org.gearvrf.keyboard.shader.SphereShader;
 import org.gearvrf.keyboard.shader.TransparentButtonShaderThreeStates;
 import org.gearvrf.keyboard.speech.SoundWave;
 import org.gearvrf.keyboard.spinner.Spinner;
 import org.gearvrf.keyboard.spinner.SpinnerItemFactory;
+import org.gearvrf.keyboard.textField.OnTextChangedListener;
 import org.gearvrf.keyboard.textField.TextField;
 import org.gearvrf.keyboard.util.Constants;
 import org.gearvrf.keyboard.util.InteractiveText;
@@ -87,6 +91,11 @@ public class Main extends GVRMain implements KeyboardEventListener {
     private boolean mDisableSnapSound = false;
     private Dashboard dashboard;
     private Spinner spinner;
+    private static final int SUGGESTIONS = 3;
+    private static final float SUGGESTION_BAR_Y = -0.55f;
+    private static final float SUGGESTION_BAR_Z = 0.7f;
+    private WordPredictor mWordPredictor;
+    private SuggestionBar mSuggestionBar;
     private PickHandler mPickHandler = new PickHandler();
     private GVRPicker mPicker;
 
@@ -102,20 +111,33 @@ public class Main extends GVRMain implements KeyboardEventListener {
         {
             if (keyboard.isEnabled())
             {
-                keyboard.update(sceneObject);
                 if (spinner != null)
                 {
-                    answer.spinnerUpdate(sceneObject);
+                    answer.spinnerUpdate(sceneObject, pickInfo.getHitLocation());
+                }
+                if (mSuggestionBar != null)
+                {
+                    mSuggestionBar.update(sceneObject);
                 }
                 mMic.onUpdate(sceneObject);
             }
         }
 
-        public void onExit(GVRSceneObject sceneObj) { }
+        public void onExit(GVRSceneObject sceneObj)
+        {
+            if (mSuggestionBar != null)
+            {
+                mSuggestionBar.update(null);
+            }
+        }
 
         public void onNoPick(GVRPicker picker)
         {
             Picked = null;
+            if (mSuggestionBar != null)
+            {
+                mSuggestionBar.update(null);
+            }
         }
 
         public void onPick(GVRPicker picker)
@@ -125,7 +147,13 @@ public class Main extends GVRMain implements KeyboardEventListener {
             Picked = picked[0];
         }
 
-        public void onInside(GVRSceneObject sceneObj, GVRPicker.GVRPickedObject pickInfo) { }
+        public void onInside(GVRSceneObject sceneObj, GVRPicker.GVRPickedObject pickInfo)
+        {
+            if (keyboard.isEnabled() && (spinner != null))
+            {
+                answer.spinnerInside(sceneObj, pickInfo.getHitLocation());
+            }
+        }
     }
 
     @Override
@@ -326,6 +354,8 @@ public class Main extends GVRMain implements KeyboardEventListener {
         flagListCostructor.updateSpheresMaterial();
         if (!keyboard.isEnabled()) {
             interactWithVisibleObjects(mPickHandler.Picked);
+        } else {
+            keyboard.onStep();
         }
     }
 
@@ -390,6 +420,13 @@ public class Main extends GVRMain implements KeyboardEventListener {
 
     }
 
+    public void releaseKeyboard() {
+
+        if (keyboard != null) {
+            keyboard.releaseTextures();
+        }
+    }
+
     public void onSingleTap(MotionEvent e) {
 
         if (mMic != null) {
@@ -400,6 +437,11 @@ public class Main extends GVRMain implements KeyboardEventListener {
         if (keyboard.isEnabled()) {
             keyboard.tapKeyboard();
 
+            String suggestion = mSuggestionBar.getHoveredWord();
+            if (suggestion != null) {
+                applySuggestion(suggestion);
+            }
+
         } else if (lastSelectedSphereFlag != null
                 && lastSelectedSphereFlag.answerState == SphereStaticList.MOVEABLE) {
 
@@ -415,6 +457,7 @@ public class Main extends GVRMain implements KeyboardEventListener {
             splitQuestion();
 
             answer.setNumberOfCharecters(lastSelectedSphereFlag.getAnswer().length());
+            mSuggestionBar.getTransform().setPositionX(answer.getInitialPosition() / 2);
             mMic.updatePosition(answer);
             float positionX = -(mMic.getTransform().getPositionX()) / 2;
             answer.getTransform().setPosition(positionX, 0.87f, Constants.CAMERA_DISTANCE);
@@ -563,6 +606,38 @@ public class Main extends GVRMain implements KeyboardEventListener {
             parent.removeChildObject(spinner);
         }
         answer.addChildObject(spinner);
+
+        mWordPredictor = new WordPredictor(LexiconLoader.load(mGVRContext.getContext()),
+                SUGGESTIONS);
+        mSuggestionBar = new SuggestionBar(mGVRContext, SUGGESTIONS);
+        mSuggestionBar.getTransform().setPosition(0, SUGGESTION_BAR_Y, SUGGESTION_BAR_Z);
+        answer.addChildObject(mSuggestionBar);
+        answer.setOnTextChangedListener(new OnTextChangedListener() {
+
+            @Override
+            public void onTextChanged(TextField textField, String text) {
+                if (mWordPredictor.onTextChanged(text)) {
+                    mSuggestionBar.setSuggestions(mWordPredictor.getSuggestions());
+                }
+            }
+        });
+    }
+
+    /**
+     * Complete the word being typed with a suggestion.
+     */
+    private void applySuggestion(String suggestion) {
+
+        String word = mWordPredictor.getCurrentWord();
+        CharList charList = CharList.getInstance(mGVRContext);
+
+        for (int i = word.length(); i < suggestion.length(); i++) {
+
+            Character character = suggestion.charAt(i);
+            int mode = charList.getMode(character);
+            int position = charList.indexOf(String.valueOf(character), mode);
+            answer.append(new CharItem(mode, position, String.valueOf(character)));
+        }
     }
 
     public void createQuestion() {
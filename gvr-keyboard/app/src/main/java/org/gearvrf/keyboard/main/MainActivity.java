@@ -54,6 +54,12 @@ public class MainActivity extends GVRActivity implements
         mDetector = new VRSamplesTouchPadGesturesDetector(this, this);
     }
 
+    @Override
+    protected void onDestroy() {
+        mMain.releaseKeyboard();
+        super.onDestroy();
+    }
+
     @Override
     public void onBackPressed() {
         Log.e(null, "teste");
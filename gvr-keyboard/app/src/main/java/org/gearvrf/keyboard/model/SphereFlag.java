@@ -19,7 +19,6 @@ import android.content.res.Resources;
 import android.content.res.TypedArray;
 
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
-import org.gearvrf.GVRAndroidResource;
 import org.gearvrf.GVRCameraRig;
 import org.gearvrf.GVRContext;
 import org.gearvrf.GVRMaterial;
@@ -39,6 +38,7 @@ import org.gearvrf.keyboard.interpolator.InterpolatorExpoEaseOut;
 import org.gearvrf.keyboard.shader.GVRShaderAnimation;
 import org.gearvrf.keyboard.shader.SphereShader;
 import org.gearvrf.keyboard.util.Constants;
+import org.gearvrf.keyboard.util.ResourceRegistry;
 import org.gearvrf.keyboard.util.SceneObjectNames;
 import org.gearvrf.keyboard.util.Util;
 import org.gearvrf.utility.Log;
@@ -128,18 +128,18 @@ public class SphereFlag extends GVRSceneObject {
 
     private GVRMaterial getMaterial() {
         GVRMaterial material = new GVRMaterial(gvrContext, new GVRShaderId(SphereShader.class));
-        material.setTexture(SphereShader.TEXTURE_KEY,
-                gvrContext.getAssetLoader().loadTexture(new GVRAndroidResource(gvrContext, mTexture)));
+        ResourceRegistry registry = ResourceRegistry.getInstance(gvrContext);
+
+        material.setTexture(SphereShader.TEXTURE_KEY, registry.acquireTexture(mTexture));
         material.setFloat("blur", 0);
         material.setFloat(SphereShader.ANIM_TEXTURE, 0.0f);
         material.setTexture(SphereShader.SECUNDARY_TEXTURE_KEY,
-                gvrContext.getAssetLoader().loadTexture(new GVRAndroidResource(gvrContext, mResultTexture)));
+                registry.acquireTexture(mResultTexture));
         material.setVec3(SphereShader.TRANSITION_COLOR, 1, 1, 1);
         material.setVec3(SphereShader.EYE_KEY, 0, 0, 0);
 
         // Light config
-        GVRTexture hdriTexture = gvrContext.getAssetLoader().loadTexture(new GVRAndroidResource(gvrContext,
-                R.drawable.hdri_reflex));
+        GVRTexture hdriTexture = registry.acquireTexture(R.drawable.hdri_reflex);
         material.setTexture(SphereShader.HDRI_TEXTURE_KEY, hdriTexture);
 
         return material;
@@ -147,8 +147,8 @@ public class SphereFlag extends GVRSceneObject {
 
     private GVRRenderData getRenderData(GVRMaterial material) {
         GVRRenderData renderData = new GVRRenderData(gvrContext);
-        renderData.setMesh(gvrContext.getAssetLoader().loadMesh(new GVRAndroidResource(gvrContext,
-                R.raw.sphere_uv_flag)));
+        renderData.setMesh(ResourceRegistry.getInstance(gvrContext).acquireMesh(
+                R.raw.sphere_uv_flag));
         renderData.setMaterial(material);
         renderData.setRenderingOrder(100);
         renderData.setAlphaBlend(true);
@@ -321,24 +321,31 @@ public class SphereFlag extends GVRSceneObject {
                             AudioClip.getSucessSoundID(), 1.0f, 1.0f);
                     getRenderData().getMaterial().setVec3(SphereShader.TRANSITION_COLOR, 0.2f,
                             0.675f, 0.443f);
-                    getRenderData().getMaterial().setTexture(
-                            SphereShader.SECUNDARY_TEXTURE_KEY,
-                            getGVRContext().getAssetLoader().loadTexture(
-                                    new GVRAndroidResource(getGVRContext(), R.drawable.check)));
+                    setResultTexture(R.drawable.check);
                 } else {
 
                     AudioClip.getInstance(getGVRContext().getContext()).playSound(
                             AudioClip.getWrongSoundID(), 1.0f, 1.0f);
                     getRenderData().getMaterial().setVec3(SphereShader.TRANSITION_COLOR, 1, 0, 0);
-                    getRenderData().getMaterial().setTexture(
-                            SphereShader.SECUNDARY_TEXTURE_KEY,
-                            getGVRContext().getAssetLoader().loadTexture(
-                                    new GVRAndroidResource(getGVRContext(), R.drawable.error)));
+                    setResultTexture(R.drawable.error);
                 }
             }
         });
     }
 
+    private void setResultTexture(int resultTexture) {
+
+        if (resultTexture == mResultTexture) {
+            return;
+        }
+        ResourceRegistry registry = ResourceRegistry.getInstance(getGVRContext());
+
+        getRenderData().getMaterial().setTexture(SphereShader.SECUNDARY_TEXTURE_KEY,
+                registry.acquireTexture(resultTexture));
+        registry.release(mResultTexture);
+        mResultTexture = resultTexture;
+    }
+
     public void moveToCursor() {
         if (followCursorAnimation != null) {
             getGVRContext().getAnimationEngine().stop(followCursorAnimation);
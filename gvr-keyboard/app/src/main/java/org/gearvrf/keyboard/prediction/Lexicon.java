@@ -0,0 +1,215 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.keyboard.prediction;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Read-only word list with frequencies, stored as a trie in a flat int
+ * buffer so it can be memory-mapped from a file written by
+ * {@link LexiconBuilder} instead of being parsed into objects.
+ * <p>
+ * Layout, in ints: the magic number, the number of words, then the nodes
+ * starting with the root. A node is
+ * <pre>
+ *     (childCount &lt;&lt; 1) | terminal
+ *     frequency of the word ending here, 0 if not terminal
+ *     highest frequency of any word below and including this node
+ *     childCount pairs of (character, node offset), sorted by character
+ * </pre>
+ * Words are stored in lowercase. Because each node knows the best
+ * frequency below it, the most frequent completions of a prefix are found
+ * best first without visiting the rest of the subtree.
+ */
+public class Lexicon {
+
+    static final int MAGIC = 0x4C455831;
+    static final int ROOT = 2;
+    public static final int NO_NODE = -1;
+
+    private final IntBuffer data;
+
+    private static class Entry implements Comparable<Entry> {
+
+        final int node;
+        final int score;
+        final boolean word;
+        final Entry parent;
+        final char character;
+        final int length;
+
+        Entry(int node, int score, boolean word, Entry parent, char character) {
+            this.node = node;
+            this.score = score;
+            this.word = word;
+            this.parent = parent;
+            this.character = character;
+            this.length = parent == null ? 0 : parent.length + (word ? 0 : 1);
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            if (score != other.score) {
+                return other.score > score ? 1 : -1;
+            }
+            // words before the nodes they end in, shorter words first
+            if (word != other.word) {
+                return word ? -1 : 1;
+            }
+            return length - other.length;
+        }
+    }
+
+    public Lexicon(ByteBuffer buffer) {
+        data = buffer.asIntBuffer();
+
+        if (data.limit() < ROOT + 3 || data.get(0) != MAGIC) {
+            throw new IllegalArgumentException("not a lexicon");
+        }
+    }
+
+    /**
+     * Map a lexicon file into memory.
+     */
+    public static Lexicon open(File file) throws IOException {
+
+        RandomAccessFile input = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = input.getChannel();
+            return new Lexicon(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } finally {
+            input.close();
+        }
+    }
+
+    public int getWordCount() {
+        return data.get(1);
+    }
+
+    public int getRoot() {
+        return ROOT;
+    }
+
+    /**
+     * Follow one character down the trie.
+     *
+     * @param node node offset
+     * @param character lowercase character
+     * @return child node offset or NO_NODE
+     */
+    public int getChild(int node, char character) {
+
+        if (node == NO_NODE) {
+            return NO_NODE;
+        }
+        int low = 0;
+        int high = (data.get(node) >>> 1) - 1;
+        int children = node + 3;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int c = data.get(children + middle * 2);
+
+            if (c < character) {
+                low = middle + 1;
+            } else if (c > character) {
+                high = middle - 1;
+            } else {
+                return data.get(children + middle * 2 + 1);
+            }
+        }
+        return NO_NODE;
+    }
+
+    public int find(CharSequence word) {
+
+        int node = ROOT;
+        for (int i = 0; i < word.length() && node != NO_NODE; i++) {
+            node = getChild(node, Character.toLowerCase(word.charAt(i)));
+        }
+        return node;
+    }
+
+    /**
+     * @return frequency of the word ending at a node, 0 if none
+     */
+    public int getFrequency(int node) {
+        return node == NO_NODE ? 0 : data.get(node + 1);
+    }
+
+    /**
+     * Get the most frequent words below a node.
+     *
+     * @param node node of the prefix typed so far
+     * @param prefix characters leading to the node, prepended to the results
+     * @param count maximum number of words
+     * @param results receives the words, most frequent first; the prefix
+     *                itself is not included
+     */
+    public void complete(int node, String prefix, int count, List<String> results) {
+
+        results.clear();
+        if (node == NO_NODE || count <= 0) {
+            return;
+        }
+        PriorityQueue<Entry> queue = new PriorityQueue<Entry>();
+        queue.add(new Entry(node, data.get(node + 2), false, null, '\0'));
+
+        while (!queue.isEmpty() && results.size() < count) {
+
+            Entry entry = queue.poll();
+
+            if (entry.word) {
+                results.add(prefix + getSuffix(entry.parent));
+                continue;
+            }
+            int header = data.get(entry.node);
+            if ((header & 1) != 0 && entry.parent != null) {
+                queue.add(new Entry(entry.node, data.get(entry.node + 1), true, entry, '\0'));
+            }
+            int children = entry.node + 3;
+            for (int i = header >>> 1; i > 0; i--, children += 2) {
+                int child = data.get(children + 1);
+                queue.add(new Entry(child, data.get(child + 2), false, entry,
+                        (char) data.get(children)));
+            }
+        }
+    }
+
+    public List<String> complete(String prefix, int count) {
+
+        List<String> results = new ArrayList<String>(count);
+        complete(find(prefix), prefix, count, results);
+        return results;
+    }
+
+    private static String getSuffix(Entry entry) {
+
+        char[] chars = new char[entry.length];
+        for (Entry e = entry; e.parent != null; e = e.parent) {
+            chars[e.length - 1] = e.character;
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,172 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.keyboard.prediction;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * Collects words and their frequencies and writes them in the
+ * {@link Lexicon} format.
+ */
+public class LexiconBuilder {
+
+    private final Node root = new Node();
+    private int wordCount;
+    private int nodeCount = 1;
+    private int edgeCount;
+
+    private static class Node {
+
+        char[] characters = new char[0];
+        Node[] children = new Node[0];
+        int frequency;
+        int best;
+        int offset;
+
+        Node getChild(char character, LexiconBuilder builder) {
+
+            int index = Arrays.binarySearch(characters, character);
+            if (index >= 0) {
+                return children[index];
+            }
+            index = -index - 1;
+            Node child = new Node();
+            characters = insert(characters, index, character);
+            children = insert(children, index, child);
+            builder.nodeCount++;
+            builder.edgeCount++;
+            return child;
+        }
+
+        private static char[] insert(char[] array, int index, char value) {
+            char[] result = new char[array.length + 1];
+            System.arraycopy(array, 0, result, 0, index);
+            result[index] = value;
+            System.arraycopy(array, index, result, index + 1, array.length - index);
+            return result;
+        }
+
+        private static Node[] insert(Node[] array, int index, Node value) {
+            Node[] result = new Node[array.length + 1];
+            System.arraycopy(array, 0, result, 0, index);
+            result[index] = value;
+            System.arraycopy(array, index, result, index + 1, array.length - index);
+            return result;
+        }
+    }
+
+    /**
+     * Add occurrences of a word. Words are case insensitive, adding the
+     * same word again adds to its frequency.
+     */
+    public void add(String word, int frequency) {
+
+        if (word.isEmpty() || frequency <= 0) {
+            return;
+        }
+        Node node = root;
+        for (int i = 0; i < word.length(); i++) {
+            node = node.getChild(Character.toLowerCase(word.charAt(i)), this);
+        }
+        if (node.frequency == 0) {
+            wordCount++;
+        }
+        node.frequency += frequency;
+    }
+
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    public Lexicon build() {
+
+        ByteBuffer buffer = ByteBuffer.allocate(getSize() * 4);
+        write(buffer.asIntBuffer());
+        return new Lexicon(buffer);
+    }
+
+    /**
+     * Write the lexicon to a file which {@link Lexicon#open(File)} can map.
+     */
+    public void write(File file) throws IOException {
+
+        ByteBuffer buffer = ByteBuffer.allocate(getSize() * 4);
+        write(buffer.asIntBuffer());
+
+        FileOutputStream output = new FileOutputStream(file);
+        try {
+            output.getChannel().write(buffer);
+        } finally {
+            output.close();
+        }
+    }
+
+    private int getSize() {
+        return Lexicon.ROOT + nodeCount * 3 + edgeCount * 2;
+    }
+
+    private void write(IntBuffer data) {
+
+        computeBest(root);
+        layout(root, Lexicon.ROOT);
+
+        data.put(Lexicon.MAGIC);
+        data.put(wordCount);
+        writeNode(root, data);
+    }
+
+    private static int computeBest(Node node) {
+
+        int best = node.frequency;
+        for (Node child : node.children) {
+            best = Math.max(best, computeBest(child));
+        }
+        node.best = best;
+        return best;
+    }
+
+    /**
+     * Assign offsets in depth first order, the order nodes are written in.
+     */
+    private static int layout(Node node, int offset) {
+
+        node.offset = offset;
+        offset += 3 + node.children.length * 2;
+        for (Node child : node.children) {
+            offset = layout(child, offset);
+        }
+        return offset;
+    }
+
+    private static void writeNode(Node node, IntBuffer data) {
+
+        data.put((node.children.length << 1) | (node.frequency > 0 ? 1 : 0));
+        data.put(node.frequency);
+        data.put(node.best);
+        for (int i = 0; i < node.children.length; i++) {
+            data.put(node.characters[i]);
+            data.put(node.children[i].offset);
+        }
+        for (Node child : node.children) {
+            writeNode(child, data);
+        }
+    }
+}
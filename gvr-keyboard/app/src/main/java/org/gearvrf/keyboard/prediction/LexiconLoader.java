@@ -0,0 +1,100 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.keyboard.prediction;
+
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.util.Log;
+
+import org.gearvrf.keyboard.R;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Provides the lexicon of the keyboard.
+ * <p>
+ * The words come from the country names and questions of the spheres,
+ * country names ranked above question words. The answers are left out so
+ * the keyboard does not give them away. The lexicon is written to the
+ * cache directory once per install and memory-mapped afterwards.
+ */
+public class LexiconLoader {
+
+    private static final String TAG = "LexiconLoader";
+    private static final String FILE_NAME = "lexicon.bin";
+    private static final int NAME_FREQUENCY = 10;
+    private static final int QUESTION_FREQUENCY = 1;
+
+    private LexiconLoader() {
+    }
+
+    public static Lexicon load(Context context) {
+
+        File file = new File(context.getCacheDir(), FILE_NAME);
+        LexiconBuilder builder = null;
+
+        try {
+            if (!file.exists() || file.lastModified() < getUpdateTime(context)) {
+                builder = createBuilder(context);
+                builder.write(file);
+            }
+            return Lexicon.open(file);
+
+        } catch (IOException e) {
+            Log.e(TAG, "cannot map " + file + ", keeping the lexicon in memory", e);
+            return (builder != null ? builder : createBuilder(context)).build();
+        }
+    }
+
+    private static LexiconBuilder createBuilder(Context context) {
+
+        LexiconBuilder builder = new LexiconBuilder();
+        Resources res = context.getResources();
+        TypedArray spheres = res.obtainTypedArray(R.array.spheres);
+
+        for (int i = 0; i < spheres.length(); i++) {
+
+            TypedArray sphere = res.obtainTypedArray(spheres.getResourceId(i, -1));
+            addWords(builder, res.getString(sphere.getResourceId(0, -1)), NAME_FREQUENCY);
+            addWords(builder, res.getString(sphere.getResourceId(2, -1)), QUESTION_FREQUENCY);
+            sphere.recycle();
+        }
+        spheres.recycle();
+        return builder;
+    }
+
+    private static void addWords(LexiconBuilder builder, String text, int frequency) {
+
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (word.length() > 1) {
+                builder.add(word, frequency);
+            }
+        }
+    }
+
+    private static long getUpdateTime(Context context) {
+
+        try {
+            return context.getPackageManager()
+                    .getPackageInfo(context.getPackageName(), 0).lastUpdateTime;
+        } catch (PackageManager.NameNotFoundException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+}
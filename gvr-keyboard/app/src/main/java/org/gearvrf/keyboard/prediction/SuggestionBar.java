@@ -0,0 +1,173 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.keyboard.prediction;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+
+import org.gearvrf.GVRBitmapImage;
+import org.gearvrf.GVRContext;
+import org.gearvrf.GVRMeshCollider;
+import org.gearvrf.GVRSceneObject;
+import org.gearvrf.GVRTexture;
+import org.gearvrf.keyboard.util.RenderingOrder;
+import org.gearvrf.keyboard.util.SceneObjectNames;
+import org.gearvrf.keyboard.util.Util;
+
+import java.util.List;
+
+/**
+ * Row of suggested words which can be picked instead of typing the rest
+ * of a word. Each slot draws into its own bitmap which is reused for
+ * every suggestion shown in it.
+ */
+public class SuggestionBar extends GVRSceneObject {
+
+    private static final int ITEM_WIDTH = 300;
+    private static final int ITEM_HEIGHT = 70;
+    private static final int ITEM_SPACE = 30;
+    private static final int TEXT_SIZE = 50;
+    private static final float HOVER_OPACITY = 1.0f;
+    private static final float NORMAL_OPACITY = 0.6f;
+
+    private final SuggestionItem[] items;
+    private SuggestionItem hoveredItem;
+
+    private class SuggestionItem extends GVRSceneObject implements Runnable {
+
+        private final Bitmap bitmap;
+        private final Canvas canvas;
+        private final Paint paint = new Paint();
+        private final GVRBitmapImage image;
+        private String word;
+        private boolean updatePending;
+
+        SuggestionItem(GVRContext gvrContext) {
+            super(gvrContext, Util.convertPixelToVRFloatValue(ITEM_WIDTH),
+                    Util.convertPixelToVRFloatValue(ITEM_HEIGHT));
+            setName(SceneObjectNames.SUGGESTION_ITEM);
+
+            bitmap = Bitmap.createBitmap(ITEM_WIDTH, ITEM_HEIGHT, Bitmap.Config.ARGB_8888);
+            canvas = new Canvas(bitmap);
+            paint.setFlags(Paint.ANTI_ALIAS_FLAG);
+            paint.setTextSize(TEXT_SIZE);
+            paint.setTextAlign(Paint.Align.CENTER);
+            paint.setFakeBoldText(true);
+            paint.setColor(Color.WHITE);
+
+            image = new GVRBitmapImage(gvrContext, bitmap);
+            GVRTexture texture = new GVRTexture(gvrContext);
+            texture.setImage(image);
+            getRenderData().getMaterial().setMainTexture(texture);
+            getRenderData().getMaterial().setOpacity(0);
+            getRenderData().setAlphaBlend(true);
+            getRenderData().setRenderingOrder(RenderingOrder.KEYBOARD);
+            attachCollider(new GVRMeshCollider(gvrContext, true));
+        }
+
+        void setWord(String word) {
+
+            if (word == null ? this.word == null : word.equals(this.word)) {
+                return;
+            }
+            this.word = word;
+            if (!updatePending) {
+                updatePending = true;
+                getGVRContext().runOnGlThread(this);
+            }
+        }
+
+        @Override
+        public void run() {
+
+            synchronized (SuggestionBar.this) {
+                updatePending = false;
+                canvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+                if (word != null) {
+                    canvas.drawText(word, ITEM_WIDTH / 2, ITEM_HEIGHT / 1.4f, paint);
+                }
+                image.setBitmap(bitmap);
+                updateOpacity();
+            }
+        }
+
+        void updateOpacity() {
+
+            float opacity = 0;
+            if (word != null) {
+                opacity = (this == hoveredItem) ? HOVER_OPACITY : NORMAL_OPACITY;
+            }
+            getRenderData().getMaterial().setOpacity(opacity);
+        }
+    }
+
+    public SuggestionBar(GVRContext gvrContext, int size) {
+        super(gvrContext);
+        setName(SceneObjectNames.SUGGESTION_BAR);
+
+        items = new SuggestionItem[size];
+        float step = Util.convertPixelToVRFloatValue(ITEM_WIDTH + ITEM_SPACE);
+
+        for (int i = 0; i < size; i++) {
+            items[i] = new SuggestionItem(gvrContext);
+            items[i].getTransform().setPositionX((i - (size - 1) / 2.0f) * step);
+            addChildObject(items[i]);
+        }
+    }
+
+    /**
+     * Show suggestions, slots beyond the end of the list are emptied.
+     */
+    public synchronized void setSuggestions(List<String> suggestions) {
+
+        for (int i = 0; i < items.length; i++) {
+            items[i].setWord(i < suggestions.size() ? suggestions.get(i) : null);
+        }
+    }
+
+    /**
+     * Track the object looked at, highlighting it if it is a suggestion.
+     */
+    public synchronized void update(GVRSceneObject sceneObject) {
+
+        SuggestionItem previous = hoveredItem;
+
+        hoveredItem = null;
+        for (SuggestionItem item : items) {
+            if (item == sceneObject) {
+                hoveredItem = item;
+            }
+        }
+        if (previous != hoveredItem) {
+            if (previous != null) {
+                previous.updateOpacity();
+            }
+            if (hoveredItem != null) {
+                hoveredItem.updateOpacity();
+            }
+        }
+    }
+
+    /**
+     * @return word looked at or null
+     */
+    public synchronized String getHoveredWord() {
+        return hoveredItem != null ? hoveredItem.word : null;
+    }
+}
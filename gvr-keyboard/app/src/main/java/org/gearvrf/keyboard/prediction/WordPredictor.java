@@ -0,0 +1,123 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.keyboard.prediction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Suggests completions of the word being typed.
+ * <p>
+ * The predictor remembers the trie node of every prefix of the current
+ * word, so typing or deleting a character costs one step down or up the
+ * {@link Lexicon} and only the completions are searched again.
+ */
+public class WordPredictor {
+
+    private final Lexicon lexicon;
+    private final int maxSuggestions;
+    private final StringBuilder word = new StringBuilder();
+    private int[] path = new int[16];
+    private final List<String> suggestions = new ArrayList<String>();
+
+    public WordPredictor(Lexicon lexicon, int maxSuggestions) {
+        this.lexicon = lexicon;
+        this.maxSuggestions = maxSuggestions;
+        path[0] = lexicon.getRoot();
+    }
+
+    /**
+     * Update the suggestions for the word at the end of a text.
+     *
+     * @return true if the suggestions may have changed
+     */
+    public boolean onTextChanged(CharSequence text) {
+
+        int start = text.length();
+        while (start > 0 && Character.isLetterOrDigit(text.charAt(start - 1))) {
+            start--;
+        }
+        int length = text.length() - start;
+        int common = 0;
+        while (common < length && common < word.length()
+                && text.charAt(start + common) == word.charAt(common)) {
+            common++;
+        }
+        if (common == length && common == word.length()) {
+            return false;
+        }
+
+        word.setLength(common);
+        if (path.length <= length) {
+            path = Arrays.copyOf(path, Math.max(length + 1, path.length * 2));
+        }
+        for (int i = common; i < length; i++) {
+            char character = text.charAt(start + i);
+            path[i + 1] = lexicon.getChild(path[i], Character.toLowerCase(character));
+            word.append(character);
+        }
+
+        if (length == 0) {
+            suggestions.clear();
+        } else {
+            lexicon.complete(path[length], "", maxSuggestions, suggestions);
+            for (int i = 0; i < suggestions.size(); i++) {
+                suggestions.set(i, matchCase(word.toString() + suggestions.get(i)));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the word being completed
+     */
+    public String getCurrentWord() {
+        return word.toString();
+    }
+
+    /**
+     * @return completions of the current word, most frequent first
+     */
+    public List<String> getSuggestions() {
+        return Collections.unmodifiableList(suggestions);
+    }
+
+    /**
+     * Capitalize a suggestion like the word typed so far.
+     */
+    private String matchCase(String suggestion) {
+
+        if (word.length() > 1 && isUpperCase(word)) {
+            return suggestion.toUpperCase();
+        }
+        if (Character.isUpperCase(word.charAt(0))) {
+            return Character.toUpperCase(suggestion.charAt(0)) + suggestion.substring(1);
+        }
+        return suggestion;
+    }
+
+    private static boolean isUpperCase(CharSequence text) {
+
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isLowerCase(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -24,14 +24,37 @@ public class TransparentButtonShaderThreeStates extends GVRShader {
     public static final String TEXTURE_KEY = "texture_t";
     public static final String TEXTURE_HOVER_KEY = "textureHover";
 
-    public static final String TEXTURE_TEXT_KEY = "textTexture";
-    public static final String TEXTURE_TEXT_HOVER_KEY = "textHoverTexture";
+    /**
+     * Shared {@link org.gearvrf.keyboard.util.GlyphAtlas} page holding the labels.
+     * Only its alpha is used, the label colors come from the uniforms below.
+     */
+    public static final String TEXTURE_GLYPH_ATLAS_KEY = "glyphAtlas";
 
-    public static final String TEXTURE_TEXT_UPPER_KEY = "textUpperTexture";
-    public static final String TEXTURE_TEXT_HOVER_UPPER_KEY = "textHoverUpperTexture";
+    /**
+     * Images drawn instead of a label by keys which have one.
+     */
+    public static final String TEXTURE_ICON_KEY = "iconTexture";
+    public static final String TEXTURE_ICON_HOVER_KEY = "iconHoverTexture";
 
-    public static final String TEXTURE_TEXT_SPECIAL_KEY = "textSpecialTexture";
-    public static final String TEXTURE_TEXT_HOVER_SPECIAL_KEY = "textHoverSpecialTexture";
+    /**
+     * Atlas cells of the lowercase, uppercase and special labels
+     * as left, top, width, height in texture coordinates.
+     */
+    public static final String LOWER_RECT = "u_lowerRect";
+    public static final String UPPER_RECT = "u_upperRect";
+    public static final String SPECIAL_RECT = "u_specialRect";
+
+    /**
+     * 1 for each of lowercase, uppercase and special which shows the icon.
+     */
+    public static final String ICON_MASK = "u_iconMask";
+
+    /**
+     * Premultiplied label colors.
+     */
+    public static final String TEXT_COLOR = "u_textColor";
+    public static final String HOVER_TEXT_COLOR = "u_hoverTextColor";
+    public static final String HOVER_BACKGROUND_COLOR = "u_hoverBackgroundColor";
 
     public static final String TEXTURE_SWITCH = "textureSwitch";
     public static final String OPACITY = "u_opacity";
@@ -61,42 +84,31 @@ public class TransparentButtonShaderThreeStates extends GVRShader {
             + "layout(location = 0) in vec2  coord;\n"
             + "layout(binding = 4) uniform sampler2D "+ TEXTURE_KEY + ";\n"
             + "layout(binding = 5) uniform sampler2D "+ TEXTURE_HOVER_KEY + ";\n"
-            + "layout(binding = 6) uniform sampler2D "+ TEXTURE_TEXT_KEY + ";\n"
-            + "layout(binding = 7) uniform sampler2D "+ TEXTURE_TEXT_HOVER_KEY + ";\n"
-            + "layout(binding = 8) uniform sampler2D "+ TEXTURE_TEXT_UPPER_KEY + ";\n"
-            + "layout(binding = 9) uniform sampler2D "+ TEXTURE_TEXT_HOVER_UPPER_KEY + ";\n"
-            + "layout(binding = 10) uniform sampler2D "+ TEXTURE_TEXT_SPECIAL_KEY + ";\n"
-            + "layout(binding = 11) uniform sampler2D "+ TEXTURE_TEXT_HOVER_SPECIAL_KEY + ";\n"
+            + "layout(binding = 6) uniform sampler2D "+ TEXTURE_GLYPH_ATLAS_KEY + ";\n"
+            + "layout(binding = 7) uniform sampler2D "+ TEXTURE_ICON_KEY + ";\n"
+            + "layout(binding = 8) uniform sampler2D "+ TEXTURE_ICON_HOVER_KEY + ";\n"
             + "@MATERIAL_UNIFORMS\n"
             + "layout(location = 0) out vec4 outColor;\n"
             + "void main() {\n" //
-//            + "  vec4 color = vec4(0.0, 0.0, 0.0, 0.0);\n"
-            + "  vec4 color = texture(texture_t, coord);\n"
-            + "  vec4 text = vec4(0.0, 0.0, 0.0, 1.0);\n"
-            + " if(textureSwitch == 0.0){"
-            + "  text = texture("+ TEXTURE_TEXT_KEY + ", coord);\n"
-            + "  color = texture("+ TEXTURE_KEY + ", coord);\n"
-            + " }"
-            + " if(textureSwitch == 1.0){"
-            + "  text = texture("+ TEXTURE_TEXT_HOVER_KEY + ", coord);\n"
-            + "  color = texture("+ TEXTURE_HOVER_KEY + ", coord);\n"
-            + " }"
-            + " if(textureSwitch == 2.0){"
-            + "  text = texture("+ TEXTURE_TEXT_UPPER_KEY + ", coord);\n"
-            + "  color = texture(" + TEXTURE_KEY + ", coord);\n"
-            + " }"
-            + " if(textureSwitch == 3.0){"
-            + "  text = texture("+ TEXTURE_TEXT_HOVER_UPPER_KEY + ", coord);\n"
-            + "  color = texture("+ TEXTURE_HOVER_KEY + ", coord);\n"
-            + " }"
-            + " if(textureSwitch == 4.0){"
-            + "  text = texture("+ TEXTURE_TEXT_SPECIAL_KEY + ", coord);\n"
-            + "  color = texture("+ TEXTURE_KEY + ", coord);\n"
-            + " }"
-            + " if(textureSwitch == 5.0){"
-            + "  text = texture("+ TEXTURE_TEXT_HOVER_SPECIAL_KEY + ", coord);\n"
-            + "  color = texture("+ TEXTURE_HOVER_KEY + ", coord);\n"
-            + " }"
+            + "  float state = floor(textureSwitch / 2.0);\n"
+            + "  bool hover = (textureSwitch - state * 2.0) > 0.5;\n"
+            + "  vec4 rect = " + LOWER_RECT + ";\n"
+            + "  float icon = " + ICON_MASK + ".x;\n"
+            + "  if (state == 1.0) {\n"
+            + "    rect = " + UPPER_RECT + ";\n"
+            + "    icon = " + ICON_MASK + ".y;\n"
+            + "  } else if (state == 2.0) {\n"
+            + "    rect = " + SPECIAL_RECT + ";\n"
+            + "    icon = " + ICON_MASK + ".z;\n"
+            + "  }\n"
+            + "  vec4 color = hover ? texture(" + TEXTURE_HOVER_KEY + ", coord) : texture(" + TEXTURE_KEY + ", coord);\n"
+            + "  vec4 text;\n"
+            + "  if (icon > 0.5) {\n"
+            + "    text = hover ? texture(" + TEXTURE_ICON_HOVER_KEY + ", coord) : texture(" + TEXTURE_ICON_KEY + ", coord);\n"
+            + "  } else {\n"
+            + "    float a = texture(" + TEXTURE_GLYPH_ATLAS_KEY + ", rect.xy + coord * rect.zw).a;\n"
+            + "    text = hover ? mix(" + HOVER_BACKGROUND_COLOR + ", " + HOVER_TEXT_COLOR + ", a) : " + TEXT_COLOR + " * a;\n"
+            + "  }\n"
             + "  color = color + text;\n"
             + "  color = color * u_opacity;\n"
             + "  outColor = vec4(color);\n" //
@@ -104,8 +116,10 @@ public class TransparentButtonShaderThreeStates extends GVRShader {
 
 
     public TransparentButtonShaderThreeStates(GVRContext gvrContext) {
-        super(" float u_opacity, float textureSwitch",
-                "sampler2D texture_t sampler2D textureHover sampler2D textTexture sampler2D textHoverTexture sampler2D textUpperTexture sampler2D textHoverUpperTexture sampler2D textSpecialTexture sampler2D textHoverSpecialTexture",
+        super(" float u_opacity, float textureSwitch, float4 u_lowerRect, float4 u_upperRect,"
+                + " float4 u_specialRect, float3 u_iconMask, float4 u_textColor,"
+                + " float4 u_hoverTextColor, float4 u_hoverBackgroundColor",
+                "sampler2D texture_t sampler2D textureHover sampler2D glyphAtlas sampler2D iconTexture sampler2D iconHoverTexture",
                 "float3 a_position, float2 a_texcoord", GLSLESVersion.VULKAN);
         setSegment("FragmentTemplate", FRAGMENT_SHADER);
         setSegment("VertexTemplate", VERTEX_SHADER);
@@ -115,6 +129,13 @@ public class TransparentButtonShaderThreeStates extends GVRShader {
     {
         material.setFloat("u_opacity", 1);
         material.setFloat("textureSwitch", 0);
+        material.setVec4(LOWER_RECT, 0, 0, 0, 0);
+        material.setVec4(UPPER_RECT, 0, 0, 0, 0);
+        material.setVec4(SPECIAL_RECT, 0, 0, 0, 0);
+        material.setVec3(ICON_MASK, 0, 0, 0);
+        material.setVec4(TEXT_COLOR, 0, 0, 0, 0);
+        material.setVec4(HOVER_TEXT_COLOR, 0, 0, 0, 0);
+        material.setVec4(HOVER_BACKGROUND_COLOR, 0, 0, 0, 0);
     }
 
 }
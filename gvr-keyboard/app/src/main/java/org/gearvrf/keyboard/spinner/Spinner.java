@@ -26,7 +26,6 @@ import org.gearvrf.animation.GVRAnimation;
 import org.gearvrf.animation.GVROnFinish;
 import org.gearvrf.animation.GVROpacityAnimation;
 import org.gearvrf.keyboard.model.CharList;
-import org.gearvrf.keyboard.textField.TextFieldItem;
 import org.gearvrf.keyboard.util.Util;
 
 public class Spinner extends GVRSceneObject {
@@ -127,19 +126,22 @@ public class Spinner extends GVRSceneObject {
         return true;
     }
 
-    public void move(TextFieldItem currentChar) {
+    /**
+     * Place the spinner in front of a character of its text field.
+     *
+     * @param x X of the character in text field coordinates
+     * @param y Y of the character in text field coordinates
+     * @param z Z of the character in text field coordinates
+     */
+    public void move(float x, float y, float z) {
 
-        float x = currentChar.getTransform().getPositionX();
-        float y = currentChar.getTransform().getPositionY();
-        float z = currentChar.getTransform().getPositionZ() + Z_DISTANCE;
+        getTransform().setPosition(x, y, z + Z_DISTANCE);
 
-        getTransform().setPosition(x, y, z);
-
-        lookAt(currentChar);
+        lookAt(x);
 
     }
 
-    private void lookAt(GVRSceneObject currentChar) {
+    private void lookAt(float charX) {
         GVRCameraRig camera = this.getGVRContext().getMainScene().getMainCameraRig();
         Vector3D vectorCamera = new Vector3D(camera.getTransform().getPositionX(), camera
                 .getTransform().getPositionY(), camera.getTransform()
@@ -149,8 +151,7 @@ public class Spinner extends GVRSceneObject {
                 .getTransform().getPositionY(), this.getParent().getParent().getTransform()
                 .getPositionZ());
 
-        float newX = currentChar.getTransform().getPositionX()
-                + currentChar.getParent().getTransform().getPositionX();
+        float newX = charX + getParent().getTransform().getPositionX();
         float newY = 0;
         float newZ = (float) Vector3D.distance(vectorKeyboard, vectorCamera);
 
@@ -15,53 +15,159 @@
 
 package org.gearvrf.keyboard.textField;
 
-import android.graphics.Color;
+import android.graphics.Bitmap;
+import android.util.SparseArray;
 
-import org.gearvrf.GVRAndroidResource;
 import org.gearvrf.GVRContext;
-import org.gearvrf.GVRPicker;
+import org.gearvrf.GVRMaterial;
+import org.gearvrf.GVRMesh;
+import org.gearvrf.GVRMeshCollider;
+import org.gearvrf.GVRRenderData;
 import org.gearvrf.GVRSceneObject;
-import org.gearvrf.GVRSphereCollider;
+import org.gearvrf.GVRTexture;
 import org.gearvrf.keyboard.R;
+import org.gearvrf.keyboard.keyboard.numeric.Keyboard;
 import org.gearvrf.keyboard.main.Main;
 import org.gearvrf.keyboard.model.CharItem;
+import org.gearvrf.keyboard.model.CharList;
 import org.gearvrf.keyboard.spinner.Spinner;
+import org.gearvrf.keyboard.util.GVRTextBitmapFactory;
+import org.gearvrf.keyboard.util.GlyphAtlas;
 import org.gearvrf.keyboard.util.RenderingOrder;
+import org.gearvrf.keyboard.util.ResourceRegistry;
 import org.gearvrf.keyboard.util.SceneObjectNames;
 import org.gearvrf.keyboard.util.Util;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+/**
+ * Line of characters typed on the keyboard.
+ * <p>
+ * The text is kept in a char buffer and drawn as one quad per character
+ * in a single mesh textured with a {@link GlyphAtlas} page, the underlines
+ * of all the slots are a second mesh. Edits only rewrite the quads from
+ * the edited position to the end of the longer of the old and new text,
+ * and the meshes are updated once per frame on the GL thread. The atlas
+ * cell of each character is looked up once and kept. Which character is
+ * looked at is found from the hit point on the text instead of one
+ * collider per character.
+ */
 public class TextField extends GVRSceneObject {
 
     private static final float SUB_LINE_Y = -0.2f;
+    private static final float SUB_LINE_Z = 0.5f;
+    private static final float SUB_LINE_WIDTH = Util.convertPixelToVRFloatValue(40);
+    private static final float SUB_LINE_HEIGHT = Util.convertPixelToVRFloatValue(5);
+    private static final float TEXT_Z = 0.7f;
     private static final float INTERACTIVE_TEXT_WIDTH = 118 / 2;
     private static final float TEXT_WIDTH = 0.279f;
+    private static final float CHARACTER_WIDTH = 0.19f;
+    private static final float CHARACTER_HEIGHT = 0.29f;
+    private static final int CHARACTER_BITMAP_WIDTH = 45;
+    private static final int CHARACTER_BITMAP_HEIGHT = 78;
+    private static final int CHARACTER_TEXT_SIZE = 75;
     public static final int LAST_CHARACTER = -1;
-    protected List<TextFieldItem> mListFieldItems = new ArrayList<TextFieldItem>();
-    protected List<GVRSceneObject> mListFieldSubLines = new ArrayList<GVRSceneObject>();
+    private static final int NO_CHARACTER = -1;
+
+    private char[] mChars = new char[16];
+    private CharItem[] mCharItems = new CharItem[16];
+    private int mLength = 0;
+
+    private final GlyphAtlas mAtlas;
+    private final SparseArray<float[]> mGlyphRects = new SparseArray<float[]>();
+    private final GVRSceneObject mTextObject;
+    private final GVRSceneObject mSubLineObject;
+    private GVRTexture mAtlasTexture;
+    private GVRMesh mTextMesh;
+    private GVRMesh mSubLineMesh;
+    private GVRMeshCollider mCollider;
+    private float[] mVertices;
+    private float[] mTexCoords;
+    private int mMeshCapacity = 0;
+    private int mMeshLength = 0;
+    private int mDirtyFrom = 0;
+    private boolean mUpdatePending = false;
+    private int mHiddenPosition = NO_CHARACTER;
+    private int mHoverPosition = NO_CHARACTER;
 
-    protected TextFieldItem currentCharSelected;
-    private int maxNumberOfCharecters;
     protected int currentCharPosition;
+    private int maxNumberOfCharecters;
     private Spinner spinner;
+    private OnTextChangedListener onTextChangedListener;
+
+    private final Runnable mUpdateMesh = new Runnable() {
+
+        @Override
+        public void run() {
+            updateMesh();
+        }
+    };
 
     public TextField(GVRContext gvrContext, Main main) {
         super(gvrContext);
         setName(SceneObjectNames.TEXT_FIELD);
 
-        mListFieldItems = new ArrayList<TextFieldItem>();
+        mAtlas = GlyphAtlas.get(gvrContext, CHARACTER_BITMAP_WIDTH, CHARACTER_BITMAP_HEIGHT,
+                CHARACTER_TEXT_SIZE, GVRTextBitmapFactory.getSpinnerTypeface(gvrContext.getContext()),
+                Bitmap.Config.ARGB_8888);
+        preloadGlyphs(gvrContext);
+
+        mTextObject = new GVRSceneObject(gvrContext);
+        mTextObject.setName(SceneObjectNames.TEXT_FIELD_ITEM);
+        mTextObject.getTransform().setPosition(0, 0, TEXT_Z);
+        addChildObject(mTextObject);
+
+        mSubLineObject = new GVRSceneObject(gvrContext);
+        mSubLineObject.getTransform().setPosition(0, SUB_LINE_Y, SUB_LINE_Z);
+        addChildObject(mSubLineObject);
     }
 
-    public String getCurrentText() {
+    /**
+     * Rasterize everything the keyboard can type in one go,
+     * so the whole text is drawn from a single atlas page.
+     */
+    private void preloadGlyphs(GVRContext gvrContext) {
+
+        CharList charList = CharList.getInstance(gvrContext);
+        List<String> labels = new ArrayList<String>();
 
-        String result = "";
-        for (TextFieldItem text : mListFieldItems) {
-            result += text.currentText.text;
+        labels.addAll(charList.getList(Keyboard.SOFT_KEYBOARD_UPPERCASE));
+        labels.addAll(charList.getList(Keyboard.SOFT_KEYBOARD_LOWERCASE));
+        labels.addAll(charList.getList(Keyboard.NUMERIC_KEYBOARD));
+        labels.addAll(charList.getList(Keyboard.SOFT_KEYBOARD_SPECIAL));
+
+        GlyphAtlas.Glyph[] glyphs = mAtlas.getGlyphs(labels.toArray(new String[labels.size()]));
+        if (glyphs.length > 0) {
+            mAtlasTexture = glyphs[0].getTexture();
         }
+        for (int i = 0; i < glyphs.length; i++) {
+            if (labels.get(i).length() == 1) {
+                mGlyphRects.put(labels.get(i).charAt(0), glyphs[i].getRect());
+            }
+        }
+    }
 
-        return result;
+    /**
+     * @return cell of a character in the atlas page of the text, null if it
+     *         is not on that page
+     */
+    private float[] getGlyphRect(char c) {
+
+        float[] rect = mGlyphRects.get(c);
+        if (rect == null) {
+            GlyphAtlas.Glyph glyph = mAtlas.getGlyphs(String.valueOf(c))[0];
+            if (glyph.getTexture() == mAtlasTexture) {
+                rect = glyph.getRect();
+                mGlyphRects.put(c, rect);
+            }
+        }
+        return rect;
+    }
+
+    public synchronized String getCurrentText() {
+        return new String(mChars, 0, mLength);
     }
 
     public float getSize() {
@@ -71,174 +177,140 @@ public class TextField extends GVRSceneObject {
 
     public void append(CharItem charItem) {
 
-        append(mListFieldItems.size(), charItem);
+        append(LAST_CHARACTER, charItem);
     }
 
-    public void append(final int position, final CharItem charItem) {
-        addCharacter(position, charItem);
-
-    }
-
-    public void addAllSubLine() {
+    public synchronized void append(int position, CharItem charItem) {
 
-        for (int i = 0; i < maxNumberOfCharecters; i++) {
+        String character = charItem.getCharacter();
 
-            addSubLine(i);
+        if (mLength >= maxNumberOfCharecters || character.length() != 1) {
+            return;
         }
-    }
-
-    private void addSubLineOnPosition(final int position) {
-        if (mListFieldSubLines.size() < maxNumberOfCharecters) {
-            this.getGVRContext().runOnGlThread(new Runnable() {
-
-                @Override
-                public void run() {
-
-                    GVRSceneObject space = newSpaceLine(position);
-                    mListFieldSubLines.add(position, space);
-                    addChildObject(space);
-                }
-            });
+        if (position == LAST_CHARACTER || position > mLength) {
+            position = mLength;
         }
+        ensureCapacity(mLength + 1);
+        System.arraycopy(mChars, position, mChars, position + 1, mLength - position);
+        System.arraycopy(mCharItems, position, mCharItems, position + 1, mLength - position);
+        mChars[position] = character.charAt(0);
+        mCharItems[position] = charItem;
+        mLength++;
+        invalidate(position);
+        notifyTextChanged();
     }
 
-    private GVRSceneObject newSpaceLine(int position) {
-
-        GVRSceneObject space = new GVRSceneObject(TextField.this.getGVRContext(),
-                Util.convertPixelToVRFloatValue(40),
-                Util.convertPixelToVRFloatValue(5),
-                TextField.this.getGVRContext().getAssetLoader().loadTexture(
-                        new GVRAndroidResource(TextField.this.getGVRContext(),
-                                R.drawable.key_space_active)));
-
-        space.getTransform().setPosition(position * TEXT_WIDTH, SUB_LINE_Y, 0.5f);
-        space.getRenderData().setRenderingOrder(RenderingOrder.KEYBOARD);
+    public void addAllSubLine() {
 
-        return space;
+        invalidate(0);
     }
 
-    public void removeCharacter(int position) {
+    public synchronized void removeCharacter(int position) {
 
-        if (mListFieldItems.size() == 0)
+        if (mLength == 0)
             return;
         if (position == LAST_CHARACTER)
-            position = mListFieldItems.size() - 1;
-        TextFieldItem character = mListFieldItems.get(position);
-        removeChildObject(character);
-
-        mListFieldItems.remove(position);
-        adjustPosition(position);
+            position = mLength - 1;
+
+        mLength--;
+        System.arraycopy(mChars, position + 1, mChars, position, mLength - position);
+        System.arraycopy(mCharItems, position + 1, mCharItems, position, mLength - position);
+        mCharItems[mLength] = null;
+        invalidate(position);
+        notifyTextChanged();
     }
 
-    public void removeAllTextFieldItem() {
-
-        if (mListFieldItems.size() > 0) {
-
-            for (TextFieldItem textFieldItem : mListFieldItems) {
-                removeChildObject(textFieldItem);
-            }
-            mListFieldItems = new ArrayList<TextFieldItem>();
-        }
-    }
-
-    protected TextFieldItem getObjectInHitArea(GVRSceneObject sceneObject) {
-
-        for (int i = 0; i < mListFieldItems.size(); i++) {
-
-            if (sceneObject.hashCode() == mListFieldItems.get(i)
-                    .getCollider().getOwnerObject().hashCode()) {
-
-                currentCharPosition = i;
-                return mListFieldItems.get(i);
+    public synchronized void removeAllTextFieldItem() {
 
-            }
-        }
-
-        return null;
-    }
+        if (mLength > 0) {
 
-    private void adjustPosition(int positionInitial) {
-        for (int i = positionInitial; i < mListFieldItems.size(); i++) {
-            mListFieldItems.get(i).getTransform().setPosition(i * TEXT_WIDTH, 0, 0);
+            Arrays.fill(mCharItems, 0, mLength, null);
+            mLength = 0;
+            invalidate(0);
+            notifyTextChanged();
         }
     }
 
-    private void addCharacter(final int position, final CharItem charItem) {
-
-        this.getGVRContext().runOnGlThread(new Runnable() {
-
-            @Override
-            public void run() {
-                if (mListFieldItems.size() < maxNumberOfCharecters) {
-                    float sceneObjectWidth = 0.19f;
-                    float sceneObjectHeigth = 0.29f;
-                    int bitmapWidth = 45;
-                    int bitmapHeigth = 78;
-
-                    Text text = new Text();
-                    text.textSize = 75;
-                    text.backgroundColor = Color.argb(0, 0, 0, 0);
-
-                    TextFieldItem character = new TextFieldItem(getGVRContext(),
-                            sceneObjectWidth, sceneObjectHeigth,
-                            bitmapWidth, bitmapHeigth,
-                            text, position);
-
-                    character.currentText.maxLength = 1;
-                    character.setText(getGVRContext(), charItem);
-                    character.getRenderData().setRenderingOrder(RenderingOrder.KEYBOARD);
-                    character.getTransform().setPosition(position * TEXT_WIDTH, 0, 0.7f);
-                    character.attachComponent(new GVRSphereCollider(getGVRContext()));
-                    mListFieldItems.add(position, character);
-                    addChildObject(character);
-                }
-            }
-        });
+    public void cleanText() {
 
+        removeAllTextFieldItem();
     }
 
-    public void cleanText() {
-        for (int i = 0; i < mListFieldItems.size(); i++) {
-            TextFieldItem character = mListFieldItems.get(i);
-            character.currentText.text = "";
-            removeChildObject(character);
+    /**
+     * Find the character under a hit point.
+     *
+     * @param sceneObject object hit
+     * @param hitLocation hit point in the coordinates of the object hit
+     * @return character position or NO_CHARACTER
+     */
+    protected synchronized int getPositionInHitArea(GVRSceneObject sceneObject,
+            float[] hitLocation) {
+
+        if (sceneObject != mTextObject || hitLocation == null) {
+            return NO_CHARACTER;
         }
+        int position = Math.round(hitLocation[0] / TEXT_WIDTH);
 
-        mListFieldItems.clear();
+        return (position >= 0 && position < mLength) ? position : NO_CHARACTER;
     }
 
-    public void spinnerUpdate(GVRSceneObject sceneObject) {
+    public void spinnerUpdate(GVRSceneObject sceneObject, float[] hitLocation) {
 
         spinner.getSpinnerRoulette().onStep();
 
+        if (mLength > 0) {
 
-        if (!mListFieldItems.isEmpty()) {
-
-            currentCharSelected = getObjectInHitArea(sceneObject);
-
+            int position = getPositionInHitArea(sceneObject, hitLocation);
+            mHoverPosition = position;
 
-            if (currentCharSelected != null) {
+            if (position != NO_CHARACTER) {
 
+                currentCharPosition = position;
                 tryShowSpinner(spinner);
-
             }
 
             if (spinner.isHitArea(sceneObject)) {
                 tryHideSpinner();
             }
         }
+    }
+
+    /**
+     * Follow the gaze while it stays on the text. Moving onto another
+     * character behaves like entering it, moving between characters
+     * does nothing, as if each character had its own collider.
+     */
+    public void spinnerInside(GVRSceneObject sceneObject, float[] hitLocation) {
 
+        int position = getPositionInHitArea(sceneObject, hitLocation);
+
+        if (position != mHoverPosition) {
+            if (position == NO_CHARACTER) {
+                mHoverPosition = NO_CHARACTER;
+            } else {
+                spinnerUpdate(sceneObject, hitLocation);
+            }
+        }
     }
 
     private synchronized void tryHideSpinner() {
         if (spinner.isActive() && !spinner.isShuttingDown()) {
 
-            mListFieldItems.get(spinner.getSpinnerRoulette().getPosition()).getRenderData()
-                    .getMaterial().setOpacity(1);
-            mListFieldItems.get(spinner.getSpinnerRoulette().getPosition()).getCharItem()
-                    .setMode(spinner.getSpinnerRoulette().getCurrentValue().getMode());
-            mListFieldItems.get(spinner.getSpinnerRoulette().getPosition()).setText(
-                    getGVRContext(), spinner.getSpinnerRoulette().getCurrentValue());
+            int position = spinner.getSpinnerRoulette().getPosition();
+            CharItem value = spinner.getSpinnerRoulette().getCurrentValue();
+
+            if (position < mLength) {
+
+                mCharItems[position].setMode(value.getMode());
+
+                String character = value.getCharacter();
+                if (character.length() == 1) {
+                    mChars[position] = character.charAt(0);
+                    mCharItems[position] = value;
+                    notifyTextChanged();
+                }
+            }
+            setHiddenPosition(NO_CHARACTER, position);
 
             spinner.off();
 
@@ -249,20 +321,33 @@ public class TextField extends GVRSceneObject {
 
         if (!spinner.isActive() && !spinner.isShuttingDown()) {
 
-            spinner.on(currentCharSelected.getCharItem().getPosition(), currentCharSelected
-                            .getCharItem().getMode(),
-                    currentCharPosition);
+            CharItem charItem = mCharItems[currentCharPosition];
+
+            spinner.on(charItem.getPosition(), charItem.getMode(), currentCharPosition);
 
-            setPositionSpinner(currentCharSelected, spinner);
+            spinner.move(currentCharPosition * TEXT_WIDTH, 0, TEXT_Z);
 
-            mListFieldItems.get(spinner.getSpinnerRoulette().getPosition()).getRenderData()
-                    .getMaterial().setOpacity(0);
+            setHiddenPosition(spinner.getSpinnerRoulette().getPosition(),
+                    spinner.getSpinnerRoulette().getPosition());
 
         }
     }
 
-    private void setPositionSpinner(TextFieldItem currentChar, Spinner spinner) {
-        spinner.move(currentChar);
+    private void setHiddenPosition(int hiddenPosition, int changedPosition) {
+
+        mHiddenPosition = hiddenPosition;
+        invalidate(changedPosition);
+    }
+
+    public void setOnTextChangedListener(OnTextChangedListener listener) {
+        this.onTextChangedListener = listener;
+    }
+
+    private void notifyTextChanged() {
+
+        if (onTextChangedListener != null) {
+            onTextChangedListener.onTextChanged(this, getCurrentText());
+        }
     }
 
     public void setSpinner(Spinner spinner) {
@@ -270,60 +355,218 @@ public class TextField extends GVRSceneObject {
 
     }
 
-    public void setNumberOfCharecters(int numberOfCharecters) {
+    public synchronized void setNumberOfCharecters(int numberOfCharecters) {
 
         this.maxNumberOfCharecters = numberOfCharecters;
-        updateSubLines(numberOfCharecters);
+        if (mLength > numberOfCharecters) {
+            Arrays.fill(mCharItems, numberOfCharecters, mLength, null);
+            mLength = numberOfCharecters;
+            notifyTextChanged();
+        }
+        invalidate(0);
     }
 
     public void addSubLine(int positionInitial) {
 
-        int position = positionInitial;
-        addSubLineOnPosition(position++);
+        invalidate(0);
     }
 
-    private void updateSubLines(int numberOfCharecters) {
-
-        if (mListFieldSubLines.size() == numberOfCharecters) {
-            return;
+    public float getInitialPosition() {
+        return (maxNumberOfCharecters - 1) * TEXT_WIDTH;
+    }
 
-        } else if (mListFieldSubLines.size() > numberOfCharecters) {
+    private void ensureCapacity(int length) {
 
-            removeToMach(numberOfCharecters);
+        if (length > mChars.length) {
+            int capacity = Math.max(length, mChars.length * 2);
+            mChars = Arrays.copyOf(mChars, capacity);
+            mCharItems = Arrays.copyOf(mCharItems, capacity);
+        }
+    }
 
-        } else {
+    private synchronized void invalidate(int position) {
 
-            addToMach(numberOfCharecters);
+        mDirtyFrom = Math.min(mDirtyFrom, Math.max(position, 0));
+        if (!mUpdatePending) {
+            mUpdatePending = true;
+            getGVRContext().runOnGlThread(mUpdateMesh);
         }
     }
 
-    private void addToMach(int numberOfCharecters) {
-        int oldSize = mListFieldSubLines.size();
+    private synchronized void updateMesh() {
+
+        mUpdatePending = false;
+        if (mMeshCapacity != maxNumberOfCharecters) {
+            createMeshes(maxNumberOfCharecters);
+        }
+        if (mMeshCapacity == 0) {
+            return;
+        }
+
+        // quads past both the old and the new text are already empty
+        int end = Math.min(Math.max(mLength, mMeshLength), mMeshCapacity);
+        int start = mDirtyFrom;
 
-        for (int i = oldSize; i < numberOfCharecters; i++) {
+        for (int i = start; i < end; i++) {
 
-            addSubLine(i);
+            float[] rect = null;
+            if (i < mLength && i != mHiddenPosition) {
+                rect = getGlyphRect(mChars[i]);
+            }
+            if (rect != null) {
+                setQuad(mVertices, mTexCoords, i, i * TEXT_WIDTH, 0,
+                        CHARACTER_WIDTH, CHARACTER_HEIGHT, rect);
+            } else {
+                setQuad(mVertices, mTexCoords, i, i * TEXT_WIDTH, 0, 0, 0, null);
+            }
+        }
+        mDirtyFrom = mMeshCapacity;
+        mMeshLength = Math.min(mLength, mMeshCapacity);
+
+        if (start < end) {
+            mTextMesh.setVertices(mVertices);
+            mTextMesh.setTexCoords(mTexCoords);
         }
     }
 
-    private void removeToMach(int numberOfCharecters2) {
+    private void createMeshes(int capacity) {
+
+        GVRContext gvrContext = getGVRContext();
+        ResourceRegistry registry = ResourceRegistry.getInstance(gvrContext);
+
+        if (mMeshCapacity == 0 && capacity > 0) {
 
-        int oldSize = mListFieldSubLines.size();
+            GVRRenderData renderData = new GVRRenderData(gvrContext);
+            GVRMaterial material = new GVRMaterial(gvrContext);
+            material.setMainTexture(mAtlasTexture);
+            renderData.setMaterial(material);
+            renderData.setAlphaBlend(true);
+            renderData.setRenderingOrder(RenderingOrder.KEYBOARD);
+            mTextObject.attachRenderData(renderData);
 
-        for (int i = oldSize; i > maxNumberOfCharecters; i--) {
+            renderData = new GVRRenderData(gvrContext);
+            material = new GVRMaterial(gvrContext);
+            material.setMainTexture(registry.acquireTexture(R.drawable.key_space_active));
+            renderData.setMaterial(material);
+            renderData.setAlphaBlend(true);
+            renderData.setRenderingOrder(RenderingOrder.KEYBOARD);
+            mSubLineObject.attachRenderData(renderData);
 
-            removeSubLine(i - 1);
+        } else if (mMeshCapacity > 0 && capacity == 0) {
+
+            mTextObject.detachRenderData();
+            mSubLineObject.detachRenderData();
+            registry.release(R.drawable.key_space_active);
+        }
+        mMeshCapacity = capacity;
+        mDirtyFrom = 0;
+        mMeshLength = 0;
+        if (capacity == 0) {
+            return;
         }
-    }
 
-    private void removeSubLine(int i) {
-        GVRSceneObject subLine = mListFieldSubLines.get(i);
-        removeChildObject(subLine);
-        mListFieldSubLines.remove(i);
+        mVertices = new float[capacity * 12];
+        mTexCoords = new float[capacity * 8];
+        char[] indices = getQuadIndices(capacity);
+
+        mTextMesh = new GVRMesh(gvrContext, "float3 a_position float2 a_texcoord");
+        mTextMesh.setVertices(mVertices);
+        mTextMesh.setTexCoords(mTexCoords);
+        mTextMesh.setIndices(indices);
+        mTextObject.getRenderData().setMesh(mTextMesh);
+
+        float[] subLineVertices = new float[capacity * 12];
+        float[] subLineTexCoords = new float[capacity * 8];
+        for (int i = 0; i < capacity; i++) {
+            setQuad(subLineVertices, subLineTexCoords, i, i * TEXT_WIDTH, 0,
+                    SUB_LINE_WIDTH, SUB_LINE_HEIGHT, new float[] {
+                            0, 0, 1, 1
+                    });
+        }
+        mSubLineMesh = new GVRMesh(gvrContext, "float3 a_position float2 a_texcoord");
+        mSubLineMesh.setVertices(subLineVertices);
+        mSubLineMesh.setTexCoords(subLineTexCoords);
+        mSubLineMesh.setIndices(indices);
+        mSubLineObject.getRenderData().setMesh(mSubLineMesh);
+
+        // the whole row of slots is hit, the hit point tells the character
+        float[] hitVertices = new float[12];
+        float[] hitTexCoords = new float[8];
+        setQuad(hitVertices, hitTexCoords, 0, (capacity - 1) * TEXT_WIDTH / 2, 0,
+                capacity * TEXT_WIDTH, CHARACTER_HEIGHT, new float[] {
+                        0, 0, 1, 1
+                });
+        GVRMesh hitMesh = new GVRMesh(gvrContext, "float3 a_position float2 a_texcoord");
+        hitMesh.setVertices(hitVertices);
+        hitMesh.setTexCoords(hitTexCoords);
+        hitMesh.setIndices(getQuadIndices(1));
+
+        if (mCollider == null) {
+            mCollider = new GVRMeshCollider(gvrContext, hitMesh);
+            mTextObject.attachCollider(mCollider);
+        } else {
+            mCollider.setMesh(hitMesh);
+        }
     }
 
-    public float getInitialPosition() {
-        return (maxNumberOfCharecters - 1) * TEXT_WIDTH;
+    /**
+     * Write the corners of a quad in the order GVRContext.createQuad uses.
+     * A quad without a rect is collapsed to a point so it draws nothing.
+     */
+    private static void setQuad(float[] vertices, float[] texCoords, int index, float x,
+            float y, float width, float height, float[] rect) {
+
+        int v = index * 12;
+        int t = index * 8;
+        float halfWidth = width / 2;
+        float halfHeight = height / 2;
+        float u0 = 0, v0 = 0, u1 = 0, v1 = 0;
+
+        if (rect == null) {
+            halfWidth = halfHeight = 0;
+        } else {
+            u0 = rect[0];
+            v0 = rect[1];
+            u1 = rect[0] + rect[2];
+            v1 = rect[1] + rect[3];
+        }
+
+        vertices[v] = x - halfWidth;
+        vertices[v + 1] = y + halfHeight;
+        vertices[v + 2] = 0;
+        vertices[v + 3] = x - halfWidth;
+        vertices[v + 4] = y - halfHeight;
+        vertices[v + 5] = 0;
+        vertices[v + 6] = x + halfWidth;
+        vertices[v + 7] = y + halfHeight;
+        vertices[v + 8] = 0;
+        vertices[v + 9] = x + halfWidth;
+        vertices[v + 10] = y - halfHeight;
+        vertices[v + 11] = 0;
+
+        texCoords[t] = u0;
+        texCoords[t + 1] = v0;
+        texCoords[t + 2] = u0;
+        texCoords[t + 3] = v1;
+        texCoords[t + 4] = u1;
+        texCoords[t + 5] = v0;
+        texCoords[t + 6] = u1;
+        texCoords[t + 7] = v1;
     }
 
+    private static char[] getQuadIndices(int count) {
+
+        char[] indices = new char[count * 6];
+
+        for (int i = 0; i < count; i++) {
+            char first = (char) (i * 4);
+            indices[i * 6] = first;
+            indices[i * 6 + 1] = (char) (first + 1);
+            indices[i * 6 + 2] = (char) (first + 2);
+            indices[i * 6 + 3] = (char) (first + 1);
+            indices[i * 6 + 4] = (char) (first + 3);
+            indices[i * 6 + 5] = (char) (first + 2);
+        }
+        return indices;
+    }
 }
@@ -56,6 +56,17 @@ public class GVRTextBitmapFactory {
     private GVRTextBitmapFactory() {
     }
 
+    private static Typeface spinnerTypeface;
+
+    public static synchronized Typeface getSpinnerTypeface(Context context) {
+
+        if (spinnerTypeface == null) {
+            spinnerTypeface = Typeface.createFromAsset(context.getAssets(),
+                    "fonts/futura-condensed-normal.ttf");
+        }
+        return spinnerTypeface;
+    }
+
     /**
      * Creates a Bitmap with texts.
      *
@@ -116,8 +127,7 @@ public class GVRTextBitmapFactory {
 
     public static Bitmap create(Context context, float width, float height, Text text, int test) { // spinner
 
-        Typeface myTypeface = Typeface.createFromAsset(context.getAssets(),
-                "fonts/futura-condensed-normal.ttf");
+        Typeface myTypeface = getSpinnerTypeface(context);
 
         Bitmap bitmap = Bitmap.createBitmap((int) width, (int) height, Bitmap.Config.ARGB_8888);
 
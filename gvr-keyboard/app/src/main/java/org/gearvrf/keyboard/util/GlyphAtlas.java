@@ -0,0 +1,277 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.keyboard.util;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Paint.Align;
+import android.graphics.Rect;
+import android.graphics.Typeface;
+
+import org.gearvrf.GVRBitmapImage;
+import org.gearvrf.GVRContext;
+import org.gearvrf.GVRTexture;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Packs key labels into shared textures.
+ * <p>
+ * Every label is rasterized once, in white, into a cell of a page bitmap.
+ * The keyboard shader only uses the alpha of a cell and applies the text
+ * and hover colors itself, so keys with different colors share the same
+ * cells. Labels are drawn exactly as {@link GVRTextBitmapFactory} draws
+ * them, and a cell has the size the key bitmap used to have, so the shader
+ * stretches a cell over the key quad just like the old bitmap. Since only
+ * the coverage matters there, keyboard pages are {@link Bitmap.Config#ALPHA_8},
+ * a quarter of the size of an ARGB page. Atlases drawn with a stock texture
+ * material keep ARGB pages so the white labels show as they are.
+ * <p>
+ * Labels can also be drawn in a typeface and centered on their bounds, as
+ * the spinner variant of {@link GVRTextBitmapFactory} does.
+ * <p>
+ * There is one atlas per cell size, font size, typeface and page format.
+ * Atlases belong to the {@link GVRContext} they were made with and are
+ * dropped when asked for by a new one. A page holds as
+ * many cells as fit in {@link #PAGE_SIZE} pixels and a new page is opened
+ * when it is full.
+ * Cells added to a page are uploaded once, on the GL thread before the next
+ * frame, however many labels were added in between.
+ */
+public class GlyphAtlas {
+
+    public static final int PAGE_SIZE = 1024;
+
+    private static final int PADDING = 2;
+
+    private static final Map<String, GlyphAtlas> sAtlases = new HashMap<String, GlyphAtlas>();
+    private static GVRContext sContext;
+
+    private final GVRContext mContext;
+    private final int mCellWidth;
+    private final int mCellHeight;
+    private final int mFontSize;
+    private final List<Page> mPages = new ArrayList<Page>();
+    private final Paint mPaint = new Paint();
+    private final Rect mBounds = new Rect();
+    private final boolean mCenterBounds;
+    private final Bitmap.Config mConfig;
+
+    /**
+     * A label inside an atlas page.
+     */
+    public static class Glyph {
+
+        private final Page mPage;
+        private final float[] mRect;
+
+        private Glyph(Page page, float[] rect) {
+            mPage = page;
+            mRect = rect;
+        }
+
+        public GVRTexture getTexture() {
+            return mPage.mTexture;
+        }
+
+        /**
+         * @return left, top, width and height of the cell in texture
+         *         coordinates
+         */
+        public float[] getRect() {
+            return mRect;
+        }
+    }
+
+    private class Page implements Runnable {
+
+        private final Bitmap mBitmap;
+        private final Canvas mCanvas;
+        private final GVRBitmapImage mImage;
+        private final GVRTexture mTexture;
+        private final Map<String, Glyph> mGlyphs = new HashMap<String, Glyph>();
+        private final int mColumns;
+        private final int mCapacity;
+        private boolean mUploadPending = false;
+
+        Page() {
+            int stepX = mCellWidth + 2 * PADDING;
+            int stepY = mCellHeight + 2 * PADDING;
+
+            mColumns = Math.max(1, PAGE_SIZE / stepX);
+            mCapacity = mColumns * Math.max(1, PAGE_SIZE / stepY);
+            mBitmap = Bitmap.createBitmap(Math.max(PAGE_SIZE, stepX),
+                    Math.max(PAGE_SIZE, stepY), mConfig);
+            mCanvas = new Canvas(mBitmap);
+            mImage = new GVRBitmapImage(mContext, mBitmap);
+            mTexture = new GVRTexture(mContext);
+            mTexture.setImage(mImage);
+        }
+
+        boolean hasRoom(int count) {
+            return mGlyphs.size() + count <= mCapacity;
+        }
+
+        Glyph add(String label) {
+            int index = mGlyphs.size();
+            int x = (index % mColumns) * (mCellWidth + 2 * PADDING) + PADDING;
+            int y = (index / mColumns) * (mCellHeight + 2 * PADDING) + PADDING;
+            float width = mBitmap.getWidth();
+            float height = mBitmap.getHeight();
+
+            mCanvas.save();
+            mCanvas.clipRect(x, y, x + mCellWidth, y + mCellHeight);
+            if (mCenterBounds) {
+                mPaint.getTextBounds(label, 0, label.length(), mBounds);
+                mCanvas.drawText(label, x + mCellWidth / 2.0f - mBounds.exactCenterX(),
+                        y + mCellHeight / 2.0f - mBounds.exactCenterY(), mPaint);
+            } else {
+                mCanvas.drawText(label, x + mCellWidth / 2.0f, y + mCellHeight / 1.6f, mPaint);
+            }
+            mCanvas.restore();
+
+            Glyph glyph = new Glyph(this, new float[] {
+                    x / width, y / height, mCellWidth / width, mCellHeight / height
+            });
+            mGlyphs.put(label, glyph);
+            if (!mUploadPending) {
+                mUploadPending = true;
+                mContext.runOnGlThread(this);
+            }
+            return glyph;
+        }
+
+        @Override
+        public void run() {
+            synchronized (GlyphAtlas.this) {
+                mUploadPending = false;
+                mImage.setBitmap(mBitmap);
+            }
+        }
+    }
+
+    private GlyphAtlas(GVRContext context, int cellWidth, int cellHeight, int fontSize,
+            Typeface typeface, Bitmap.Config config) {
+        mContext = context;
+        mCellWidth = cellWidth;
+        mCellHeight = cellHeight;
+        mFontSize = fontSize;
+        mCenterBounds = typeface != null;
+        mConfig = config;
+
+        if (mCenterBounds) {
+            mPaint.setFlags(Paint.ANTI_ALIAS_FLAG);
+            mPaint.setTypeface(typeface);
+        } else {
+            mPaint.setTextAlign(Align.CENTER);
+        }
+        mPaint.setTextSize(fontSize);
+        mPaint.setFakeBoldText(true);
+        mPaint.setColor(Color.WHITE);
+    }
+
+    /**
+     * Get the shared atlas for labels of the given cell and font size,
+     * with alpha only pages for the keyboard shader.
+     */
+    public static GlyphAtlas get(GVRContext context, float cellWidth,
+            float cellHeight, int fontSize) {
+        return get(context, cellWidth, cellHeight, fontSize, null, Bitmap.Config.ALPHA_8);
+    }
+
+    /**
+     * Get the shared atlas for labels drawn in a typeface and centered
+     * on their bounds.
+     *
+     * @param typeface typeface of the labels, null for the keyboard style
+     * @param config format of the pages, {@link Bitmap.Config#ALPHA_8} when
+     *            the material only samples the alpha
+     */
+    public static synchronized GlyphAtlas get(GVRContext context, float cellWidth,
+            float cellHeight, int fontSize, Typeface typeface, Bitmap.Config config) {
+
+        if (context != sContext) {
+            sAtlases.clear();
+            sContext = context;
+        }
+
+        String key = (int) cellWidth + "x" + (int) cellHeight + "@" + fontSize
+                + (typeface != null ? "/" + System.identityHashCode(typeface) : "")
+                + "/" + config;
+        GlyphAtlas atlas = sAtlases.get(key);
+
+        if (atlas == null) {
+            atlas = new GlyphAtlas(context, (int) cellWidth, (int) cellHeight, fontSize,
+                    typeface, config);
+            sAtlases.put(key, atlas);
+        }
+        return atlas;
+    }
+
+    public int getFontSize() {
+        return mFontSize;
+    }
+
+    /**
+     * Get the cells of some labels, rasterizing the ones not seen before.
+     * All the glyphs returned are on the same page, so a material only
+     * needs one atlas texture for all of them.
+     *
+     * @param labels labels to look up, null entries give null glyphs
+     * @return one glyph per label
+     */
+    public synchronized Glyph[] getGlyphs(String... labels) {
+
+        Glyph[] glyphs = new Glyph[labels.length];
+        Page page = findPage(labels);
+
+        for (int i = 0; i < labels.length; i++) {
+
+            if (labels[i] == null) {
+                continue;
+            }
+            glyphs[i] = page.mGlyphs.get(labels[i]);
+            if (glyphs[i] == null) {
+                glyphs[i] = page.add(labels[i]);
+            }
+        }
+        return glyphs;
+    }
+
+    private Page findPage(String[] labels) {
+
+        for (Page page : mPages) {
+
+            int missing = 0;
+            for (String label : labels) {
+                if ((label != null) && !page.mGlyphs.containsKey(label)) {
+                    missing++;
+                }
+            }
+            if (page.hasRoom(missing)) {
+                return page;
+            }
+        }
+        Page page = new Page();
+        mPages.add(page);
+        return page;
+    }
+}
@@ -0,0 +1,176 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.keyboard.util;
+
+import android.graphics.BitmapFactory;
+import android.util.Log;
+import android.util.SparseArray;
+
+import org.gearvrf.GVRAndroidResource;
+import org.gearvrf.GVRContext;
+import org.gearvrf.GVRMesh;
+import org.gearvrf.GVRTexture;
+import org.gearvrf.GVRVertexBuffer;
+
+/**
+ * Textures and meshes of the keyboard, loaded once per resource id.
+ * <p>
+ * Every acquire of a resource that is already resident returns the same
+ * object and counts as a hit, the first one loads it and counts as a miss.
+ * A resource stays resident until it has been released as many times as
+ * it was acquired. Resident bytes are estimated from the image size of a
+ * texture, read without decoding the pixels, and from the vertex layout
+ * of a mesh. A new {@link GVRContext} starts a new registry, since the
+ * resources of the old one cannot be used with it.
+ */
+public class ResourceRegistry {
+
+    private static final String TAG = "ResourceRegistry";
+
+    private static ResourceRegistry instance;
+
+    private final GVRContext gvrContext;
+    private final SparseArray<Entry> entries = new SparseArray<Entry>();
+    private int hits;
+    private int misses;
+    private long residentBytes;
+
+    private static class Entry {
+
+        final Object resource;
+        final long bytes;
+        int references;
+
+        Entry(Object resource, long bytes) {
+            this.resource = resource;
+            this.bytes = bytes;
+        }
+    }
+
+    private ResourceRegistry(GVRContext gvrContext) {
+        this.gvrContext = gvrContext;
+    }
+
+    public static synchronized ResourceRegistry getInstance(GVRContext gvrContext) {
+
+        if (instance == null || instance.gvrContext != gvrContext) {
+            instance = new ResourceRegistry(gvrContext);
+        }
+        return instance;
+    }
+
+    public synchronized GVRTexture acquireTexture(int resourceId) {
+
+        Entry entry = entries.get(resourceId);
+
+        if (entry == null) {
+            GVRTexture texture = gvrContext.getAssetLoader().loadTexture(
+                    new GVRAndroidResource(gvrContext, resourceId));
+            entry = add(resourceId, texture, getImageBytes(resourceId));
+        } else {
+            hits++;
+        }
+        entry.references++;
+        return (GVRTexture) entry.resource;
+    }
+
+    public synchronized GVRMesh acquireMesh(int resourceId) {
+
+        Entry entry = entries.get(resourceId);
+
+        if (entry == null) {
+            GVRMesh mesh = gvrContext.getAssetLoader().loadMesh(
+                    new GVRAndroidResource(gvrContext, resourceId));
+            entry = add(resourceId, mesh, getMeshBytes(mesh));
+        } else {
+            hits++;
+        }
+        entry.references++;
+        return (GVRMesh) entry.resource;
+    }
+
+    /**
+     * Give back a texture or mesh. The registry forgets it once every
+     * acquire has been released, objects still using it keep it alive.
+     */
+    public synchronized void release(int resourceId) {
+
+        Entry entry = entries.get(resourceId);
+
+        if (entry == null) {
+            Log.w(TAG, "release of resource not acquired " + resourceId);
+            return;
+        }
+        if (--entry.references == 0) {
+            entries.remove(resourceId);
+            residentBytes -= entry.bytes;
+        }
+    }
+
+    public synchronized int getHits() {
+        return hits;
+    }
+
+    public synchronized int getMisses() {
+        return misses;
+    }
+
+    public synchronized long getResidentBytes() {
+        return residentBytes;
+    }
+
+    public synchronized int getResidentCount() {
+        return entries.size();
+    }
+
+    private Entry add(int resourceId, Object resource, long bytes) {
+
+        Entry entry = new Entry(resource, bytes);
+
+        entries.put(resourceId, entry);
+        misses++;
+        residentBytes += bytes;
+        if (Util.isLogActive) {
+            Log.d(TAG, "loaded " + resourceId + " " + bytes + " bytes, resident "
+                    + residentBytes + " bytes, hits " + hits + " misses " + misses);
+        }
+        return entry;
+    }
+
+    private long getImageBytes(int resourceId) {
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        options.inScaled = false;
+        BitmapFactory.decodeResource(gvrContext.getContext().getResources(), resourceId, options);
+
+        return Math.max(options.outWidth, 0) * (long) Math.max(options.outHeight, 0) * 4;
+    }
+
+    private static long getMeshBytes(GVRMesh mesh) {
+
+        GVRVertexBuffer vertices = mesh.getVertexBuffer();
+        long stride = 0;
+
+        for (String token : vertices.getDescriptor().split(" ")) {
+            if (token.startsWith("float") || token.startsWith("int")) {
+                String size = token.replaceAll("[^0-9]", "");
+                stride += 4 * (size.isEmpty() ? 1 : Integer.parseInt(size));
+            }
+        }
+        return stride * vertices.getVertexCount();
+    }
+}
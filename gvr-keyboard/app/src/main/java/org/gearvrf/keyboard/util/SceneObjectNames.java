@@ -39,4 +39,6 @@ public class SceneObjectNames {
     public static final String TEXT_FIELD = "textField";
     public static final String TEXT_FIELD_ITEM = "textFieldItem";
     public static final String INTERACTIVE_TEXT = "interactiveText";
+    public static final String SUGGESTION_BAR = "suggestionBar";
+    public static final String SUGGESTION_ITEM = "suggestionItem";
 }
@@ -0,0 +1,141 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.keyboard.keyboard.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class HitGridTest {
+
+    private static final float KEY = 0.2f;
+    private static final float MARGIN = 0.05f;
+    private static final float PLANE_Z = -2;
+
+    /*
+     * Rows of keys tiling the plane without gaps, each row a different
+     * number of keys and the bottom one with a wide space bar.
+     */
+    private static float[] keyboardRects() {
+
+        int[] rowKeys = { 10, 9, 7, 3 };
+        float[] rects = new float[29 * 4];
+        int index = 0;
+
+        for (int row = 0; row < rowKeys.length; row++) {
+            float width = (row == 3) ? KEY * 10 / 3 : KEY;
+            float left = -rowKeys[row] * width / 2;
+            float top = -row * KEY;
+            for (int i = 0; i < rowKeys[row]; i++) {
+                rects[index++] = left + i * width;
+                rects[index++] = top - KEY;
+                rects[index++] = left + (i + 1) * width;
+                rects[index++] = top;
+            }
+        }
+        return rects;
+    }
+
+    @Test
+    public void empty() {
+
+        HitGrid grid = new HitGrid(new float[0], PLANE_Z, MARGIN);
+
+        assertEquals(0, grid.getCount());
+        assertEquals(HitGrid.NONE, grid.pick(0, 0, HitGrid.NONE));
+        assertEquals(HitGrid.NONE, grid.pick(0, 0, 0, 0, 0, -1, HitGrid.NONE));
+    }
+
+    @Test
+    public void picksKeyUnderPoint() {
+
+        HitGrid grid = new HitGrid(keyboardRects(), PLANE_Z, MARGIN);
+
+        assertEquals(29, grid.getCount());
+        assertEquals(0, grid.pick(-0.95f, -0.1f, HitGrid.NONE));
+        assertEquals(9, grid.pick(0.95f, -0.1f, HitGrid.NONE));
+        assertEquals(10, grid.pick(-0.85f, -0.3f, HitGrid.NONE));
+        assertEquals(27, grid.pick(0.1f, -0.7f, HitGrid.NONE));
+        assertEquals(HitGrid.NONE, grid.pick(1.05f, -0.1f, HitGrid.NONE));
+        assertEquals(HitGrid.NONE, grid.pick(0, 0.1f, HitGrid.NONE));
+        assertEquals(HitGrid.NONE, grid.pick(0, -0.9f, HitGrid.NONE));
+    }
+
+    @Test
+    public void keepsCurrentKeyWithinMargin() {
+
+        HitGrid grid = new HitGrid(keyboardRects(), PLANE_Z, MARGIN);
+
+        // key 0 spans -1.0 .. -0.8, key 1 spans -0.8 .. -0.6
+        int key = grid.pick(-0.9f, -0.1f, HitGrid.NONE);
+        assertEquals(0, key);
+        key = grid.pick(-0.77f, -0.1f, key);
+        assertEquals("inside the margin of key 0", 0, key);
+        key = grid.pick(-0.74f, -0.1f, key);
+        assertEquals("past the margin of key 0", 1, key);
+        key = grid.pick(-0.83f, -0.1f, key);
+        assertEquals("inside the margin of key 1", 1, key);
+        assertEquals("without a current key", 0, grid.pick(-0.83f, -0.1f, HitGrid.NONE));
+
+        // the margin also holds the key just outside the keyboard
+        assertEquals(0, grid.pick(-1.03f, -0.1f, 0));
+        assertEquals(HitGrid.NONE, grid.pick(-1.03f, -0.1f, HitGrid.NONE));
+    }
+
+    @Test
+    public void rayIsIntersectedWithThePlane() {
+
+        HitGrid grid = new HitGrid(keyboardRects(), PLANE_Z, MARGIN);
+
+        // from the origin towards the middle of key 27 at z = -2
+        assertEquals(27, grid.pick(0, 0, 0, 0.05f, -0.35f, -1, HitGrid.NONE));
+        assertEquals(HitGrid.NONE, grid.pick(0, 0, 0, 0.05f, -0.35f, 1, HitGrid.NONE));
+        assertEquals(HitGrid.NONE, grid.pick(0, 0, 0, 1, 0, 0, HitGrid.NONE));
+    }
+
+    @Test
+    public void matchesBruteForce() {
+
+        float[] rects = keyboardRects();
+        HitGrid grid = new HitGrid(rects, PLANE_Z, MARGIN);
+        Random random = new Random(5);
+
+        for (int i = 0; i < 10000; i++) {
+            float x = random.nextFloat() * 2.4f - 1.2f;
+            float y = random.nextFloat() * 1.0f - 0.9f;
+            int expected = HitGrid.NONE;
+            for (int r = 0; r < rects.length / 4; r++) {
+                if (contains(rects, r, x, y)) {
+                    expected = r;
+                    break;
+                }
+            }
+            int actual = grid.pick(x, y, HitGrid.NONE);
+            if (expected != actual) {
+                // on a shared border either key is right
+                assertTrue(x + ", " + y, actual != HitGrid.NONE && contains(rects, actual, x, y));
+            }
+        }
+    }
+
+    private static boolean contains(float[] rects, int r, float x, float y) {
+        return x >= rects[r * 4] && y >= rects[r * 4 + 1]
+                && x <= rects[r * 4 + 2] && y <= rects[r * 4 + 3];
+    }
+}
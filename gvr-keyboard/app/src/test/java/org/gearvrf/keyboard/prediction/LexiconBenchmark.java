@@ -0,0 +1,104 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.keyboard.prediction;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.logging.Logger;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Times the suggestions for every keystroke of typing words against a
+ * 100k word lexicon, compared with scanning the whole word list on each
+ * keystroke. Results are logged, the test only checks both agree.
+ * Only runs with -Dbenchmark=true so the unit tests stay fast.
+ */
+public class LexiconBenchmark {
+
+    private static final int NUM_WORDS = 100000;
+    private static final int NUM_TYPED = 100;
+    private static final int NUM_SUGGESTIONS = 3;
+    private static final int NUM_ROUNDS = 5;
+    private static final Logger LOG = Logger.getLogger(LexiconBenchmark.class.getName());
+
+    @Before
+    public void onlyWhenAsked() {
+        Assume.assumeTrue(Boolean.getBoolean("benchmark"));
+    }
+
+    @Test
+    public void trieAgainstScan() {
+
+        Random random = new Random(1);
+        Map<String, Integer> words = LexiconTest.randomWords(NUM_WORDS, random);
+        List<String> list = new ArrayList<String>(words.keySet());
+        List<String> typed = new ArrayList<String>();
+        for (int i = 0; i < NUM_TYPED; i++) {
+            typed.add(list.get(random.nextInt(list.size())));
+        }
+
+        long buildTime = System.nanoTime();
+        Lexicon lexicon = LexiconTest.build(words);
+        buildTime = System.nanoTime() - buildTime;
+
+        long trieTime = Long.MAX_VALUE;
+        long scanTime = Long.MAX_VALUE;
+        int keystrokes = 0;
+
+        for (int round = 0; round < NUM_ROUNDS; round++) {
+            WordPredictor predictor = new WordPredictor(lexicon, NUM_SUGGESTIONS);
+            StringBuilder text = new StringBuilder();
+            int trieSum = 0;
+            long start = System.nanoTime();
+            keystrokes = 0;
+            for (String word : typed) {
+                for (int i = 0; i < word.length(); i++) {
+                    text.append(word.charAt(i));
+                    predictor.onTextChanged(text);
+                    trieSum += predictor.getSuggestions().size();
+                    keystrokes++;
+                }
+                text.append(' ');
+                predictor.onTextChanged(text);
+            }
+            trieTime = Math.min(trieTime, System.nanoTime() - start);
+
+            if (round > 0) {
+                continue;       // the scan is slow enough to time once
+            }
+            int scanSum = 0;
+            start = System.nanoTime();
+            for (String word : typed) {
+                for (int i = 1; i <= word.length(); i++) {
+                    scanSum += LexiconTest.bruteForceComplete(words, word.substring(0, i),
+                            NUM_SUGGESTIONS).size();
+                }
+            }
+            scanTime = Math.min(scanTime, System.nanoTime() - start);
+            assertEquals(scanSum, trieSum);
+        }
+        LOG.info(String.format("%d words, built in %d ms", NUM_WORDS, buildTime / 1000000));
+        LOG.info(String.format("scan   %8d ns/keystroke", scanTime / keystrokes));
+        LOG.info(String.format("trie   %8d ns/keystroke", trieTime / keystrokes));
+    }
+}
@@ -0,0 +1,189 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.keyboard.prediction;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class LexiconTest {
+
+    @Test
+    public void emptyLexicon() {
+
+        Lexicon lexicon = new LexiconBuilder().build();
+
+        assertEquals(0, lexicon.getWordCount());
+        assertEquals(Lexicon.NO_NODE, lexicon.find("a"));
+        assertEquals(Collections.emptyList(), lexicon.complete("", 3));
+    }
+
+    @Test
+    public void wordsAreCaseInsensitiveAndAddUp() {
+
+        LexiconBuilder builder = new LexiconBuilder();
+        builder.add("Gear", 3);
+        builder.add("gear", 4);
+        builder.add("", 10);
+        builder.add("vr", 0);
+        Lexicon lexicon = builder.build();
+
+        assertEquals(1, lexicon.getWordCount());
+        assertEquals(7, lexicon.getFrequency(lexicon.find("GEAR")));
+        assertEquals(0, lexicon.getFrequency(lexicon.find("gea")));
+        assertEquals(Lexicon.NO_NODE, lexicon.find("vr"));
+    }
+
+    @Test
+    public void completionLeavesOutThePrefixItself() {
+
+        LexiconBuilder builder = new LexiconBuilder();
+        builder.add("the", 100);
+        builder.add("then", 10);
+        builder.add("there", 20);
+        builder.add("they", 30);
+        Lexicon lexicon = builder.build();
+
+        assertEquals(Arrays.asList("they", "there", "then"), lexicon.complete("the", 5));
+        assertEquals(Arrays.asList("the", "they"), lexicon.complete("t", 2));
+    }
+
+    @Test
+    public void equalFrequenciesShorterFirst() {
+
+        LexiconBuilder builder = new LexiconBuilder();
+        builder.add("abcd", 5);
+        builder.add("ab", 5);
+        builder.add("abc", 5);
+        Lexicon lexicon = builder.build();
+
+        assertEquals(Arrays.asList("ab", "abc", "abcd"), lexicon.complete("a", 3));
+    }
+
+    @Test
+    public void topKMatchesBruteForce() {
+
+        Random random = new Random(42);
+        Map<String, Integer> words = randomWords(5000, random);
+        Lexicon lexicon = build(words);
+        List<String> prefixes = new ArrayList<String>();
+
+        for (String word : words.keySet()) {
+            prefixes.add(word.substring(0, 1 + random.nextInt(Math.min(3, word.length()))));
+        }
+        prefixes.add("");
+        prefixes.add("zzzzzz");
+        for (String prefix : prefixes.subList(prefixes.size() - 500, prefixes.size())) {
+            for (int k : new int[] { 1, 3, 10 }) {
+                assertEquals(prefix, bruteForceComplete(words, prefix, k), lexicon.complete(prefix, k));
+            }
+        }
+    }
+
+    @Test
+    public void mappedFileMatchesBuiltLexicon() throws IOException {
+
+        Random random = new Random(3);
+        Map<String, Integer> words = randomWords(1000, random);
+        LexiconBuilder builder = new LexiconBuilder();
+        for (Map.Entry<String, Integer> word : words.entrySet()) {
+            builder.add(word.getKey(), word.getValue());
+        }
+        File file = File.createTempFile("lexicon", ".bin");
+        try {
+            builder.write(file);
+            Lexicon mapped = Lexicon.open(file);
+            Lexicon built = builder.build();
+
+            assertEquals(built.getWordCount(), mapped.getWordCount());
+            for (String prefix : new String[] { "", "a", "ka", "ze", "q" }) {
+                assertEquals(built.complete(prefix, 5), mapped.complete(prefix, 5));
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    /*
+     * Random lowercase words with distinct frequencies, so there is exactly
+     * one right order of completions.
+     */
+    static Map<String, Integer> randomWords(int count, Random random) {
+
+        Map<String, Integer> words = new LinkedHashMap<String, Integer>();
+        List<Integer> frequencies = new ArrayList<Integer>();
+
+        for (int i = 1; i <= count; i++) {
+            frequencies.add(i);
+        }
+        Collections.shuffle(frequencies, random);
+        while (words.size() < count) {
+            int length = 2 + random.nextInt(8);
+            char[] chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                // skewed towards the start of the alphabet so prefixes are shared
+                chars[i] = (char) ('a' + (int) (26 * Math.pow(random.nextDouble(), 2)));
+            }
+            String word = new String(chars);
+            if (!words.containsKey(word)) {
+                words.put(word, frequencies.get(words.size()));
+            }
+        }
+        return words;
+    }
+
+    static Lexicon build(Map<String, Integer> words) {
+
+        LexiconBuilder builder = new LexiconBuilder();
+        for (Map.Entry<String, Integer> word : words.entrySet()) {
+            builder.add(word.getKey(), word.getValue());
+        }
+        return builder.build();
+    }
+
+    /*
+     * Scan every word, the way the suggestions were found without a trie.
+     */
+    static List<String> bruteForceComplete(Map<String, Integer> words, String prefix, int count) {
+
+        final Map<String, Integer> matches = new HashMap<String, Integer>();
+        for (Map.Entry<String, Integer> word : words.entrySet()) {
+            if (word.getKey().length() > prefix.length() && word.getKey().startsWith(prefix)) {
+                matches.put(word.getKey(), word.getValue());
+            }
+        }
+        List<String> sorted = new ArrayList<String>(matches.keySet());
+        Collections.sort(sorted, new Comparator<String>() {
+            @Override
+            public int compare(String a, String b) {
+                return matches.get(b) - matches.get(a);
+            }
+        });
+        return sorted.subList(0, Math.min(count, sorted.size()));
+    }
+}
@@ -0,0 +1,117 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.keyboard.prediction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class WordPredictorTest {
+
+    private static Lexicon smallLexicon() {
+
+        LexiconBuilder builder = new LexiconBuilder();
+        builder.add("gear", 50);
+        builder.add("gears", 5);
+        builder.add("get", 40);
+        builder.add("go", 30);
+        builder.add("good", 20);
+        return builder.build();
+    }
+
+    @Test
+    public void suggestsCompletionsOfTheLastWord() {
+
+        WordPredictor predictor = new WordPredictor(smallLexicon(), 3);
+
+        assertTrue(predictor.onTextChanged("hello g"));
+        assertEquals("g", predictor.getCurrentWord());
+        assertEquals(Arrays.asList("gear", "get", "go"), predictor.getSuggestions());
+
+        assertTrue(predictor.onTextChanged("hello ge"));
+        assertEquals(Arrays.asList("gear", "get", "gears"), predictor.getSuggestions());
+
+        assertFalse(predictor.onTextChanged("hello ge"));
+
+        assertTrue(predictor.onTextChanged("hello ge "));
+        assertEquals("", predictor.getCurrentWord());
+        assertEquals(Collections.emptyList(), predictor.getSuggestions());
+    }
+
+    @Test
+    public void keepsTheCaseTyped() {
+
+        WordPredictor predictor = new WordPredictor(smallLexicon(), 2);
+
+        predictor.onTextChanged("Ge");
+        assertEquals(Arrays.asList("Gear", "Get"), predictor.getSuggestions());
+        predictor.onTextChanged("GE");
+        assertEquals(Arrays.asList("GEAR", "GET"), predictor.getSuggestions());
+    }
+
+    @Test
+    public void unknownPrefixHasNoSuggestions() {
+
+        WordPredictor predictor = new WordPredictor(smallLexicon(), 3);
+
+        predictor.onTextChanged("gx");
+        assertEquals(Collections.emptyList(), predictor.getSuggestions());
+        predictor.onTextChanged("g");
+        assertEquals(3, predictor.getSuggestions().size());
+    }
+
+    /**
+     * Typing and deleting characters one at a time reuses the path walked
+     * so far; the result must be the same as looking the word up afresh.
+     */
+    @Test
+    public void incrementalTypingMatchesBruteForce() {
+
+        Random random = new Random(11);
+        Map<String, Integer> words = LexiconTest.randomWords(3000, random);
+        WordPredictor predictor = new WordPredictor(LexiconTest.build(words), 5);
+        List<String> list = new ArrayList<String>(words.keySet());
+        StringBuilder text = new StringBuilder();
+
+        for (int i = 0; i < 2000; i++) {
+            int action = random.nextInt(10);
+            if (action < 6 || text.length() == 0) {
+                String word = list.get(random.nextInt(list.size()));
+                text.append(word.charAt(random.nextInt(word.length())));
+            } else if (action < 9) {
+                text.setLength(text.length() - 1);
+            } else {
+                text.append(' ');
+            }
+            predictor.onTextChanged(text);
+
+            String current = predictor.getCurrentWord();
+            List<String> expected = (current.length() > 0)
+                    ? LexiconTest.bruteForceComplete(words, current, 5)
+                    : Collections.<String>emptyList();
+            assertEquals(text.toString(), expected, predictor.getSuggestions());
+        }
+    }
+}
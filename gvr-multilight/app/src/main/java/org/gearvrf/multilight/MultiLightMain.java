@@ -27,6 +27,8 @@ import org.gearvrf.GVRMain;
 import org.gearvrf.GVRSpotLight;
 import org.gearvrf.GVRTexture;
 import org.gearvrf.GVRTransform;
+import org.gearvrf.framemetrics.FrameMetrics;
+import org.gearvrf.framemetrics.FrameMetricsSnapshot;
 import org.joml.Quaternionf;
 
 import android.util.Log;
@@ -43,6 +45,12 @@ public class MultiLightMain extends GVRMain {
 
     @Override
     public void onInit(GVRContext gvrContext) {
+        FrameMetrics.getDefault().setReporter(new FrameMetrics.Reporter() {
+            public void onReport(FrameMetricsSnapshot snapshot) {
+                Log.v("FrameMetrics", snapshot.toJson());
+            }
+        }, FrameMetrics.DEFAULT_REPORT_INTERVAL);
+
         mGVRContext = gvrContext;
         mScene = mGVRContext.getMainScene();
         float zdist = 2.0f;
@@ -67,7 +75,8 @@ public class MultiLightMain extends GVRMain {
 
     @Override
     public void onStep() {
-        FPSCounter.tick();
+        FrameMetrics metrics = FrameMetrics.getDefault();
+        metrics.beginFrame();
         theta += 0.005;
         if (theta >= Math.PI / 4)
             theta = -Math.PI / 4;
@@ -77,6 +86,7 @@ public class MultiLightMain extends GVRMain {
             GVRTransform trans = rotateObject.getTransform();
             trans.setRotation(q.w, q.x, q.y, q.z);
         }
+        metrics.endFrame();
     }
 
     private boolean lightEnabled = false;
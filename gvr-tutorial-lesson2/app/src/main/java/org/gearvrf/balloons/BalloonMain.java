@@ -27,6 +27,9 @@ import org.gearvrf.GVRRenderData.GVRRenderingOrder;
 import org.gearvrf.GVRShader;
 import org.gearvrf.GVRTexture;
 import org.gearvrf.scene_objects.GVRSphereSceneObject;
+import org.gearvrf.framemetrics.FrameMetrics;
+import org.gearvrf.framemetrics.FrameMetricsSnapshot;
+import android.util.Log;
 import android.view.MotionEvent;
 
 public class BalloonMain extends GVRMain {
@@ -34,6 +37,12 @@ public class BalloonMain extends GVRMain {
 
     @Override
     public void onInit(GVRContext context) {
+        FrameMetrics.getDefault().setReporter(new FrameMetrics.Reporter() {
+            public void onReport(FrameMetricsSnapshot snapshot) {
+                Log.v("FrameMetrics", snapshot.toJson());
+            }
+        }, FrameMetrics.DEFAULT_REPORT_INTERVAL);
+
         /*
          * Set the background color
          */
@@ -95,7 +104,7 @@ public class BalloonMain extends GVRMain {
 
     @Override
     public void onStep() {
-        FPSCounter.tick();
+        FrameMetrics.getDefault().tick();
     }
 
     public void onTouchEvent(MotionEvent event)
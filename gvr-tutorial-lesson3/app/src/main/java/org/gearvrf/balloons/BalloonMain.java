@@ -28,10 +28,13 @@ import org.gearvrf.GVRShader;
 import org.gearvrf.GVRSphereCollider;
 import org.gearvrf.GVRTexture;
 import org.gearvrf.scene_objects.GVRSphereSceneObject;
+import android.util.Log;
 import android.view.MotionEvent;
 import org.gearvrf.GVRPicker;
 import org.gearvrf.IPickEvents;
 import org.gearvrf.GVRPicker.GVRPickedObject;
+import org.gearvrf.framemetrics.FrameMetrics;
+import org.gearvrf.framemetrics.FrameMetricsSnapshot;
 
 public class BalloonMain extends GVRMain {
 
@@ -65,6 +68,12 @@ public class BalloonMain extends GVRMain {
 
     @Override
     public void onInit(GVRContext context) {
+        FrameMetrics.getDefault().setReporter(new FrameMetrics.Reporter() {
+            public void onReport(FrameMetricsSnapshot snapshot) {
+                Log.v("FrameMetrics", snapshot.toJson());
+            }
+        }, FrameMetrics.DEFAULT_REPORT_INTERVAL);
+
         /*
          * Set the background color
          */
@@ -136,7 +145,7 @@ public class BalloonMain extends GVRMain {
 
     @Override
     public void onStep() {
-        FPSCounter.tick();
+        FrameMetrics.getDefault().tick();
     }
 
     public void onTouchEvent(MotionEvent event)
@@ -26,15 +26,19 @@ import org.gearvrf.GVRMain;
 import org.gearvrf.GVRRenderData;
 import org.gearvrf.GVRRenderData.GVRRenderingOrder;
 import org.gearvrf.GVRShader;
-import org.gearvrf.GVRSphereCollider;
 import org.gearvrf.GVRTexture;
 import org.gearvrf.scene_objects.GVRSphereSceneObject;
 ;
+import android.util.Log;
 import android.view.MotionEvent;
 import org.gearvrf.GVRPicker;
 import org.gearvrf.IPickEvents;
 import org.gearvrf.GVRPicker.GVRPickedObject;
+import org.gearvrf.framemetrics.FrameMetrics;
+import org.gearvrf.framemetrics.FrameMetricsSnapshot;
+import org.joml.Matrix4f;
 import org.joml.Vector2f;
+import org.joml.Vector3f;
 
 import java.util.ArrayList;
 import java.util.Random;
@@ -44,6 +48,8 @@ public class BalloonMain extends GVRMain {
     public class PickHandler implements IPickEvents
     {
         public GVRSceneObject   PickedObject = null;
+        private Vector3f        mRayOrigin = new Vector3f();
+        private Vector3f        mRayDirection = new Vector3f();
 
         public void onEnter(GVRSceneObject sceneObj, GVRPicker.GVRPickedObject pickInfo) { }
         public void onExit(GVRSceneObject sceneObj) { }
@@ -57,6 +63,29 @@ public class BalloonMain extends GVRMain {
             GVRPickedObject picked = picker.getPicked()[0];
             PickedObject = picked.hitObject;
         }
+
+        /*
+         * Balloons do not have colliders, if the picker did not
+         * hit anything they are hit tested by the particle
+         * emitter along the gaze direction.
+         */
+        public GVRSceneObject getPickedObject()
+        {
+            GVRSceneObject picked = PickedObject;
+            return (picked != null) ? picked : pickParticle();
+        }
+
+        private GVRSceneObject pickParticle()
+        {
+            if (mParticleSystem == null)
+            {
+                return null;
+            }
+            Matrix4f head = mScene.getMainCameraRig().getHeadTransform().getModelMatrix4f();
+            head.getTranslation(mRayOrigin);
+            head.transformDirection(mRayDirection.set(0, 0, -1));
+            return mParticleSystem.pickParticle(mRayOrigin, mRayDirection);
+        }
     }
 
     private GVRScene mScene = null;
@@ -70,6 +99,14 @@ public class BalloonMain extends GVRMain {
     @Override
     public void onInit(GVRContext context)
     {
+        FrameMetrics.getDefault().setReporter(new FrameMetrics.Reporter()
+        {
+            public void onReport(FrameMetricsSnapshot snapshot)
+            {
+                Log.v("FrameMetrics", snapshot.toJson());
+            }
+        }, FrameMetrics.DEFAULT_REPORT_INTERVAL);
+
         /*
          * Set the background color
          */
@@ -130,7 +167,6 @@ public class BalloonMain extends GVRMain {
     {
         GVRSceneObject balloon = new GVRSceneObject(context, mSphereMesh);
         GVRRenderData rdata = balloon.getRenderData();
-        GVRSphereCollider collider = new GVRSphereCollider(context);
         Random rand = new Random();
         int mtlIndex = rand.nextInt(mMaterials.size() - 1);
 
@@ -138,8 +174,6 @@ public class BalloonMain extends GVRMain {
         rdata.setAlphaBlend(true);
         rdata.setMaterial(mMaterials.get(mtlIndex));
         rdata.setRenderingOrder(GVRRenderingOrder.TRANSPARENT);
-        collider.setRadius(0.8f);
-        balloon.attachComponent(collider);
         return balloon;
     }
 
@@ -187,7 +221,7 @@ public class BalloonMain extends GVRMain {
 
     @Override
     public void onStep() {
-        FPSCounter.tick();
+        FrameMetrics.getDefault().tick();
     }
 
     public void onTouchEvent(MotionEvent event)
@@ -195,9 +229,10 @@ public class BalloonMain extends GVRMain {
         switch (event.getAction() & MotionEvent.ACTION_MASK)
         {
             case MotionEvent.ACTION_DOWN:
-                if (mPickHandler.PickedObject != null)
+                GVRSceneObject picked = mPickHandler.getPickedObject();
+                if (picked != null)
                 {
-                    onHit(mPickHandler.PickedObject);
+                    onHit(picked);
                 }
                 break;
 
@@ -0,0 +1,203 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gearvrf.balloons;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class EmissionSchedulerTest
+{
+    // powers of two keep the float sums exact
+    private static final float QUARTER = 0.25f;
+
+    @Test
+    public void fractionalCountsCarryOver()
+    {
+        EmissionScheduler scheduler = new EmissionScheduler(0.5f);
+
+        for (int frame = 1; frame <= 32; ++frame)
+        {
+            int expected = (frame % 8 == 0) ? 1 : 0;
+            assertEquals("frame " + frame, expected, scheduler.advance(QUARTER));
+        }
+        assertEquals(8.0f, scheduler.getTime(), 0);
+    }
+
+    @Test
+    public void rateAboveFrameRateIsHonored()
+    {
+        EmissionScheduler scheduler = new EmissionScheduler(150);
+        int total = 0;
+
+        for (int frame = 0; frame < 600; ++frame)
+        {
+            int count = scheduler.advance(1 / 60.0f);
+            assertTrue(count == 2 || count == 3);
+            total += count;
+        }
+        assertEquals(1500, total, 1);
+    }
+
+    @Test
+    public void sameElapsedTimesGiveSameCounts()
+    {
+        EmissionScheduler a = new EmissionScheduler(7.3f);
+        EmissionScheduler b = new EmissionScheduler(7.3f);
+        Random random = new Random(3);
+
+        a.addBurst(1.5f, 4);
+        b.addBurst(1.5f, 4);
+        for (int frame = 0; frame < 1000; ++frame)
+        {
+            float elapsed = random.nextFloat() / 20;
+            assertEquals(a.advance(elapsed), b.advance(elapsed));
+        }
+    }
+
+    @Test
+    public void scheduledBurstsFireOnceInOrder()
+    {
+        EmissionScheduler scheduler = new EmissionScheduler(0);
+
+        scheduler.addBurst(1.0f, 5);
+        scheduler.addBurst(0.5f, 3);
+        scheduler.addBurst(1.0f, 2);
+        assertEquals(0, scheduler.advance(QUARTER));
+        assertEquals(3, scheduler.advance(QUARTER));
+        assertEquals(0, scheduler.advance(QUARTER));
+        assertEquals(7, scheduler.advance(QUARTER));
+        assertEquals(0, scheduler.advance(QUARTER));
+    }
+
+    @Test
+    public void burstsInOneFrameAddUp()
+    {
+        EmissionScheduler scheduler = new EmissionScheduler(4);
+
+        scheduler.addBurst(0.1f, 10);
+        scheduler.addBurst(0.2f, 20);
+        scheduler.burst(6);
+        assertEquals(1 + 10 + 20 + 6, scheduler.advance(QUARTER));
+        assertEquals(1, scheduler.advance(QUARTER));
+    }
+
+    @Test
+    public void burstAddedInThePastDoesNotFire()
+    {
+        EmissionScheduler scheduler = new EmissionScheduler(0);
+
+        scheduler.addBurst(0.5f, 3);
+        scheduler.addBurst(2.0f, 9);
+        assertEquals(0, scheduler.advance(QUARTER));
+        assertEquals(3, scheduler.advance(QUARTER));
+        assertEquals(0, scheduler.advance(QUARTER));
+
+        // before, between and after the bursts which already fired
+        scheduler.addBurst(0.25f, 100);
+        scheduler.addBurst(0.6f, 200);
+        scheduler.addBurst(0.7f, 400);
+        scheduler.addBurst(0.75f, 1);      // current time, fires next frame
+        assertEquals(1, scheduler.advance(QUARTER));
+        for (int frame = 0; frame < 3; ++frame)
+        {
+            assertEquals(0, scheduler.advance(QUARTER));
+        }
+        assertEquals(9, scheduler.advance(QUARTER));
+
+        // after a reset they all fire at their times
+        scheduler.reset();
+        assertEquals(100, scheduler.advance(QUARTER));
+        assertEquals(3, scheduler.advance(QUARTER));
+        assertEquals(200 + 400 + 1, scheduler.advance(QUARTER));
+    }
+
+    @Test
+    public void immediateBurstFiresOnNextAdvance()
+    {
+        EmissionScheduler scheduler = new EmissionScheduler(0);
+
+        scheduler.burst(4);
+        scheduler.burst(2);
+        assertEquals(6, scheduler.advance(0));
+        assertEquals(0, scheduler.advance(QUARTER));
+    }
+
+    @Test
+    public void rateCurveIsIntegrated()
+    {
+        EmissionScheduler scheduler = new EmissionScheduler(1000);
+        int total = 0;
+
+        scheduler.setRateCurve(new EmissionScheduler.RateCurve()
+        {
+            public float getRate(float time)
+            {
+                return 10 * time;
+            }
+        });
+        for (int frame = 0; frame < 16; ++frame)
+        {
+            total += scheduler.advance(QUARTER);
+        }
+        // integral of 10t from 0 to 4
+        assertEquals(80, total);
+        assertEquals(40.0f, scheduler.getRate(), 0);
+
+        scheduler.setRateCurve(null);
+        assertEquals(1000.0f, scheduler.getRate(), 0);
+        assertEquals(250, scheduler.advance(QUARTER));
+    }
+
+    @Test
+    public void rateCurveIsSampledMidFrame()
+    {
+        EmissionScheduler scheduler = new EmissionScheduler(0);
+
+        // a step from 0 to 8 per second at t = 1
+        scheduler.setRateCurve(new EmissionScheduler.RateCurve()
+        {
+            public float getRate(float time)
+            {
+                return (time < 1) ? 0 : 8;
+            }
+        });
+        assertEquals(0, scheduler.advance(1.0f));
+        assertEquals(4, scheduler.advance(0.5f));
+    }
+
+    @Test
+    public void resetRestartsClockAndCarry()
+    {
+        EmissionScheduler scheduler = new EmissionScheduler(3);
+
+        scheduler.addBurst(0.5f, 5);
+        assertEquals(0, scheduler.advance(QUARTER));    // carry 0.75
+        scheduler.burst(7);
+        scheduler.reset();
+        assertEquals(0.0f, scheduler.getTime(), 0);
+        // no carry and no pending burst left
+        assertEquals(0, scheduler.advance(QUARTER));
+        assertEquals(1 + 5, scheduler.advance(QUARTER));
+
+        scheduler.clearBursts();
+        scheduler.reset();
+        assertEquals(0, scheduler.advance(QUARTER));
+        assertEquals(1, scheduler.advance(QUARTER));
+    }
+}
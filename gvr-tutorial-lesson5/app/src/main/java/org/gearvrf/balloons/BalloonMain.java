@@ -26,7 +26,6 @@ import org.gearvrf.GVRMain;
 import org.gearvrf.GVRRenderData;
 import org.gearvrf.GVRRenderData.GVRRenderingOrder;
 import org.gearvrf.GVRShader;
-import org.gearvrf.GVRSphereCollider;
 import org.gearvrf.GVRTexture;
 import org.gearvrf.scene_objects.GVRSphereSceneObject;
 ;
@@ -38,7 +37,11 @@ import org.gearvrf.IPickEvents;
 import org.gearvrf.GVRPicker.GVRPickedObject;
 import org.gearvrf.scene_objects.GVRTextViewSceneObject;
 import org.gearvrf.utility.Log;
+import org.gearvrf.framemetrics.FrameMetrics;
+import org.gearvrf.framemetrics.FrameMetricsSnapshot;
+import org.joml.Matrix4f;
 import org.joml.Vector2f;
+import org.joml.Vector3f;
 
 import java.util.ArrayList;
 import java.util.Random;
@@ -52,6 +55,8 @@ public class BalloonMain extends GVRMain {
     public class PickHandler implements IPickEvents
     {
         public GVRSceneObject   PickedObject = null;
+        private Vector3f        mRayOrigin = new Vector3f();
+        private Vector3f        mRayDirection = new Vector3f();
 
         public void onEnter(GVRSceneObject sceneObj, GVRPicker.GVRPickedObject pickInfo) { }
         public void onExit(GVRSceneObject sceneObj) { }
@@ -65,6 +70,29 @@ public class BalloonMain extends GVRMain {
             GVRPickedObject picked = picker.getPicked()[0];
             PickedObject = picked.hitObject;
         }
+
+        /*
+         * Balloons do not have colliders, if the picker did not
+         * hit anything they are hit tested by the particle
+         * emitter along the gaze direction.
+         */
+        public GVRSceneObject getPickedObject()
+        {
+            GVRSceneObject picked = PickedObject;
+            return (picked != null) ? picked : pickParticle();
+        }
+
+        private GVRSceneObject pickParticle()
+        {
+            if (mParticleSystem == null)
+            {
+                return null;
+            }
+            Matrix4f head = mScene.getMainCameraRig().getHeadTransform().getModelMatrix4f();
+            head.getTranslation(mRayOrigin);
+            head.transformDirection(mRayDirection.set(0, 0, -1));
+            return mParticleSystem.pickParticle(mRayOrigin, mRayDirection);
+        }
     }
 
     private GVRScene mScene = null;
@@ -84,6 +112,14 @@ public class BalloonMain extends GVRMain {
     @Override
     public void onInit(GVRContext context)
     {
+        FrameMetrics.getDefault().setReporter(new FrameMetrics.Reporter()
+        {
+            public void onReport(FrameMetricsSnapshot snapshot)
+            {
+                Log.v("FrameMetrics", "%s", snapshot.toJson());
+            }
+        }, FrameMetrics.DEFAULT_REPORT_INTERVAL);
+
         /*
          * Load the balloon popping sound
          */
@@ -189,7 +225,6 @@ public class BalloonMain extends GVRMain {
     {
         GVRSceneObject balloon = new GVRSceneObject(context, mSphereMesh);
         GVRRenderData rdata = balloon.getRenderData();
-        GVRSphereCollider collider = new GVRSphereCollider(context);
         Random rand = new Random();
         int mtlIndex = rand.nextInt(mMaterials.size() - 1);
 
@@ -197,8 +232,6 @@ public class BalloonMain extends GVRMain {
         rdata.setAlphaBlend(true);
         rdata.setMaterial(mMaterials.get(mtlIndex));
         rdata.setRenderingOrder(GVRRenderingOrder.TRANSPARENT);
-        collider.setRadius(0.8f);
-        balloon.attachComponent(collider);
         return balloon;
     }
 
@@ -259,7 +292,7 @@ public class BalloonMain extends GVRMain {
 
     @Override
     public void onStep() {
-        FPSCounter.tick();
+        FrameMetrics.getDefault().tick();
     }
 
     public void onTouchEvent(MotionEvent event)
@@ -267,9 +300,10 @@ public class BalloonMain extends GVRMain {
         switch (event.getAction() & MotionEvent.ACTION_MASK)
         {
             case MotionEvent.ACTION_DOWN:
-                if (mPickHandler.PickedObject != null)
+                GVRSceneObject picked = mPickHandler.getPickedObject();
+                if (picked != null)
                 {
-                    onHit(mPickHandler.PickedObject);
+                    onHit(picked);
                 }
                 break;
 
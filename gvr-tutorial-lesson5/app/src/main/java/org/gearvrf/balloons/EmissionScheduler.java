@@ -0,0 +1,175 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gearvrf.balloons;
+
+import java.util.Arrays;
+
+/**
+ * Decides how many particles a {@link ParticleEmitter} should
+ * emit each frame.
+ * <p>
+ * The emission rate is integrated over time and the fractional
+ * part is carried over to the next frame, so rates higher than
+ * the frame rate are honored and nothing is silently dropped.
+ * The rate can be constant or follow a {@link RateCurve}.
+ * Bursts can be scheduled at fixed times or requested immediately.
+ * <p>
+ * The scheduler keeps its own clock which is only advanced by
+ * {@link #advance(float)}, so the same sequence of elapsed times
+ * always produces the same emission counts.
+ */
+class EmissionScheduler
+{
+    /**
+     * Time varying emission rate.
+     */
+    public interface RateCurve
+    {
+        /**
+         * @param time seconds since the scheduler was reset
+         * @return particles per second at that time
+         */
+        float getRate(float time);
+    }
+
+    private float       mRate = 0;
+    private RateCurve   mRateCurve = null;
+    private float       mTime = 0;
+    private float       mCarry = 0;
+    private int         mPendingBurst = 0;
+    private float[]     mBurstTimes = new float[4];
+    private int[]       mBurstCounts = new int[4];
+    private int         mNumBursts = 0;
+    private int         mNextBurst = 0;
+
+    public EmissionScheduler(float rate)
+    {
+        mRate = rate;
+    }
+
+    /**
+     * Set a constant emission rate.
+     * Ignored while a rate curve is set.
+     * @param rate particles per second
+     */
+    public void setRate(float rate)
+    {
+        mRate = rate;
+    }
+
+    public float getRate()
+    {
+        return (mRateCurve != null) ? mRateCurve.getRate(mTime) : mRate;
+    }
+
+    /**
+     * Make the emission rate follow a curve over time.
+     * @param curve rate curve, null to use the constant rate
+     */
+    public void setRateCurve(RateCurve curve)
+    {
+        mRateCurve = curve;
+    }
+
+    public RateCurve getRateCurve() { return mRateCurve; }
+
+    /**
+     * Schedule a burst of particles.
+     * A burst scheduled before the current time does not fire
+     * until the scheduler is {@link #reset()}.
+     * @param time  seconds since reset when the burst happens
+     * @param count number of particles in the burst
+     */
+    public void addBurst(float time, int count)
+    {
+        if (mNumBursts == mBurstTimes.length)
+        {
+            mBurstTimes = Arrays.copyOf(mBurstTimes, mNumBursts * 2);
+            mBurstCounts = Arrays.copyOf(mBurstCounts, mNumBursts * 2);
+        }
+        int i = mNumBursts++;
+        while ((i > 0) && (mBurstTimes[i - 1] > time))
+        {
+            mBurstTimes[i] = mBurstTimes[i - 1];
+            mBurstCounts[i] = mBurstCounts[i - 1];
+            --i;
+        }
+        mBurstTimes[i] = time;
+        mBurstCounts[i] = count;
+        if ((i < mNextBurst) || (time < mTime))
+        {
+            ++mNextBurst;       // already in the past
+        }
+    }
+
+    public void clearBursts()
+    {
+        mNumBursts = 0;
+        mNextBurst = 0;
+    }
+
+    /**
+     * Emit a burst of particles on the next call to {@link #advance(float)}.
+     * @param count number of particles
+     */
+    public void burst(int count)
+    {
+        mPendingBurst += count;
+    }
+
+    /**
+     * Restart the clock. Scheduled bursts will fire again.
+     */
+    public void reset()
+    {
+        mTime = 0;
+        mCarry = 0;
+        mPendingBurst = 0;
+        mNextBurst = 0;
+    }
+
+    public float getTime() { return mTime; }
+
+    /**
+     * Advance the clock and return the number of particles
+     * to emit for this interval.
+     * @param elapsed seconds since last call
+     * @return number of particles to emit
+     */
+    public int advance(float elapsed)
+    {
+        float rate = mRate;
+
+        if (mRateCurve != null)
+        {
+            rate = mRateCurve.getRate(mTime + elapsed / 2);
+        }
+        mTime += elapsed;
+        if (rate > 0)
+        {
+            mCarry += rate * elapsed;
+        }
+        int count = (int) mCarry;
+
+        mCarry -= count;
+        count += mPendingBurst;
+        mPendingBurst = 0;
+        while ((mNextBurst < mNumBursts) && (mBurstTimes[mNextBurst] <= mTime))
+        {
+            count += mBurstCounts[mNextBurst++];
+        }
+        return count;
+    }
+}
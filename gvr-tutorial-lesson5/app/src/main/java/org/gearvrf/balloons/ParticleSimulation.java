@@ -0,0 +1,219 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gearvrf.balloons;
+
+import java.util.Arrays;
+
+/**
+ * Simulation core for {@link ParticleEmitter}.
+ * <p>
+ * The state of every particle is kept in primitive arrays
+ * so the whole live set can be advanced in a single loop
+ * without touching the scene graph. Live particles occupy
+ * slots 0 .. getActiveCount() - 1. Each slot remembers the
+ * id of the particle it holds so the emitter can map the
+ * results back onto its scene objects afterwards.
+ * <p>
+ * This class has no GearVRf dependencies and can be
+ * exercised on a plain JVM.
+ */
+class ParticleSimulation
+{
+    private float[] mPositions;
+    private float[] mStartPositions;
+    private float[] mDirections;
+    private float[] mVelocities;
+    private float[] mDistances;
+    private int[]   mIds;
+    private int[]   mSlots;
+    private int     mNumActive = 0;
+
+    public ParticleSimulation(int capacity)
+    {
+        mPositions = new float[capacity * 3];
+        mStartPositions = new float[capacity * 3];
+        mDirections = new float[capacity * 3];
+        mVelocities = new float[capacity];
+        mDistances = new float[capacity];
+        mIds = new int[capacity];
+        mSlots = new int[capacity];
+        Arrays.fill(mSlots, -1);
+    }
+
+    public int getCapacity() { return mVelocities.length; }
+
+    public int getActiveCount() { return mNumActive; }
+
+    /**
+     * Grow the simulation so it can hold at least the given
+     * number of particles. Existing state is preserved.
+     */
+    public void ensureCapacity(int capacity)
+    {
+        int oldCapacity = getCapacity();
+        if (capacity <= oldCapacity)
+        {
+            return;
+        }
+        mPositions = Arrays.copyOf(mPositions, capacity * 3);
+        mStartPositions = Arrays.copyOf(mStartPositions, capacity * 3);
+        mDirections = Arrays.copyOf(mDirections, capacity * 3);
+        mVelocities = Arrays.copyOf(mVelocities, capacity);
+        mDistances = Arrays.copyOf(mDistances, capacity);
+        mIds = Arrays.copyOf(mIds, capacity);
+        mSlots = Arrays.copyOf(mSlots, capacity);
+        Arrays.fill(mSlots, oldCapacity, capacity, -1);
+    }
+
+    public boolean isActive(int id)
+    {
+        return mSlots[id] >= 0;
+    }
+
+    /**
+     * Start simulating a particle.
+     * @param id        particle id, 0 <= id < getCapacity()
+     * @param px        X start position
+     * @param py        Y start position
+     * @param pz        Z start position
+     * @param dx        X direction
+     * @param dy        Y direction
+     * @param dz        Z direction
+     * @param velocity  speed in units per second
+     * @return true if activated, false if the particle was already active
+     */
+    public boolean activate(int id, float px, float py, float pz,
+                            float dx, float dy, float dz, float velocity)
+    {
+        if (mSlots[id] >= 0)
+        {
+            return false;
+        }
+        int slot = mNumActive++;
+        int i = slot * 3;
+
+        mPositions[i] = mStartPositions[i] = px;
+        mPositions[i + 1] = mStartPositions[i + 1] = py;
+        mPositions[i + 2] = mStartPositions[i + 2] = pz;
+        mDirections[i] = dx;
+        mDirections[i + 1] = dy;
+        mDirections[i + 2] = dz;
+        mVelocities[slot] = velocity;
+        mDistances[slot] = 0;
+        mIds[slot] = id;
+        mSlots[id] = slot;
+        return true;
+    }
+
+    /**
+     * Stop simulating a particle.
+     * @param id particle id
+     * @return true if deactivated, false if the particle was not active
+     */
+    public boolean deactivate(int id)
+    {
+        int slot = mSlots[id];
+        if (slot < 0)
+        {
+            return false;
+        }
+        removeSlot(slot);
+        return true;
+    }
+
+    /**
+     * Advance all live particles.
+     * Particles which have travelled farther than the maximum
+     * distance from their start position are deactivated and
+     * their ids are written to the expired array.
+     * @param elapsed       seconds since last step
+     * @param maxDistance   distance at which a particle expires
+     * @param expired       receives the ids of expired particles,
+     *                      must hold at least getActiveCount() entries
+     * @return number of ids written to expired
+     */
+    public int step(float elapsed, float maxDistance, int[] expired)
+    {
+        final float[] pos = mPositions;
+        final float[] start = mStartPositions;
+        final float[] dir = mDirections;
+        int numExpired = 0;
+        int slot = 0;
+
+        while (slot < mNumActive)
+        {
+            int i = slot * 3;
+            float v = mVelocities[slot];
+            float x = pos[i] += dir[i] * v * elapsed;
+            float y = pos[i + 1] += dir[i + 1] * v * elapsed;
+            float z = pos[i + 2] += dir[i + 2] * v * elapsed;
+
+            x -= start[i];
+            y -= start[i + 1];
+            z -= start[i + 2];
+            float distance = (float) Math.sqrt(x * x + y * y + z * z);
+            mDistances[slot] = distance;
+            if (distance > maxDistance)
+            {
+                expired[numExpired++] = mIds[slot];
+                removeSlot(slot);       // last particle moves here, visit it next
+            }
+            else
+            {
+                ++slot;
+            }
+        }
+        return numExpired;
+    }
+
+    public int getId(int slot) { return mIds[slot]; }
+
+    public float getX(int slot) { return mPositions[slot * 3]; }
+
+    public float getY(int slot) { return mPositions[slot * 3 + 1]; }
+
+    public float getZ(int slot) { return mPositions[slot * 3 + 2]; }
+
+    /**
+     * Get the distance a particle has travelled from its start position.
+     * @param id particle id
+     * @return distance or 0 if the particle is not active
+     */
+    public float getDistance(int id)
+    {
+        int slot = mSlots[id];
+        return (slot >= 0) ? mDistances[slot] : 0;
+    }
+
+    private void removeSlot(int slot)
+    {
+        int last = --mNumActive;
+
+        mSlots[mIds[slot]] = -1;
+        if (slot != last)
+        {
+            int i = slot * 3;
+            int j = last * 3;
+
+            System.arraycopy(mPositions, j, mPositions, i, 3);
+            System.arraycopy(mStartPositions, j, mStartPositions, i, 3);
+            System.arraycopy(mDirections, j, mDirections, i, 3);
+            mVelocities[slot] = mVelocities[last];
+            mDistances[slot] = mDistances[last];
+            mIds[slot] = mIds[last];
+            mSlots[mIds[slot]] = slot;
+        }
+    }
+}
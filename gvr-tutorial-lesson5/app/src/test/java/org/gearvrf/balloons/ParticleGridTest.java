@@ -0,0 +1,183 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gearvrf.balloons;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class ParticleGridTest
+{
+    static final float RADIUS = 0.8f;
+    static final float CELL_SIZE = 2.0f;
+
+    @Test
+    public void emptyBuild()
+    {
+        ParticleSimulation sim = new ParticleSimulation(10);
+        ParticleGrid grid = new ParticleGrid(CELL_SIZE);
+
+        grid.build(sim, RADIUS);
+        assertEquals(0, grid.getParticleCount());
+        assertEquals(-1, grid.raycast(0, 0, -10, 0, 0, 1));
+        assertEquals(0, grid.findInSphere(0, 0, 0, 5, new int[10]));
+    }
+
+    @Test
+    public void emptyAfterParticlesExpire()
+    {
+        ParticleSimulation sim = new ParticleSimulation(10);
+        ParticleGrid grid = new ParticleGrid(CELL_SIZE);
+
+        sim.activate(3, 0, 0, 0, 0, 0, 1, 1);
+        grid.build(sim, RADIUS);
+        assertEquals(3, grid.raycast(0, 0, -10, 0, 0, 1));
+        sim.deactivate(3);
+        grid.build(sim, RADIUS);
+        assertEquals(-1, grid.raycast(0, 0, -10, 0, 0, 1));
+    }
+
+    @Test
+    public void raycastMatchesBruteForce()
+    {
+        for (int n : new int[] { 1, 10, 100, 1000 })
+        {
+            Random random = new Random(n);
+            ParticleSimulation sim = randomParticles(n, random);
+            ParticleGrid grid = new ParticleGrid(CELL_SIZE);
+
+            grid.build(sim, RADIUS);
+            for (int i = 0; i < 500; ++i)
+            {
+                float[] ray = randomRay(random);
+                assertEquals(bruteForceRaycast(sim, RADIUS, ray),
+                             grid.raycast(ray[0], ray[1], ray[2], ray[3], ray[4], ray[5]));
+            }
+        }
+    }
+
+    @Test
+    public void findInSphereMatchesBruteForce()
+    {
+        Random random = new Random(7);
+        ParticleSimulation sim = randomParticles(500, random);
+        ParticleGrid grid = new ParticleGrid(CELL_SIZE);
+        int[] found = new int[500];
+
+        grid.build(sim, RADIUS);
+        for (int i = 0; i < 200; ++i)
+        {
+            float x = random.nextFloat() * 40 - 20;
+            float y = random.nextFloat() * 40 - 20;
+            float z = random.nextFloat() * 10;
+            float radius = random.nextFloat() * 4;
+            int n = grid.findInSphere(x, y, z, radius, found);
+            int[] expected = new int[sim.getActiveCount()];
+            int numExpected = 0;
+            float reach = radius + RADIUS;
+
+            for (int slot = 0; slot < sim.getActiveCount(); ++slot)
+            {
+                float dx = sim.getX(slot) - x;
+                float dy = sim.getY(slot) - y;
+                float dz = sim.getZ(slot) - z;
+                if (dx * dx + dy * dy + dz * dz <= reach * reach)
+                {
+                    expected[numExpected++] = sim.getId(slot);
+                }
+            }
+            int[] actual = Arrays.copyOf(found, n);
+            expected = Arrays.copyOf(expected, numExpected);
+            Arrays.sort(actual);
+            Arrays.sort(expected);
+            assertEquals(Arrays.toString(expected), Arrays.toString(actual));
+        }
+    }
+
+    /*
+     * Particles spread over a box which grows with their number,
+     * so the density stays close to that of the balloon games.
+     */
+    static ParticleSimulation randomParticles(int n, Random random)
+    {
+        ParticleSimulation sim = new ParticleSimulation(n);
+        float size = 20 * (float) Math.sqrt(n / 100.0f) + 10;
+
+        for (int i = 0; i < n; ++i)
+        {
+            sim.activate(i, random.nextFloat() * size - size / 2,
+                         random.nextFloat() * size - size / 2,
+                         random.nextFloat() * 10,
+                         0, 0, 1, 1);
+        }
+        return sim;
+    }
+
+    /*
+     * Rays from around the viewer towards the particles.
+     */
+    static float[] randomRay(Random random)
+    {
+        return new float[] {
+            random.nextFloat() * 2 - 1, random.nextFloat() * 2 - 1, -5,
+            random.nextFloat() - 0.5f, random.nextFloat() - 0.5f, 1
+        };
+    }
+
+    /*
+     * Test the ray against every particle, the way a
+     * collider per particle does.
+     */
+    static int bruteForceRaycast(ParticleSimulation sim, float radius, float[] ray)
+    {
+        float len = (float) Math.sqrt(ray[3] * ray[3] + ray[4] * ray[4] + ray[5] * ray[5]);
+        float dx = ray[3] / len;
+        float dy = ray[4] / len;
+        float dz = ray[5] / len;
+        float r2 = radius * radius;
+        float bestT = Float.MAX_VALUE;
+        int bestId = -1;
+
+        for (int slot = 0; slot < sim.getActiveCount(); ++slot)
+        {
+            float ocx = ray[0] - sim.getX(slot);
+            float ocy = ray[1] - sim.getY(slot);
+            float ocz = ray[2] - sim.getZ(slot);
+            float p = ocx * dx + ocy * dy + ocz * dz;
+            float q = ocx * ocx + ocy * ocy + ocz * ocz - r2;
+            float disc = p * p - q;
+
+            if (disc < 0)
+            {
+                continue;
+            }
+            float s = (float) Math.sqrt(disc);
+            float t = -p - s;
+            if (t < 0)
+            {
+                t = -p + s;
+            }
+            if ((t >= 0) && (t < bestT))
+            {
+                bestT = t;
+                bestId = sim.getId(slot);
+            }
+        }
+        return bestId;
+    }
+}
@@ -28,13 +28,11 @@ import org.gearvrf.GVRMain;
 import org.gearvrf.GVRRenderData;
 import org.gearvrf.GVRRenderData.GVRRenderingOrder;
 import org.gearvrf.GVRShader;
-import org.gearvrf.GVRSphereCollider;
 import org.gearvrf.GVRTexture;
 import org.gearvrf.GVRTransform;
 import org.gearvrf.scene_objects.GVRSphereSceneObject;
 ;
 import android.graphics.Color;
-import android.media.AudioManager;
 import android.view.Gravity;
 import android.view.MotionEvent;
 import org.gearvrf.GVRPicker;
@@ -42,21 +40,26 @@ import org.gearvrf.IPickEvents;
 import org.gearvrf.GVRPicker.GVRPickedObject;
 import org.gearvrf.scene_objects.GVRTextViewSceneObject;
 import org.gearvrf.utility.Log;
+import org.gearvrf.audioeffects.AudioEffects;
+import org.gearvrf.framemetrics.FrameMetrics;
+import org.gearvrf.framemetrics.FrameMetricsSnapshot;
 import org.joml.Matrix4f;
 import org.joml.Vector2f;
+import org.joml.Vector3f;
 
 import java.util.ArrayList;
 import java.util.Random;
 import java.util.TimerTask;
 import java.io.IOException;
 import java.util.Timer;
-import android.media.SoundPool;
 
 public class BalloonMain extends GVRMain {
 
     public class PickHandler implements IPickEvents
     {
         public GVRSceneObject   PickedObject = null;
+        private Vector3f        mRayOrigin = new Vector3f();
+        private Vector3f        mRayDirection = new Vector3f();
 
         public void onEnter(GVRSceneObject sceneObj, GVRPicker.GVRPickedObject pickInfo) { }
         public void onExit(GVRSceneObject sceneObj) { }
@@ -70,6 +73,29 @@ public class BalloonMain extends GVRMain {
             GVRPickedObject picked = picker.getPicked()[0];
             PickedObject = picked.hitObject;
         }
+
+        /*
+         * Balloons do not have colliders, if the picker did not
+         * hit anything they are hit tested by the particle
+         * emitter along the gaze direction.
+         */
+        public GVRSceneObject getPickedObject()
+        {
+            GVRSceneObject picked = PickedObject;
+            return (picked != null) ? picked : pickParticle();
+        }
+
+        private GVRSceneObject pickParticle()
+        {
+            if (mParticleSystem == null)
+            {
+                return null;
+            }
+            Matrix4f head = mScene.getMainCameraRig().getHeadTransform().getModelMatrix4f();
+            head.getTranslation(mRayOrigin);
+            head.transformDirection(mRayDirection.set(0, 0, -1));
+            return mParticleSystem.pickParticle(mRayOrigin, mRayDirection);
+        }
     }
 
     private GVRScene mScene = null;
@@ -78,7 +104,7 @@ public class BalloonMain extends GVRMain {
     private ArrayList<GVRMaterial> mMaterials;
     private GVRMesh     mSphereMesh;
     private Random      mRandom = new Random();
-    private SoundPool   mAudioEngine;
+    private AudioEffects mAudioEngine;
     private SoundEffect mPopSound;
     private GVRTextViewSceneObject mScoreBoard;
     private Integer     mScore = 0;
@@ -87,10 +113,18 @@ public class BalloonMain extends GVRMain {
     @Override
     public void onInit(GVRContext context)
     {
+        FrameMetrics.getDefault().setReporter(new FrameMetrics.Reporter()
+        {
+            public void onReport(FrameMetricsSnapshot snapshot)
+            {
+                Log.v("FrameMetrics", "%s", snapshot.toJson());
+            }
+        }, FrameMetrics.DEFAULT_REPORT_INTERVAL);
+
         /*
          * Load the balloon popping sound
          */
-        mAudioEngine = new SoundPool(4, AudioManager.STREAM_MUSIC, 0);
+        mAudioEngine = new AudioEffects(4);
         try
         {
             mPopSound = new SoundEffect(context, mAudioEngine, "pop.wav", false);
@@ -193,7 +227,6 @@ public class BalloonMain extends GVRMain {
     {
         GVRSceneObject balloon = new GVRSceneObject(context, mSphereMesh);
         GVRRenderData rdata = balloon.getRenderData();
-        GVRSphereCollider collider = new GVRSphereCollider(context);
         Random rand = new Random();
         int mtlIndex = rand.nextInt(mMaterials.size() - 1);
 
@@ -201,8 +234,6 @@ public class BalloonMain extends GVRMain {
         rdata.setAlphaBlend(true);
         rdata.setMaterial(mMaterials.get(mtlIndex));
         rdata.setRenderingOrder(GVRRenderingOrder.TRANSPARENT);
-        collider.setRadius(0.8f);
-        balloon.attachComponent(collider);
         return balloon;
     }
 
@@ -291,7 +322,10 @@ public class BalloonMain extends GVRMain {
 
     @Override
     public void onStep() {
-        FPSCounter.tick();
+        FrameMetrics metrics = FrameMetrics.getDefault();
+        metrics.beginFrame();
+        mAudioEngine.flush();
+        metrics.endFrame();
     }
 
     public void onTouchEvent(MotionEvent event)
@@ -299,9 +333,10 @@ public class BalloonMain extends GVRMain {
         switch (event.getAction() & MotionEvent.ACTION_MASK)
         {
             case MotionEvent.ACTION_DOWN:
-                if (mPickHandler.PickedObject != null)
+                GVRSceneObject picked = mPickHandler.getPickedObject();
+                if (picked != null)
                 {
-                    onHit(mPickHandler.PickedObject);
+                    onHit(picked);
                 }
                 break;
 
@@ -14,14 +14,14 @@
  */
 package org.gearvrf.balloons;
 
-import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.Random;
 import org.gearvrf.GVRBehavior;
 import org.gearvrf.GVRContext;
 import org.gearvrf.GVRScene;
 import org.gearvrf.GVRSceneObject;
 import org.gearvrf.utility.Log;
+import org.joml.Matrix4f;
 import org.joml.Vector2f;
 import org.joml.Vector3f;
 
@@ -65,7 +65,8 @@ public class ParticleEmitter extends GVRBehavior
     public int  MaxActiveParticles = 20;
     
     /**
-     * Particles emitted per second
+     * Particles emitted per second.
+     * Ignored if a rate curve is set on the scheduler.
      */
     public float  EmissionRate = 2;
     
@@ -86,12 +87,26 @@ public class ParticleEmitter extends GVRBehavior
      * before it disappears
      */
     public  float     MaxDistance = 10.0f;
+
+    /**
+     * Radius of a particle used for picking
+     */
+    public  float     ParticleRadius = 0.8f;
     
-    private ArrayList<Particle> mFreeParticles;
-    private ArrayList<Particle> mActiveParticles;
+    private Particle[]  mParticles;
+    private ParticlePool mPool;
+    private ParticleSimulation mSimulation;
+    private int[]       mExpired;
+    private int[]       mFound;
+    private ParticleGrid mGrid = new ParticleGrid(2.0f);
+    private Matrix4f    mWorldToLocal = new Matrix4f();
+    private Vector3f    mPickOrigin = new Vector3f();
+    private Vector3f    mPickDirection = new Vector3f();
     private GVRScene    mScene;
     private Random      mRandom = new Random();
-    private float       mLastEmitTime;
+    private Vector3f    mNextDirection = new Vector3f();
+    private Vector3f    mNextPosition = new Vector3f();
+    private EmissionScheduler mScheduler = new EmissionScheduler(EmissionRate);
     private int         mNumParticles = 0;
     private MakeParticle mMakeParticle;
     static private long TYPE_PARTICLE_EMITTER = newComponentType(ParticleEmitter.class);
@@ -99,8 +114,11 @@ public class ParticleEmitter extends GVRBehavior
     public ParticleEmitter(GVRContext ctx, GVRScene scene, MakeParticle newParticle)
     {
         super(ctx);
-        mFreeParticles = new ArrayList<Particle>();
-        mActiveParticles = new ArrayList<Particle>();
+        mParticles = new Particle[TotalParticles];
+        mPool = new ParticlePool(TotalParticles);
+        mSimulation = new ParticleSimulation(TotalParticles);
+        mExpired = new int[TotalParticles];
+        mFound = new int[TotalParticles];
         mMakeParticle = newParticle;
         mScene = scene;
         mType = TYPE_PARTICLE_EMITTER;
@@ -108,20 +126,28 @@ public class ParticleEmitter extends GVRBehavior
 
     static public long getComponentType() { return TYPE_PARTICLE_EMITTER; }
 
+    /**
+     * Get the scheduler which decides when particles are emitted.
+     * Use it to add bursts or a time varying emission rate.
+     */
+    public EmissionScheduler getScheduler() { return mScheduler; }
+
     public void onEnable()
     {
         super.onEnable();
-        mLastEmitTime = 0;
+        mScheduler.reset();
     }
 
     public void stop(Particle particle)
     {
-        synchronized (mActiveParticles)
+        synchronized (mSimulation)
         {
-            GVRSceneObject owner = particle.getOwnerObject();
-            owner.setEnable(false);
-            mActiveParticles.remove(particle);
-            mFreeParticles.add(particle);
+            if (mSimulation.deactivate(particle.Index))
+            {
+                GVRSceneObject owner = particle.getOwnerObject();
+                owner.setEnable(false);
+                mPool.free(particle.Index);
+            }
         }
     }
 
@@ -135,32 +161,105 @@ public class ParticleEmitter extends GVRBehavior
 
     protected void step(float elapsed)
     {
-        float emitTime = 1 / EmissionRate;
-        mLastEmitTime += elapsed;
-        synchronized (mActiveParticles)
+        mScheduler.setRate(EmissionRate);
+        int numToEmit = mScheduler.advance(elapsed);
+        synchronized (mSimulation)
+        {
+            int numExpired = mSimulation.step(elapsed, MaxDistance, mExpired);
+
+            updateTransforms();
+            mGrid.build(mSimulation, ParticleRadius);
+            for (int i = 0; i < numExpired; ++i)
+            {
+                int index = mExpired[i];
+                mPool.free(index);
+                mParticles[index].getOwnerObject().setEnable(false);
+            }
+        }
+        if (numToEmit > 0)
+        {
+            emit(numToEmit);
+        }
+    }
+
+    /**
+     * Find the closest live particle hit by a ray.
+     * Uses the spatial hash of the particles instead of
+     * a collider on each particle.
+     * @param origin    ray origin in world coordinates
+     * @param direction ray direction in world coordinates
+     * @return scene object of the particle hit or null if none
+     */
+    public GVRSceneObject pickParticle(Vector3f origin, Vector3f direction)
+    {
+        GVRSceneObject owner = getOwnerObject();
+        if (owner == null)
+        {
+            return null;
+        }
+        synchronized (mSimulation)
+        {
+            owner.getTransform().getModelMatrix4f().invert(mWorldToLocal);
+            mWorldToLocal.transformPosition(origin, mPickOrigin);
+            mWorldToLocal.transformDirection(direction, mPickDirection);
+            int index = mGrid.raycast(mPickOrigin.x, mPickOrigin.y, mPickOrigin.z,
+                                      mPickDirection.x, mPickDirection.y, mPickDirection.z);
+            if ((index < 0) || !mSimulation.isActive(index))
+            {
+                return null;    // stopped since the grid was built
+            }
+            return mParticles[index].getOwnerObject();
+        }
+    }
+
+    /**
+     * Find the live particles within a sphere.
+     * @param center    sphere center in world coordinates
+     * @param radius    sphere radius in emitter units
+     * @param particles receives the particles found
+     * @return number of particles written
+     */
+    public int findParticles(Vector3f center, float radius, Particle[] particles)
+    {
+        GVRSceneObject owner = getOwnerObject();
+        if (owner == null)
         {
-            for (Iterator<Particle> iter = mActiveParticles.iterator(); iter.hasNext(); )
+            return 0;
+        }
+        synchronized (mSimulation)
+        {
+            owner.getTransform().getModelMatrix4f().invert(mWorldToLocal);
+            mWorldToLocal.transformPosition(center, mPickOrigin);
+            int n = mGrid.findInSphere(mPickOrigin.x, mPickOrigin.y, mPickOrigin.z,
+                                       radius, mFound);
+            n = Math.min(n, particles.length);
+            for (int i = 0; i < n; ++i)
             {
-                Particle particle = iter.next();
-                particle.move(elapsed);
-                if (particle.Distance > MaxDistance)
-                {
-                    iter.remove();
-                    mFreeParticles.add(particle);
-                    particle.getOwnerObject().setEnable(false);
-                }
+                particles[i] = mParticles[mFound[i]];
             }
+            return n;
         }
-        if (mLastEmitTime >= emitTime)
+    }
+
+    /*
+     * Push the simulated positions of all live particles
+     * to their scene objects in one pass.
+     */
+    private void updateTransforms()
+    {
+        ParticleSimulation sim = mSimulation;
+        int n = sim.getActiveCount();
+
+        for (int slot = 0; slot < n; ++slot)
         {
-            emit();
-            mLastEmitTime = 0;
+            Particle particle = mParticles[sim.getId(slot)];
+            particle.getOwnerObject().getTransform().setPosition(sim.getX(slot), sim.getY(slot), sim.getZ(slot));
         }
     }
 
     private Vector3f getNextDirection()
     {
-        Vector3f direction = new Vector3f(Direction.MaxVal);
+        Vector3f direction = mNextDirection.set(Direction.MaxVal);
         if (Direction.isRange())
         {
             direction.sub(Direction.MinVal, direction);
@@ -182,7 +281,7 @@ public class ParticleEmitter extends GVRBehavior
 
     private Vector3f getNextPosition()
     {
-        Vector3f v = new Vector3f(EmitterArea.MaxVal.x, EmitterArea.MaxVal.y, 0);
+        Vector3f v = mNextPosition.set(EmitterArea.MaxVal.x, EmitterArea.MaxVal.y, 0);
         if (EmitterArea.isRange())
         {
             v.sub(EmitterArea.MinVal.x, EmitterArea.MinVal.y, 0);
@@ -192,42 +291,81 @@ public class ParticleEmitter extends GVRBehavior
         return v;
     }
 
-    protected void emit()
+    /**
+     * Emit a batch of particles.
+     * Particles which cannot be emitted because the emitter
+     * is out of particles are dropped.
+     * @param count number of particles to emit
+     * @return number of particles actually emitted
+     */
+    protected int emit(int count)
+    {
+        int numEmitted = 0;
+
+        synchronized (mSimulation)
+        {
+            while ((numEmitted < count) && emitParticle())
+            {
+                ++numEmitted;
+            }
+        }
+        return numEmitted;
+    }
+
+    private boolean emitParticle()
     {
         Particle particle = null;
         GVRSceneObject sceneObj = null;
         Vector3f direction = getNextDirection();
         float velocity = getNextVelocity();
 
-        if (mFreeParticles.size() > 0)
+        if (mPool.getFreeCount() > 0)
         {
-            int last = mFreeParticles.size() - 1;
-            particle = mFreeParticles.get(last);
-            mFreeParticles.remove(last);
+            particle = mParticles[mPool.alloc()];
             sceneObj = particle.getOwnerObject();
             particle.Velocity = velocity;
-            particle.Direction = direction;
         }
         else
         {
             if (mNumParticles >= TotalParticles)
             {
-                return; // cannot create any more
+                return false; // cannot create any more
             }
-            if (mActiveParticles.size() >= MaxActiveParticles)
+            if (mSimulation.getActiveCount() >= MaxActiveParticles)
             {
-                return; // cannot emit any more
+                return false; // cannot emit any more
             }
+            ensureCapacity(TotalParticles);
             sceneObj = mMakeParticle.create(getGVRContext());
             sceneObj.setName(sceneObj.getName() + Integer.valueOf(mNumParticles).toString());
+            particle = new Particle(getGVRContext(), mNumParticles, velocity);
+            mParticles[mNumParticles] = particle;
             ++mNumParticles;
-            particle = new Particle(getGVRContext(), velocity, direction);
             sceneObj.attachComponent(particle);
             getOwnerObject().addChildObject(sceneObj);
       //      sceneObj.getRenderData().bindShader(mScene);
         }
-        particle.setPosition(getNextPosition());
-        mActiveParticles.add(particle);
+        Vector3f pos = getNextPosition();
+        mSimulation.activate(particle.Index, pos.x, pos.y, pos.z,
+                             direction.x, direction.y, direction.z, velocity);
+        sceneObj.getTransform().setPosition(pos.x, pos.y, pos.z);
         sceneObj.setEnable(true);
+        return true;
+    }
+
+    /*
+     * TotalParticles may be changed after construction,
+     * grow the per-particle storage to match.
+     */
+    private void ensureCapacity(int capacity)
+    {
+        if (capacity > mParticles.length)
+        {
+            mPool.ensureCapacity(capacity);
+            mParticles = Arrays.copyOf(mParticles, capacity);
+            mExpired = new int[capacity];
+            mFound = new int[capacity];
+            mSimulation.ensureCapacity(capacity);
+        }
     }
  }
@@ -0,0 +1,373 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gearvrf.balloons;
+
+import java.util.Arrays;
+
+/**
+ * Spatial hash of the live particles in a {@link ParticleSimulation}.
+ * <p>
+ * Space is divided into cubic cells which are hashed into a fixed
+ * size bucket table. Each particle is entered into every cell its
+ * bounding sphere overlaps, so a ray only has to test the particles
+ * in the cells it passes through. The grid is rebuilt from scratch
+ * after each simulation step, which is a linear pass over the live
+ * particles and does not allocate once the tables have grown.
+ * <p>
+ * All coordinates are in the local space of the simulation.
+ */
+class ParticleGrid
+{
+    private static final int MIN_BUCKETS = 16;
+    private final float mCellSize;
+    private float       mRadius;
+    private int         mNumParticles = 0;
+    private float[]     mPositions = new float[0];
+    private int[]       mIds = new int[0];
+    private int[]       mStamps = new int[0];
+    private int         mQuery = 0;
+    private int[]       mBucketStart = new int[MIN_BUCKETS + 1];
+    private int[]       mEntries = new int[0];
+    private int         mBucketMask = MIN_BUCKETS - 1;
+    private float       mMinX, mMinY, mMinZ;
+    private float       mMaxX, mMaxY, mMaxZ;
+    private final float[] mSlab = new float[2];
+
+    /**
+     * @param cellSize size of a grid cell, should be at least
+     *                 twice the particle radius
+     */
+    public ParticleGrid(float cellSize)
+    {
+        mCellSize = cellSize;
+    }
+
+    public float getCellSize() { return mCellSize; }
+
+    public int getParticleCount() { return mNumParticles; }
+
+    /**
+     * Rebuild the grid from the live particles of a simulation.
+     * @param sim       simulation to index
+     * @param radius    radius of a particle
+     */
+    public void build(ParticleSimulation sim, float radius)
+    {
+        int n = sim.getActiveCount();
+
+        mRadius = radius;
+        mNumParticles = n;
+        ensureCapacity(n, radius);
+        mMinX = mMinY = mMinZ = Float.MAX_VALUE;
+        mMaxX = mMaxY = mMaxZ = -Float.MAX_VALUE;
+        for (int slot = 0; slot < n; ++slot)
+        {
+            float x = sim.getX(slot);
+            float y = sim.getY(slot);
+            float z = sim.getZ(slot);
+            int i = slot * 3;
+
+            mPositions[i] = x;
+            mPositions[i + 1] = y;
+            mPositions[i + 2] = z;
+            mIds[slot] = sim.getId(slot);
+            if (x < mMinX) mMinX = x;
+            if (y < mMinY) mMinY = y;
+            if (z < mMinZ) mMinZ = z;
+            if (x > mMaxX) mMaxX = x;
+            if (y > mMaxY) mMaxY = y;
+            if (z > mMaxZ) mMaxZ = z;
+        }
+        /*
+         * Counting sort of particle entries into buckets:
+         * count entries per bucket, convert counts to start
+         * offsets, then fill the entries back to front.
+         */
+        Arrays.fill(mBucketStart, 0);
+        for (int slot = 0; slot < n; ++slot)
+        {
+            addToBuckets(slot, false);
+        }
+        int total = 0;
+        for (int b = 0; b <= mBucketMask; ++b)
+        {
+            total += mBucketStart[b];
+            mBucketStart[b] = total;
+        }
+        mBucketStart[mBucketMask + 1] = total;
+        for (int slot = 0; slot < n; ++slot)
+        {
+            addToBuckets(slot, true);
+        }
+    }
+
+    /**
+     * Find the particle closest to the ray origin which the ray hits.
+     * @param ox    X ray origin
+     * @param oy    Y ray origin
+     * @param oz    Z ray origin
+     * @param dx    X ray direction
+     * @param dy    Y ray direction
+     * @param dz    Z ray direction
+     * @return particle id or -1 if nothing is hit
+     */
+    public int raycast(float ox, float oy, float oz, float dx, float dy, float dz)
+    {
+        float len = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+
+        if ((mNumParticles == 0) || (len == 0))
+        {
+            return -1;
+        }
+        dx /= len;
+        dy /= len;
+        dz /= len;
+        /*
+         * Clip the ray against the bounds of all particles.
+         */
+        float r = mRadius;
+        float tmin = 0;
+        float tmax = Float.MAX_VALUE;
+        float[] slab = mSlab;
+
+        slab[0] = tmin;
+        slab[1] = tmax;
+
+        if (!clip(ox, dx, mMinX - r, mMaxX + r, slab) ||
+            !clip(oy, dy, mMinY - r, mMaxY + r, slab) ||
+            !clip(oz, dz, mMinZ - r, mMaxZ + r, slab))
+        {
+            return -1;
+        }
+        tmin = slab[0];
+        tmax = slab[1];
+        /*
+         * Walk the cells along the ray (Amanatides & Woo)
+         * testing the particles in each one.
+         */
+        float cs = mCellSize;
+        int ix = cell(ox + dx * tmin);
+        int iy = cell(oy + dy * tmin);
+        int iz = cell(oz + dz * tmin);
+        int stepX = (dx > 0) ? 1 : -1;
+        int stepY = (dy > 0) ? 1 : -1;
+        int stepZ = (dz > 0) ? 1 : -1;
+        float tDeltaX = (dx != 0) ? cs / Math.abs(dx) : Float.MAX_VALUE;
+        float tDeltaY = (dy != 0) ? cs / Math.abs(dy) : Float.MAX_VALUE;
+        float tDeltaZ = (dz != 0) ? cs / Math.abs(dz) : Float.MAX_VALUE;
+        float tMaxX = (dx != 0) ? ((ix + (dx > 0 ? 1 : 0)) * cs - ox) / dx : Float.MAX_VALUE;
+        float tMaxY = (dy != 0) ? ((iy + (dy > 0 ? 1 : 0)) * cs - oy) / dy : Float.MAX_VALUE;
+        float tMaxZ = (dz != 0) ? ((iz + (dz > 0 ? 1 : 0)) * cs - oz) / dz : Float.MAX_VALUE;
+        float bestT = Float.MAX_VALUE;
+        int bestSlot = -1;
+        float r2 = r * r;
+
+        while (true)
+        {
+            int b = hash(ix, iy, iz);
+            for (int e = mBucketStart[b]; e < mBucketStart[b + 1]; ++e)
+            {
+                int slot = mEntries[e];
+                int i = slot * 3;
+                float ocx = ox - mPositions[i];
+                float ocy = oy - mPositions[i + 1];
+                float ocz = oz - mPositions[i + 2];
+                float p = ocx * dx + ocy * dy + ocz * dz;
+                float q = ocx * ocx + ocy * ocy + ocz * ocz - r2;
+                float disc = p * p - q;
+
+                if (disc < 0)
+                {
+                    continue;
+                }
+                float s = (float) Math.sqrt(disc);
+                float t = -p - s;
+                if (t < 0)
+                {
+                    t = -p + s;         // origin inside the sphere
+                }
+                if ((t >= 0) && (t < bestT))
+                {
+                    bestT = t;
+                    bestSlot = slot;
+                }
+            }
+            float tExit = Math.min(tMaxX, Math.min(tMaxY, tMaxZ));
+            if ((bestT <= tExit) || (tExit > tmax))
+            {
+                break;
+            }
+            if (tMaxX == tExit)
+            {
+                ix += stepX;
+                tMaxX += tDeltaX;
+            }
+            else if (tMaxY == tExit)
+            {
+                iy += stepY;
+                tMaxY += tDeltaY;
+            }
+            else
+            {
+                iz += stepZ;
+                tMaxZ += tDeltaZ;
+            }
+        }
+        return (bestSlot >= 0) ? mIds[bestSlot] : -1;
+    }
+
+    /**
+     * Find all particles which overlap a sphere.
+     * @param cx        X sphere center
+     * @param cy        Y sphere center
+     * @param cz        Z sphere center
+     * @param radius    sphere radius
+     * @param ids       receives the ids of the particles found
+     * @return number of ids written, at most ids.length
+     */
+    public int findInSphere(float cx, float cy, float cz, float radius, int[] ids)
+    {
+        float reach = radius + mRadius;
+        float reach2 = reach * reach;
+        int x0 = cell(cx - reach), x1 = cell(cx + reach);
+        int y0 = cell(cy - reach), y1 = cell(cy + reach);
+        int z0 = cell(cz - reach), z1 = cell(cz + reach);
+        int count = 0;
+
+        if (mNumParticles == 0)
+        {
+            return 0;
+        }
+        if (++mQuery == 0)
+        {
+            Arrays.fill(mStamps, 0);
+            mQuery = 1;
+        }
+        for (int ix = x0; ix <= x1; ++ix)
+        {
+            for (int iy = y0; iy <= y1; ++iy)
+            {
+                for (int iz = z0; iz <= z1; ++iz)
+                {
+                    int b = hash(ix, iy, iz);
+                    for (int e = mBucketStart[b]; e < mBucketStart[b + 1]; ++e)
+                    {
+                        int slot = mEntries[e];
+                        if (mStamps[slot] == mQuery)
+                        {
+                            continue;
+                        }
+                        mStamps[slot] = mQuery;
+                        int i = slot * 3;
+                        float vx = mPositions[i] - cx;
+                        float vy = mPositions[i + 1] - cy;
+                        float vz = mPositions[i + 2] - cz;
+                        if (vx * vx + vy * vy + vz * vz <= reach2)
+                        {
+                            if (count >= ids.length)
+                            {
+                                return count;
+                            }
+                            ids[count++] = mIds[slot];
+                        }
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private void addToBuckets(int slot, boolean fill)
+    {
+        int i = slot * 3;
+        float r = mRadius;
+        int x0 = cell(mPositions[i] - r), x1 = cell(mPositions[i] + r);
+        int y0 = cell(mPositions[i + 1] - r), y1 = cell(mPositions[i + 1] + r);
+        int z0 = cell(mPositions[i + 2] - r), z1 = cell(mPositions[i + 2] + r);
+
+        for (int ix = x0; ix <= x1; ++ix)
+        {
+            for (int iy = y0; iy <= y1; ++iy)
+            {
+                for (int iz = z0; iz <= z1; ++iz)
+                {
+                    int b = hash(ix, iy, iz);
+                    if (fill)
+                    {
+                        mEntries[--mBucketStart[b]] = slot;
+                    }
+                    else
+                    {
+                        ++mBucketStart[b];
+                    }
+                }
+            }
+        }
+    }
+
+    private void ensureCapacity(int n, float radius)
+    {
+        int cellsPerAxis = (int) Math.ceil(2 * radius / mCellSize) + 1;
+        int numEntries = n * cellsPerAxis * cellsPerAxis * cellsPerAxis;
+
+        if (numEntries > mEntries.length)
+        {
+            mEntries = new int[numEntries];
+        }
+        if (n > mIds.length)
+        {
+            mPositions = new float[n * 3];
+            mIds = new int[n];
+            mStamps = new int[n];
+            int numBuckets = MIN_BUCKETS;
+            while (numBuckets < n * 2)
+            {
+                numBuckets <<= 1;
+            }
+            mBucketStart = new int[numBuckets + 1];
+            mBucketMask = numBuckets - 1;
+            mQuery = 0;
+        }
+    }
+
+    private int cell(float v)
+    {
+        return (int) Math.floor(v / mCellSize);
+    }
+
+    private int hash(int ix, int iy, int iz)
+    {
+        return ((ix * 73856093) ^ (iy * 19349663) ^ (iz * 83492791)) & mBucketMask;
+    }
+
+    private static boolean clip(float o, float d, float min, float max, float[] slab)
+    {
+        if (d == 0)
+        {
+            return (o >= min) && (o <= max);
+        }
+        float t0 = (min - o) / d;
+        float t1 = (max - o) / d;
+        if (t0 > t1)
+        {
+            float t = t0;
+            t0 = t1;
+            t1 = t;
+        }
+        if (t0 > slab[0]) slab[0] = t0;
+        if (t1 < slab[1]) slab[1] = t1;
+        return slab[0] <= slab[1];
+    }
+}
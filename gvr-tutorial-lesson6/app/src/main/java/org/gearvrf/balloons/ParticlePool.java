@@ -0,0 +1,87 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gearvrf.balloons;
+
+/**
+ * Free list of particle ids for {@link ParticleEmitter}.
+ * <p>
+ * Free ids are kept in a ring so recycling a particle never
+ * allocates or shifts a list. Ids come back out in the order
+ * they were freed.
+ * <p>
+ * This class has no GearVRf dependencies and can be
+ * exercised on a plain JVM.
+ */
+class ParticlePool
+{
+    private int[]   mRing;
+    private int     mHead = 0;
+    private int     mNumFree = 0;
+
+    public ParticlePool(int capacity)
+    {
+        mRing = new int[capacity];
+    }
+
+    public int getCapacity() { return mRing.length; }
+
+    public int getFreeCount() { return mNumFree; }
+
+    /**
+     * Return a particle id to the pool.
+     * @param id particle id which is not already free
+     */
+    public void free(int id)
+    {
+        mRing[(mHead + mNumFree) % mRing.length] = id;
+        ++mNumFree;
+    }
+
+    /**
+     * Take the particle id which has been free the longest.
+     * @return particle id or -1 if the pool is empty
+     */
+    public int alloc()
+    {
+        if (mNumFree == 0)
+        {
+            return -1;
+        }
+        int id = mRing[mHead];
+        mHead = (mHead + 1) % mRing.length;
+        --mNumFree;
+        return id;
+    }
+
+    /**
+     * Grow the pool so it can hold at least the given
+     * number of ids. Free ids are preserved.
+     */
+    public void ensureCapacity(int capacity)
+    {
+        if (capacity <= mRing.length)
+        {
+            return;
+        }
+        int[] ring = new int[capacity];
+
+        for (int i = 0; i < mNumFree; ++i)
+        {
+            ring[i] = mRing[(mHead + i) % mRing.length];
+        }
+        mRing = ring;
+        mHead = 0;
+    }
+}
@@ -1,30 +1,42 @@
 package org.gearvrf.balloons;
 
-import android.content.res.AssetFileDescriptor;
-
 import org.gearvrf.GVRBehavior;
 import org.gearvrf.GVRContext;
+import org.gearvrf.audioeffects.AudioEffects;
+import org.gearvrf.audioeffects.SoundClip;
+
 import java.io.IOException;
-import android.media.SoundPool;
 
+/**
+ * Component which plays a sound through an {@link AudioEffects} engine.
+ * Sounds are queued and started together when the engine is flushed,
+ * once per frame, so many pops in the same frame stay in sync.
+ */
 public class SoundEffect extends GVRBehavior
 {
-    private SoundPool           mPlayer;
-    private int                 mSoundID;
+    private AudioEffects        mPlayer;
+    private SoundClip           mClip;
     private boolean             mLoop;
     private float               mVolume = 1.0f;
+    private int                 mHandle = 0;
     static private long TYPE_SOUND_EFFECT = newComponentType(SoundEffect.class);
 
-    public SoundEffect(GVRContext ctx, final SoundPool soundPool, String soundFile, boolean loop) throws IOException
+    public SoundEffect(GVRContext ctx, AudioEffects audioEffects, String soundFile, boolean loop) throws IOException
+    {
+        this(ctx, audioEffects, soundFile, loop, 0);
+    }
+
+    /**
+     * @param priority voice stealing priority, higher wins
+     */
+    public SoundEffect(GVRContext ctx, AudioEffects audioEffects, String soundFile, boolean loop, int priority) throws IOException
     {
         super(ctx);
         mType = TYPE_SOUND_EFFECT;
         mLoop = loop;
-        mPlayer = soundPool;
-        AssetFileDescriptor descriptor = ctx.getContext().getAssets().openFd(soundFile);
-        mSoundID = mPlayer.load(descriptor, 1);
-        descriptor.close();
-     }
+        mPlayer = audioEffects;
+        mClip = mPlayer.load(ctx.getContext(), soundFile, priority);
+    }
 
     static public long getComponentType() { return TYPE_SOUND_EFFECT; }
 
@@ -37,20 +49,27 @@ public class SoundEffect extends GVRBehavior
     public void setLooping(boolean loop) { mLoop = loop; }
     public boolean isLooping() { return mLoop; }
 
+    public boolean isReady() { return mClip.isReady(); }
+
     public void play()
     {
-        if ((mPlayer != null) && (mSoundID != 0))
+        if (mLoop)
+        {
+            stop();
+            mHandle = mPlayer.play(mClip, mVolume, mVolume, true);
+        }
+        else
         {
-            int loop = mLoop ? 1 : 0;
-            mPlayer.play(mSoundID, mVolume, mVolume, 1, loop, 1);
+            mPlayer.trigger(mClip, mVolume);
         }
     }
 
     public void stop()
     {
-        if ((mPlayer != null) && (mSoundID != 0))
+        if (mHandle != 0)
         {
-            mPlayer.stop(mSoundID);
+            mPlayer.stop(mHandle);
+            mHandle = 0;
         }
     }
 
@@ -0,0 +1,92 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gearvrf.balloons;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import java.util.logging.Logger;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Compares picking through {@link ParticleGrid} with testing the
+ * ray against every particle at 100, 1k and 10k live particles.
+ * The grid is rebuilt each frame, so its time includes the build.
+ * Results are logged, the test only checks both agree. Only runs
+ * with -Dbenchmark=true so the unit tests stay fast.
+ */
+public class ParticleGridBenchmark
+{
+    private static final int NUM_RAYS = 256;
+    private static final int NUM_ROUNDS = 20;
+    private static final Logger LOG = Logger.getLogger(ParticleGridBenchmark.class.getName());
+
+    @Before
+    public void onlyWhenAsked()
+    {
+        Assume.assumeTrue(Boolean.getBoolean("benchmark"));
+    }
+
+    @Test
+    public void gridAgainstBruteForce()
+    {
+        LOG.info("particles   brute force ns/pick   grid ns/pick   grid build ns");
+        for (int n : new int[] { 100, 1000, 10000 })
+        {
+            Random random = new Random(n);
+            ParticleSimulation sim = ParticleGridTest.randomParticles(n, random);
+            ParticleGrid grid = new ParticleGrid(ParticleGridTest.CELL_SIZE);
+            float[][] rays = new float[NUM_RAYS][];
+
+            for (int i = 0; i < NUM_RAYS; ++i)
+            {
+                rays[i] = ParticleGridTest.randomRay(random);
+            }
+            long bruteTime = Long.MAX_VALUE;
+            long gridTime = Long.MAX_VALUE;
+            long buildTime = Long.MAX_VALUE;
+            int bruteHits = 0;
+            int gridHits = 0;
+
+            for (int round = 0; round < NUM_ROUNDS; ++round)
+            {
+                long start = System.nanoTime();
+                bruteHits = 0;
+                for (float[] ray : rays)
+                {
+                    bruteHits += ParticleGridTest.bruteForceRaycast(sim, ParticleGridTest.RADIUS, ray);
+                }
+                bruteTime = Math.min(bruteTime, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                grid.build(sim, ParticleGridTest.RADIUS);
+                long built = System.nanoTime();
+                gridHits = 0;
+                for (float[] ray : rays)
+                {
+                    gridHits += grid.raycast(ray[0], ray[1], ray[2], ray[3], ray[4], ray[5]);
+                }
+                buildTime = Math.min(buildTime, built - start);
+                gridTime = Math.min(gridTime, System.nanoTime() - built);
+            }
+            assertEquals(bruteHits, gridHits);
+            LOG.info(String.format("%9d   %19d   %12d   %13d",
+                    n, bruteTime / NUM_RAYS, gridTime / NUM_RAYS, buildTime));
+        }
+    }
+}
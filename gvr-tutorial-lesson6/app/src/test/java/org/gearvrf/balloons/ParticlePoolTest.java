@@ -0,0 +1,148 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gearvrf.balloons;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class ParticlePoolTest
+{
+    private static final int   NUM_PARTICLES = 400;
+    private static final float ELAPSED = 1 / 60.0f;
+    private static final float MAX_DISTANCE = 10.0f;
+    private static final int   NUM_FRAMES = 20000;
+
+    @Test
+    public void allocReturnsIdsInOrderFreed()
+    {
+        ParticlePool pool = new ParticlePool(4);
+
+        assertEquals(-1, pool.alloc());
+        pool.free(2);
+        pool.free(0);
+        pool.free(3);
+        assertEquals(3, pool.getFreeCount());
+        assertEquals(2, pool.alloc());
+        assertEquals(0, pool.alloc());
+        pool.free(1);
+        assertEquals(3, pool.alloc());
+        assertEquals(1, pool.alloc());
+        assertEquals(-1, pool.alloc());
+        assertEquals(0, pool.getFreeCount());
+    }
+
+    @Test
+    public void ensureCapacityKeepsWrappedIds()
+    {
+        ParticlePool pool = new ParticlePool(3);
+
+        pool.free(0);
+        pool.free(1);
+        pool.free(2);
+        pool.alloc();
+        pool.alloc();
+        pool.free(0);           // ring now wraps around
+        pool.free(1);
+        pool.ensureCapacity(6);
+        pool.free(5);
+        assertEquals(6, pool.getCapacity());
+        assertEquals(2, pool.alloc());
+        assertEquals(0, pool.alloc());
+        assertEquals(1, pool.alloc());
+        assertEquals(5, pool.alloc());
+    }
+
+    /*
+     * Run the emit / step / recycle cycle of ParticleEmitter
+     * until every particle has been created and recycled,
+     * then check that further frames do not allocate.
+     */
+    @Test
+    public void steadyStateEmissionDoesNotAllocate()
+    {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        Emitter emitter = new Emitter();
+        long thread = Thread.currentThread().getId();
+
+        emitter.run(NUM_FRAMES);
+        long overhead = threads.getThreadAllocatedBytes(thread);
+        overhead = threads.getThreadAllocatedBytes(thread) - overhead;
+        long before = threads.getThreadAllocatedBytes(thread);
+        int emitted = emitter.run(NUM_FRAMES);
+        long allocated = threads.getThreadAllocatedBytes(thread) - before - overhead;
+
+        assertTrue(emitted > NUM_FRAMES / 4);
+        assertEquals(0, allocated);
+    }
+
+    /*
+     * The simulation side of ParticleEmitter without the scene graph.
+     */
+    private static class Emitter
+    {
+        final EmissionScheduler mScheduler = new EmissionScheduler(30);
+        final ParticleSimulation mSimulation = new ParticleSimulation(NUM_PARTICLES);
+        final ParticlePool mPool = new ParticlePool(NUM_PARTICLES);
+        final int[] mExpired = new int[NUM_PARTICLES];
+        final Random mRandom = new Random(42);
+
+        Emitter()
+        {
+            for (int i = 0; i < NUM_PARTICLES; ++i)
+            {
+                mPool.free(i);
+            }
+        }
+
+        int run(int numFrames)
+        {
+            int numEmitted = 0;
+
+            for (int frame = 0; frame < numFrames; ++frame)
+            {
+                int numToEmit = mScheduler.advance(ELAPSED);
+                int numExpired = mSimulation.step(ELAPSED, MAX_DISTANCE, mExpired);
+
+                for (int i = 0; i < numExpired; ++i)
+                {
+                    mPool.free(mExpired[i]);
+                }
+                while (numToEmit-- > 0)
+                {
+                    int id = mPool.alloc();
+                    if (id < 0)
+                    {
+                        break;
+                    }
+                    mSimulation.activate(id, mRandom.nextFloat() * 10 - 5, mRandom.nextFloat() * 10 - 5, 0,
+                                         0, 0, 1, 1 + mRandom.nextFloat() * 5);
+                    ++numEmitted;
+                }
+            }
+            return numEmitted;
+        }
+    }
+}
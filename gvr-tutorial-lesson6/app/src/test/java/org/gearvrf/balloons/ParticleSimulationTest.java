@@ -0,0 +1,175 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gearvrf.balloons;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Runs {@link ParticleSimulation} next to the per-particle
+ * update it replaced (Particle.move driven by the old
+ * ParticleEmitter.step loop) and checks that both agree
+ * on position, distance and expiry every frame.
+ */
+public class ParticleSimulationTest
+{
+    private static final int   NUM_PARTICLES = 64;
+    private static final float MAX_DISTANCE = 10.0f;
+    private static final int   NUM_FRAMES = 5000;
+
+    /*
+     * The math of the old Particle behavior without the scene graph.
+     */
+    private static class OldParticle
+    {
+        final int   Id;
+        float       Velocity;
+        float       Distance;
+        final float[] Direction = new float[3];
+        final float[] StartPos = new float[3];
+        final float[] CurPos = new float[3];
+
+        OldParticle(int id, float px, float py, float pz,
+                    float dx, float dy, float dz, float velocity)
+        {
+            Id = id;
+            Velocity = velocity;
+            Direction[0] = dx;
+            Direction[1] = dy;
+            Direction[2] = dz;
+            CurPos[0] = StartPos[0] = px;
+            CurPos[1] = StartPos[1] = py;
+            CurPos[2] = StartPos[2] = pz;
+        }
+
+        void move(float time)
+        {
+            CurPos[0] += Direction[0] * Velocity * time;
+            CurPos[1] += Direction[1] * Velocity * time;
+            CurPos[2] += Direction[2] * Velocity * time;
+            float x = CurPos[0] - StartPos[0];
+            float y = CurPos[1] - StartPos[1];
+            float z = CurPos[2] - StartPos[2];
+            Distance = (float) Math.sqrt(x * x + y * y + z * z);
+        }
+    }
+
+    @Test
+    public void matchesPerParticleUpdate()
+    {
+        ParticleSimulation sim = new ParticleSimulation(NUM_PARTICLES);
+        List<OldParticle> active = new ArrayList<OldParticle>();
+        Map<Integer, OldParticle> byId = new HashMap<Integer, OldParticle>();
+        int[] expired = new int[NUM_PARTICLES];
+        Random random = new Random(7);
+        int numExpired = 0;
+        int numStopped = 0;
+
+        for (int frame = 0; frame < NUM_FRAMES; ++frame)
+        {
+            float elapsed = (10 + random.nextInt(30)) / 1000.0f;
+
+            // old ParticleEmitter.step
+            List<Integer> oldExpired = new ArrayList<Integer>();
+            for (Iterator<OldParticle> iter = active.iterator(); iter.hasNext(); )
+            {
+                OldParticle p = iter.next();
+                p.move(elapsed);
+                if (p.Distance > MAX_DISTANCE)
+                {
+                    iter.remove();
+                    byId.remove(p.Id);
+                    oldExpired.add(p.Id);
+                }
+            }
+
+            int n = sim.step(elapsed, MAX_DISTANCE, expired);
+            int[] newExpired = Arrays.copyOf(expired, n);
+            Arrays.sort(newExpired);
+            assertEquals("expired at frame " + frame, oldExpired.size(), n);
+            for (int id : oldExpired)
+            {
+                assertTrue("expired at frame " + frame, Arrays.binarySearch(newExpired, id) >= 0);
+                assertFalse(sim.isActive(id));
+            }
+            numExpired += n;
+            assertSameState(frame, sim, byId);
+
+            // emit into free ids and occasionally stop one early
+            for (int i = random.nextInt(3); i > 0; --i)
+            {
+                int id = random.nextInt(NUM_PARTICLES);
+                float px = random.nextFloat() * 10 - 5;
+                float py = random.nextFloat() * 10 - 5;
+                float dx = random.nextFloat() * 2 - 1;
+                float dy = random.nextFloat() * 2 - 1;
+                float dz = random.nextFloat();
+                float velocity = 1 + random.nextFloat() * 5;
+
+                if (byId.containsKey(id))
+                {
+                    assertFalse(sim.activate(id, px, py, 0, dx, dy, dz, velocity));
+                    continue;
+                }
+                OldParticle p = new OldParticle(id, px, py, 0, dx, dy, dz, velocity);
+                active.add(p);
+                byId.put(id, p);
+                assertTrue(sim.activate(id, px, py, 0, dx, dy, dz, velocity));
+            }
+            if (!active.isEmpty() && random.nextInt(20) == 0)
+            {
+                OldParticle p = active.remove(random.nextInt(active.size()));
+                byId.remove(p.Id);
+                assertTrue(sim.deactivate(p.Id));
+                assertFalse(sim.deactivate(p.Id));
+                ++numStopped;
+            }
+            assertSameState(frame, sim, byId);
+        }
+        assertTrue(numExpired > NUM_FRAMES / 10);
+        assertTrue(numStopped > 0);
+    }
+
+    private static void assertSameState(int frame, ParticleSimulation sim, Map<Integer, OldParticle> byId)
+    {
+        String at = "frame " + frame;
+
+        assertEquals(at, byId.size(), sim.getActiveCount());
+        for (int slot = 0; slot < sim.getActiveCount(); ++slot)
+        {
+            int id = sim.getId(slot);
+            OldParticle p = byId.get(id);
+
+            assertNotNull(at, p);
+            assertTrue(at, sim.isActive(id));
+            assertEquals(at, p.CurPos[0], sim.getX(slot), 0);
+            assertEquals(at, p.CurPos[1], sim.getY(slot), 0);
+            assertEquals(at, p.CurPos[2], sim.getZ(slot), 0);
+            assertEquals(at, p.Distance, sim.getDistance(id), 0);
+        }
+    }
+}
@@ -18,6 +18,7 @@
 package org.gearvrf.videoplayer.component.gallery;
 
 import android.annotation.SuppressLint;
+import android.os.AsyncTask;
 import android.os.Handler;
 import android.os.Message;
 import android.support.annotation.NonNull;
@@ -43,22 +44,31 @@ import org.gearvrf.videoplayer.model.Video;
 import org.gearvrf.videoplayer.provider.asyntask.AlbumAsyncTask;
 import org.gearvrf.videoplayer.provider.asyntask.ExternalVideoAsyncTask;
 import org.gearvrf.videoplayer.provider.asyntask.GetDataCallback;
+import org.gearvrf.videoplayer.provider.asyntask.GetPagedDataCallback;
 import org.gearvrf.videoplayer.provider.asyntask.LocalVideoAsyncTask;
+import org.gearvrf.videoplayer.provider.asyntask.VideoLookupAsyncTask;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
-public class Gallery extends FadeableObject implements OnItemsSelectionListener {
+public class Gallery extends FadeableObject implements OnItemsSelectionListener,
+        LocalMediaObserver.OnMediaChangeListener {
 
     private static final String TAG = Gallery.class.getSimpleName();
     private RecyclerView mRecyclerView;
     private GVRViewSceneObject mObjectViewGallery;
-    private List<GalleryItem> mItemList = new LinkedList<>();
+    private List<GalleryItem> mItemList = new ArrayList<>();
     private Breadcrumb mBreadcrumb;
     private OnGalleryEventListener mOnGalleryEventListener;
     private boolean mIsConnected = false;
     private CountdownTimer mCountdownTimer;
     private MessageText mMessageText;
+    private AsyncTask<?, ?, ?> mLoadTask;
+    private int mLoadGeneration = 0;
+    private LocalMediaObserver mLocalMediaObserver;
+    private boolean mShowingLocal = false;
+    private String mLocalAlbumTitle;
 
     @SuppressLint("InflateParams")
     public Gallery(GVRContext gvrContext) {
@@ -82,6 +92,8 @@ public class Gallery extends FadeableObject implements OnItemsSelectionListener
                 });
 
         onInitMessageText();
+        mLocalMediaObserver = new LocalMediaObserver(
+                gvrContext.getContext().getContentResolver(), this);
     }
 
     private OnMessageListener mOnMessageListener = new OnMessageListener() {
@@ -139,6 +151,7 @@ public class Gallery extends FadeableObject implements OnItemsSelectionListener
     // UI Thread
     private void loadHome() {
         setGridNumColumns(2);
+        setShowingLocal(false, null);
         mItemList.clear();
         mItemList.addAll(createHomeItems());
         mRecyclerView.getAdapter().notifyDataSetChanged();
@@ -146,39 +159,171 @@ public class Gallery extends FadeableObject implements OnItemsSelectionListener
 
     private void loadLocalAlbums() {
         setGridNumColumns(3);
-        new AlbumAsyncTask(new GetDataCallback<List<Album>>() {
-            @Override
-            public void onResult(List<Album> data) {
-                mItemList.clear();
-                mItemList.addAll(data);
-                mRecyclerView.getAdapter().notifyDataSetChanged();
-            }
-        }).execute();
+        setShowingLocal(true, null);
+        reloadLocal();
     }
 
     private void loadLocalVideos(String albumTitle) {
         setGridNumColumns(3);
-        new LocalVideoAsyncTask(albumTitle, new GetDataCallback<List<Video>>() {
-            @Override
-            public void onResult(List<Video> data) {
+        setShowingLocal(true, albumTitle);
+        reloadLocal();
+    }
+
+    // UI Thread
+    private void reloadLocal() {
+        cancelLoad();
+        if (mLocalAlbumTitle == null) {
+            mLoadTask = new AlbumAsyncTask(new PagedResult<Album>()).execute();
+        } else {
+            mLoadTask = new LocalVideoAsyncTask(mLocalAlbumTitle, new PagedResult<Video>()).execute();
+        }
+    }
+
+    private void setShowingLocal(boolean local, String albumTitle) {
+        mShowingLocal = local;
+        mLocalAlbumTitle = albumTitle;
+        if (local) {
+            mLocalMediaObserver.register();
+        } else {
+            mLocalMediaObserver.unregister();
+        }
+    }
+
+    private void cancelLoad() {
+        mLoadGeneration++;
+        if (mLoadTask != null) {
+            mLoadTask.cancel(false);
+            mLoadTask = null;
+        }
+    }
+
+    @Override
+    public void onMediaChanged() {
+        if (mShowingLocal) {
+            reloadLocal();
+        }
+    }
+
+    @Override
+    public void onVideoChanged(final long videoId) {
+        if (!mShowingLocal) {
+            return;
+        }
+        final int generation = mLoadGeneration;
+
+        if (mLocalAlbumTitle == null) {
+            new VideoLookupAsyncTask<>(new AlbumAsyncTask(), videoId, new GetDataCallback<Album>() {
+                @Override
+                public void onResult(Album album) {
+                    if (generation == mLoadGeneration) {
+                        onAlbumChanged(videoId, album);
+                    }
+                }
+            }).execute();
+        } else {
+            new VideoLookupAsyncTask<>(new LocalVideoAsyncTask(mLocalAlbumTitle), videoId,
+                    new GetDataCallback<Video>() {
+                        @Override
+                        public void onResult(Video video) {
+                            if (generation == mLoadGeneration) {
+                                onLocalVideoChanged(videoId, video);
+                            }
+                        }
+                    }).execute();
+        }
+    }
+
+    private void onAlbumChanged(long videoId, Album album) {
+        if (album == null) {
+            // Only a deleted thumbnail can change the album list
+            for (GalleryItem item : mItemList) {
+                Video thumbnail = ((Album) item).getVideoForThumbnail();
+                if (thumbnail != null && thumbnail.getId() == videoId) {
+                    reloadLocal();
+                    return;
+                }
+            }
+        } else if (!mItemList.contains(album)) {
+            insertSorted(album, album.getTitle());
+        }
+    }
+
+    private void onLocalVideoChanged(long videoId, Video video) {
+        int index = -1;
+
+        for (int i = 0; i < mItemList.size(); i++) {
+            if (((Video) mItemList.get(i)).getId() == videoId) {
+                index = i;
+                break;
+            }
+        }
+        if (video == null) {
+            if (index >= 0) {
+                mItemList.remove(index);
+                mRecyclerView.getAdapter().notifyItemRemoved(index);
+            }
+        } else if (index >= 0) {
+            mItemList.set(index, video);
+            mRecyclerView.getAdapter().notifyItemChanged(index);
+        } else {
+            insertSorted(video, video.getTitle());
+        }
+    }
+
+    private void insertSorted(GalleryItem item, String title) {
+        int index = 0;
+
+        while (index < mItemList.size() && compareTitles(titleOf(mItemList.get(index)), title) <= 0) {
+            index++;
+        }
+        mItemList.add(index, item);
+        mRecyclerView.getAdapter().notifyItemInserted(index);
+    }
+
+    private static String titleOf(GalleryItem item) {
+        return item instanceof Album ? ((Album) item).getTitle() : ((Video) item).getTitle();
+    }
+
+    private static int compareTitles(String a, String b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : -1) : 1;
+        }
+        return a.compareTo(b);
+    }
+
+    /**
+     * Shows the pages of a query as they arrive. The first page
+     * replaces the current items so a reload does not blank the grid.
+     */
+    private class PagedResult<T extends GalleryItem> implements GetPagedDataCallback<T> {
+
+        @Override
+        public void onPage(List<T> page, int offset) {
+            if (offset == 0) {
                 mItemList.clear();
-                mItemList.addAll(data);
+                mItemList.addAll(page);
                 mRecyclerView.getAdapter().notifyDataSetChanged();
+            } else {
+                int start = mItemList.size();
+                mItemList.addAll(page);
+                mRecyclerView.getAdapter().notifyItemRangeInserted(start, page.size());
             }
-        }).execute();
-    }
+        }
 
-    private void loadExternalVideos() {
-        setGridNumColumns(3);
-        new ExternalVideoAsyncTask(new GetDataCallback<List<Video>>() {
-            @Override
-            public void onResult(List<Video> data) {
+        @Override
+        public void onComplete(int count) {
+            mLoadTask = null;
+            if (count == 0 && !mItemList.isEmpty()) {
                 mItemList.clear();
-                mItemList.addAll(data);
                 mRecyclerView.getAdapter().notifyDataSetChanged();
             }
-        }).execute();
+        }
+    }
 
+    private void loadExternalVideos() {
+        setGridNumColumns(3);
+        setShowingLocal(false, null);
+        mLoadTask = new ExternalVideoAsyncTask(new PagedResult<Video>()).execute();
     }
 
     @Override
@@ -208,7 +353,8 @@ public class Gallery extends FadeableObject implements OnItemsSelectionListener
                         mCountdownTimer.start();
                     }
                 } else if (mOnGalleryEventListener != null) {
-                    mOnGalleryEventListener.onVideosSelected((List<Video>) itemList);
+                    // Copy, the item list can change while the videos play
+                    mOnGalleryEventListener.onVideosSelected(new ArrayList<>((List<Video>) itemList));
                 }
                 break;
             default:
@@ -249,6 +395,7 @@ public class Gallery extends FadeableObject implements OnItemsSelectionListener
     }
 
     private void setGridNumColumns(int numColumns) {
+        cancelLoad();
         mItemList.clear();
         mRecyclerView.getAdapter().notifyDataSetChanged();
         ((GridLayoutManager) mRecyclerView.getLayoutManager()).setSpanCount(numColumns);
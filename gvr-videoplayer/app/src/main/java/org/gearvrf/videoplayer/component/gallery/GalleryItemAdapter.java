@@ -33,7 +33,7 @@ import org.gearvrf.videoplayer.model.Album;
 import org.gearvrf.videoplayer.model.GalleryItem;
 import org.gearvrf.videoplayer.model.HomeItem;
 import org.gearvrf.videoplayer.model.Video;
-import org.gearvrf.videoplayer.provider.asyntask.ThumbnailLoader;
+import org.gearvrf.videoplayer.provider.thumbnail.ThumbnailCache;
 import org.gearvrf.videoplayer.util.TimeUtils;
 
 import java.util.List;
@@ -79,7 +79,7 @@ public class GalleryItemAdapter<T extends GalleryItem> extends RecyclerView.Adap
             Album album = (Album) item;
             AlbumViewHolder viewHolder = (AlbumViewHolder) holder;
             viewHolder.mTextView.setText(album.getTitle());
-            new ThumbnailLoader(viewHolder.mThumbnail).execute(album.getVideoForThumbnail().getId());
+            ThumbnailCache.getInstance().loadVideoThumbnail(viewHolder.mThumbnail, album.getVideoForThumbnail().getId());
 
         } else if (item.getType() == GalleryItem.Type.TYPE_VIDEO) {
 
@@ -93,16 +93,25 @@ public class GalleryItemAdapter<T extends GalleryItem> extends RecyclerView.Adap
                 } else {
                     viewHolder.is360 = false;
                 }
-                new ThumbnailLoader(viewHolder.thumbnail).execute(video.getId());
+                ThumbnailCache.getInstance().loadVideoThumbnail(viewHolder.thumbnail, video.getId());
             } else {
                 viewHolder.is360 = false;
-                viewHolder.thumbnail.setImageBitmap(video.getThumbnail());
+                ThumbnailCache.getInstance().loadAssetThumbnail(viewHolder.thumbnail, video.getThumbnailPath());
             }
         } else {
             Log.d(getClass().getSimpleName(), "Unknown type:" + item.getType());
         }
     }
 
+    @Override
+    public void onViewRecycled(@NonNull ViewHolder holder) {
+        if (holder instanceof VideoViewHolder) {
+            ThumbnailCache.getInstance().cancel(((VideoViewHolder) holder).thumbnail);
+        } else if (holder instanceof AlbumViewHolder) {
+            ThumbnailCache.getInstance().cancel(((AlbumViewHolder) holder).mThumbnail);
+        }
+    }
+
     @Override
     public int getItemCount() {
         return mItemList.size();
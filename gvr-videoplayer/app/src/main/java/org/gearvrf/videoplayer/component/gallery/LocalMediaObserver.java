@@ -0,0 +1,135 @@
+/*
+ * Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.gearvrf.videoplayer.component.gallery;
+
+import android.content.ContentResolver;
+import android.content.ContentUris;
+import android.database.ContentObserver;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.provider.MediaStore;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Watches the MediaStore videos and reports which ones changed.
+ * Notifications usually come in bursts while the media scanner runs,
+ * so they are collected for a short while and delivered together
+ * on the main thread.
+ */
+class LocalMediaObserver extends ContentObserver {
+
+    interface OnMediaChangeListener {
+
+        /**
+         * A video was added, updated or deleted.
+         */
+        void onVideoChanged(long videoId);
+
+        /**
+         * Too many or unidentified changes, the whole list has to be reloaded.
+         */
+        void onMediaChanged();
+    }
+
+    private static final long DELAY_MS = 500;
+    private static final int MAX_CHANGED_VIDEOS = 16;
+
+    private final Handler mHandler;
+    private final ContentResolver mContentResolver;
+    private final OnMediaChangeListener mListener;
+    private final Set<Long> mChangedVideos = new LinkedHashSet<>();
+    private boolean mAllChanged = false;
+    private boolean mRegistered = false;
+
+    private final Runnable mDispatch = new Runnable() {
+        @Override
+        public void run() {
+            if (mAllChanged || mChangedVideos.size() > MAX_CHANGED_VIDEOS) {
+                mListener.onMediaChanged();
+            } else {
+                for (long videoId : mChangedVideos) {
+                    mListener.onVideoChanged(videoId);
+                }
+            }
+            mChangedVideos.clear();
+            mAllChanged = false;
+        }
+    };
+
+    LocalMediaObserver(ContentResolver contentResolver, OnMediaChangeListener listener) {
+        this(new Handler(Looper.getMainLooper()), contentResolver, listener);
+    }
+
+    private LocalMediaObserver(Handler handler, ContentResolver contentResolver,
+                               OnMediaChangeListener listener) {
+        super(handler);
+        mHandler = handler;
+        mContentResolver = contentResolver;
+        mListener = listener;
+    }
+
+    void register() {
+        if (!mRegistered) {
+            mContentResolver.registerContentObserver(
+                    MediaStore.Video.Media.EXTERNAL_CONTENT_URI, true, this);
+            mRegistered = true;
+        }
+    }
+
+    void unregister() {
+        if (mRegistered) {
+            mContentResolver.unregisterContentObserver(this);
+            mHandler.removeCallbacks(mDispatch);
+            mChangedVideos.clear();
+            mAllChanged = false;
+            mRegistered = false;
+        }
+    }
+
+    @Override
+    public void onChange(boolean selfChange) {
+        onChange(selfChange, null);
+    }
+
+    @Override
+    public void onChange(boolean selfChange, Uri uri) {
+        long videoId = parseVideoId(uri);
+
+        if (videoId < 0) {
+            mAllChanged = true;
+        } else {
+            mChangedVideos.add(videoId);
+        }
+        mHandler.removeCallbacks(mDispatch);
+        mHandler.postDelayed(mDispatch, DELAY_MS);
+    }
+
+    private static long parseVideoId(Uri uri) {
+        if (uri == null) {
+            return -1;
+        }
+        try {
+            return ContentUris.parseId(uri);
+        } catch (NumberFormatException | UnsupportedOperationException e) {
+            return -1;
+        }
+    }
+}
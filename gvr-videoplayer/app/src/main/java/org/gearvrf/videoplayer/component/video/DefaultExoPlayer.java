@@ -21,8 +21,10 @@ import android.util.Log;
 import android.view.Surface;
 
 import com.google.android.exoplayer2.ExoPlayer;
+import com.google.android.exoplayer2.Format;
 import com.google.android.exoplayer2.Player;
 import com.google.android.exoplayer2.SimpleExoPlayer;
+import com.google.android.exoplayer2.analytics.AnalyticsListener;
 import com.google.android.exoplayer2.source.MediaSource;
 
 import org.gearvrf.scene_objects.GVRVideoSceneObjectPlayer;
@@ -105,10 +107,33 @@ public class DefaultExoPlayer implements GVRVideoSceneObjectPlayer<ExoPlayer> {
         mSimpleExoPlayer.stop();
     }
 
+    /**
+     * @return format of the selected video track, null if not known yet
+     */
+    public Format getVideoFormat() {
+        return mSimpleExoPlayer.getVideoFormat();
+    }
+
     public void seekTo(long position) {
         mSimpleExoPlayer.seekTo(position);
     }
 
+    public void seekTo(int windowIndex, long position) {
+        mSimpleExoPlayer.seekTo(windowIndex, position);
+    }
+
+    public int getCurrentWindowIndex() {
+        return mSimpleExoPlayer.getCurrentWindowIndex();
+    }
+
+    public int getPlaybackState() {
+        return mSimpleExoPlayer.getPlaybackState();
+    }
+
+    public void addAnalyticsListener(AnalyticsListener listener) {
+        mSimpleExoPlayer.addAnalyticsListener(listener);
+    }
+
     public void prepare(MediaSource mediaSource) {
         mSimpleExoPlayer.prepare(mediaSource);
     }
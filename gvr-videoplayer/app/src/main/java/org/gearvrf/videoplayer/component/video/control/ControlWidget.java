@@ -44,6 +44,7 @@ import org.gearvrf.videoplayer.util.TimeUtils;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class ControlWidget extends FadeableObject implements Focusable, View.OnClickListener, SeekBar.OnSeekBarChangeListener, IViewEvents, View.OnHoverListener {
 
@@ -67,6 +68,21 @@ public class ControlWidget extends FadeableObject implements Focusable, View.OnC
     private final AlphaAnimation mFadeOut;
     private final AlphaAnimation mFadeIn;
     private FadeableObject mCursor;
+    private final char[] mElapsedTimeChars = new char[TimeUtils.MAX_DURATION_FULL_CHARS];
+    private int mElapsedTimeSecond = -1;
+    private volatile int mPendingProgress;
+    private final AtomicBoolean mProgressPosted = new AtomicBoolean();
+
+    // Applies the latest progress, however many updates came in since it was posted
+    private final Runnable mUpdateProgress = new Runnable() {
+        @Override
+        public void run() {
+            mProgressPosted.set(false);
+            int progress = mPendingProgress;
+            mSeekBar.setProgress(progress);
+            updateElapsedTimeText(progress);
+        }
+    };
 
     public ControlWidget(final GVRContext gvrContext) {
         super(gvrContext);
@@ -130,13 +146,14 @@ public class ControlWidget extends FadeableObject implements Focusable, View.OnC
         });
     }
 
-    private void updateElapsedTimeText(final int progress) {
-        mElapsedTime.post(new Runnable() {
-            @Override
-            public void run() {
-                mElapsedTime.setText(TimeUtils.formatDurationFull(progress));
-            }
-        });
+    // UI Thread
+    private void updateElapsedTimeText(int progress) {
+        int second = progress / 1000;
+        if (second != mElapsedTimeSecond) {
+            mElapsedTimeSecond = second;
+            int length = TimeUtils.formatDurationFull(progress, mElapsedTimeChars);
+            mElapsedTime.setText(mElapsedTimeChars, 0, length);
+        }
     }
 
     @SuppressLint("SetTextI18n")
@@ -149,14 +166,11 @@ public class ControlWidget extends FadeableObject implements Focusable, View.OnC
         });
     }
 
-    public void setProgress(final int progress) {
-        mSeekBar.post(new Runnable() {
-            @Override
-            public void run() {
-                mSeekBar.setProgress(progress);
-                updateElapsedTimeText(progress);
-            }
-        });
+    public void setProgress(int progress) {
+        mPendingProgress = progress;
+        if (mProgressPosted.compareAndSet(false, true)) {
+            mSeekBar.post(mUpdateProgress);
+        }
     }
 
     public void setMaxProgress(final int maxProgress) {
@@ -36,7 +36,7 @@ import org.gearvrf.videoplayer.component.FadeableObject;
 import org.gearvrf.videoplayer.component.video.player.Player;
 import org.gearvrf.videoplayer.focus.Focusable;
 import org.gearvrf.videoplayer.model.Video;
-import org.gearvrf.videoplayer.provider.asyntask.ThumbnailLoader;
+import org.gearvrf.videoplayer.provider.thumbnail.ThumbnailCache;
 import org.gearvrf.videoplayer.util.TimeUtils;
 
 public class PlayNextDialog extends FadeableObject implements View.OnClickListener, Focusable, IViewEvents {
@@ -120,9 +120,9 @@ public class PlayNextDialog extends FadeableObject implements View.OnClickListen
                 mTitle.setText(video.getTitle());
                 mDuration.setText(TimeUtils.formatDurationFull(video.getDuration()));
                 if (video.getVideoType() == Video.VideoType.LOCAL) {
-                    new ThumbnailLoader(mThumbnail).execute(video.getId());
+                    ThumbnailCache.getInstance().loadVideoThumbnail(mThumbnail, video.getId());
                 } else {
-                    mThumbnail.setImageBitmap(video.getThumbnail());
+                    ThumbnailCache.getInstance().loadAssetThumbnail(mThumbnail, video.getThumbnailPath());
                 }
             }
         });
@@ -13,22 +13,19 @@
  * limitations under the License.
  */
 
-package org.gearvrf.immersivepedia.util;
 
-import android.util.Log;
+package org.gearvrf.videoplayer.component.video.player;
 
-public class FPSCounter {
-    private static int frames = 0;
-    private static long startTimeMillis = 0;
-    private static final long interval = 10000;
-
-    public static void tick() {
-        ++frames;
-        if (System.currentTimeMillis() - startTimeMillis >= interval) {
-            Log.v("test", "FPS : " + frames / (interval / 1000.0f));
-            frames = 0;
-            startTimeMillis = System.currentTimeMillis();
-        }
-    }
+import com.google.android.exoplayer2.upstream.BandwidthMeter;
+import com.google.android.exoplayer2.upstream.TransferListener;
 
+/**
+ * Estimates the network throughput for adaptive streaming.
+ * <p>
+ * The estimator listens to every transfer of the DASH chunk sources and the
+ * adaptive track selection asks it for the bitrate to choose tracks by.
+ * Transfer callbacks come from the loader threads, so implementations
+ * must be thread safe.
+ */
+public interface BandwidthEstimator extends BandwidthMeter, TransferListener<Object> {
 }
@@ -0,0 +1,48 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gearvrf.videoplayer.component.video.player;
+
+import com.google.android.exoplayer2.upstream.DataSpec;
+import com.google.android.exoplayer2.upstream.DefaultBandwidthMeter;
+
+/**
+ * {@link BandwidthEstimator} backed by ExoPlayer's sliding percentile meter.
+ */
+public class DefaultBandwidthEstimator implements BandwidthEstimator {
+
+    private final DefaultBandwidthMeter mMeter = new DefaultBandwidthMeter();
+
+    @Override
+    public long getBitrateEstimate() {
+        return mMeter.getBitrateEstimate();
+    }
+
+    @Override
+    public void onTransferStart(Object source, DataSpec dataSpec) {
+        mMeter.onTransferStart(source, dataSpec);
+    }
+
+    @Override
+    public void onBytesTransferred(Object source, int bytesTransferred) {
+        mMeter.onBytesTransferred(source, bytesTransferred);
+    }
+
+    @Override
+    public void onTransferEnd(Object source) {
+        mMeter.onTransferEnd(source);
+    }
+}
@@ -0,0 +1,166 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gearvrf.videoplayer.component.video.player;
+
+import android.os.SystemClock;
+
+import com.google.android.exoplayer2.upstream.DataSpec;
+
+/**
+ * {@link BandwidthEstimator} which keeps a fast and a slow exponentially
+ * weighted moving average of the throughput and reports the lower one.
+ * <p>
+ * The fast average drops quickly when the network gets congested, the slow
+ * one keeps a short burst from pushing the quality up. Samples are weighted
+ * by their duration and transfers too small to measure are ignored.
+ */
+public class EwmaBandwidthEstimator implements BandwidthEstimator {
+
+    /**
+     * Source of time, replaceable for testing.
+     */
+    public interface Clock {
+        long elapsedRealtime();
+    }
+
+    public static final Clock SYSTEM_CLOCK = new Clock() {
+        @Override
+        public long elapsedRealtime() {
+            return SystemClock.elapsedRealtime();
+        }
+    };
+
+    private static final double DEFAULT_FAST_HALF_LIFE_SECONDS = 2;
+    private static final double DEFAULT_SLOW_HALF_LIFE_SECONDS = 5;
+    private static final long DEFAULT_ESTIMATE = 1000000;
+    private static final long MIN_BYTES_TO_SAMPLE = 16 * 1024;
+    // before this much data was measured the default estimate is used
+    private static final double MIN_TOTAL_SECONDS = 0.5;
+
+    private final Average mFast;
+    private final Average mSlow;
+    private final long mDefaultEstimate;
+    private final Clock mClock;
+    private int mActiveTransfers;
+    private long mSampleStartMs;
+    private long mSampleBytes;
+
+    public EwmaBandwidthEstimator() {
+        this(DEFAULT_FAST_HALF_LIFE_SECONDS, DEFAULT_SLOW_HALF_LIFE_SECONDS, DEFAULT_ESTIMATE);
+    }
+
+    /**
+     * @param fastHalfLife    seconds of transfer after which a sample of the fast
+     *                        average has half of its weight
+     * @param slowHalfLife    the same for the slow average
+     * @param defaultEstimate bits per second reported until enough data was measured
+     */
+    public EwmaBandwidthEstimator(double fastHalfLife, double slowHalfLife, long defaultEstimate) {
+        this(fastHalfLife, slowHalfLife, defaultEstimate, SYSTEM_CLOCK);
+    }
+
+    /**
+     * @param clock measures the duration of the transfers
+     * @see #EwmaBandwidthEstimator(double, double, long)
+     */
+    public EwmaBandwidthEstimator(double fastHalfLife, double slowHalfLife, long defaultEstimate, Clock clock) {
+        mFast = new Average(fastHalfLife);
+        mSlow = new Average(slowHalfLife);
+        mDefaultEstimate = defaultEstimate;
+        mClock = clock;
+    }
+
+    @Override
+    public synchronized long getBitrateEstimate() {
+        if (mFast.mTotalWeight < MIN_TOTAL_SECONDS) {
+            return mDefaultEstimate;
+        }
+        return (long) Math.min(mFast.get(), mSlow.get());
+    }
+
+    /**
+     * Forgets every sample, for example when the device switched networks.
+     * Transfers which are still running keep being measured.
+     */
+    public synchronized void reset() {
+        mFast.reset();
+        mSlow.reset();
+        mSampleBytes = 0;
+        mSampleStartMs = mClock.elapsedRealtime();
+    }
+
+    @Override
+    public synchronized void onTransferStart(Object source, DataSpec dataSpec) {
+        if (mActiveTransfers++ == 0) {
+            mSampleStartMs = mClock.elapsedRealtime();
+        }
+    }
+
+    @Override
+    public synchronized void onBytesTransferred(Object source, int bytesTransferred) {
+        mSampleBytes += bytesTransferred;
+    }
+
+    @Override
+    public synchronized void onTransferEnd(Object source) {
+        if (mActiveTransfers <= 0) {
+            return;
+        }
+        long now = mClock.elapsedRealtime();
+        long elapsedMs = now - mSampleStartMs;
+
+        // concurrent transfers share one sample, so their throughput adds up
+        if (mSampleBytes >= MIN_BYTES_TO_SAMPLE && elapsedMs > 0) {
+            double seconds = elapsedMs / 1000.0;
+            double bitsPerSecond = mSampleBytes * 8 / seconds;
+            mFast.add(seconds, bitsPerSecond);
+            mSlow.add(seconds, bitsPerSecond);
+            mSampleBytes = 0;
+            mSampleStartMs = now;
+        }
+        if (--mActiveTransfers == 0) {
+            // too small to measure, and the idle time until the next transfer must not count
+            mSampleBytes = 0;
+        }
+    }
+
+    private static class Average {
+        private final double mAlpha;
+        private double mEstimate;
+        private double mTotalWeight;
+
+        Average(double halfLife) {
+            mAlpha = Math.exp(Math.log(0.5) / halfLife);
+        }
+
+        void add(double weight, double value) {
+            double adjAlpha = Math.pow(mAlpha, weight);
+            mEstimate = value * (1 - adjAlpha) + adjAlpha * mEstimate;
+            mTotalWeight += weight;
+        }
+
+        void reset() {
+            mEstimate = 0;
+            mTotalWeight = 0;
+        }
+
+        double get() {
+            // remove the bias towards the initial zero estimate
+            return mEstimate / (1 - Math.pow(mAlpha, mTotalWeight));
+        }
+    }
+}
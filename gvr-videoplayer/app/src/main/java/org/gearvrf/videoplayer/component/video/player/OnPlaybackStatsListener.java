@@ -14,21 +14,16 @@
  */
 
 
-package org.gearvrf.cubemap;
+package org.gearvrf.videoplayer.component.video.player;
 
-import android.util.Log;
+import org.gearvrf.videoplayer.model.Video;
 
-public class FPSCounter {
-    private static int frames = 0;
-    private static long startTimeMillis = 0;
-    private static final long interval = 10000;
+public interface OnPlaybackStatsListener {
 
-    public static void tick() {
-        ++frames;
-        if (System.currentTimeMillis() - startTimeMillis >= interval) {
-            Log.v("", "FPS : " + frames / (interval / 1000.0f));
-            frames = 0;
-            startTimeMillis = System.currentTimeMillis();
-        }
-    }
+    /**
+     * Called on the main thread when a video of the playlist stops being
+     * the one played: it ended, the next one was requested or the playlist
+     * was replaced.
+     */
+    void onPlaybackStats(Video video, PlaybackStats stats);
 }
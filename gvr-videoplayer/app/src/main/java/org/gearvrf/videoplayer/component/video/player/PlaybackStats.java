@@ -0,0 +1,147 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gearvrf.videoplayer.component.video.player;
+
+/**
+ * Playback quality of one video of the playlist, from the moment it was
+ * requested until it ended or another video was requested.
+ * <p>
+ * Updated by the {@link Player} on the main thread.
+ */
+public class PlaybackStats {
+
+    private final String mTitle;
+    private final long mRequestedAtMs;
+    private long mStartupLatencyMs = -1;
+    private int mRebufferCount;
+    private long mRebufferTimeMs;
+    private long mRebufferStartMs = -1;
+    private int mBitrateSwitches;
+    private int mVideoBitrate = -1;
+    private int mDroppedFrames;
+    private long mBandwidthEstimate = -1;
+
+    PlaybackStats(String title, long nowMs) {
+        mTitle = title;
+        mRequestedAtMs = nowMs;
+    }
+
+    public String getTitle() {
+        return mTitle;
+    }
+
+    /**
+     * @return milliseconds from the request until the video was ready to play, -1 if not ready yet
+     */
+    public long getStartupLatencyMs() {
+        return mStartupLatencyMs;
+    }
+
+    /**
+     * @return number of times playback stalled after the video was first ready
+     */
+    public int getRebufferCount() {
+        return mRebufferCount;
+    }
+
+    /**
+     * @return milliseconds spent stalled after the video was first ready
+     */
+    public long getRebufferTimeMs() {
+        return mRebufferTimeMs;
+    }
+
+    /**
+     * @return number of times the adaptive selection changed the video track
+     */
+    public int getBitrateSwitches() {
+        return mBitrateSwitches;
+    }
+
+    /**
+     * @return bitrate of the video track being played in bits per second, -1 if unknown
+     */
+    public int getVideoBitrate() {
+        return mVideoBitrate;
+    }
+
+    public int getDroppedFrames() {
+        return mDroppedFrames;
+    }
+
+    /**
+     * @return estimated network bandwidth in bits per second, -1 if unknown
+     */
+    public long getBandwidthEstimate() {
+        return mBandwidthEstimate;
+    }
+
+    void onReady(long nowMs) {
+        if (mStartupLatencyMs < 0) {
+            mStartupLatencyMs = nowMs - mRequestedAtMs;
+        } else {
+            endRebuffer(nowMs);
+        }
+    }
+
+    void onBuffering(long nowMs) {
+        if (mStartupLatencyMs >= 0 && mRebufferStartMs < 0) {
+            mRebufferCount++;
+            mRebufferStartMs = nowMs;
+        }
+    }
+
+    void onVideoBitrate(int bitrate) {
+        if (mVideoBitrate >= 0 && bitrate != mVideoBitrate) {
+            mBitrateSwitches++;
+        }
+        mVideoBitrate = bitrate;
+    }
+
+    void onDroppedFrames(int count) {
+        mDroppedFrames += count;
+    }
+
+    void onBandwidthEstimate(long bitsPerSecond) {
+        mBandwidthEstimate = bitsPerSecond;
+    }
+
+    void onEnd(long nowMs) {
+        endRebuffer(nowMs);
+    }
+
+    private void endRebuffer(long nowMs) {
+        if (mRebufferStartMs >= 0) {
+            mRebufferTimeMs += nowMs - mRebufferStartMs;
+            mRebufferStartMs = -1;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PlaybackStats{" +
+                "title='" + mTitle + '\'' +
+                ", startupLatencyMs=" + mStartupLatencyMs +
+                ", rebufferCount=" + mRebufferCount +
+                ", rebufferTimeMs=" + mRebufferTimeMs +
+                ", bitrateSwitches=" + mBitrateSwitches +
+                ", videoBitrate=" + mVideoBitrate +
+                ", droppedFrames=" + mDroppedFrames +
+                ", bandwidthEstimate=" + mBandwidthEstimate +
+                '}';
+    }
+}
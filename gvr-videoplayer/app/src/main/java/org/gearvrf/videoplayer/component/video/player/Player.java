@@ -22,38 +22,45 @@ import android.net.Uri;
 import android.os.Handler;
 import android.os.Looper;
 import android.os.Message;
+import android.os.SystemClock;
 import android.support.annotation.NonNull;
 import android.view.Surface;
 
+import com.google.android.exoplayer2.C;
 import com.google.android.exoplayer2.ExoPlayerFactory;
+import com.google.android.exoplayer2.Format;
+import com.google.android.exoplayer2.analytics.AnalyticsListener;
+import com.google.android.exoplayer2.analytics.DefaultAnalyticsListener;
 import com.google.android.exoplayer2.extractor.DefaultExtractorsFactory;
+import com.google.android.exoplayer2.source.ConcatenatingMediaSource;
 import com.google.android.exoplayer2.source.ExtractorMediaSource;
 import com.google.android.exoplayer2.source.MediaSource;
+import com.google.android.exoplayer2.source.MediaSourceEventListener.MediaLoadData;
 import com.google.android.exoplayer2.source.dash.DashChunkSource;
 import com.google.android.exoplayer2.source.dash.DashMediaSource;
 import com.google.android.exoplayer2.source.dash.DefaultDashChunkSource;
+import com.google.android.exoplayer2.trackselection.AdaptiveTrackSelection;
 import com.google.android.exoplayer2.trackselection.DefaultTrackSelector;
 import com.google.android.exoplayer2.upstream.DataSource;
-import com.google.android.exoplayer2.upstream.DefaultBandwidthMeter;
 import com.google.android.exoplayer2.upstream.DefaultHttpDataSourceFactory;
 import com.google.android.exoplayer2.upstream.FileDataSource;
 import com.google.android.exoplayer2.util.Util;
 
 import org.gearvrf.GVRContext;
 import org.gearvrf.GVRExternalTexture;
+import org.gearvrf.GVRMesh;
 import org.gearvrf.GVRMeshCollider;
 import org.gearvrf.GVRSceneObject;
 import org.gearvrf.GVRTransform;
-import org.gearvrf.scene_objects.GVRSphereSceneObject;
 import org.gearvrf.scene_objects.GVRVideoSceneObject;
 import org.gearvrf.scene_objects.GVRVideoSceneObject.GVRVideoType;
+import org.gearvrf.videoplayer.BuildConfig;
 import org.gearvrf.videoplayer.VideoPlayerApp;
 import org.gearvrf.videoplayer.component.FadeableObject;
 import org.gearvrf.videoplayer.component.video.DefaultExoPlayer;
 import org.gearvrf.videoplayer.model.Video;
 
 import java.util.Arrays;
-import java.util.LinkedList;
 import java.util.List;
 
 import static com.google.android.exoplayer2.Player.STATE_BUFFERING;
@@ -62,27 +69,48 @@ import static com.google.android.exoplayer2.Player.STATE_READY;
 public class Player extends FadeableObject {
 
     private static final String TAG = Player.class.getSimpleName();
-    private static final DefaultBandwidthMeter BANDWIDTH_METER = new DefaultBandwidthMeter();
+    private static final int DEFAULT_LOCAL_PREBUFFER_DEPTH = 2;
+    private static final int DEFAULT_DASH_PREBUFFER_DEPTH = 1;
 
     private GVRContext mGvrContext;
     private DefaultExoPlayer mMediaPlayer;
     private Video[] mFiles;
-    private LinkedList<Video> mPlayingNowQueue;
+    private ConcatenatingMediaSource mPlaylist;
+    private int mPlayingNowIndex;
+    private int mAppendedCount;
+    private int mLocalPrebufferDepth = DEFAULT_LOCAL_PREBUFFER_DEPTH;
+    private int mDashPrebufferDepth = DEFAULT_DASH_PREBUFFER_DEPTH;
+    private boolean mHoldAtItemStart;
+    private long mNextRequestedTime;
     private DataSource.Factory mFileDataSourceFactory;
     private DataSource.Factory mManifestDataSourceFactory;
     private DashChunkSource.Factory mDashChunkSourceFactory;
+    private BandwidthEstimator mBandwidthEstimator;
+    private PlaybackStats mPlaybackStats;
+    private OnPlaybackStatsListener mOnPlaybackStatsListener;
     private Video mPlayingNow;
     private OnPlayerListener mOnVideoPlayerListener;
     private ProgressHandler mProgressHandler = new ProgressHandler();
     private boolean mIsPlaying;
+    private boolean mShadowed;
     private GVRVideoSceneObject mVideo;
     private GVRVideoSceneObject mFlatVideo;
     private GVRVideoSceneObject m360Video;
+    private GVRExternalTexture mVideoTexture;
 
     public Player(final GVRContext gvrContext) {
+        this(gvrContext, new DefaultBandwidthEstimator());
+    }
+
+    /**
+     * @param bandwidthEstimator measures the DASH downloads and drives
+     *                           the adaptive track selection
+     */
+    public Player(final GVRContext gvrContext, @NonNull BandwidthEstimator bandwidthEstimator) {
         super(gvrContext);
 
         this.mGvrContext = gvrContext;
+        this.mBandwidthEstimator = bandwidthEstimator;
 
         this.mFileDataSourceFactory = new DataSource.Factory() {
             @Override
@@ -93,15 +121,23 @@ public class Player extends FadeableObject {
 
         createDashFactories();
         createVideoSceneObject();
+        if (BuildConfig.DEBUG) {
+            SphereMeshCache.logEagerBaseline(gvrContext);
+        }
     }
 
     private void createVideoSceneObject() {
+        long start = System.nanoTime();
         GVRExternalTexture texture = new GVRExternalTexture(mGvrContext);
         SurfaceTexture surfaceTexture = new SurfaceTexture(texture.getId());
         Surface surface = new Surface(surfaceTexture);
 
-        mMediaPlayer = new DefaultExoPlayer(ExoPlayerFactory.newSimpleInstance(mGvrContext.getContext(), new DefaultTrackSelector()));
+        mVideoTexture = texture;
+        DefaultTrackSelector trackSelector = new DefaultTrackSelector(
+                new AdaptiveTrackSelection.Factory(mBandwidthEstimator));
+        mMediaPlayer = new DefaultExoPlayer(ExoPlayerFactory.newSimpleInstance(mGvrContext.getContext(), trackSelector));
         mMediaPlayer.getPlayer().addListener(mPlayerListener);
+        mMediaPlayer.addAnalyticsListener(mAnalyticsListener);
 
         mFlatVideo = new GVRVideoSceneObject(mGvrContext, mGvrContext.createQuad(1, .6f), mMediaPlayer, texture, GVRVideoType.MONO);
         mFlatVideo.attachCollider(new GVRMeshCollider(getGVRContext(), true));
@@ -109,28 +145,53 @@ public class Player extends FadeableObject {
         mFlatVideo.getTransform().setPositionZ(-8.1f);
         addChildObject(mFlatVideo);
 
-        GVRSphereSceneObject sphere = new GVRSphereSceneObject(mGvrContext, 72, 144, false);
-        m360Video = new GVRVideoSceneObject(mGvrContext, sphere.getRenderData().getMesh(), mMediaPlayer, texture, GVRVideoType.MONO);
-        m360Video.getTransform().setScale(100f, 100f, 100f);
-        addChildObject(m360Video);
-
         setFlatPlayer();
+        logd("Video scene objects created in " + (System.nanoTime() - start) / 1000 + " us");
+    }
+
+    /**
+     * The 360 video sphere is only created when the first 360 video is
+     * played. Its mesh is shared by all players and chosen by video size.
+     */
+    private void create360VideoSceneObject(int videoWidth) {
+        GVRMesh mesh = SphereMeshCache.get(mGvrContext, videoWidth);
+        if (m360Video == null) {
+            m360Video = new GVRVideoSceneObject(mGvrContext, mesh, mMediaPlayer, mVideoTexture, GVRVideoType.MONO);
+            m360Video.getTransform().setScale(100f, 100f, 100f);
+            if (mShadowed) {
+                setShadowColor(m360Video);
+            }
+            addChildObject(m360Video);
+        } else if (m360Video.getRenderData().getMesh() != mesh) {
+            m360Video.getRenderData().setMesh(mesh);
+        }
     }
 
     public void shadow() {
+        mShadowed = true;
+        setShadowColor(mFlatVideo);
+        if (m360Video != null) {
+            setShadowColor(m360Video);
+        }
+    }
+
+    private static void setShadowColor(GVRSceneObject video) {
         float[] color = {0.4f, 0.4f, 0.4f};
-        mFlatVideo.getRenderData().getMaterial().setColor(color[0], color[1], color[2]);
-        m360Video.getRenderData().getMaterial().setColor(color[0], color[1], color[2]);
+        video.getRenderData().getMaterial().setColor(color[0], color[1], color[2]);
     }
 
     private void set360Player() {
+        Format format = mMediaPlayer.getVideoFormat();
+        create360VideoSceneObject(format != null ? format.width : 0);
         mFlatVideo.setEnable(false);
         m360Video.setEnable(true);
         mVideo = m360Video;
     }
 
     private void setFlatPlayer() {
-        m360Video.setEnable(false);
+        if (m360Video != null) {
+            m360Video.setEnable(false);
+        }
         mFlatVideo.setEnable(true);
         mVideo = mFlatVideo;
     }
@@ -172,37 +233,140 @@ public class Player extends FadeableObject {
 
     public void setProgress(long progress) {
         mMediaPlayer.seekTo(progress);
-    }
-
+        mProgressHandler.restart();
+    }
+
+    /**
+     * Sets how many upcoming videos of the playlist are added to the player
+     * ahead of time, so it can buffer them before they are played.
+     *
+     * @param localDepth number of upcoming local videos
+     * @param dashDepth  number of upcoming streamed videos
+     */
+    public void setPrebufferDepth(int localDepth, int dashDepth) {
+        mLocalPrebufferDepth = Math.max(1, localDepth);
+        mDashPrebufferDepth = Math.max(1, dashDepth);
+        appendUpcoming();
+    }
+
+    /**
+     * Prepares the videos as a single playlist. The player moves on to the
+     * next video without preparing it again, but stops at the start of each
+     * video until {@link #prepareNextFile()} is called.
+     */
     public void prepare(@NonNull List<Video> videos) {
         mMediaPlayer.pause();
         if (videos.size() > 0) {
             mFiles = videos.toArray(new Video[videos.size()]);
-            mPlayingNowQueue = new LinkedList<>(videos);
-            logd("preparedQueue: " + mPlayingNowQueue);
-            prepareNextFile();
+            mPlaylist = new ConcatenatingMediaSource();
+            mPlayingNowIndex = 0;
+            mAppendedCount = 0;
+            mHoldAtItemStart = false;
+            endPlaybackStats();
+            mPlayingNow = mFiles[0];
+            startPlaybackStats();
+            appendUpcoming();
+            logd("preparedQueue: " + Arrays.toString(mFiles));
+            mMediaPlayer.prepare(mPlaylist);
+            logd("selectedFile: " + mPlayingNow);
         } else {
             logd("Files array is empty");
         }
     }
 
-    private void resetQueue() {
-        mPlayingNowQueue = new LinkedList<>(Arrays.asList(mFiles));
-    }
-
     public void prepareNextFile() {
-        if (mPlayingNowQueue != null && !mPlayingNowQueue.isEmpty()) {
+        if (hasNextToPlay()) {
             mMediaPlayer.pause();
-            mPlayingNow = mPlayingNowQueue.pop();
-            MediaSource mediaSource = null;
-            if (mPlayingNow.getVideoType() == Video.VideoType.LOCAL) {
-                mediaSource = fileMediaSource(mPlayingNow);
-            } else {
-                mediaSource = dashMediaSource(mPlayingNow);
+            mNextRequestedTime = System.nanoTime();
+            endPlaybackStats();
+            mPlayingNow = mFiles[++mPlayingNowIndex];
+            startPlaybackStats();
+            appendUpcoming();
+            if (mMediaPlayer.getCurrentWindowIndex() != mPlayingNowIndex) {
+                mMediaPlayer.seekTo(mPlayingNowIndex, 0);
             }
-
-            mMediaPlayer.prepare(mediaSource);
+            mHoldAtItemStart = false;
             logd("selectedFile: " + mPlayingNow);
+
+            if (mMediaPlayer.getPlaybackState() == STATE_READY) {
+                // already buffered while the previous video was playing
+                mPlaybackStats.onReady(SystemClock.elapsedRealtime());
+                notifyVideoPrepared(getPlayingNowName(), mMediaPlayer.getDuration());
+            }
+        }
+    }
+
+    /**
+     * Adds the upcoming videos within the pre-buffer depth to the playlist.
+     */
+    private void appendUpcoming() {
+        if (mPlaylist == null) {
+            return;
+        }
+        while (mAppendedCount < mFiles.length) {
+            Video video = mFiles[mAppendedCount];
+            boolean local = video.getVideoType() == Video.VideoType.LOCAL;
+            int depth = local ? mLocalPrebufferDepth : mDashPrebufferDepth;
+            if (mAppendedCount > mPlayingNowIndex + depth) {
+                break;
+            }
+            mPlaylist.addMediaSource(local ? fileMediaSource(video) : dashMediaSource(video));
+            mAppendedCount++;
+        }
+    }
+
+    /**
+     * Called when the player moved on to the next video of the playlist.
+     * Holds it at its start so the play next dialog can be shown.
+     */
+    private void onItemEnded() {
+        logd("Video ended: " + getPlayingNowName());
+        mHoldAtItemStart = true;
+        endPlaybackStats();
+        mMediaPlayer.pause();
+        mMediaPlayer.seekTo(mMediaPlayer.getCurrentWindowIndex(), 0);
+        notifyVideoEnded();
+    }
+
+    public void setOnPlaybackStatsListener(OnPlaybackStatsListener listener) {
+        this.mOnPlaybackStatsListener = listener;
+    }
+
+    /**
+     * @return quality of the current video so far, null before the first video is prepared
+     */
+    public PlaybackStats getPlaybackStats() {
+        if (mPlaybackStats != null) {
+            mPlaybackStats.onBandwidthEstimate(mBandwidthEstimator.getBitrateEstimate());
+        }
+        return mPlaybackStats;
+    }
+
+    /**
+     * @return estimated network bandwidth in bits per second
+     */
+    public long getBandwidthEstimate() {
+        return mBandwidthEstimator.getBitrateEstimate();
+    }
+
+    private void startPlaybackStats() {
+        mPlaybackStats = new PlaybackStats(getPlayingNowName(), SystemClock.elapsedRealtime());
+    }
+
+    /**
+     * Closes the stats of the current video and reports them, once.
+     */
+    private void endPlaybackStats() {
+        PlaybackStats stats = mPlaybackStats;
+        if (stats == null || mPlayingNow == null) {
+            return;
+        }
+        mPlaybackStats = null;
+        stats.onEnd(SystemClock.elapsedRealtime());
+        stats.onBandwidthEstimate(mBandwidthEstimator.getBitrateEstimate());
+        logd(stats.toString());
+        if (mOnPlaybackStatsListener != null) {
+            mOnPlaybackStatsListener.onPlaybackStats(mPlayingNow, stats);
         }
     }
 
@@ -210,7 +374,7 @@ public class Player extends FadeableObject {
         Context context = VideoPlayerApp.getInstance().getApplicationContext();
         String userAgent = Util.getUserAgent(context, "videoplayer");
         mManifestDataSourceFactory = new DefaultHttpDataSourceFactory(userAgent);
-        mDashChunkSourceFactory = new DefaultDashChunkSource.Factory(new DefaultHttpDataSourceFactory(userAgent, BANDWIDTH_METER));
+        mDashChunkSourceFactory = new DefaultDashChunkSource.Factory(new DefaultHttpDataSourceFactory(userAgent, mBandwidthEstimator));
     }
 
     private MediaSource dashMediaSource(Video video) {
@@ -236,13 +400,11 @@ public class Player extends FadeableObject {
     }
 
     public boolean hasNextToPlay() {
-        return mPlayingNowQueue != null && mPlayingNowQueue.size() > 0;
+        return mFiles != null && mPlayingNowIndex < mFiles.length - 1;
     }
 
     public int getNextIndexToPlay() {
-        return mPlayingNowQueue != null && mPlayingNowQueue.size() > 0
-                ? mFiles.length - mPlayingNowQueue.size()
-                : 0;
+        return hasNextToPlay() ? mPlayingNowIndex + 1 : 0;
     }
 
     public void setOnVideoPlayerListener(OnPlayerListener listener) {
@@ -301,9 +463,18 @@ public class Player extends FadeableObject {
         return mVideo;
     }
 
+    /**
+     * Reports the progress once per second of video, right after the
+     * second shown by the controls changes, instead of polling.
+     */
     @SuppressLint("HandlerLeak")
     private class ProgressHandler extends Handler {
 
+        // wake up a little late so the new second has surely started
+        private static final long SLACK_MS = 10;
+
+        private long mLastSecond = -1;
+
         ProgressHandler() {
             super(Looper.getMainLooper());
         }
@@ -311,8 +482,13 @@ public class Player extends FadeableObject {
         @Override
         public void handleMessage(Message msg) {
             if (mOnVideoPlayerListener != null && mIsPlaying) {
-                mOnVideoPlayerListener.onProgress(mMediaPlayer.getCurrentPosition());
-                sendEmptyMessageDelayed(0, 100);
+                long position = mMediaPlayer.getCurrentPosition();
+                long second = position / 1000;
+                if (second != mLastSecond) {
+                    mLastSecond = second;
+                    mOnVideoPlayerListener.onProgress(position);
+                }
+                sendEmptyMessageDelayed(0, 1000 - position % 1000 + SLACK_MS);
             } else {
                 logd("Progress stopped");
             }
@@ -321,9 +497,19 @@ public class Player extends FadeableObject {
         void start() {
             logd("Progress started");
             if (!hasMessages(0)) {
+                mLastSecond = -1;
                 sendEmptyMessage(0);
             }
         }
+
+        /**
+         * Report the progress now, e.g. after a seek.
+         */
+        void restart() {
+            removeMessages(0);
+            mLastSecond = -1;
+            sendEmptyMessage(0);
+        }
     }
 
     private com.google.android.exoplayer2.Player.EventListener mPlayerListener = new com.google.android.exoplayer2.Player.DefaultEventListener() {
@@ -335,6 +521,14 @@ public class Player extends FadeableObject {
 
             mIsPlaying = playbackState == STATE_READY && playWhenReady;
 
+            if (mPlaybackStats != null && !mHoldAtItemStart) {
+                if (playbackState == STATE_READY) {
+                    mPlaybackStats.onReady(SystemClock.elapsedRealtime());
+                } else if (playbackState == STATE_BUFFERING) {
+                    mPlaybackStats.onBuffering(SystemClock.elapsedRealtime());
+                }
+            }
+
             if (playbackState == STATE_READY) {
 
                 if (mPreviousState == STATE_BUFFERING) {
@@ -342,10 +536,14 @@ public class Player extends FadeableObject {
                 }
 
                 if (playWhenReady) {
+                    if (mNextRequestedTime != 0) {
+                        logd("Time to first frame: " + (System.nanoTime() - mNextRequestedTime) / 1000000 + " ms");
+                        mNextRequestedTime = 0;
+                    }
                     logd("Video started " + getPlayingNowName());
                     notifyVideoStarted();
                     mProgressHandler.start();
-                } else {
+                } else if (!mHoldAtItemStart) {
                     if (mMediaPlayer.getCurrentPosition() == 0) {
                         logd("Video prepared: " + getPlayingNowName());
                         notifyVideoPrepared(getPlayingNowName(), mMediaPlayer.getDuration());
@@ -355,11 +553,11 @@ public class Player extends FadeableObject {
             } else if (playbackState == com.google.android.exoplayer2.Player.STATE_ENDED) {
 
                 logd("Video ended: " + getPlayingNowName());
+                endPlaybackStats();
                 notifyVideoEnded();
 
-                if (mPlayingNowQueue != null && mPlayingNowQueue.isEmpty()) {
+                if (!hasNextToPlay()) {
                     logd("All videos ended: " + getPlayingNowName());
-                    // resetQueue();
                     notifyAllVideosEnded();
                 }
 
@@ -375,6 +573,34 @@ public class Player extends FadeableObject {
             mPreviousState = playbackState;
         }
 
+        @Override
+        public void onPositionDiscontinuity(int reason) {
+            if (reason == com.google.android.exoplayer2.Player.DISCONTINUITY_REASON_PERIOD_TRANSITION
+                    && mMediaPlayer.getCurrentWindowIndex() != mPlayingNowIndex) {
+                onItemEnded();
+            }
+        }
+
+    };
+
+    private AnalyticsListener mAnalyticsListener = new DefaultAnalyticsListener() {
+
+        @Override
+        public void onDroppedVideoFrames(EventTime eventTime, int droppedFrames, long elapsedMs) {
+            if (mPlaybackStats != null) {
+                mPlaybackStats.onDroppedFrames(droppedFrames);
+            }
+        }
+
+        @Override
+        public void onDownstreamFormatChanged(EventTime eventTime, MediaLoadData mediaLoadData) {
+            if (mPlaybackStats != null
+                    && eventTime.windowIndex == mPlayingNowIndex
+                    && mediaLoadData.trackType == C.TRACK_TYPE_VIDEO
+                    && mediaLoadData.trackFormat != null) {
+                mPlaybackStats.onVideoBitrate(mediaLoadData.trackFormat.bitrate);
+            }
+        }
     };
 
     public void reposition(float[] newModelMatrix) {
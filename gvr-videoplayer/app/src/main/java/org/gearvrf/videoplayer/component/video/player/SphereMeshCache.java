@@ -0,0 +1,124 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.videoplayer.component.video.player;
+
+import android.util.Log;
+
+import org.gearvrf.GVRContext;
+import org.gearvrf.GVRIndexBuffer;
+import org.gearvrf.GVRMesh;
+import org.gearvrf.GVRVertexBuffer;
+import org.gearvrf.scene_objects.GVRSphereSceneObject;
+
+/**
+ * Process wide cache of the sphere meshes 360 videos are projected on.
+ * <p>
+ * A mesh is only built the first time a video needs it, and its resolution
+ * follows the width of the video: a low resolution video gains nothing from
+ * a dense sphere.
+ * <p>
+ * Every build is logged with its time and vertex and index bytes. In debug
+ * builds {@link #logEagerBaseline(GVRContext)} logs the same figures for the
+ * finest sphere, which the player used to build up front, so both paths can
+ * be compared in one log.
+ */
+final class SphereMeshCache {
+
+    private static final String TAG = SphereMeshCache.class.getSimpleName();
+
+    // stacks and slices, from the coarsest to the finest sphere
+    private static final int[][] RESOLUTIONS = {{36, 72}, {54, 108}, {72, 144}};
+    private static final int[] MAX_VIDEO_WIDTHS = {1920, 3840};
+
+    private static GVRContext sContext;
+    private static final GVRMesh[] sMeshes = new GVRMesh[RESOLUTIONS.length];
+
+    private SphereMeshCache() {
+    }
+
+    /**
+     * @param videoWidth width of the video in pixels, 0 if not known yet
+     */
+    static synchronized GVRMesh get(GVRContext gvrContext, int videoWidth) {
+        if (sContext != gvrContext) {
+            sContext = gvrContext;
+            for (int i = 0; i < sMeshes.length; i++) {
+                sMeshes[i] = null;
+            }
+        }
+
+        int level = resolutionFor(videoWidth);
+        if (sMeshes[level] == null) {
+            long start = System.nanoTime();
+            sMeshes[level] = build(gvrContext, RESOLUTIONS[level]);
+            log("Lazy, video width " + videoWidth, RESOLUTIONS[level], System.nanoTime() - start, sMeshes[level]);
+        }
+        return sMeshes[level];
+    }
+
+    /**
+     * Builds and logs the finest sphere the way the player used to build it
+     * in its constructor, without caching it.
+     */
+    static void logEagerBaseline(GVRContext gvrContext) {
+        int[] resolution = RESOLUTIONS[RESOLUTIONS.length - 1];
+        long start = System.nanoTime();
+        GVRMesh mesh = build(gvrContext, resolution);
+        log("Eager", resolution, System.nanoTime() - start, mesh);
+    }
+
+    static int resolutionFor(int videoWidth) {
+        if (videoWidth <= 0) {
+            return RESOLUTIONS.length - 1;
+        }
+        for (int i = 0; i < MAX_VIDEO_WIDTHS.length; i++) {
+            if (videoWidth <= MAX_VIDEO_WIDTHS[i]) {
+                return i;
+            }
+        }
+        return RESOLUTIONS.length - 1;
+    }
+
+    private static GVRMesh build(GVRContext gvrContext, int[] resolution) {
+        return new GVRSphereSceneObject(gvrContext, resolution[0], resolution[1], false)
+                .getRenderData().getMesh();
+    }
+
+    private static void log(String path, int[] resolution, long nanos, GVRMesh mesh) {
+        Log.d(TAG, path + ": sphere " + resolution[0] + "x" + resolution[1]
+                + " built in " + nanos / 1000 + " us, "
+                + getVertexBytes(mesh) + " vertex bytes, "
+                + getIndexBytes(mesh) + " index bytes");
+    }
+
+    private static long getVertexBytes(GVRMesh mesh) {
+        GVRVertexBuffer vertices = mesh.getVertexBuffer();
+        long stride = 0;
+
+        for (String token : vertices.getDescriptor().split(" ")) {
+            if (token.startsWith("float") || token.startsWith("int")) {
+                String size = token.replaceAll("[^0-9]", "");
+                stride += 4 * (size.isEmpty() ? 1 : Integer.parseInt(size));
+            }
+        }
+        return stride * vertices.getVertexCount();
+    }
+
+    private static long getIndexBytes(GVRMesh mesh) {
+        GVRIndexBuffer indices = mesh.getIndexBuffer();
+        return (indices != null) ? (long) indices.getIndexSize() * indices.getIndexCount() : 0;
+    }
+}
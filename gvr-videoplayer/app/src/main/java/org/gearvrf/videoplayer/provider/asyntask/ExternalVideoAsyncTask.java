@@ -17,99 +17,74 @@
 
 package org.gearvrf.videoplayer.provider.asyntask;
 
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.os.AsyncTask;
 import android.support.annotation.NonNull;
 import android.util.Log;
 
 import org.gearvrf.videoplayer.VideoPlayerApp;
 import org.gearvrf.videoplayer.model.Video;
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
-public class ExternalVideoAsyncTask extends AsyncTask<Void, Void, List<Video>> {
+public class ExternalVideoAsyncTask extends AsyncTask<Void, PagedAsyncTask.Page<Video>, Integer> {
 
     private static final String TAG = ExternalVideoAsyncTask.class.getSimpleName();
+    private static final String CATALOG_FILE = "external_videos.json";
 
-    private GetDataCallback<List<Video>> mGetDataCallback;
+    private GetPagedDataCallback<Video> mGetPagedDataCallback;
 
-    public ExternalVideoAsyncTask(@NonNull GetDataCallback<List<Video>> mGetDataCallback) {
-        this.mGetDataCallback = mGetDataCallback;
+    public ExternalVideoAsyncTask(@NonNull GetPagedDataCallback<Video> getPagedDataCallback) {
+        this.mGetPagedDataCallback = getPagedDataCallback;
     }
 
     @Override
-    protected List<Video> doInBackground(Void... voids) {
-        return loadVideos();
-    }
+    @SuppressWarnings("unchecked")
+    protected Integer doInBackground(Void... voids) {
+        int offset = 0;
+        int limit = PagedAsyncTask.FIRST_PAGE_SIZE;
+        List<Video> page = new ArrayList<>(limit);
 
-    public List<Video> loadVideos() {
-        List<Video> videos = new LinkedList<>();
-        JSONObject videosJSON = loadJSONFromFile();
-        try {
-            JSONArray jsonArray = videosJSON.getJSONArray("videos");
-            int arrayLength = jsonArray.length();
-            for (int i = 0; i < arrayLength; i++) {
-                JSONObject jsonObject = jsonArray.getJSONObject(i);
-                Video video = new Video(jsonObject.getInt("id"), jsonObject.getString("name"),
-                                        jsonObject.getString("uri"), jsonObject.getInt("duration"),
-                                        false, false, false, Video.VideoType.EXTERNAL);
+        try (InputStream in = VideoPlayerApp.getInstance().getAssets().open(CATALOG_FILE);
+             VideoCatalogReader reader = new VideoCatalogReader(in)) {
 
-                video.setThumbnail(loadBitmap(jsonObject.getString("thumbnail")));
-                videos.add(video);
+            Video video;
+            while (!isCancelled() && (video = reader.next()) != null) {
+                page.add(video);
+                if (page.size() == limit) {
+                    publishProgress(new PagedAsyncTask.Page<>(page, offset));
+                    offset += page.size();
+                    limit = PagedAsyncTask.PAGE_SIZE;
+                    page = new ArrayList<>(limit);
+                }
             }
-        } catch (JSONException e) {
-            Log.e(TAG, "Could not load videos info from JSON file");
-            e.printStackTrace();
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            Log.e(TAG, "Could not load videos info from JSON file", e);
         }
 
-        return videos;
-    }
-
-    @Override
-    protected void onPostExecute(List<Video> videos) {
-        super.onPostExecute(videos);
-        if (mGetDataCallback != null) {
-            mGetDataCallback.onResult(videos);
+        if (!page.isEmpty()) {
+            publishProgress(new PagedAsyncTask.Page<>(page, offset));
+            offset += page.size();
         }
+        return offset;
     }
 
-    private JSONObject loadJSONFromFile() {
-        String jsonFile;
-        JSONObject json = null;
-        try {
-            InputStream is = VideoPlayerApp.getInstance().getAssets().open("external_videos.json");
-            int size = is.available();
-            byte[] buffer = new byte[size];
-            is.read(buffer);
-            is.close();
-            jsonFile = new String(buffer, "UTF-8");
-            json = new JSONObject(jsonFile);
-        } catch (IOException e) {
-            Log.e(TAG, "Could not load JSON file");
-            e.printStackTrace();
-        } catch (JSONException e) {
-            Log.e(TAG, "Could not load JSON file");
-            e.printStackTrace();
+    @SafeVarargs
+    @Override
+    protected final void onProgressUpdate(PagedAsyncTask.Page<Video>... pages) {
+        if (mGetPagedDataCallback != null && !isCancelled()) {
+            for (PagedAsyncTask.Page<Video> page : pages) {
+                mGetPagedDataCallback.onPage(page.items, page.offset);
+            }
         }
-        return json;
     }
 
-    private Bitmap loadBitmap(String thumbnailPath) {
-        Bitmap bitmap = null;
-        try {
-            InputStream is = VideoPlayerApp.getInstance().getAssets().open(thumbnailPath);
-            bitmap = BitmapFactory.decodeStream(is);
-        } catch (IOException e) {
-            Log.e(TAG, "Could not load thumbnail");
-            e.printStackTrace();
+    @Override
+    protected void onPostExecute(Integer count) {
+        if (mGetPagedDataCallback != null) {
+            mGetPagedDataCallback.onComplete(count);
         }
-        return bitmap;
     }
 }
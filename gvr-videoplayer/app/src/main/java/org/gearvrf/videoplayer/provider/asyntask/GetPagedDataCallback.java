@@ -0,0 +1,38 @@
+/*
+ * Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.gearvrf.videoplayer.provider.asyntask;
+
+import java.util.List;
+
+/**
+ * Receives the results of a {@link PagedAsyncTask} page by page
+ * on the UI thread.
+ */
+public interface GetPagedDataCallback<T> {
+
+    /**
+     * @param page   items of this page, in order
+     * @param offset position of the first item of the page in the whole result
+     */
+    void onPage(List<T> page, int offset);
+
+    /**
+     * @param count total number of items loaded
+     */
+    void onComplete(int count);
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.gearvrf.videoplayer.provider.asyntask;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.database.Cursor;
+import android.os.AsyncTask;
+import android.os.Build;
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.provider.MediaStore.Video.Media;
+import android.provider.MediaStore.Video.VideoColumns;
+import android.util.Log;
+
+import org.gearvrf.videoplayer.VideoPlayerApp;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Queries the local videos in pages of LIMIT/OFFSET and publishes each page
+ * as soon as it is read, so the first items show up after one small query
+ * no matter how big the library is. From Android 11 the page is passed as
+ * {@link ContentResolver#QUERY_ARG_LIMIT} and {@link ContentResolver#QUERY_ARG_OFFSET},
+ * since MediaStore rejects a LIMIT clause in the sort order there.
+ */
+public abstract class PagedAsyncTask<T> extends AsyncTask<Void, PagedAsyncTask.Page<T>, Integer> {
+
+    private static final String TAG = PagedAsyncTask.class.getSimpleName();
+
+    static final int FIRST_PAGE_SIZE = 24;
+    static final int PAGE_SIZE = 200;
+
+    // Build.VERSION_CODES.R, newer than the compileSdkVersion
+    private static final int ANDROID_R = 30;
+
+    private GetPagedDataCallback<T> mGetPagedDataCallback;
+
+    static final class Page<T> {
+        final List<T> items;
+        final int offset;
+
+        Page(List<T> items, int offset) {
+            this.items = items;
+            this.offset = offset;
+        }
+    }
+
+    PagedAsyncTask() {
+    }
+
+    PagedAsyncTask(GetPagedDataCallback<T> getPagedDataCallback) {
+        this.mGetPagedDataCallback = getPagedDataCallback;
+    }
+
+    protected abstract String getSelection();
+
+    protected abstract String[] getSelectionArgs();
+
+    protected abstract String getSortOrder();
+
+    protected abstract T createItem(VideoCursorReader reader);
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected Integer doInBackground(Void... voids) {
+        long start = SystemClock.elapsedRealtime();
+        int offset = 0;
+        int limit = FIRST_PAGE_SIZE;
+
+        while (!isCancelled()) {
+            List<T> items = new ArrayList<>(limit);
+            int count = loadPage(null, null, offset, limit, items);
+
+            if (offset == 0) {
+                Log.d(TAG, getClass().getSimpleName() + " first page in "
+                        + (SystemClock.elapsedRealtime() - start) + " ms");
+            }
+            if (!items.isEmpty()) {
+                publishProgress(new Page<>(items, offset));
+            }
+            offset += count;
+            if (count < limit) {
+                break;
+            }
+            limit = PAGE_SIZE;
+        }
+        Log.d(TAG, getClass().getSimpleName() + " loaded " + offset + " items in "
+                + (SystemClock.elapsedRealtime() - start) + " ms");
+        return offset;
+    }
+
+    @SafeVarargs
+    @Override
+    protected final void onProgressUpdate(Page<T>... pages) {
+        if (mGetPagedDataCallback != null && !isCancelled()) {
+            for (Page<T> page : pages) {
+                mGetPagedDataCallback.onPage(page.items, page.offset);
+            }
+        }
+    }
+
+    @Override
+    protected void onPostExecute(Integer count) {
+        if (mGetPagedDataCallback != null) {
+            mGetPagedDataCallback.onComplete(count);
+        }
+    }
+
+    /**
+     * Load every item synchronously on the calling thread.
+     */
+    public List<T> loadAll() {
+        List<T> items = new ArrayList<>();
+        int offset = 0;
+        int count;
+
+        do {
+            count = loadPage(null, null, offset, PAGE_SIZE, items);
+            offset += count;
+        } while (count == PAGE_SIZE);
+        return items;
+    }
+
+    /**
+     * Look up the item produced by a single video, if the video
+     * still exists and matches this task's selection.
+     * Called on a background thread.
+     *
+     * @param videoId MediaStore id of the video
+     * @return the item or null
+     */
+    public T loadById(long videoId) {
+        List<T> items = new ArrayList<>(1);
+
+        loadPage(VideoColumns._ID + "=?", String.valueOf(videoId), 0, 1, items);
+        return items.isEmpty() ? null : items.get(0);
+    }
+
+    private int loadPage(String extraSelection, String extraArg, int offset, int limit, List<T> out) {
+
+        Context context = VideoPlayerApp.getInstance().getApplicationContext();
+        String selection = getSelection();
+        String[] selectionArgs = getSelectionArgs();
+
+        if (extraSelection != null) {
+            // Prepended without parentheses so a selection carrying a GROUP BY still works
+            selection = selection != null
+                    ? extraSelection + " AND " + selection
+                    : extraSelection;
+            selectionArgs = appendArg(extraArg, selectionArgs);
+        }
+
+        int count = 0;
+
+        try (Cursor cursor = query(context.getContentResolver(), selection, selectionArgs,
+                offset, limit)) {
+
+            if (cursor != null && cursor.moveToFirst()) {
+
+                VideoCursorReader reader = new VideoCursorReader(cursor);
+
+                do {
+                    T item = createItem(reader);
+                    if (item != null) {
+                        out.add(item);
+                    }
+                    count++;
+                } while (cursor.moveToNext());
+            }
+        }
+
+        return count;
+    }
+
+    private Cursor query(ContentResolver resolver, String selection, String[] selectionArgs,
+                         int offset, int limit) {
+
+        if (Build.VERSION.SDK_INT >= ANDROID_R) {
+            Bundle queryArgs = new Bundle();
+            queryArgs.putString(ContentResolver.QUERY_ARG_SQL_SELECTION, selection);
+            queryArgs.putStringArray(ContentResolver.QUERY_ARG_SQL_SELECTION_ARGS, selectionArgs);
+            queryArgs.putString(ContentResolver.QUERY_ARG_SQL_SORT_ORDER, getSortOrder());
+            queryArgs.putInt(ContentResolver.QUERY_ARG_LIMIT, limit);
+            queryArgs.putInt(ContentResolver.QUERY_ARG_OFFSET, offset);
+
+            return resolver.query(Media.EXTERNAL_CONTENT_URI, VideoCursorReader.PROJECTION,
+                    queryArgs, null);
+        }
+
+        // Older MediaStore versions ignore the Bundle paging arguments
+        return resolver.query(Media.EXTERNAL_CONTENT_URI, VideoCursorReader.PROJECTION,
+                selection, selectionArgs, getSortOrder() + " LIMIT " + limit + " OFFSET " + offset);
+    }
+
+    private static String[] appendArg(String arg, String[] args) {
+        if (args == null) {
+            return new String[]{arg};
+        }
+        String[] result = new String[args.length + 1];
+        result[0] = arg;
+        System.arraycopy(args, 0, result, 1, args.length);
+        return result;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.gearvrf.videoplayer.provider.asyntask;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import org.gearvrf.videoplayer.model.Video;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+
+/**
+ * Streams the entries of a video catalog:
+ * <pre>
+ * { "videos": [ { "id": 1, "name": "...", "uri": "...", "duration": 1000, "thumbnail": "..." }, ... ] }
+ * </pre>
+ * Entries are parsed one at a time, so memory use does not depend on the
+ * size of the catalog. Thumbnails are only recorded as paths and are
+ * decoded later by the thumbnail cache. Unknown fields are skipped.
+ * Uses the Gson stream reader rather than android.util.JsonReader so it
+ * also runs in JVM unit tests.
+ */
+final class VideoCatalogReader implements Closeable {
+
+    private final JsonReader mReader;
+    private boolean mInVideos = false;
+
+    VideoCatalogReader(InputStream in) throws IOException {
+        mReader = new JsonReader(new InputStreamReader(in, "UTF-8"));
+    }
+
+    /**
+     * @return next video of the catalog or null at the end
+     */
+    Video next() throws IOException {
+        if (!mInVideos && !seekVideos()) {
+            return null;
+        }
+        if (!mReader.hasNext()) {
+            return null;
+        }
+        return readVideo();
+    }
+
+    @Override
+    public void close() throws IOException {
+        mReader.close();
+    }
+
+    private boolean seekVideos() throws IOException {
+        mReader.beginObject();
+        while (mReader.hasNext()) {
+            if ("videos".equals(mReader.nextName())) {
+                mReader.beginArray();
+                mInVideos = true;
+                return true;
+            }
+            mReader.skipValue();
+        }
+        return false;
+    }
+
+    private Video readVideo() throws IOException {
+        long id = 0;
+        String name = null;
+        String uri = null;
+        long duration = 0;
+        String thumbnail = null;
+
+        mReader.beginObject();
+        while (mReader.hasNext()) {
+            String field = mReader.nextName();
+            if (mReader.peek() == JsonToken.NULL) {
+                mReader.skipValue();
+                continue;
+            }
+            switch (field) {
+                case "id":
+                    id = mReader.nextLong();
+                    break;
+                case "name":
+                    name = mReader.nextString();
+                    break;
+                case "uri":
+                    uri = mReader.nextString();
+                    break;
+                case "duration":
+                    duration = mReader.nextLong();
+                    break;
+                case "thumbnail":
+                    thumbnail = mReader.nextString();
+                    break;
+                default:
+                    mReader.skipValue();
+            }
+        }
+        mReader.endObject();
+
+        Video video = new Video(id, name, uri, duration, false, false, false, Video.VideoType.EXTERNAL);
+        video.setThumbnailPath(thumbnail);
+        return video;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.gearvrf.videoplayer.provider.asyntask;
+
+import android.database.Cursor;
+
+import org.gearvrf.videoplayer.model.Video;
+
+import java.util.regex.Pattern;
+
+import static android.provider.MediaStore.Video.VideoColumns;
+
+/**
+ * Reads local {@link Video}s from a MediaStore cursor.
+ * Column indices are resolved once when the reader is created
+ * instead of on every row.
+ */
+final class VideoCursorReader {
+
+    static final String COLUMN_IS_360_VIDEO = "is_360_video";
+
+    static final String[] PROJECTION = new String[]{
+            VideoColumns._ID,
+            VideoColumns.BUCKET_DISPLAY_NAME,
+            VideoColumns.TITLE,
+            VideoColumns.DATA,
+            VideoColumns.DURATION,
+            VideoColumns.WIDTH,
+            VideoColumns.HEIGHT,
+            COLUMN_IS_360_VIDEO
+    };
+
+    private static final Pattern TITLE_360 = Pattern.compile("360");
+
+    private final Cursor mCursor;
+    private final int mIdIndex;
+    private final int mBucketIndex;
+    private final int mTitleIndex;
+    private final int mDataIndex;
+    private final int mDurationIndex;
+    private final int mWidthIndex;
+    private final int mHeightIndex;
+    private final int mIs360Index;
+
+    VideoCursorReader(Cursor cursor) {
+        mCursor = cursor;
+        mIdIndex = cursor.getColumnIndexOrThrow(VideoColumns._ID);
+        mBucketIndex = cursor.getColumnIndexOrThrow(VideoColumns.BUCKET_DISPLAY_NAME);
+        mTitleIndex = cursor.getColumnIndexOrThrow(VideoColumns.TITLE);
+        mDataIndex = cursor.getColumnIndexOrThrow(VideoColumns.DATA);
+        mDurationIndex = cursor.getColumnIndexOrThrow(VideoColumns.DURATION);
+        mWidthIndex = cursor.getColumnIndexOrThrow(VideoColumns.WIDTH);
+        mHeightIndex = cursor.getColumnIndexOrThrow(VideoColumns.HEIGHT);
+        mIs360Index = cursor.getColumnIndexOrThrow(COLUMN_IS_360_VIDEO);
+    }
+
+    String getBucket() {
+        return mCursor.getString(mBucketIndex);
+    }
+
+    Video getVideo() {
+        String title = mCursor.getString(mTitleIndex);
+        return new Video(
+                mCursor.getLong(mIdIndex),
+                title,
+                mCursor.getString(mDataIndex),
+                mCursor.getLong(mDurationIndex),
+                isRatio21(),
+                mCursor.getInt(mIs360Index) == 1,
+                title != null && TITLE_360.matcher(title).find(),
+                Video.VideoType.LOCAL);
+    }
+
+    private boolean isRatio21() {
+        if (mCursor.isNull(mWidthIndex) || mCursor.isNull(mHeightIndex)) {
+            return false;
+        }
+        int height = mCursor.getInt(mHeightIndex);
+        return height > 0 && mCursor.getInt(mWidthIndex) == 2 * height;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.gearvrf.videoplayer.provider.asyntask;
+
+import android.os.AsyncTask;
+import android.support.annotation.NonNull;
+
+/**
+ * Looks up the item a single video maps to with the selection
+ * of a {@link PagedAsyncTask}, delivering null if the video
+ * was deleted or no longer matches.
+ */
+public class VideoLookupAsyncTask<T> extends AsyncTask<Void, Void, T> {
+
+    private PagedAsyncTask<T> mQuery;
+    private long mVideoId;
+    private GetDataCallback<T> mGetDataCallback;
+
+    public VideoLookupAsyncTask(@NonNull PagedAsyncTask<T> query, long videoId,
+                                @NonNull GetDataCallback<T> getDataCallback) {
+        this.mQuery = query;
+        this.mVideoId = videoId;
+        this.mGetDataCallback = getDataCallback;
+    }
+
+    @Override
+    protected T doInBackground(Void... voids) {
+        return mQuery.loadById(mVideoId);
+    }
+
+    @Override
+    protected void onPostExecute(T item) {
+        mGetDataCallback.onResult(item);
+    }
+}
@@ -0,0 +1,328 @@
+/*
+ * Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.gearvrf.videoplayer.provider.thumbnail;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Handler;
+import android.os.Looper;
+import android.provider.MediaStore;
+import android.support.annotation.NonNull;
+import android.util.Log;
+import android.util.LruCache;
+import android.widget.ImageView;
+
+import org.gearvrf.videoplayer.VideoPlayerApp;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Loads video thumbnails into image views through a memory and a disk cache.
+ * <p>
+ * Thumbnails are downsampled to {@link #THUMBNAIL_WIDTH} before they are
+ * cached. The memory cache is bounded in bytes, the disk cache keeps the most
+ * recently used files within {@link #DISK_CACHE_BYTES}. Requests for the same
+ * thumbnail share one load, and binding an image view to another thumbnail
+ * cancels the load it was waiting for if no other view needs it, so a
+ * recycled view never shows a stale thumbnail.
+ * <p>
+ * All public methods must be called on the main thread.
+ */
+public final class ThumbnailCache {
+
+    private static final String TAG = ThumbnailCache.class.getSimpleName();
+    private static final int THUMBNAIL_WIDTH = 320;
+    private static final long DISK_CACHE_BYTES = 32L * 1024 * 1024;
+    private static final int LOADER_THREADS = 2;
+
+    private static ThumbnailCache sInstance;
+
+    private final Context mContext;
+    private final LruCache<String, Bitmap> mMemoryCache;
+    private final File mDiskCacheDir;
+    private final ExecutorService mExecutor = Executors.newFixedThreadPool(LOADER_THREADS);
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private final Map<ImageView, String> mBindings = new WeakHashMap<>();
+    private final Map<String, Future<?>> mPending = new HashMap<>();
+    private long mDiskCacheSize = -1;
+
+    public static synchronized ThumbnailCache getInstance() {
+        if (sInstance == null) {
+            sInstance = new ThumbnailCache(VideoPlayerApp.getInstance());
+        }
+        return sInstance;
+    }
+
+    private ThumbnailCache(Context context) {
+        mContext = context.getApplicationContext();
+        mDiskCacheDir = new File(mContext.getCacheDir(), "thumbnails");
+        int maxBytes = (int) Math.min(Runtime.getRuntime().maxMemory() / 16, Integer.MAX_VALUE);
+        mMemoryCache = new LruCache<String, Bitmap>(maxBytes) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return bitmap.getByteCount();
+            }
+        };
+    }
+
+    /**
+     * Shows the MediaStore thumbnail of a local video.
+     */
+    public void loadVideoThumbnail(@NonNull ImageView imageView, final long videoId) {
+        load(imageView, "video-" + videoId, new Source() {
+            @Override
+            public Bitmap decode() {
+                return MediaStore.Video.Thumbnails.getThumbnail(mContext.getContentResolver(),
+                        videoId, MediaStore.Video.Thumbnails.MINI_KIND, null);
+            }
+        });
+    }
+
+    /**
+     * Shows a thumbnail image from the assets, or nothing if there is no path.
+     */
+    public void loadAssetThumbnail(@NonNull ImageView imageView, final String assetPath) {
+        if (assetPath == null) {
+            cancel(imageView);
+            imageView.setImageDrawable(null);
+            return;
+        }
+        load(imageView, "asset-" + assetPath, new Source() {
+            @Override
+            public Bitmap decode() throws IOException {
+                return decodeAsset(assetPath);
+            }
+        });
+    }
+
+    /**
+     * Stops waiting for the thumbnail an image view was bound to.
+     */
+    public void cancel(@NonNull ImageView imageView) {
+        String key = mBindings.remove(imageView);
+        if (key != null && !mBindings.containsValue(key)) {
+            Future<?> future = mPending.remove(key);
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    private interface Source {
+        Bitmap decode() throws IOException;
+    }
+
+    private void load(ImageView imageView, final String key, final Source source) {
+        if (key.equals(mBindings.get(imageView))) {
+            return;
+        }
+        cancel(imageView);
+
+        Bitmap bitmap = mMemoryCache.get(key);
+        if (bitmap != null) {
+            imageView.setImageBitmap(bitmap);
+            return;
+        }
+
+        imageView.setImageDrawable(null);
+        mBindings.put(imageView, key);
+        if (!mPending.containsKey(key)) {
+            mPending.put(key, mExecutor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    Bitmap loaded = null;
+                    try {
+                        loaded = loadInBackground(key, source);
+                    } catch (RuntimeException e) {
+                        Log.e(TAG, "Could not load thumbnail " + key, e);
+                    }
+                    // always deliver, even nothing, so the key stops being pending
+                    final Bitmap bitmap = loaded;
+                    mMainHandler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            deliver(key, bitmap);
+                        }
+                    });
+                }
+            }));
+        }
+    }
+
+    private void deliver(String key, Bitmap bitmap) {
+        mPending.remove(key);
+        if (bitmap != null) {
+            mMemoryCache.put(key, bitmap);
+        }
+        Iterator<Map.Entry<ImageView, String>> it = mBindings.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<ImageView, String> binding = it.next();
+            if (key.equals(binding.getValue())) {
+                if (bitmap != null) {
+                    binding.getKey().setImageBitmap(bitmap);
+                }
+                it.remove();
+            }
+        }
+    }
+
+    private Bitmap loadInBackground(String key, Source source) {
+        File file = new File(mDiskCacheDir, sha1(key) + ".jpg");
+        if (file.exists()) {
+            Bitmap bitmap = BitmapFactory.decodeFile(file.getPath());
+            if (bitmap != null) {
+                file.setLastModified(System.currentTimeMillis());
+                return bitmap;
+            }
+        }
+
+        Bitmap bitmap;
+        try {
+            bitmap = source.decode();
+        } catch (IOException e) {
+            Log.e(TAG, "Could not load thumbnail " + key, e);
+            return null;
+        }
+        if (bitmap == null) {
+            return null;
+        }
+        if (bitmap.getWidth() > THUMBNAIL_WIDTH) {
+            int height = Math.max(1, bitmap.getHeight() * THUMBNAIL_WIDTH / bitmap.getWidth());
+            Bitmap scaled = Bitmap.createScaledBitmap(bitmap, THUMBNAIL_WIDTH, height, true);
+            if (scaled != bitmap) {
+                bitmap.recycle();
+                bitmap = scaled;
+            }
+        }
+        writeToDisk(file, bitmap);
+        return bitmap;
+    }
+
+    private static String sha1(String key) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] hash = digest.digest(key.getBytes(Charset.forName("UTF-8")));
+        StringBuilder name = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            name.append(Character.forDigit((b >> 4) & 0xf, 16));
+            name.append(Character.forDigit(b & 0xf, 16));
+        }
+        return name.toString();
+    }
+
+    private Bitmap decodeAsset(String assetPath) throws IOException {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        InputStream is = mContext.getAssets().open(assetPath);
+        try {
+            BitmapFactory.decodeStream(is, null, options);
+        } finally {
+            is.close();
+        }
+
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = 1;
+        while (options.outWidth / (options.inSampleSize * 2) >= THUMBNAIL_WIDTH) {
+            options.inSampleSize *= 2;
+        }
+        is = mContext.getAssets().open(assetPath);
+        try {
+            return BitmapFactory.decodeStream(is, null, options);
+        } finally {
+            is.close();
+        }
+    }
+
+    private synchronized void writeToDisk(File file, Bitmap bitmap) {
+        if (!mDiskCacheDir.exists() && !mDiskCacheDir.mkdirs()) {
+            return;
+        }
+        if (mDiskCacheSize < 0) {
+            mDiskCacheSize = 0;
+            for (File f : listDiskCache()) {
+                mDiskCacheSize += f.length();
+            }
+        }
+
+        OutputStream os = null;
+        try {
+            os = new FileOutputStream(file);
+            bitmap.compress(Bitmap.CompressFormat.JPEG, 85, os);
+        } catch (IOException e) {
+            Log.e(TAG, "Could not write thumbnail " + file, e);
+            return;
+        } finally {
+            if (os != null) {
+                try {
+                    os.close();
+                } catch (IOException e) {
+                    Log.e(TAG, "Could not close thumbnail " + file, e);
+                }
+            }
+        }
+        mDiskCacheSize += file.length();
+
+        if (mDiskCacheSize > DISK_CACHE_BYTES) {
+            List<File> files = listDiskCache();
+            Collections.sort(files, new Comparator<File>() {
+                @Override
+                public int compare(File a, File b) {
+                    return Long.compare(a.lastModified(), b.lastModified());
+                }
+            });
+            for (File f : files) {
+                if (mDiskCacheSize <= DISK_CACHE_BYTES) {
+                    break;
+                }
+                long length = f.length();
+                if (f.delete()) {
+                    mDiskCacheSize -= length;
+                }
+            }
+        }
+    }
+
+    private List<File> listDiskCache() {
+        File[] files = mDiskCacheDir.listFiles();
+        return files != null ? new ArrayList<>(Arrays.asList(files)) : new ArrayList<File>();
+    }
+}
@@ -22,15 +22,47 @@ import java.util.concurrent.TimeUnit;
 
 public final class TimeUtils {
 
+    /**
+     * Size of a buffer large enough for {@link #formatDurationFull(long, char[])}.
+     */
+    public static final int MAX_DURATION_FULL_CHARS = 24;
+
     private TimeUtils() {
     }
 
     public static String formatDurationFull(long durationInMillis) {
-        return String.format(Locale.getDefault(),
-                "%01d:%02d:%02d",
-                TimeUnit.MILLISECONDS.toHours(durationInMillis),
-                TimeUnit.MILLISECONDS.toMinutes(durationInMillis) % TimeUnit.HOURS.toMinutes(1),
-                TimeUnit.MILLISECONDS.toSeconds(durationInMillis) % TimeUnit.MINUTES.toSeconds(1));
+        char[] chars = new char[MAX_DURATION_FULL_CHARS];
+        return new String(chars, 0, formatDurationFull(durationInMillis, chars));
+    }
+
+    /**
+     * Formats a duration as H:MM:SS into a caller owned buffer, without allocating.
+     *
+     * @param durationInMillis duration, negative values are shown as zero
+     * @param out              buffer of at least {@link #MAX_DURATION_FULL_CHARS} chars
+     * @return number of chars written
+     */
+    public static int formatDurationFull(long durationInMillis, char[] out) {
+        long totalSeconds = Math.max(0, durationInMillis) / 1000;
+        long hours = totalSeconds / 3600;
+        int minutes = (int) (totalSeconds / 60 % 60);
+        int seconds = (int) (totalSeconds % 60);
+
+        int length = 0;
+        long divisor = 1;
+        while (divisor * 10 <= hours) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            out[length++] = (char) ('0' + hours / divisor % 10);
+        }
+        out[length++] = ':';
+        out[length++] = (char) ('0' + minutes / 10);
+        out[length++] = (char) ('0' + minutes % 10);
+        out[length++] = ':';
+        out[length++] = (char) ('0' + seconds / 10);
+        out[length++] = (char) ('0' + seconds % 10);
+        return length;
     }
 
     public static String formatDuration(long durationInMillis) {
@@ -0,0 +1,147 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.videoplayer.component.video.player;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class EwmaBandwidthEstimatorTest {
+
+    private static final long DEFAULT_ESTIMATE = 1000000;
+
+    /**
+     * Clock which only moves when told to.
+     */
+    static class FakeClock implements EwmaBandwidthEstimator.Clock {
+        long now = 1000;
+
+        @Override
+        public long elapsedRealtime() {
+            return now;
+        }
+    }
+
+    private final FakeClock mClock = new FakeClock();
+    private final EwmaBandwidthEstimator mEstimator =
+            new EwmaBandwidthEstimator(2, 5, DEFAULT_ESTIMATE, mClock);
+
+    @Test
+    public void defaultUntilEnoughData() {
+        assertEquals(DEFAULT_ESTIMATE, mEstimator.getBitrateEstimate());
+        transfer(100 * 1024, 200);
+        assertEquals(DEFAULT_ESTIMATE, mEstimator.getBitrateEstimate());
+        transfer(100 * 1024, 400);
+        assertTrue(mEstimator.getBitrateEstimate() != DEFAULT_ESTIMATE);
+    }
+
+    @Test
+    public void steadyThroughput() {
+        for (int i = 0; i < 10; i++) {
+            transfer(1000000, 1000);
+        }
+        assertEquals(8000000, mEstimator.getBitrateEstimate(), 1);
+    }
+
+    @Test
+    public void convergesAfterThroughputDrops() {
+        for (int i = 0; i < 20; i++) {
+            transfer(1000000, 1000);
+        }
+        long previous = mEstimator.getBitrateEstimate();
+        for (int i = 0; i < 40; i++) {
+            transfer(250000, 1000);
+            long estimate = mEstimator.getBitrateEstimate();
+            assertTrue("estimate must fall towards the new throughput", estimate < previous);
+            previous = estimate;
+        }
+        assertEquals(2000000, previous, 2000000 * 0.01);
+    }
+
+    @Test
+    public void shortBurstDoesNotReachBurstRate() {
+        for (int i = 0; i < 20; i++) {
+            transfer(250000, 1000);
+        }
+        transfer(2500000, 1000);
+        long estimate = mEstimator.getBitrateEstimate();
+        assertTrue(estimate > 2000000);
+        assertTrue("slow average must hold the estimate back", estimate < 20000000 / 3);
+    }
+
+    @Test
+    public void subThresholdSamplesAreIgnored() {
+        for (int i = 0; i < 100; i++) {
+            transfer(1024, 100);
+        }
+        assertEquals(DEFAULT_ESTIMATE, mEstimator.getBitrateEstimate());
+
+        // idle time between small transfers must not count towards the next sample
+        for (int i = 0; i < 10; i++) {
+            transfer(1024, 10);
+            mClock.now += 5000;
+            transfer(1000000, 1000);
+        }
+        assertEquals(8000000, mEstimator.getBitrateEstimate(), 1);
+    }
+
+    @Test
+    public void concurrentTransfersShareOneSample() {
+        for (int i = 0; i < 10; i++) {
+            mEstimator.onTransferStart("a", null);
+            mEstimator.onTransferStart("b", null);
+            mEstimator.onBytesTransferred("a", 500000);
+            mEstimator.onBytesTransferred("b", 500000);
+            mClock.now += 1000;
+            mEstimator.onTransferEnd("a");
+            mEstimator.onTransferEnd("b");
+        }
+        assertEquals(8000000, mEstimator.getBitrateEstimate(), 1);
+    }
+
+    @Test
+    public void reset() {
+        for (int i = 0; i < 10; i++) {
+            transfer(1000000, 1000);
+        }
+        mEstimator.reset();
+        assertEquals(DEFAULT_ESTIMATE, mEstimator.getBitrateEstimate());
+        for (int i = 0; i < 10; i++) {
+            transfer(250000, 1000);
+        }
+        assertEquals(2000000, mEstimator.getBitrateEstimate(), 1);
+    }
+
+    @Test
+    public void resetDuringTransfer() {
+        mEstimator.onTransferStart(this, null);
+        mEstimator.onBytesTransferred(this, 5000000);
+        mClock.now += 1000;
+        mEstimator.reset();
+        mEstimator.onBytesTransferred(this, 1000000);
+        mClock.now += 1000;
+        mEstimator.onTransferEnd(this);
+        assertEquals(8000000, mEstimator.getBitrateEstimate(), 1);
+    }
+
+    private void transfer(int bytes, long ms) {
+        mEstimator.onTransferStart(this, null);
+        mEstimator.onBytesTransferred(this, bytes);
+        mClock.now += ms;
+        mEstimator.onTransferEnd(this);
+    }
+}
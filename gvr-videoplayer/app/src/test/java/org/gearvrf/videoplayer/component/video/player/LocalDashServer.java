@@ -0,0 +1,149 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.videoplayer.component.video.player;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.Charset;
+
+/**
+ * In-process HTTP server standing in for a DASH origin.
+ * <p>
+ * Serves {@code /manifest.mpd}, a static MPD with one video representation
+ * listing its segments, and the segments {@code /seg-<n>.m4s} as filler
+ * bytes. Segment bodies are sent at no more than the configured rate so the
+ * bandwidth estimators can be checked against a known throughput.
+ */
+final class LocalDashServer implements Closeable {
+
+    static final String MANIFEST = "/manifest.mpd";
+
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    private final HttpServer mServer;
+    private final int mSegmentCount;
+    private final int mSegmentSize;
+    private volatile long mBytesPerSecond;
+
+    /**
+     * @param segmentCount   number of segments in the manifest
+     * @param segmentSize    bytes per segment
+     * @param bytesPerSecond throughput limit of each segment response
+     */
+    LocalDashServer(int segmentCount, int segmentSize, long bytesPerSecond) throws IOException {
+        mSegmentCount = segmentCount;
+        mSegmentSize = segmentSize;
+        mBytesPerSecond = bytesPerSecond;
+        mServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        mServer.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                try {
+                    serve(exchange);
+                } finally {
+                    exchange.close();
+                }
+            }
+        });
+        mServer.start();
+    }
+
+    String getUrl(String path) {
+        return "http://" + mServer.getAddress().getHostString() + ":" + mServer.getAddress().getPort() + path;
+    }
+
+    void setBytesPerSecond(long bytesPerSecond) {
+        mBytesPerSecond = bytesPerSecond;
+    }
+
+    @Override
+    public void close() {
+        mServer.stop(0);
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (MANIFEST.equals(path)) {
+            byte[] body = manifest().getBytes(Charset.forName("UTF-8"));
+            exchange.getResponseHeaders().set("Content-Type", "application/dash+xml");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            return;
+        }
+        if (path.startsWith("/seg-") && path.endsWith(".m4s")) {
+            int segment = Integer.parseInt(path.substring(5, path.length() - 4));
+            if (segment >= 0 && segment < mSegmentCount) {
+                exchange.getResponseHeaders().set("Content-Type", "video/mp4");
+                exchange.sendResponseHeaders(200, mSegmentSize);
+                sendThrottled(exchange.getResponseBody(), mSegmentSize);
+                return;
+            }
+        }
+        exchange.sendResponseHeaders(404, -1);
+    }
+
+    private void sendThrottled(OutputStream out, int size) throws IOException {
+        byte[] chunk = new byte[CHUNK_SIZE];
+        long start = System.nanoTime();
+        int sent = 0;
+
+        while (sent < size) {
+            int n = Math.min(chunk.length, size - sent);
+            out.write(chunk, 0, n);
+            out.flush();
+            sent += n;
+            long dueNanos = sent * 1000000000L / mBytesPerSecond;
+            long aheadMs = (dueNanos - (System.nanoTime() - start)) / 1000000;
+            if (aheadMs > 0) {
+                try {
+                    Thread.sleep(aheadMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private String manifest() {
+        StringBuilder mpd = new StringBuilder()
+                .append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<MPD xmlns=\"urn:mpeg:dash:schema:mpd:2011\" type=\"static\"")
+                .append(" mediaPresentationDuration=\"PT").append(mSegmentCount * 2).append("S\"")
+                .append(" minBufferTime=\"PT2S\" profiles=\"urn:mpeg:dash:profile:isoff-on-demand:2011\">\n")
+                .append("  <Period>\n")
+                .append("    <AdaptationSet mimeType=\"video/mp4\">\n")
+                .append("      <Representation id=\"video\" bandwidth=\"")
+                .append(mBytesPerSecond * 8).append("\">\n")
+                .append("        <SegmentList duration=\"2\" timescale=\"1\">\n");
+        for (int i = 0; i < mSegmentCount; i++) {
+            mpd.append("          <SegmentURL media=\"seg-").append(i).append(".m4s\"/>\n");
+        }
+        return mpd.append("        </SegmentList>\n")
+                .append("      </Representation>\n")
+                .append("    </AdaptationSet>\n")
+                .append("  </Period>\n")
+                .append("</MPD>\n")
+                .toString();
+    }
+}
@@ -0,0 +1,161 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.videoplayer.component.video.player;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Drives the bandwidth estimators with real HTTP downloads from a
+ * {@link LocalDashServer}, reporting transfers the way ExoPlayer's
+ * HTTP data source does: start, one callback per read, end.
+ */
+public class LocalDashServerTest {
+
+    private static final int SEGMENTS = 8;
+    private static final int SEGMENT_SIZE = 96 * 1024;
+    private static final long BYTES_PER_SECOND = 384 * 1024;
+    private static final Pattern SEGMENT_URL = Pattern.compile("media=\"([^\"]+)\"");
+
+    private static final EwmaBandwidthEstimator.Clock NANO_CLOCK = new EwmaBandwidthEstimator.Clock() {
+        @Override
+        public long elapsedRealtime() {
+            return System.nanoTime() / 1000000;
+        }
+    };
+
+    private LocalDashServer mServer;
+
+    @Before
+    public void startServer() throws IOException {
+        mServer = new LocalDashServer(SEGMENTS, SEGMENT_SIZE, BYTES_PER_SECOND);
+    }
+
+    @After
+    public void stopServer() {
+        mServer.close();
+    }
+
+    @Test
+    public void manifestListsSegments() throws IOException {
+        List<String> segments = segments();
+
+        assertEquals(SEGMENTS, segments.size());
+        assertEquals(SEGMENT_SIZE, fetch(mServer.getUrl("/" + segments.get(0)), null));
+    }
+
+    @Test
+    public void ewmaEstimateMatchesThrottledThroughput() throws IOException {
+        EwmaBandwidthEstimator estimator = new EwmaBandwidthEstimator(2, 5, 1, NANO_CLOCK);
+        long bitsPerSecond = BYTES_PER_SECOND * 8;
+
+        for (String segment : segments()) {
+            fetch(mServer.getUrl("/" + segment), estimator);
+        }
+        long estimate = estimator.getBitrateEstimate();
+        // the server never sends faster than the limit, loopback may add some latency
+        assertTrue("estimate " + estimate + " above " + bitsPerSecond, estimate <= bitsPerSecond * 1.1);
+        assertTrue("estimate " + estimate + " far below " + bitsPerSecond, estimate >= bitsPerSecond * 0.6);
+    }
+
+    @Test
+    public void ewmaEstimateFollowsThroughputDrop() throws IOException {
+        EwmaBandwidthEstimator estimator = new EwmaBandwidthEstimator(2, 5, 1, NANO_CLOCK);
+        List<String> segments = segments();
+
+        for (String segment : segments) {
+            fetch(mServer.getUrl("/" + segment), estimator);
+        }
+        long before = estimator.getBitrateEstimate();
+        mServer.setBytesPerSecond(BYTES_PER_SECOND / 4);
+        for (int i = 0; i < 2; i++) {
+            fetch(mServer.getUrl("/" + segments.get(i)), estimator);
+        }
+        long after = estimator.getBitrateEstimate();
+        assertTrue("estimate " + after + " did not drop from " + before, after < before * 0.75);
+    }
+
+    private List<String> segments() throws IOException {
+        ByteArrayOutputStream manifest = new ByteArrayOutputStream();
+        HttpURLConnection connection = open(mServer.getUrl(LocalDashServer.MANIFEST));
+        try (InputStream in = connection.getInputStream()) {
+            copy(in, manifest, null, null);
+        } finally {
+            connection.disconnect();
+        }
+
+        List<String> segments = new ArrayList<>();
+        Matcher matcher = SEGMENT_URL.matcher(new String(manifest.toByteArray(), Charset.forName("UTF-8")));
+        while (matcher.find()) {
+            segments.add(matcher.group(1));
+        }
+        return segments;
+    }
+
+    private static int fetch(String url, BandwidthEstimator estimator) throws IOException {
+        HttpURLConnection connection = open(url);
+        if (estimator != null) {
+            estimator.onTransferStart(connection, null);
+        }
+        try (InputStream in = connection.getInputStream()) {
+            return copy(in, null, estimator, connection);
+        } finally {
+            if (estimator != null) {
+                estimator.onTransferEnd(connection);
+            }
+            connection.disconnect();
+        }
+    }
+
+    private static HttpURLConnection open(String url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setUseCaches(false);
+        assertEquals(200, connection.getResponseCode());
+        return connection;
+    }
+
+    private static int copy(InputStream in, ByteArrayOutputStream out,
+                            BandwidthEstimator estimator, Object source) throws IOException {
+        byte[] buffer = new byte[16 * 1024];
+        int total = 0;
+        int n;
+        while ((n = in.read(buffer)) > 0) {
+            if (out != null) {
+                out.write(buffer, 0, n);
+            }
+            if (estimator != null) {
+                estimator.onBytesTransferred(source, n);
+            }
+            total += n;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,95 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.videoplayer.component.video.player;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class PlaybackStatsTest {
+
+    @Test
+    public void unknownUntilReported() {
+        PlaybackStats stats = new PlaybackStats("video", 1000);
+
+        assertEquals("video", stats.getTitle());
+        assertEquals(-1, stats.getStartupLatencyMs());
+        assertEquals(-1, stats.getVideoBitrate());
+        assertEquals(-1, stats.getBandwidthEstimate());
+        assertEquals(0, stats.getRebufferCount());
+        assertEquals(0, stats.getRebufferTimeMs());
+        assertEquals(0, stats.getBitrateSwitches());
+        assertEquals(0, stats.getDroppedFrames());
+    }
+
+    @Test
+    public void startupLatency() {
+        PlaybackStats stats = new PlaybackStats("video", 1000);
+
+        // buffering before the first ready state is startup, not a rebuffer
+        stats.onBuffering(1100);
+        stats.onReady(1750);
+        assertEquals(750, stats.getStartupLatencyMs());
+        assertEquals(0, stats.getRebufferCount());
+        stats.onReady(1800);
+        assertEquals(750, stats.getStartupLatencyMs());
+    }
+
+    @Test
+    public void rebuffers() {
+        PlaybackStats stats = new PlaybackStats("video", 0);
+
+        stats.onReady(100);
+        stats.onBuffering(1000);
+        stats.onBuffering(1200);
+        stats.onReady(1500);
+        stats.onBuffering(3000);
+        stats.onReady(3250);
+        assertEquals(2, stats.getRebufferCount());
+        assertEquals(750, stats.getRebufferTimeMs());
+
+        // a stall still running when the video ends counts until the end
+        stats.onBuffering(4000);
+        stats.onEnd(4100);
+        stats.onEnd(9999);
+        assertEquals(3, stats.getRebufferCount());
+        assertEquals(850, stats.getRebufferTimeMs());
+    }
+
+    @Test
+    public void bitrateSwitches() {
+        PlaybackStats stats = new PlaybackStats("video", 0);
+
+        stats.onVideoBitrate(1000000);
+        stats.onVideoBitrate(1000000);
+        assertEquals(0, stats.getBitrateSwitches());
+        stats.onVideoBitrate(2500000);
+        stats.onVideoBitrate(1000000);
+        assertEquals(2, stats.getBitrateSwitches());
+        assertEquals(1000000, stats.getVideoBitrate());
+    }
+
+    @Test
+    public void droppedFramesAndBandwidth() {
+        PlaybackStats stats = new PlaybackStats("video", 0);
+
+        stats.onDroppedFrames(3);
+        stats.onDroppedFrames(4);
+        stats.onBandwidthEstimate(4000000);
+        assertEquals(7, stats.getDroppedFrames());
+        assertEquals(4000000, stats.getBandwidthEstimate());
+    }
+}
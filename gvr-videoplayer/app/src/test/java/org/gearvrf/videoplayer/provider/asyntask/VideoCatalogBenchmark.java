@@ -0,0 +1,114 @@
+/*
+ * Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.gearvrf.videoplayer.provider.asyntask;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.gearvrf.videoplayer.model.Video;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares streaming the catalog through {@link VideoCatalogReader} with
+ * parsing it into a JSON tree first, as the task used to, at 100, 10k and
+ * 100k entries. Time to the first page and to the whole catalog are
+ * logged, the test only checks both agree. Only runs with
+ * -Dbenchmark=true so the unit tests stay fast.
+ */
+public class VideoCatalogBenchmark {
+
+    private static final int NUM_ROUNDS = 5;
+    private static final Logger LOG = Logger.getLogger(VideoCatalogBenchmark.class.getName());
+
+    @Before
+    public void onlyWhenAsked() {
+        Assume.assumeTrue(Boolean.getBoolean("benchmark"));
+    }
+
+    @Test
+    public void streamAgainstTree() throws IOException {
+        LOG.info("videos   tree first page ms   stream first page ms   tree total ms   stream total ms");
+        for (int n : new int[]{100, 10000, 100000}) {
+            byte[] json = VideoCatalogReaderTest.catalog(n).getBytes(VideoCatalogReaderTest.UTF_8);
+            long treeFirst = Long.MAX_VALUE;
+            long treeTotal = Long.MAX_VALUE;
+            long streamFirst = Long.MAX_VALUE;
+            long streamTotal = Long.MAX_VALUE;
+            List<Video> tree = null;
+            List<Video> stream = null;
+
+            for (int round = 0; round < NUM_ROUNDS; round++) {
+                long start = System.nanoTime();
+                tree = new ArrayList<>(n);
+                JsonArray array = new JsonParser()
+                        .parse(new InputStreamReader(new ByteArrayInputStream(json), VideoCatalogReaderTest.UTF_8))
+                        .getAsJsonObject().getAsJsonArray("videos");
+                for (JsonElement element : array) {
+                    tree.add(fromTree(element.getAsJsonObject()));
+                    if (tree.size() == PagedAsyncTask.FIRST_PAGE_SIZE) {
+                        treeFirst = Math.min(treeFirst, System.nanoTime() - start);
+                    }
+                }
+                treeTotal = Math.min(treeTotal, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                stream = new ArrayList<>(n);
+                try (VideoCatalogReader reader = new VideoCatalogReader(new ByteArrayInputStream(json))) {
+                    Video video;
+                    while ((video = reader.next()) != null) {
+                        stream.add(video);
+                        if (stream.size() == PagedAsyncTask.FIRST_PAGE_SIZE) {
+                            streamFirst = Math.min(streamFirst, System.nanoTime() - start);
+                        }
+                    }
+                }
+                streamTotal = Math.min(streamTotal, System.nanoTime() - start);
+            }
+            assertEquals(n, tree.size());
+            assertEquals(n, stream.size());
+            for (int i = 0; i < n; i++) {
+                assertEquals(tree.get(i).getId(), stream.get(i).getId());
+                assertEquals(tree.get(i).getPath(), stream.get(i).getPath());
+                assertEquals(tree.get(i).getThumbnailPath(), stream.get(i).getThumbnailPath());
+            }
+            LOG.info(String.format("%6d   %18.2f   %20.2f   %13.2f   %15.2f",
+                    n, treeFirst / 1e6, streamFirst / 1e6, treeTotal / 1e6, streamTotal / 1e6));
+        }
+    }
+
+    private static Video fromTree(JsonObject object) {
+        Video video = new Video(object.get("id").getAsLong(), object.get("name").getAsString(),
+                object.get("uri").getAsString(), object.get("duration").getAsLong(),
+                false, false, false, Video.VideoType.EXTERNAL);
+        video.setThumbnailPath(object.get("thumbnail").getAsString());
+        return video;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.gearvrf.videoplayer.provider.asyntask;
+
+import org.gearvrf.videoplayer.model.Video;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class VideoCatalogReaderTest {
+
+    static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    @Test
+    public void readsEveryEntry() throws IOException {
+        List<Video> videos = readAll(catalog(3));
+
+        assertEquals(3, videos.size());
+        for (int i = 0; i < 3; i++) {
+            Video video = videos.get(i);
+            assertEquals(i + 1, video.getId());
+            assertEquals("Video " + (i + 1), video.getTitle());
+            assertEquals("http://example.com/" + (i + 1) + ".mp4", video.getPath());
+            assertEquals(1000L * (i + 1), video.getDuration());
+            assertEquals("external-thumbnails/" + (i + 1) + ".jpg", video.getThumbnailPath());
+            assertEquals(Video.VideoType.EXTERNAL, video.getVideoType());
+        }
+    }
+
+    @Test
+    public void skipsUnknownFieldsAndNulls() throws IOException {
+        String json = "{ \"version\": { \"major\": 1 }, \"videos\": [ "
+                + "{ \"id\": 7, \"extension\": \"mpd\", \"tags\": [1, 2], \"name\": null, "
+                + "\"uri\": \"u\", \"duration\": 5, \"thumbnail\": null } ], \"next\": null }";
+        List<Video> videos = readAll(json);
+
+        assertEquals(1, videos.size());
+        assertEquals(7, videos.get(0).getId());
+        assertNull(videos.get(0).getTitle());
+        assertEquals("u", videos.get(0).getPath());
+        assertNull(videos.get(0).getThumbnailPath());
+    }
+
+    @Test
+    public void catalogWithoutVideos() throws IOException {
+        assertEquals(0, readAll("{ \"other\": [] }").size());
+        assertEquals(0, readAll("{ \"videos\": [] }").size());
+    }
+
+    @Test(expected = IOException.class)
+    public void malformedCatalog() throws IOException {
+        readAll("{ \"videos\": [ { \"id\": 1, ");
+    }
+
+    /**
+     * Builds a catalog of {@code count} entries in the layout of
+     * external_videos.json.
+     */
+    static String catalog(int count) {
+        StringBuilder json = new StringBuilder("{\n  \"videos\": [\n");
+        for (int i = 1; i <= count; i++) {
+            json.append("    {\n")
+                    .append("      \"id\": ").append(i).append(",\n")
+                    .append("      \"name\": \"Video ").append(i).append("\",\n")
+                    .append("      \"uri\": \"http://example.com/").append(i).append(".mp4\",\n")
+                    .append("      \"extension\": \"mp4\",\n")
+                    .append("      \"duration\": ").append(1000L * i).append(",\n")
+                    .append("      \"thumbnail\": \"external-thumbnails/").append(i).append(".jpg\"\n")
+                    .append(i < count ? "    },\n" : "    }\n");
+        }
+        return json.append("  ]\n}\n").toString();
+    }
+
+    static List<Video> readAll(String json) throws IOException {
+        List<Video> videos = new ArrayList<>();
+        try (VideoCatalogReader reader = new VideoCatalogReader(
+                new ByteArrayInputStream(json.getBytes(UTF_8)))) {
+            Video video;
+            while ((video = reader.next()) != null) {
+                videos.add(video);
+            }
+        }
+        return videos;
+    }
+}
@@ -25,6 +25,8 @@ import org.gearvrf.widgetlib.main.MainScene;
 import org.gearvrf.widgetlib.main.WidgetLib;
 import org.gearvrf.widgetlib.widget.Widget;
 import org.gearvrf.widgetlib.widget.properties.JSONHelpers;
+import org.gearvrf.framemetrics.FrameMetrics;
+import org.gearvrf.framemetrics.FrameMetricsSnapshot;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
@@ -96,6 +98,12 @@ public class ViewerMain extends GVRMain {
     // WidgetLib members
     @Override
     public void onInit(final GVRContext gvrContext) {
+        FrameMetrics.getDefault().setReporter(new FrameMetrics.Reporter() {
+            public void onReport(FrameMetricsSnapshot snapshot) {
+                Log.d("FrameMetrics", "%s", snapshot.toJson());
+            }
+        }, FrameMetrics.DEFAULT_REPORT_INTERVAL);
+
         mGVRContext = gvrContext;
         try {
             mWidgetLib = WidgetLib.init(gvrContext, "app_metadata.json");
@@ -168,7 +176,7 @@ public class ViewerMain extends GVRMain {
 
     @Override
     public void onStep() {
-        FPSCounter.tick();
+        FrameMetrics.getDefault().tick();
     }
 
 
@@ -29,6 +29,8 @@ import org.gearvrf.GVRScreenshotCallback;
 import org.gearvrf.GVRShader;
 import org.gearvrf.SystemPropertyUtil;
 import org.gearvrf.utility.Threads;
+import org.gearvrf.framemetrics.FrameMetrics;
+import org.gearvrf.framemetrics.FrameMetricsSnapshot;
 
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -61,6 +63,14 @@ public class X3DparserScript extends GVRMain
 
   public void onInit(GVRContext gvrContext)
   {
+    FrameMetrics.getDefault().setReporter(new FrameMetrics.Reporter()
+    {
+      public void onReport(FrameMetricsSnapshot snapshot)
+      {
+        Log.v("FrameMetrics", snapshot.toJson());
+      }
+    }, FrameMetrics.DEFAULT_REPORT_INTERVAL);
+
     mGVRContext = gvrContext;
 
     scene = gvrContext.getMainScene();
@@ -111,7 +121,7 @@ public class X3DparserScript extends GVRMain
   // @Override
   public void onStep()
   {
-    FPSCounter.tick();
+    FrameMetrics.getDefault().tick();
   }
 
   private boolean lastScreenshotLeftFinished = true;